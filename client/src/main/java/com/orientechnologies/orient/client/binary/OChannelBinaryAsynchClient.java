@@ -44,6 +44,11 @@ import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class OChannelBinaryAsynchClient extends OChannelBinary {
   private         int    socketTimeout;                                               // IN MS
@@ -53,6 +58,18 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
   private         int    currentSessionId;
   private         byte   currentMessage;
 
+  /**
+   * State of pipelined channel. Requests of several threads are written one after another, server sends responses in the same
+   * order, so every thread reads its response when all responses of previously written requests are read.
+   */
+  private final    Lock          pipelineLock    = new ReentrantLock();
+  private final    Condition     responseTurn    = pipelineLock.newCondition();
+  private final    AtomicInteger pipelineUsers   = new AtomicInteger();
+  private final    AtomicLong    roundTripsSaved = new AtomicLong();
+  private volatile boolean       pipelined;
+  private volatile long          requestsSent;
+  private volatile long          responsesReceived;
+
   public OChannelBinaryAsynchClient(final String remoteHost, final int remotePort, final String iDatabaseName,
       final OContextConfiguration iConfig, final int iProtocolVersion) throws IOException {
     super(OSocketFactory.instance(iConfig).createSocket(), iConfig);
@@ -177,6 +194,10 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
         setReadResponseTimeout();
       }
 
+      // CHECKED BEFORE THE ASSERT, SO THE PIPELINED CALLER RELEASES THE LOCK AND THE TURN ON A WRONG SESSION
+      if (pipelined && currentSessionId != iRequesterId)
+        throw new ONetworkProtocolException(
+            "Response of session " + currentSessionId + " was received instead of response of session " + iRequesterId);
       assert (currentSessionId == iRequesterId);
 
       if (debug)
@@ -214,6 +235,118 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
     releaseWriteLock();
   }
 
+  /**
+   * Ends the request written to the pipelined channel and releases the write lock, so other threads may write their requests while
+   * this thread waits for the response.
+   *
+   * @return position of the response of the request in the stream of responses, it has to be passed to
+   * {@link #beginPipelinedResponse(long, int)}
+   */
+  public long endPipelinedRequest() throws IOException {
+    try {
+      flush();
+
+      final long ticket = requestsSent;
+      // REQUEST IS SENT WITHOUT WAITING FOR RESPONSES OF PREVIOUS ONES
+      if (ticket > responsesReceived)
+        roundTripsSaved.incrementAndGet();
+
+      requestsSent = ticket + 1;
+      return ticket;
+    } catch (IOException | RuntimeException e) {
+      // PARTIALLY SENT REQUEST BREAKS ALL THE FOLLOWING REQUESTS
+      close();
+      throw e;
+    } finally {
+      releaseWriteLock();
+    }
+  }
+
+  /**
+   * Waits till responses of all the requests written before the request with passed position are read and reads header of the
+   * response. If the server returned an error the turn is passed to the next response and the error is thrown.
+   *
+   * @return token of the session if any
+   */
+  public byte[] beginPipelinedResponse(final long ticket, final int iRequesterId) throws IOException {
+    pipelineLock.lock();
+    try {
+      while (responsesReceived != ticket) {
+        if (!isConnected())
+          throw new IOException("Channel is closed");
+
+        responseTurn.awaitUninterruptibly();
+      }
+    } finally {
+      pipelineLock.unlock();
+    }
+
+    try {
+      return beginResponse(iRequesterId, true);
+    } catch (IOException | ONetworkProtocolException e) {
+      // POSITION IN THE STREAM OF RESPONSES IS LOST
+      close();
+      endPipelinedResponse();
+      throw e;
+    } catch (RuntimeException e) {
+      // ERROR SENT BY THE SERVER IS READ COMPLETELY
+      endPipelinedResponse();
+      throw e;
+    }
+  }
+
+  /**
+   * Releases read lock and passes the turn to read the response to the next request.
+   */
+  public void endPipelinedResponse() throws IOException {
+    endResponse();
+
+    pipelineLock.lock();
+    try {
+      responsesReceived++;
+      responseTurn.signalAll();
+    } finally {
+      pipelineLock.unlock();
+    }
+  }
+
+  /**
+   * Marks channel as shared by several threads which pipeline their requests.
+   */
+  public void setPipelined() {
+    pipelined = true;
+  }
+
+  public boolean isPipelined() {
+    return pipelined;
+  }
+
+  public int getPipelineUsers() {
+    return pipelineUsers.get();
+  }
+
+  public int incrementPipelineUsers() {
+    return pipelineUsers.incrementAndGet();
+  }
+
+  public int decrementPipelineUsers() {
+    return pipelineUsers.decrementAndGet();
+  }
+
+  /**
+   * @return amount of pipelined requests which are sent but responses of which are not read yet
+   */
+  public long getInFlightRequests() {
+    return requestsSent - responsesReceived;
+  }
+
+  /**
+   * @return amount of pipelined requests which were sent while responses of previous requests were not read yet
+   */
+  public long getRoundTripsSaved() {
+    return roundTripsSaved.get();
+  }
+
   @Override
   public void close() {
     try {
@@ -221,6 +354,16 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
     } catch (Exception e) {
       // IGNORE IT
     }
+
+    if (pipelined) {
+      // THREADS WHICH WAIT FOR RESPONSES OF PIPELINED REQUESTS FAIL ON CLOSED CHANNEL
+      pipelineLock.lock();
+      try {
+        responseTurn.signalAll();
+      } finally {
+        pipelineLock.unlock();
+      }
+    }
   }
 
   @Override
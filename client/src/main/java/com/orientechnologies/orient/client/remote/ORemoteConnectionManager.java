@@ -57,35 +57,19 @@ public class ORemoteConnectionManager {
   }
 
   public OChannelBinaryAsynchClient acquire(String iServerURL, final OContextConfiguration clientConfiguration) {
-    if (iServerURL.startsWith(OEngineRemote.PREFIX))
-      iServerURL = iServerURL.substring(OEngineRemote.PREFIX.length());
-
-    if (iServerURL.endsWith("/"))
-      iServerURL = iServerURL.substring(0, iServerURL.length() - 1);
+    iServerURL = normalizeURL(iServerURL);
 
     long localTimeout = timeout;
 
     ORemoteConnectionPool pool = connections.get(iServerURL);
     if (pool == null) {
-      int maxPool = clientConfiguration.getValueAsInteger(OGlobalConfiguration.CLIENT_CHANNEL_MAX_POOL);
-
       if (clientConfiguration != null) {
-        final Object max = clientConfiguration.getValue(OGlobalConfiguration.CLIENT_CHANNEL_MAX_POOL);
-        if (max != null)
-          maxPool = Integer.parseInt(max.toString());
-
         final Object netLockTimeout = clientConfiguration.getValue(OGlobalConfiguration.NETWORK_LOCK_TIMEOUT);
         if (netLockTimeout != null)
           localTimeout = Integer.parseInt(netLockTimeout.toString());
       }
 
-      pool = new ORemoteConnectionPool(maxPool);
-      final ORemoteConnectionPool prev = connections.putIfAbsent(iServerURL, pool);
-      if (prev != null) {
-        // ALREADY PRESENT, DESTROY IT AND GET THE ALREADY EXISTENT OBJ
-        pool.getPool().close();
-        pool = prev;
-      }
+      pool = createPool(iServerURL, clientConfiguration);
     }
 
     try {
@@ -103,12 +87,61 @@ public class ORemoteConnectionManager {
     return null;
   }
 
+  /**
+   * Acquires network channel which is shared with other threads, requests of all the threads are pipelined over the channel. Only
+   * requests written by {@link OChannelBinaryAsynchClient#endPipelinedRequest()} and read by
+   * {@link OChannelBinaryAsynchClient#beginPipelinedResponse(long, int)} may be sent over such channel. Channel is released by the
+   * same {@link #release(OChannelBinaryAsynchClient)} and {@link #remove(OChannelBinaryAsynchClient)} methods as the channels of the
+   * pool.
+   */
+  public OChannelBinaryAsynchClient acquirePipelined(String iServerURL, final OContextConfiguration clientConfiguration) {
+    iServerURL = normalizeURL(iServerURL);
+
+    ORemoteConnectionPool pool = connections.get(iServerURL);
+    if (pool == null)
+      pool = createPool(iServerURL, clientConfiguration);
+
+    return pool.acquirePipelined(iServerURL, clientConfiguration);
+  }
+
+  private static String normalizeURL(String iServerURL) {
+    if (iServerURL.startsWith(OEngineRemote.PREFIX))
+      iServerURL = iServerURL.substring(OEngineRemote.PREFIX.length());
+
+    if (iServerURL.endsWith("/"))
+      iServerURL = iServerURL.substring(0, iServerURL.length() - 1);
+
+    return iServerURL;
+  }
+
+  private ORemoteConnectionPool createPool(final String iServerURL, final OContextConfiguration clientConfiguration) {
+    int maxPool = clientConfiguration.getValueAsInteger(OGlobalConfiguration.CLIENT_CHANNEL_MAX_POOL);
+
+    final Object max = clientConfiguration.getValue(OGlobalConfiguration.CLIENT_CHANNEL_MAX_POOL);
+    if (max != null)
+      maxPool = Integer.parseInt(max.toString());
+
+    ORemoteConnectionPool pool = new ORemoteConnectionPool(maxPool);
+    final ORemoteConnectionPool prev = connections.putIfAbsent(iServerURL, pool);
+    if (prev != null) {
+      // ALREADY PRESENT, DESTROY IT AND GET THE ALREADY EXISTENT OBJ
+      pool.getPool().close();
+      pool = prev;
+    }
+    return pool;
+  }
+
   public void release(final OChannelBinaryAsynchClient conn) {
     if (conn == null)
       return;
 
     final ORemoteConnectionPool pool = connections.get(conn.getServerURL());
-    if (pool != null) {
+    if (conn.isPipelined()) {
+      if (pool != null)
+        pool.releasePipelined(conn);
+      else
+        conn.close();
+    } else if (pool != null) {
       if (!conn.isConnected()) {
         OLogManager.instance().debug(this, "Network connection pool is receiving a closed connection to reuse: discard it");
         remove(conn);
@@ -123,6 +156,15 @@ public class ORemoteConnectionManager {
       return;
 
     final ORemoteConnectionPool pool = connections.get(conn.getServerURL());
+    if (conn.isPipelined()) {
+      // WRITE LOCK OF THE SHARED CHANNEL MAY BE HELD BY ANOTHER THREAD
+      if (pool != null)
+        pool.removePipelined(conn);
+      else
+        conn.close();
+      return;
+    }
+
     if (pool == null)
       throw new IllegalStateException("Connection cannot be released because the pool doesn't exist anymore");
 
@@ -178,6 +220,22 @@ public class ORemoteConnectionManager {
     return pool.getPool().getCreatedInstances();
   }
 
+  public long getPipelinedInFlightRequests(final String url) {
+    final ORemoteConnectionPool pool = connections.get(url);
+    if (pool == null)
+      return 0;
+
+    return pool.getPipelinedInFlightRequests();
+  }
+
+  public long getPipelinedRoundTripsSaved(final String url) {
+    final ORemoteConnectionPool pool = connections.get(url);
+    if (pool == null)
+      return 0;
+
+    return pool.getPipelinedRoundTripsSaved();
+  }
+
   public void closePool(final String url) {
     final ORemoteConnectionPool pool = connections.remove(url);
     if (pool == null)
@@ -195,6 +253,7 @@ public class ORemoteConnectionManager {
       } catch (Exception e) {
         OLogManager.instance().debug(this, "Cannot close binary channel", e);
       }
+    pool.closePipelined();
     pool.getPool().close();
   }
 
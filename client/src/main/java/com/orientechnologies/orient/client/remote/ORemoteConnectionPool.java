@@ -7,8 +7,13 @@ import com.orientechnologies.common.io.OIOException;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.orient.client.binary.OChannelBinaryAsynchClient;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Created by tglman on 01/10/15.
  */
@@ -16,6 +21,12 @@ public class ORemoteConnectionPool implements OResourcePoolListener<String, OCha
 
   private OResourcePool<String, OChannelBinaryAsynchClient> pool;
 
+  /**
+   * Channels shared by threads which pipeline their requests, they are not part of the pool of exclusive channels.
+   */
+  private final List<OChannelBinaryAsynchClient> pipelinedChannels     = new CopyOnWriteArrayList<OChannelBinaryAsynchClient>();
+  private final AtomicLong                       closedRoundTripsSaved = new AtomicLong();
+
   public ORemoteConnectionPool(int iMaxResources) {
     pool = new OResourcePool<String, OChannelBinaryAsynchClient>(iMaxResources, this);
   }
@@ -89,4 +100,71 @@ public class ORemoteConnectionPool implements OResourcePoolListener<String, OCha
       final OContextConfiguration clientConfiguration) {
     return pool.getResource(iServerURL, timeout, clientConfiguration);
   }
+
+  /**
+   * Returns the pipelined channel with the least amount of users. New channel is opened only if all the channels have at least
+   * {@link OGlobalConfiguration#CLIENT_CHANNEL_MAX_IN_FLIGHT} users and the limit of the pool is not reached.
+   */
+  public synchronized OChannelBinaryAsynchClient acquirePipelined(final String iServerURL,
+      final OContextConfiguration clientConfiguration) {
+    final int maxInFlight = clientConfiguration.getValueAsInteger(OGlobalConfiguration.CLIENT_CHANNEL_MAX_IN_FLIGHT);
+
+    OChannelBinaryAsynchClient channel = null;
+    for (OChannelBinaryAsynchClient pipelinedChannel : pipelinedChannels) {
+      if (!pipelinedChannel.isConnected())
+        removePipelined(pipelinedChannel);
+      else if (channel == null || pipelinedChannel.getPipelineUsers() < channel.getPipelineUsers())
+        channel = pipelinedChannel;
+    }
+
+    if (channel == null || (channel.getPipelineUsers() >= maxInFlight && pipelinedChannels.size() < pool.getMaxResources())) {
+      channel = createNetworkConnection(iServerURL, clientConfiguration);
+      channel.setPipelined();
+      pipelinedChannels.add(channel);
+    }
+
+    channel.incrementPipelineUsers();
+    return channel;
+  }
+
+  public void releasePipelined(final OChannelBinaryAsynchClient channel) {
+    channel.decrementPipelineUsers();
+
+    if (!channel.isConnected())
+      removePipelined(channel);
+  }
+
+  public void removePipelined(final OChannelBinaryAsynchClient channel) {
+    if (pipelinedChannels.remove(channel))
+      closedRoundTripsSaved.addAndGet(channel.getRoundTripsSaved());
+
+    channel.close();
+  }
+
+  public void closePipelined() {
+    for (OChannelBinaryAsynchClient channel : pipelinedChannels)
+      removePipelined(channel);
+  }
+
+  /**
+   * @return amount of requests sent over pipelined channels which wait for responses
+   */
+  public long getPipelinedInFlightRequests() {
+    long inFlight = 0;
+    for (OChannelBinaryAsynchClient channel : pipelinedChannels)
+      inFlight += channel.getInFlightRequests();
+
+    return inFlight;
+  }
+
+  /**
+   * @return amount of requests which were sent over pipelined channels without waiting for responses of previous requests
+   */
+  public long getPipelinedRoundTripsSaved() {
+    long roundTripsSaved = closedRoundTripsSaved.get();
+    for (OChannelBinaryAsynchClient channel : pipelinedChannels)
+      roundTripsSaved += channel.getRoundTripsSaved();
+
+    return roundTripsSaved;
+  }
 }
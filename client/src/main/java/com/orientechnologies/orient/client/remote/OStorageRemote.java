@@ -211,7 +211,10 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
 
   public <T extends OBinaryResponse> T networkOperationRetryTimeout(final OBinaryRequest<T> request, final String errorMessage,
       int retry, int timeout) {
-    return baseNetworkOperation((network, session) -> {
+    final OStorageRemoteOperation<T> operation = (network, session) -> {
+      if (network.isPipelined())
+        return pipelinedNetworkOperation(network, session, request);
+
       try {
         network.beginRequest(request.getCommand(), session);
         request.write(network, session);
@@ -232,7 +235,51 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
       }
       connectionManager.release(network);
       return response;
-    }, errorMessage, retry);
+    };
+
+    // SOCKET TIMEOUT OF A SHARED CHANNEL CANNOT BE CHANGED FOR A SINGLE REQUEST
+    if (timeout <= 0 && clientConfiguration.getValueAsBoolean(OGlobalConfiguration.CLIENT_CHANNEL_PIPELINING))
+      return baseNetworkOperation(operation, errorMessage, retry, true);
+
+    return baseNetworkOperation(operation, errorMessage, retry);
+  }
+
+  /**
+   * Sends the request over the channel shared with other threads. The request is written without waiting for responses of requests
+   * sent by other threads, response is read when responses of all the previously written requests are read.
+   */
+  private <T extends OBinaryResponse> T pipelinedNetworkOperation(final OChannelBinaryAsynchClient network,
+      final OStorageRemoteSession session, final OBinaryRequest<T> request) throws IOException {
+    final OStorageRemoteNodeSession nodeSession = session.getServerSession(network.getServerURL());
+
+    network.acquireWriteLock();
+    try {
+      network.beginRequest(request.getCommand(), nodeSession);
+      request.write(network, session);
+    } catch (IOException | RuntimeException e) {
+      // PARTIALLY WRITTEN REQUEST BREAKS ALL THE FOLLOWING REQUESTS
+      network.releaseWriteLock();
+      network.close();
+      throw e;
+    }
+    final long ticket = network.endPipelinedRequest();
+
+    final byte[] newToken = network.beginPipelinedResponse(ticket, nodeSession.getSessionId());
+    if (newToken != null && newToken.length > 0)
+      nodeSession.setSession(nodeSession.getSessionId(), newToken);
+
+    final T response = request.createResponse();
+    try {
+      response.read(network, session);
+    } catch (IOException | RuntimeException e) {
+      // RESPONSES OF THE FOLLOWING REQUESTS CANNOT BE FOUND IN THE PARTIALLY READ STREAM
+      network.close();
+      throw e;
+    } finally {
+      network.endPipelinedResponse();
+    }
+    connectionManager.release(network);
+    return response;
   }
 
   public <T extends OBinaryResponse> T networkOperationNoRetry(final OBinaryRequest<T> request, final String errorMessage) {
@@ -244,6 +291,15 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
   }
 
   public <T> T baseNetworkOperation(final OStorageRemoteOperation<T> operation, final String errorMessage, int retry) {
+    return baseNetworkOperation(operation, errorMessage, retry, false);
+  }
+
+  /**
+   * @param pipelined if <code>true</code> operation is executed over channel shared with other threads, if the session is not open
+   *                  on the server yet, the channel from the pool is used to open it
+   */
+  public <T> T baseNetworkOperation(final OStorageRemoteOperation<T> operation, final String errorMessage, int retry,
+      final boolean pipelined) {
     OStorageRemoteSession session = getCurrentSession();
     if (session.commandExecuting)
       throw new ODatabaseException(
@@ -259,7 +315,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
 
       do {
         try {
-          network = getNetwork(serverUrl);
+          network = pipelined ? getPipelinedNetwork(serverUrl, session) : getNetwork(serverUrl);
         } catch (OException e) {
           serverUrl = useNewServerURL(serverUrl);
           if (serverUrl == null)
@@ -1685,6 +1741,29 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
     return network;
   }
 
+  /**
+   * Acquires channel shared with other threads, the channel from the pool is returned if the session has to be opened on the server
+   * first.
+   */
+  private OChannelBinaryAsynchClient getPipelinedNetwork(final String iCurrentURL, final OStorageRemoteSession session) {
+    final OChannelBinaryAsynchClient network;
+    try {
+      network = connectionManager.acquirePipelined(iCurrentURL, clientConfiguration);
+    } catch (OIOException cause) {
+      throw cause;
+    } catch (Exception cause) {
+      throw OException.wrapException(new OStorageException("Cannot open a connection to remote server: " + iCurrentURL), cause);
+    }
+
+    final OStorageRemoteNodeSession nodeSession = session.getServerSession(network.getServerURL());
+    if (nodeSession == null || !nodeSession.isValid()) {
+      connectionManager.release(network);
+      return getNetwork(iCurrentURL);
+    }
+
+    return network;
+  }
+
   public void beginResponse(OChannelBinaryAsynchClient iNetwork, OStorageRemoteSession session) throws IOException {
     OStorageRemoteNodeSession nodeSession = session.getServerSession(iNetwork.getServerURL());
     byte[] newToken = iNetwork.beginResponse(nodeSession.getSessionId(), true);
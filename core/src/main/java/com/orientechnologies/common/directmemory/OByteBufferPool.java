@@ -35,12 +35,14 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.*;
 import java.util.logging.Level;
 
@@ -51,8 +53,14 @@ import java.util.logging.Level;
  * All <code>DirectByteBuffer</code> objects have the same size which is specified in objects constructor as "page size". Despite of
  * the fact that size of page is relatively small memory may be acquired from OS in relatively big chunks. It is done to optimize
  * memory usage inside of database.
+ * <p>
+ * Free buffers are cached by threads in local magazines, so buffers are acquired and released without contention. Magazine of the
+ * thread holds up to two batches of buffers, when it is empty or full the whole batch of buffers is moved from or to the shared
+ * depot by single operation. Magazines of the terminated threads are returned to the pool when new memory is going to be
+ * allocated.
  *
  * @see OGlobalConfiguration#MEMORY_CHUNK_SIZE
+ * @see OGlobalConfiguration#MEMORY_POOL_MAGAZINE_SIZE
  */
 public class OByteBufferPool implements OByteBufferPoolMXBean {
   /**
@@ -75,6 +83,11 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
 
   private static final boolean TRACK = OGlobalConfiguration.DIRECT_MEMORY_TRACK_MODE.getValueAsBoolean();
 
+  /**
+   * Minimum interval between searches of magazines of terminated threads in nanoseconds.
+   */
+  private static final long RECLAIM_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
   /**
    * Size of single byte buffer instance in bytes.
    */
@@ -105,13 +118,49 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
    */
   private final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
 
+  /**
+   * Amount of buffers which are moved at once between thread local magazines and {@link #depot}, or 0 if magazines are not used.
+   */
+  private final int magazineSize;
+
+  /**
+   * Batches of free buffers which are released by threads which magazines are full.
+   */
+  private final ConcurrentLinkedQueue<ByteBuffer[]> depot = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Thread local magazines of free buffers, <code>null</code> if magazines are not used.
+   */
+  private final ThreadLocal<Magazine> magazines;
+
+  /**
+   * All magazines which are not returned to the pool yet, is used to gather statistics and to find magazines of terminated threads.
+   */
+  private final ConcurrentLinkedQueue<Magazine> activeMagazines = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Time after which magazines of terminated threads are looked for again, search is throttled because it needs to iterate over
+   * all magazines.
+   */
+  private final AtomicLong nextReclaimTime = new AtomicLong(System.nanoTime());
+
+  /**
+   * Statistics of the magazines which are already returned to the pool and of the shared pool itself.
+   */
+  private final LongAdder retiredMagazineHits     = new LongAdder();
+  private final LongAdder retiredMagazineReleases = new LongAdder();
+  private final LongAdder depotAcquires           = new LongAdder();
+  private final LongAdder depotReleases           = new LongAdder();
+  private final LongAdder sharedPoolHits          = new LongAdder();
+
   /**
    * Tracks the number of the overflow buffer allocations.
    */
   private final AtomicLong overflowBufferCount = new AtomicLong();
 
   /**
-   * Size of page pool, we use separate counter because {@link ConcurrentLinkedQueue#size()} has linear complexity.
+   * Size of page pool including buffers in {@link #depot}, we use separate counter because {@link ConcurrentLinkedQueue#size()}
+   * has linear complexity.
    */
   private final AtomicInteger poolSize = new AtomicInteger();
 
@@ -171,6 +220,12 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
       lastPreallocatedArea = null;
     }
 
+    magazineSize = Math.max(0, OGlobalConfiguration.MEMORY_POOL_MAGAZINE_SIZE.getValueAsInteger());
+    if (magazineSize > 0)
+      magazines = ThreadLocal.withInitial(this::createMagazine);
+    else
+      magazines = null;
+
     if (TRACK) {
       trackedBuffersQueue = new ReferenceQueue<>();
       trackedReferences = new HashSet<>();
@@ -239,10 +294,11 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
   }
 
   /**
-   * @return Amount of pages which are available in pool. Pages which were allocated and now not used.
+   * @return Amount of pages which are available in pool. Pages which were allocated and now not used. Pages which are cached by
+   * other threads may be not accounted yet.
    */
   public int getSize() {
-    return pool.size();
+    return poolSize.get() + getBuffersInMagazines();
   }
 
   /**
@@ -285,20 +341,24 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
    * @return Direct memory buffer instance.
    */
   public ByteBuffer acquireDirect(boolean clear) {
-    // check the pool first.
-    final ByteBuffer buffer = pool.poll();
+    // check the magazine of current thread first.
+    if (magazines != null) {
+      final ByteBuffer buffer = acquireFromMagazine(magazines.get());
+      if (buffer != null)
+        return reuse(buffer, clear, traceEnabled ? getSize() + 1 : 0);
+    }
 
-    if (buffer != null) {
-      final long beforeSize = poolSize.getAndDecrement();
+    // then check the shared pool.
+    ByteBuffer buffer = pool.poll();
 
-      if (clear) {
-        buffer.position(0);
-        buffer.put(new byte[pageSize]);
-      }
+    if (buffer == null && magazines != null && reclaimOrphanedMagazines() > 0)
+      buffer = pool.poll();
 
-      buffer.position(0);
+    if (buffer != null) {
+      final long beforeSize = poolSize.getAndDecrement();
+      sharedPoolHits.increment();
 
-      return trace(track(buffer), TraceEvent.AcquiredFromPool, beforeSize, -1);
+      return reuse(buffer, clear, beforeSize);
     }
 
     if (maxPagesPerSingleArea > 1) {
@@ -422,6 +482,17 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
         beforeCount, +1, beforeSize, +pageSize);
   }
 
+  private ByteBuffer reuse(ByteBuffer buffer, boolean clear, long beforeSize) {
+    if (clear) {
+      buffer.position(0);
+      buffer.put(new byte[pageSize]);
+    }
+
+    buffer.position(0);
+
+    return trace(track(buffer), TraceEvent.AcquiredFromPool, beforeSize, -1);
+  }
+
   /**
    * Allocates direct byte buffer for buffer holder and notifies other threads that it can be used.
    *
@@ -444,12 +515,115 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
    * @param buffer Not used instance of buffer.
    */
   public void release(ByteBuffer buffer) {
+    if (magazines != null) {
+      releaseToMagazine(magazines.get(), untrack(buffer));
+
+      if (traceEnabled)
+        trace(buffer, TraceEvent.ReturnedToPool, getSize() - 1, +1);
+      return;
+    }
+
     pool.offer(untrack(buffer));
 
     final long beforeSize = poolSize.getAndIncrement();
     trace(buffer, TraceEvent.ReturnedToPool, beforeSize, +1);
   }
 
+  private ByteBuffer acquireFromMagazine(Magazine magazine) {
+    final ByteBuffer[] buffers = magazine.buffers;
+    int size = magazine.size;
+
+    if (size == 0) {
+      final ByteBuffer[] batch = depot.poll();
+      if (batch == null)
+        return null;
+
+      poolSize.addAndGet(-batch.length);
+      depotAcquires.increment();
+
+      System.arraycopy(batch, 0, buffers, 0, batch.length);
+      size = batch.length;
+    }
+
+    size--;
+    final ByteBuffer buffer = buffers[size];
+    buffers[size] = null;
+
+    magazine.updateSize(size);
+    magazine.hits++;
+
+    return buffer;
+  }
+
+  private void releaseToMagazine(Magazine magazine, ByteBuffer buffer) {
+    final ByteBuffer[] buffers = magazine.buffers;
+    int size = magazine.size;
+
+    if (size == buffers.length) {
+      // the oldest buffers are moved to the depot, recently released buffers are likely still in CPU cache
+      final ByteBuffer[] batch = Arrays.copyOfRange(buffers, 0, magazineSize);
+      System.arraycopy(buffers, magazineSize, buffers, 0, size - magazineSize);
+      Arrays.fill(buffers, size - magazineSize, size, null);
+      size -= magazineSize;
+
+      depot.offer(batch);
+      poolSize.addAndGet(batch.length);
+      depotReleases.increment();
+    }
+
+    buffers[size] = buffer;
+    magazine.updateSize(size + 1);
+    magazine.releases++;
+  }
+
+  private Magazine createMagazine() {
+    final Magazine magazine = new Magazine(Thread.currentThread(), 2 * magazineSize);
+    activeMagazines.add(magazine);
+    return magazine;
+  }
+
+  /**
+   * Returns to the pool buffers which are cached by threads which are already terminated, if they were not looked for recently.
+   *
+   * @return amount of returned buffers
+   */
+  private int reclaimOrphanedMagazines() {
+    final long now = System.nanoTime();
+    final long reclaimTime = nextReclaimTime.get();
+    if (now - reclaimTime < 0 || !nextReclaimTime.compareAndSet(reclaimTime, now + RECLAIM_INTERVAL))
+      return 0;
+
+    return returnOrphanedMagazines();
+  }
+
+  /**
+   * Returns to the pool buffers which are cached by threads which are already terminated.
+   *
+   * @return amount of returned buffers
+   */
+  int returnOrphanedMagazines() {
+    int reclaimed = 0;
+    for (Magazine magazine : activeMagazines) {
+      final Thread owner = magazine.owner.get();
+      // termination of the thread happens-before the check that it is not alive, so content of the magazine is visible
+      if ((owner == null || !owner.isAlive()) && activeMagazines.remove(magazine)) {
+        for (int i = 0; i < magazine.size; i++) {
+          pool.offer(magazine.buffers[i]);
+          magazine.buffers[i] = null;
+        }
+
+        poolSize.addAndGet(magazine.size);
+        reclaimed += magazine.size;
+
+        retiredMagazineHits.add(magazine.hits);
+        retiredMagazineReleases.add(magazine.releases);
+        magazine.updateSize(0);
+      }
+    }
+
+    return reclaimed;
+  }
+
   @Override
   public int getBufferSize() {
     return pageSize;
@@ -500,6 +674,58 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
     return poolSize.get();
   }
 
+  @Override
+  public int getMagazineSize() {
+    return magazineSize;
+  }
+
+  @Override
+  public int getMagazineCount() {
+    return activeMagazines.size();
+  }
+
+  @Override
+  public int getBuffersInMagazines() {
+    int buffers = 0;
+    for (Magazine magazine : activeMagazines)
+      buffers += magazine.size;
+
+    return buffers;
+  }
+
+  @Override
+  public long getMagazineHitCount() {
+    long hits = retiredMagazineHits.sum();
+    for (Magazine magazine : activeMagazines)
+      hits += magazine.hits;
+
+    return hits;
+  }
+
+  @Override
+  public long getMagazineReleaseCount() {
+    long releases = retiredMagazineReleases.sum();
+    for (Magazine magazine : activeMagazines)
+      releases += magazine.releases;
+
+    return releases;
+  }
+
+  @Override
+  public long getDepotAcquireCount() {
+    return depotAcquires.sum();
+  }
+
+  @Override
+  public long getDepotReleaseCount() {
+    return depotReleases.sum();
+  }
+
+  @Override
+  public long getSharedPoolHitCount() {
+    return sharedPoolHits.sum();
+  }
+
   @Override
   public void startTracing() {
     setTraceEnabled(true);
@@ -560,6 +786,10 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
    */
   public void verifyState() {
     if (TRACK) {
+      // buffers cached by terminated threads are released, not leaked
+      if (magazines != null)
+        returnOrphanedMagazines();
+
       synchronized (this) {
         for (TrackedBufferReference reference : trackedReferences)
           OLogManager.instance()
@@ -603,6 +833,34 @@ public class OByteBufferPool implements OByteBufferPoolMXBean {
     }
   }
 
+  /**
+   * Local cache of free buffers of single thread. Content of magazine is changed only by owner thread, size and statistics are
+   * read by other threads to gather statistics, so they may be slightly outdated. Magazine does not refer to the pool, so pool is
+   * not kept in memory by thread locals of living threads.
+   */
+  private static final class Magazine {
+    private final WeakReference<Thread> owner;
+    private final ByteBuffer[]          buffers;
+
+    // is not private to be accessible by field updater
+    volatile int size;
+
+    private long hits;
+    private long releases;
+
+    private Magazine(Thread owner, int capacity) {
+      this.owner = new WeakReference<>(owner);
+      this.buffers = new ByteBuffer[capacity];
+    }
+
+    private void updateSize(int size) {
+      MAGAZINE_SIZE.lazySet(this, size);
+    }
+  }
+
+  private static final AtomicIntegerFieldUpdater<Magazine> MAGAZINE_SIZE = AtomicIntegerFieldUpdater
+      .newUpdater(Magazine.class, "size");
+
   private static final class BufferHolder {
     private volatile ByteBuffer buffer;
     private final CountDownLatch latch = new CountDownLatch(1);
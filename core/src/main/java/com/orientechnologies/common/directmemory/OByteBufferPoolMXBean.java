@@ -79,6 +79,47 @@ public interface OByteBufferPoolMXBean {
    */
   int getPoolSize();
 
+  /**
+   * @return Amount of buffers which are moved at once between thread local magazines and the shared pool, or 0 if thread local
+   * magazines are not used.
+   */
+  int getMagazineSize();
+
+  /**
+   * @return Amount of threads which cache free buffers in their magazines.
+   */
+  int getMagazineCount();
+
+  /**
+   * @return Amount of free buffers which are cached in thread local magazines.
+   */
+  int getBuffersInMagazines();
+
+  /**
+   * @return Amount of buffers which were acquired from thread local magazines.
+   */
+  long getMagazineHitCount();
+
+  /**
+   * @return Amount of buffers which were released to thread local magazines.
+   */
+  long getMagazineReleaseCount();
+
+  /**
+   * @return Amount of batches of buffers which were moved from the shared pool to thread local magazines.
+   */
+  long getDepotAcquireCount();
+
+  /**
+   * @return Amount of batches of buffers which were moved from thread local magazines to the shared pool.
+   */
+  long getDepotReleaseCount();
+
+  /**
+   * @return Amount of buffers which were acquired from the shared pool one by one, bypassing thread local magazines.
+   */
+  long getSharedPoolHitCount();
+
   /**
    * Starts the tracing.
    */
@@ -70,6 +70,11 @@ public enum OGlobalConfiguration {
   MEMORY_CHUNK_SIZE("memory.chunk.size", "Size of single memory chunk (in bytes) which will be preallocated by OrientDB",
       Integer.class, Integer.MAX_VALUE),
 
+  MEMORY_POOL_MAGAZINE_SIZE("memory.pool.magazineSize",
+      "Amount of direct memory pages which are moved at once between the shared pool of free pages and the local cache of a "
+          + "thread. Each thread keeps up to twice this amount of free pages, so pages are acquired and released without "
+          + "contention. Use 0 to disable thread local caches", Integer.class, 8),
+
   DIRECT_MEMORY_SAFE_MODE("memory.directMemory.safeMode",
       "Indicates whether to perform a range check before each direct memory update. It is true by default, "
           + "but usually it can be safely set to false. It should only be to true after dramatic changes have been made in the storage structures",
@@ -132,6 +137,10 @@ public enum OGlobalConfiguration {
         }
       }),
 
+  DISK_CACHE_FREQUENCY_ADMISSION("storage.diskCache.frequencyAdmission",
+      "Use TinyLFU admission filter in the 2Q read cache: page which was evicted recently may replace page in the cache only if it "
+          + "is accessed more frequently, so full scans of clusters do not push hot pages out of the cache", Boolean.class, false),
+
   DISK_WRITE_CACHE_PART("storage.diskCache.writeCachePart", "Percentage of disk cache, which is used as write cache", Integer.class,
       15),
 
@@ -177,6 +186,24 @@ public enum OGlobalConfiguration {
       + " 'storeAndSwitchReadOnlyMode' (default) - Same as 'storeAndVerify' with addition that storage will be switched in read only mode "
       + "till it will not be repaired.", OChecksumMode.class, OChecksumMode.StoreAndSwitchReadOnlyMode, false),
 
+  STORAGE_FILE_ACCESS_MODE("storage.diskCache.fileAccessMode", "Controls how the file cache accesses data files. Possible modes: "
+      + "'classic' (default) – pages are read and written through the file channel; 'mmap' – pages are read from memory mapped "
+      + "segments of the files, writes still go through the file channel, suitable for read-mostly databases; 'direct' – pages are "
+      + "read bypassing the OS page cache, so they are cached only by the disk cache, requires a JVM which supports direct I/O, "
+      + "otherwise 'classic' mode is used", String.class, "classic", false),
+
+  STORAGE_MMAP_SEGMENT_SIZE("storage.diskCache.mmapSegmentSize",
+      "Size of a single memory mapped segment of a data file (in megabytes) if 'mmap' file access mode is used", Integer.class, 16),
+
+  STORAGE_PAGE_COMPRESSION_METHOD("storage.diskCache.pageCompression.method",
+      "Compression method which is used to compress pages of data files when they are written by the disk cache. "
+          + "Possible values : gzip, nothing, snappy. Default is 'nothing' that means no compression. Pages which are already "
+          + "compressed are read regardless of this setting", String.class, "nothing", false),
+
+  STORAGE_PAGE_COMPRESSION_FILES("storage.diskCache.pageCompression.files",
+      "Comma separated list of extensions of data files which pages are compressed if page compression is enabled, "
+          + "for example '.pcl,.sbt'. Pages of all data files are compressed if list is empty", String.class, "", false),
+
   @Deprecated STORAGE_CONFIGURATION_SYNC_ON_UPDATE("storage.configuration.syncOnUpdate",
       "Indicates a force sync should be performed for each update on the storage configuration", Boolean.class, true),
 
@@ -236,6 +263,15 @@ public enum OGlobalConfiguration {
 
   WAL_COMMIT_TIMEOUT("storage.wal.commitTimeout", "Maximum interval between WAL commits (in ms.)", Integer.class, 1000),
 
+  WAL_SYNC_ON_COMMIT("storage.wal.syncOnCommit",
+      "Indicates whether a transaction commit should wait till its WAL records are synced to the disk. "
+          + "Concurrent commits are grouped and synced by a single force sync (group commit)", Boolean.class, false),
+
+  WAL_GROUP_COMMIT_MAX_DELAY("storage.wal.groupCommitMaxDelay",
+      "Maximum time (in microseconds) a group commit waits for other concurrent commits before the WAL is synced. "
+          + "The actual delay is adapted to the number of concurrent commits and to the sync time, 0 means no delay",
+      Integer.class, 1000),
+
   WAL_SHUTDOWN_TIMEOUT("storage.wal.shutdownTimeout", "Maximum wait interval between events, when the background flush thread"
       + "receives a shutdown command and when the background flush will be stopped (in ms.)", Integer.class, 10000),
 
@@ -274,6 +310,10 @@ public enum OGlobalConfiguration {
   DISK_CACHE_CHUNK_SIZE("storage.diskCache.chunkSize",
       "Maximum distance between two pages after which they are not treated as single continous chunk", Integer.class, 256),
 
+  DISK_CACHE_FLUSH_THREADS("storage.diskCache.flushThreads",
+      "Number of threads which write chunks of pages from the write cache to the data files in parallel. Pages to flush are still "
+          + "selected by a single background thread. Use 1 to write pages in the background flush thread itself", Integer.class, 1),
+
   DISK_CACHE_EXCLUSIVE_PAGES_BOUNDARY("storage.diskCache.exclusiveBoundary",
       "Portion of exclusive pages in write cache after which we will start to flush only exclusive pages", Float.class, 0.7),
 
@@ -305,6 +345,10 @@ public enum OGlobalConfiguration {
 
   DOCUMENT_BINARY_MAPPING("document.binaryMapping", "Mapping approach for binary fields", Integer.class, 0),
 
+  DOCUMENT_COMPACT_FIELDS("document.compactFields",
+      "Documents of classes with properties keep their fields in an array indexed by property instead of a hash map, to reduce the memory used by the loaded documents",
+      Boolean.class, false),
+
   // DATABASE
   DB_POOL_MIN("db.pool.min", "Default database pool minimum size", Integer.class, 1),
 
@@ -338,6 +382,11 @@ public enum OGlobalConfiguration {
   TX_PAGE_CACHE_SIZE("tx.pageCacheSize",
       "The size of a per-transaction page cache in pages, 12 by default, 0 to disable the cache.", Integer.class, 12),
 
+  TX_COMMIT_SPREAD_CLUSTERS("tx.commit.spreadClusters",
+      "Store a record created by a transaction into another cluster of its class, if the cluster chosen for the record is locked by other committing transactions. "
+          + "It lets transactions which insert records of the same class commit in parallel. Only classes with the round-robin, default or balanced cluster selection are affected",
+      Boolean.class, false),
+
   // INDEX
   INDEX_EMBEDDED_TO_SBTREEBONSAI_THRESHOLD("index.embeddedToSbtreeBonsaiThreshold",
       "Amount of values, after which the index implementation will use an sbtree as a values container. Set to -1, to disable and force using an sbtree",
@@ -382,6 +431,10 @@ public enum OGlobalConfiguration {
 
   INDEX_CURSOR_PREFETCH_SIZE("index.cursor.prefetchSize", "Default prefetch size of index cursor", Integer.class, 500000),
 
+  LUCENE_SEARCH_THREADS("lucene.searchThreads",
+      "Number of threads shared by all Lucene indexes to search segments of the index in parallel. 0 means that segments are searched by the thread which executes the query",
+      Integer.class, 0),
+
   // SBTREE
   SBTREE_MAX_DEPTH("sbtree.maxDepth",
       "Maximum depth of sbtree, which will be traversed during key look up until it will be treated as broken (64 by default)",
@@ -394,6 +447,17 @@ public enum OGlobalConfiguration {
       "Maximum size of value which can be put in an SBTree without creation link to a standalone page in bytes (40960 by default)",
       Integer.class, 40960),
 
+  SBTREE_BULK_LOAD("sbtree.bulkLoad",
+      "Build unique and dictionary SBTree indexes from externally sorted keys page by page instead of inserting keys one by one during index creation and rebuild",
+      Boolean.class, false),
+
+  SBTREE_BULK_LOAD_FILL_FACTOR("sbtree.bulkLoad.fillFactor",
+      "Percent of SBTree page filled by entries during bulk load, values from 50 to 100 are allowed", Integer.class, 90),
+
+  SBTREE_BULK_LOAD_RUN_SIZE("sbtree.bulkLoad.runSize",
+      "Amount of entries which are sorted in memory and written to the temporary file during SBTree bulk load", Integer.class,
+      500000),
+
   SBTREEBONSAI_BUCKET_SIZE("sbtreebonsai.bucketSize",
       "Size of bucket in OSBTreeBonsai (in kB). Contract: bucketSize < storagePageSize, storagePageSize % bucketSize == 0",
       Integer.class, 2),
@@ -477,6 +541,18 @@ public enum OGlobalConfiguration {
   NETWORK_BINARY_DEBUG("network.binary.debug", "Debug mode: print all data incoming on the binary channel", Boolean.class, false,
       true),
 
+  NETWORK_BINARY_NIO("network.binary.nio",
+      "Serves binary connections by a few selector threads and a pool of worker threads instead of a thread per connection, so idle connections do not hold threads. SSL connections are always served by a thread per connection",
+      Boolean.class, false),
+
+  NETWORK_BINARY_NIO_SELECTORS("network.binary.nio.selectors",
+      "Number of selector threads which wait for requests of idle binary connections, if 0 half of available CPU cores is used",
+      Integer.class, 0),
+
+  NETWORK_BINARY_NIO_WORKERS("network.binary.nio.workers",
+      "Maximum number of threads which execute requests of binary connections served by selector threads, if 0 eight threads per available CPU core are used",
+      Integer.class, 0),
+
   // HTTP
 
   /**
@@ -613,6 +689,18 @@ public enum OGlobalConfiguration {
       "Size of the queue that holds results on parallel execution. The queue is blocking, so in case the queue is full, the query threads will be in a wait state",
       Integer.class, 20000),
 
+  QUERY_PARALLEL_EXEC_LEVEL("query.parallelExecLevel",
+      "Maximum number of threads used by the SQL executor to fetch the sub-plans of a parallel step (eg. the clusters of a class or the sub-classes of a UNION) concurrently. Use 1 to fetch them sequentially on the query thread",
+      Integer.class, 1),
+
+  QUERY_PARALLEL_POOL_SIZE("query.parallelPoolSize",
+      "Maximum number of worker threads shared by all the parallel steps of the SQL executor. When all of them are busy, the sub-plans of a parallel step are fetched sequentially on the query thread",
+      Integer.class, Runtime.getRuntime().availableProcessors()),
+
+  QUERY_MAX_HEAP_RECORDS("query.maxHeapRecords",
+      "Maximum number of records (or GROUP BY groups) that a blocking step of the SQL executor (eg. ORDER BY without LIMIT, GROUP BY) keeps in heap. When this number is exceeded, sorted runs or partial aggregates are spilled to temporary files and merged while the result is fetched. Use 0 to keep everything in heap",
+      Integer.class, 1000000),
+
   QUERY_SCAN_PREFETCH_PAGES("query.scanPrefetchPages",
       "Pages to prefetch during scan. Setting this value higher makes scans faster, because it reduces the number of I/O operations, though it consumes more memory. (Use 0 to disable)",
       Integer.class, 20),
@@ -630,8 +718,24 @@ public enum OGlobalConfiguration {
 
   QUERY_LIVE_SUPPORT("query.live.support", "Enable/Disable the support of live query. (Use false to disable)", Boolean.class, true),
 
+  QUERY_LIVE_DISPATCH_THREADS("query.live.dispatchThreads",
+      "Number of threads which pass the records changed by the database to live query subscribers. Records are passed to every "
+          + "subscriber by the same thread, so the order of changes is preserved", Integer.class, 4),
+
   STATEMENT_CACHE_SIZE("statement.cacheSize", "Number of parsed SQL statements kept in cache", Integer.class, 100),
 
+  QUERY_PLAN_CACHE_SIZE("query.planCache.size",
+      "Number of SELECT execution plans kept in cache and reused by next executions of the same statement. 0 = disabled",
+      Integer.class, 300),
+
+  QUERY_STATISTICS_SAMPLE_SIZE("query.statistics.sampleSize",
+      "Number of records sampled to build the histograms of the property values used by the query planner to choose indexes",
+      Integer.class, 10000),
+
+  QUERY_STATISTICS_REFRESH_RATIO("query.statistics.refreshRatio",
+      "Statistics of a class are collected again in background when its number of records changes more than this ratio since the last analysis. The refresh scans all the records of the class. 0 = disabled",
+      Float.class, 0f),
+
   // GRAPH
   SQL_GRAPH_CONSISTENCY_MODE("sql.graphConsistencyMode",
       "Consistency mode for graphs. It can be 'tx' (default), 'notx_sync_repair' and 'notx_async_repair'. "
@@ -646,6 +750,21 @@ public enum OGlobalConfiguration {
   CLIENT_CHANNEL_MAX_POOL("client.channel.maxPool",
       "Maximum size of pool of network channels between client and server. A channel is a TCP/IP connection", Integer.class, 100),
 
+  /**
+   * Enables pipelining of synchronous requests, so several threads send requests over one network channel without waiting for
+   * responses of each other.
+   */
+  CLIENT_CHANNEL_PIPELINING("client.channel.pipelining",
+      "Send synchronous requests of different threads over shared network channels without waiting for responses of previous requests",
+      Boolean.class, false),
+
+  /**
+   * Amount of requests which are sent over a pipelined channel before a new channel is opened.
+   */
+  CLIENT_CHANNEL_MAX_IN_FLIGHT("client.channel.maxInFlight",
+      "Maximum amount of requests waiting for response on a pipelined network channel before a new channel is opened",
+      Integer.class, 8),
+
   /**
    * Maximum time, where the client should wait for a connection from the pool, when all connections busy.
    */
@@ -717,6 +836,14 @@ public enum OGlobalConfiguration {
   DISTRIBUTED_DEPLOYDB_TASK_COMPRESSION("distributed.deployDbTaskCompression",
       "Compression level (between 0 and 9) to use in backup for database deployment", Integer.class, 7, true),
 
+  DISTRIBUTED_DEPLOYDB_TASK_STREAMING("distributed.deployDbTaskStreaming",
+      "Stream the backup for database deployment to the installing node in chunks without storing it in temporary files. The database of the sending node stays frozen until the installing node has received the whole backup",
+      Boolean.class, false, true),
+
+  DISTRIBUTED_DEPLOYDB_TASK_PARALLEL_CHUNKS("distributed.deployDbTaskParallelChunks",
+      "Number of chunks of the streamed backup for database deployment which are requested in parallel by the installing node and are kept in memory by the sending node",
+      Integer.class, 4, true),
+
   DISTRIBUTED_ASYNCH_QUEUE_SIZE("distributed.asynchQueueSize",
       "Queue size to handle distributed asynchronous operations. The bigger is the queue, the more operation are buffered, but also more memory it's consumed. 0 = dynamic allocation, which means up to 2^31-1 entries",
       Integer.class, 0),
@@ -10,10 +10,12 @@ import com.orientechnologies.orient.core.metadata.function.OFunctionLibraryImpl;
 import com.orientechnologies.orient.core.metadata.schema.OSchemaShared;
 import com.orientechnologies.orient.core.metadata.security.OSecurity;
 import com.orientechnologies.orient.core.metadata.sequence.OSequenceLibraryImpl;
+import com.orientechnologies.orient.core.metadata.statistics.OStatisticsManager;
 import com.orientechnologies.orient.core.query.live.OLiveQueryHook;
 import com.orientechnologies.orient.core.query.live.OLiveQueryHookV2;
 import com.orientechnologies.orient.core.schedule.OSchedulerImpl;
 import com.orientechnologies.orient.core.sql.executor.OQueryStats;
+import com.orientechnologies.orient.core.sql.parser.OExecutionPlanCache;
 import com.orientechnologies.orient.core.sql.parser.OStatementCache;
 
 /**
@@ -32,6 +34,8 @@ public abstract class OSharedContext extends OListenerManger<OMetadataUpdateList
   protected OLiveQueryHookV2.OLiveQueryOps liveQueryOpsV2;
   protected OCommandCache                  commandCache;
   protected OStatementCache                statementCache;
+  protected OExecutionPlanCache            executionPlanCache;
+  protected OStatisticsManager             statisticsManager;
   protected OQueryStats                    queryStats;
   protected volatile boolean loaded = false;
 
@@ -79,6 +83,14 @@ public abstract class OSharedContext extends OListenerManger<OMetadataUpdateList
     return statementCache;
   }
 
+  public OExecutionPlanCache getExecutionPlanCache() {
+    return executionPlanCache;
+  }
+
+  public OStatisticsManager getStatisticsManager() {
+    return statisticsManager;
+  }
+
   public OQueryStats getQueryStats() {
     return queryStats;
   }
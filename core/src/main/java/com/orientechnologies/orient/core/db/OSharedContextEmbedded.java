@@ -6,11 +6,13 @@ import com.orientechnologies.orient.core.index.OIndexManagerShared;
 import com.orientechnologies.orient.core.metadata.function.OFunctionLibraryImpl;
 import com.orientechnologies.orient.core.metadata.schema.OSchemaEmbedded;
 import com.orientechnologies.orient.core.metadata.sequence.OSequenceLibraryImpl;
+import com.orientechnologies.orient.core.metadata.statistics.OStatisticsManager;
 import com.orientechnologies.orient.core.query.live.OLiveQueryHook;
 import com.orientechnologies.orient.core.query.live.OLiveQueryHookV2;
 import com.orientechnologies.orient.core.schedule.OSchedulerImpl;
 import com.orientechnologies.orient.core.security.OSecurityManager;
 import com.orientechnologies.orient.core.sql.executor.OQueryStats;
+import com.orientechnologies.orient.core.sql.parser.OExecutionPlanCache;
 import com.orientechnologies.orient.core.sql.parser.OStatementCache;
 import com.orientechnologies.orient.core.storage.OStorage;
 
@@ -36,6 +38,10 @@ public class OSharedContextEmbedded extends OSharedContext {
     commandCache = new OCommandCacheSoftRefs(storage);
     statementCache = new OStatementCache(
         storage.getConfiguration().getContextConfiguration().getValueAsInteger(OGlobalConfiguration.STATEMENT_CACHE_SIZE));
+    executionPlanCache = new OExecutionPlanCache(
+        storage.getConfiguration().getContextConfiguration().getValueAsInteger(OGlobalConfiguration.QUERY_PLAN_CACHE_SIZE));
+    registerListener(executionPlanCache);
+    statisticsManager = new OStatisticsManager(executionPlanCache);
     queryStats = new OQueryStats();
     activeDistributedQueries = new HashMap<>();
   }
@@ -71,6 +77,8 @@ public class OSharedContextEmbedded extends OSharedContext {
     sequenceLibrary.close();
     commandCache.clear();
     commandCache.shutdown();
+    executionPlanCache.invalidate();
+    statisticsManager.clear();
     liveQueryOps.close();
     liveQueryOpsV2.close();
     activeDistributedQueries.values().forEach(x -> x.close());
@@ -83,6 +91,8 @@ public class OSharedContextEmbedded extends OSharedContext {
     functionLibrary.load(database);
     sequenceLibrary.load(database);
     commandCache.clear();
+    executionPlanCache.invalidate();
+    statisticsManager.clear();
     scheduler.load(database);
   }
 
@@ -45,6 +45,12 @@ public class ORecordOperation implements Comparable {
   public ORecordCallback<Long>    createdCallback = null;
   public ORecordCallback<Integer> updatedCallback = null;
 
+  /**
+   * Cluster of the created record was chosen by the cluster selection strategy of its class, so the record may be stored in any
+   * other cluster of the class during commit.
+   */
+  public boolean clusterSelectedByClass;
+
   public ORecordOperation() {
   }
 
@@ -58,7 +58,8 @@ public class OEngineLocalPaginated extends OEngineAbstract {
 
     readCache = new O2QCache(calculateReadCacheMaxMemory(OGlobalConfiguration.DISK_CACHE_SIZE.getValueAsLong() * 1024 * 1024),
         OGlobalConfiguration.DISK_CACHE_PAGE_SIZE.getValueAsInteger() * 1024, true,
-        OGlobalConfiguration.DISK_CACHE_PINNED_PAGES.getValueAsInteger());
+        OGlobalConfiguration.DISK_CACHE_PINNED_PAGES.getValueAsInteger(), true,
+        OGlobalConfiguration.DISK_CACHE_FREQUENCY_ADMISSION.getValueAsBoolean());
 
     try {
       if (OByteBufferPool.instance() != null)
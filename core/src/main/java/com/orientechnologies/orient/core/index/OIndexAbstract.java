@@ -27,6 +27,7 @@ import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.listener.OProgressListener;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
@@ -35,6 +36,7 @@ import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.exception.OConfigurationException;
 import com.orientechnologies.orient.core.exception.OInvalidIndexEngineIdException;
 import com.orientechnologies.orient.core.exception.OTooBigIndexKeyException;
+import com.orientechnologies.orient.core.index.sbtree.local.OSBTreeBulkLoad;
 import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.ORecord;
@@ -82,6 +84,11 @@ public abstract class OIndexAbstract<T> implements OIndexInternal<T> {
   private volatile boolean             rebuilding       = false;
   private          Map<String, String> engineProperties = new HashMap<String, String>();
 
+  /**
+   * Loader which collects keys during index creation and rebuild, <code>null</code> if keys are put into the index one by one.
+   */
+  private OSBTreeBulkLoad<Object, Object> bulkLoad;
+
   public OIndexAbstract(String name, final String type, final String algorithm, final String valueContainerAlgorithm,
       final ODocument metadata, final int version, final OStorage storage) {
     acquireExclusiveLock();
@@ -486,6 +493,7 @@ public abstract class OIndexAbstract<T> implements OIndexInternal<T> {
 
   private long fillIndex(final OProgressListener iProgressListener, final boolean rebuild) {
     long documentIndexed = 0;
+    bulkLoad = createBulkLoad();
     try {
       long documentNum = 0;
       long documentTotal = 0;
@@ -503,16 +511,59 @@ public abstract class OIndexAbstract<T> implements OIndexInternal<T> {
         documentIndexed = metrics[1];
       }
 
+      if (bulkLoad != null) {
+        while (true)
+          try {
+            storage.bulkLoadIndex(indexId, bulkLoad);
+            break;
+          } catch (OInvalidIndexEngineIdException ignore) {
+            doReloadIndexEngine();
+          }
+      }
+
       if (iProgressListener != null)
         iProgressListener.onCompletition(this, true);
     } catch (final RuntimeException e) {
       if (iProgressListener != null)
         iProgressListener.onCompletition(this, false);
       throw e;
+    } finally {
+      if (bulkLoad != null) {
+        bulkLoad.close();
+        bulkLoad = null;
+      }
     }
     return documentIndexed;
   }
 
+  private OSBTreeBulkLoad<Object, Object> createBulkLoad() {
+    if (!OGlobalConfiguration.SBTREE_BULK_LOAD.getValueAsBoolean() || !isBulkLoadSupported())
+      return null;
+
+    while (true)
+      try {
+        return storage.createIndexBulkLoad(indexId, getBulkLoadValidator());
+      } catch (OInvalidIndexEngineIdException ignore) {
+        doReloadIndexEngine();
+      }
+  }
+
+  /**
+   * @return <code>true</code> if index keeps single value per key, so index can be built from sorted keys page by page during
+   * creation and rebuild, see {@link OGlobalConfiguration#SBTREE_BULK_LOAD}
+   */
+  protected boolean isBulkLoadSupported() {
+    return false;
+  }
+
+  /**
+   * @return validator which chooses value of the key which is indexed several times during bulk load, if <code>null</code> the
+   * last value is indexed
+   */
+  protected OIndexEngine.Validator<Object, OIdentifiable> getBulkLoadValidator() {
+    return null;
+  }
+
   public boolean remove(Object key, final OIdentifiable value) {
     return remove(key);
   }
@@ -835,10 +886,20 @@ public abstract class OIndexAbstract<T> implements OIndexInternal<T> {
   protected void populateIndex(ODocument doc, Object fieldValue) {
     if (fieldValue instanceof Collection) {
       for (final Object fieldValueItem : (Collection<?>) fieldValue) {
-        put(fieldValueItem, doc);
+        populateKey(doc, fieldValueItem);
       }
     } else
-      put(fieldValue, doc);
+      populateKey(doc, fieldValue);
+  }
+
+  private void populateKey(ODocument doc, Object key) {
+    final Object collatedKey = bulkLoad != null ? getCollatingValue(key) : null;
+
+    // NULL VALUES ARE NOT STORED IN THE TREE
+    if (collatedKey != null)
+      bulkLoad.add(collatedKey, doc.getIdentity());
+    else
+      put(key, doc);
   }
 
   public Object getCollatingValue(final Object key) {
@@ -267,4 +267,9 @@ public abstract class OIndexOneValue extends OIndexAbstract<OIdentifiable> {
   protected OBinarySerializer determineValueSerializer() {
     return OStreamSerializerRID.INSTANCE;
   }
+
+  @Override
+  protected boolean isBulkLoadSupported() {
+    return true;
+  }
 }
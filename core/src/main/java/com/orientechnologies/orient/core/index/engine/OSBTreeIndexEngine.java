@@ -25,6 +25,7 @@ import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.index.*;
 import com.orientechnologies.orient.core.index.sbtree.local.OSBTree;
+import com.orientechnologies.orient.core.index.sbtree.local.OSBTreeBulkLoad;
 import com.orientechnologies.orient.core.iterator.OEmptyIterator;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
@@ -170,6 +171,14 @@ public class OSBTreeIndexEngine implements OIndexEngine {
     return sbTree.validatedPut(key, value, (Validator) validator);
   }
 
+  /**
+   * @see OSBTree#createBulkLoad(Validator)
+   */
+  @SuppressWarnings("unchecked")
+  public OSBTreeBulkLoad<Object, Object> createBulkLoad(Validator<Object, OIdentifiable> validator) {
+    return sbTree.createBulkLoad((Validator) validator);
+  }
+
   @Override
   public Object getFirstKey() {
     return sbTree.firstKey();
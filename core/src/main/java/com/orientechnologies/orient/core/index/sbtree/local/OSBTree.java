@@ -24,6 +24,9 @@ import com.orientechnologies.common.comparator.ODefaultComparator;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.common.serialization.types.OByteSerializer;
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.exception.OTooBigIndexKeyException;
 import com.orientechnologies.orient.core.index.OAlwaysGreaterKey;
@@ -430,6 +433,176 @@ public class OSBTree<K, V> extends ODurableComponent {
     }
   }
 
+  /**
+   * Creates loader which sorts passed entries and builds the tree from them page by page. The tree has to be empty when entries are
+   * loaded.
+   *
+   * @param validator resolves values of duplicated keys, if validator is <code>null</code> the last passed value wins
+   */
+  public OSBTreeBulkLoad<K, V> createBulkLoad(OIndexEngine.Validator<K, V> validator) {
+    acquireSharedLock();
+    try {
+      return new OSBTreeBulkLoad<K, V>(this, keySerializer, keyTypes, valueSerializer, validator);
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
+  /**
+   * Fills the empty tree by entries with unique preprocessed keys sorted in ascending order. Buckets are filled from left to right
+   * and the tree is built from the leaves to the root, so every page is written only once.
+   * <p>
+   * Pages are written directly into the disk cache without atomic operation. Only the record about non transactional operation is
+   * logged into WAL, so indexes are rebuilt if storage is not closed correctly before the tree is flushed, the tree is flushed to
+   * the disk at the end of the load.
+   * <p>
+   * If the tree is not empty, or it is changed inside of enclosing atomic operation, entries are put into the tree one by one.
+   *
+   * @param fillFactor percent of space of page filled by entries
+   * @param validator  validator which is used if entries are put one by one
+   *
+   * @return amount of loaded entries
+   */
+  long bulkLoad(Iterator<Map.Entry<K, V>> entries, int fillFactor, OIndexEngine.Validator<K, V> validator) {
+    // PAGES CHANGED INSIDE OF ENCLOSING ATOMIC OPERATION CAN NOT BE WRITTEN DIRECTLY
+    if (atomicOperationsManager.getCurrentOperation() != null)
+      return putSortedEntries(entries, validator);
+
+    long loaded;
+    startOperation();
+    try {
+      try {
+        // ATOMIC OPERATION IS USED ONLY TO LOG NON TX OPERATION AND TO PREVENT READS OF PARTIALLY BUILT TREE
+        startAtomicOperation(true);
+      } catch (IOException e) {
+        throw OException.wrapException(new OSBTreeException("Error during sbtree bulk load", this), e);
+      }
+
+      acquireExclusiveLock();
+      try {
+        if (isEmptyForBulkLoad()) {
+          try {
+            loaded = buildFromSortedEntries(entries, Math.max(50, Math.min(100, fillFactor)));
+          } catch (IOException | RuntimeException e) {
+            resetAfterBulkLoadFailure();
+            throw e;
+          }
+        } else
+          loaded = -1;
+
+        endAtomicOperation(false, null);
+      } catch (IOException e) {
+        rollback(e);
+        throw OException.wrapException(new OSBTreeException("Error during bulk load of sbtree with name " + getName(), this), e);
+      } catch (RuntimeException e) {
+        rollback(e);
+        throw e;
+      } finally {
+        releaseExclusiveLock();
+      }
+    } finally {
+      completeOperation();
+    }
+
+    // ENTRIES WERE PUT INTO THE TREE CONCURRENTLY, SO THEY ARE MERGED ONE BY ONE
+    if (loaded < 0)
+      return putSortedEntries(entries, validator);
+
+    return loaded;
+  }
+
+  private long putSortedEntries(Iterator<Map.Entry<K, V>> entries, OIndexEngine.Validator<K, V> validator) {
+    long loaded = 0;
+    while (entries.hasNext()) {
+      final Map.Entry<K, V> entry = entries.next();
+      if (validator != null)
+        validatedPut(entry.getKey(), entry.getValue(), validator);
+      else
+        put(entry.getKey(), entry.getValue());
+
+      loaded++;
+    }
+
+    return loaded;
+  }
+
+  private boolean isEmptyForBulkLoad() throws IOException {
+    if (getFilledUpTo(null, fileId) != 1)
+      return false;
+
+    final OCacheEntry rootCacheEntry = loadPageForRead(null, fileId, ROOT_INDEX, false);
+    try {
+      final OSBTreeBucket<K, V> rootBucket = new OSBTreeBucket<K, V>(rootCacheEntry, keySerializer, keyTypes, valueSerializer);
+      return rootBucket.isLeaf() && rootBucket.isEmpty();
+    } finally {
+      releasePageFromRead(null, rootCacheEntry);
+    }
+  }
+
+  private long buildFromSortedEntries(Iterator<Map.Entry<K, V>> entries, int fillFactor) throws IOException {
+    final long initialSize;
+    final OCacheEntry rootCacheEntry = loadPageForRead(null, fileId, ROOT_INDEX, false);
+    try {
+      final OSBTreeBucket<K, V> rootBucket = new OSBTreeBucket<K, V>(rootCacheEntry, keySerializer, keyTypes, valueSerializer);
+      // VALUE OF NULL KEY IS STORED IN SEPARATE FILE
+      initialSize = rootBucket.getTreeSize();
+    } finally {
+      releasePageFromRead(null, rootCacheEntry);
+    }
+
+    final BulkLoadLevel leaves = new BulkLoadLevel(true, OSBTreeBucket.getEmptyBucketFreeSpace() / 100 * fillFactor);
+
+    long loaded = 0;
+    K prevKey = null;
+    while (entries.hasNext()) {
+      final Map.Entry<K, V> entry = entries.next();
+      final K key = entry.getKey();
+      final V value = entry.getValue();
+
+      if (key == null)
+        throw new OSBTreeException("Null key can not be bulk loaded", this);
+
+      if (prevKey != null && comparator.compare(prevKey, key) >= 0)
+        throw new OSBTreeException("Keys of bulk load are not sorted, key " + key + " follows key " + prevKey, this);
+
+      final boolean createLinkToTheValue = valueSerializer.getObjectSize(value) > MAX_EMBEDDED_VALUE_SIZE;
+
+      long valueLink = -1;
+      if (createLinkToTheValue)
+        valueLink = createLinkToTheValue(value, null);
+
+      leaves.addEntry(key, new OSBTreeValue<V>(createLinkToTheValue, valueLink, createLinkToTheValue ? null : value));
+
+      prevKey = key;
+      loaded++;
+    }
+
+    leaves.finish();
+    setSize(initialSize + loaded, null);
+
+    writeCache.flush(fileId);
+    return loaded;
+  }
+
+  private void resetAfterBulkLoadFailure() {
+    try {
+      truncateFile(null, fileId);
+
+      OCacheEntry cacheEntry = loadPageForWrite(null, fileId, ROOT_INDEX, false);
+      if (cacheEntry == null)
+        cacheEntry = addPage(null, fileId);
+
+      try {
+        final OSBTreeBucket<K, V> rootBucket = new OSBTreeBucket<K, V>(cacheEntry, true, keySerializer, keyTypes, valueSerializer);
+        rootBucket.setTreeSize(0);
+      } finally {
+        releasePageFromWrite(null, cacheEntry);
+      }
+    } catch (IOException e) {
+      OLogManager.instance().error(this, "Error during cleanup of sbtree %s after failed bulk load", e, getName());
+    }
+  }
+
   public void close(boolean flush) {
     startOperation();
     try {
@@ -1782,6 +1955,194 @@ public class OSBTree<K, V> extends ODurableComponent {
     LOWEST_BOUNDARY
   }
 
+  /**
+   * Level of the tree which is built by bulk load. Only the last bucket of the level is kept in memory till it is filled. Bucket of
+   * non-leaf level is written only when the next bucket contains at least one entry, so the last bucket of the level can borrow an
+   * entry from it.
+   */
+  private final class BulkLoadLevel {
+    private final boolean leaf;
+    private final int     fillLimit;
+
+    private BulkLoadLevel  parent;
+    private BulkLoadBucket current;
+    private BulkLoadBucket previous;
+    private boolean        bucketsWritten;
+    private long           lastLeafIndex = -1;
+
+    private BulkLoadLevel(boolean leaf, int fillLimit) {
+      this.leaf = leaf;
+      this.fillLimit = fillLimit;
+    }
+
+    private void addEntry(K key, OSBTreeValue<V> value) throws IOException {
+      final int entrySize = leafEntrySize(key, value);
+
+      if (current == null)
+        current = new BulkLoadBucket(null);
+      else if (!current.keys.isEmpty() && current.usedSpace + entrySize > fillLimit) {
+        writeBucket(current);
+        // FIRST KEY OF THE LEAF SEPARATES IT FROM THE PREVIOUS ONE
+        current = new BulkLoadBucket(key);
+      }
+
+      current.keys.add(key);
+      current.values.add(value);
+      current.usedSpace += entrySize;
+    }
+
+    private void addChild(K separator, long pageIndex) throws IOException {
+      if (current == null) {
+        current = new BulkLoadBucket(separator);
+        current.children.add(pageIndex);
+        return;
+      }
+
+      final int entrySize = nonLeafEntrySize(separator);
+      if (!current.keys.isEmpty() && current.usedSpace + entrySize > fillLimit) {
+        // SEPARATOR IS MOVED TO THE PARENT LEVEL
+        previous = current;
+        current = new BulkLoadBucket(separator);
+        current.children.add(pageIndex);
+        return;
+      }
+
+      current.keys.add(separator);
+      current.children.add(pageIndex);
+      current.usedSpace += entrySize;
+
+      if (previous != null) {
+        writeBucket(previous);
+        previous = null;
+      }
+    }
+
+    private void finish() throws IOException {
+      if (previous == null && !bucketsWritten) {
+        // SINGLE BUCKET OF THE TOP LEVEL IS THE ROOT
+        if (current != null)
+          writeRoot(current);
+        return;
+      }
+
+      if (current.keys.isEmpty()) {
+        assert !leaf && previous.keys.size() > 1;
+
+        final int lastIndex = previous.keys.size() - 1;
+        final K movedKey = previous.keys.remove(lastIndex);
+        final long movedChild = previous.children.remove(lastIndex + 1);
+        previous.usedSpace -= nonLeafEntrySize(movedKey);
+
+        current.keys.add(0, current.separator);
+        current.children.add(0, movedChild);
+        current.usedSpace += nonLeafEntrySize(current.separator);
+        current.separator = movedKey;
+      }
+
+      if (previous != null) {
+        writeBucket(previous);
+        previous = null;
+      }
+
+      writeBucket(current);
+      current = null;
+
+      parent.finish();
+    }
+
+    private void writeBucket(BulkLoadBucket bucket) throws IOException {
+      final OCacheEntry cacheEntry = addPage(null, fileId);
+      final long pageIndex = cacheEntry.getPageIndex();
+      try {
+        final OSBTreeBucket<K, V> treeBucket = new OSBTreeBucket<K, V>(cacheEntry, leaf, keySerializer, keyTypes, valueSerializer);
+        fillBucket(treeBucket, bucket);
+
+        if (leaf) {
+          treeBucket.setLeftSibling(lastLeafIndex);
+
+          if (lastLeafIndex >= 0) {
+            final OCacheEntry leftSiblingEntry = loadPageForWrite(null, fileId, lastLeafIndex, false);
+            try {
+              final OSBTreeBucket<K, V> leftSibling = new OSBTreeBucket<K, V>(leftSiblingEntry, keySerializer, keyTypes,
+                  valueSerializer);
+              leftSibling.setRightSibling(pageIndex);
+            } finally {
+              releasePageFromWrite(null, leftSiblingEntry);
+            }
+          }
+
+          lastLeafIndex = pageIndex;
+        }
+      } finally {
+        releasePageFromWrite(null, cacheEntry);
+      }
+
+      bucketsWritten = true;
+      if (parent == null)
+        parent = new BulkLoadLevel(false, fillLimit);
+
+      parent.addChild(bucket.separator, pageIndex);
+    }
+
+    private void writeRoot(BulkLoadBucket bucket) throws IOException {
+      final OCacheEntry rootCacheEntry = loadPageForWrite(null, fileId, ROOT_INDEX, false);
+      try {
+        final OSBTreeBucket<K, V> rootBucket = new OSBTreeBucket<K, V>(rootCacheEntry, leaf, keySerializer, keyTypes,
+            valueSerializer);
+        fillBucket(rootBucket, bucket);
+      } finally {
+        releasePageFromWrite(null, rootCacheEntry);
+      }
+    }
+
+    private void fillBucket(OSBTreeBucket<K, V> treeBucket, BulkLoadBucket bucket) throws IOException {
+      for (int i = 0; i < bucket.keys.size(); i++) {
+        final OSBTreeBucket.SBTreeEntry<K, V> entry;
+        if (leaf)
+          entry = new OSBTreeBucket.SBTreeEntry<K, V>(-1, -1, bucket.keys.get(i), bucket.values.get(i));
+        else
+          entry = new OSBTreeBucket.SBTreeEntry<K, V>(bucket.children.get(i), bucket.children.get(i + 1), bucket.keys.get(i),
+              null);
+
+        if (!treeBucket.addEntry(i, entry, false))
+          throw new OSBTreeException("Entries of bulk load do not fit into the bucket", OSBTree.this);
+      }
+    }
+
+    private int leafEntrySize(K key, OSBTreeValue<V> value) {
+      final int valueSize;
+      if (valueSerializer.isFixedLength())
+        valueSize = valueSerializer.getFixedLength();
+      else if (value.isLink())
+        valueSize = OLongSerializer.LONG_SIZE;
+      else
+        valueSize = valueSerializer.getObjectSize(value.getValue());
+
+      return keySerializer.getObjectSize(key, (Object[]) keyTypes) + OByteSerializer.BYTE_SIZE + valueSize
+          + OIntegerSerializer.INT_SIZE;
+    }
+
+    private int nonLeafEntrySize(K key) {
+      return keySerializer.getObjectSize(key, (Object[]) keyTypes) + 2 * OLongSerializer.LONG_SIZE + OIntegerSerializer.INT_SIZE;
+    }
+  }
+
+  private final class BulkLoadBucket {
+    /**
+     * Key which separates the bucket from the previous bucket of the same level, <code>null</code> for the first bucket.
+     */
+    private K separator;
+
+    private final List<K>               keys     = new ArrayList<K>();
+    private final List<OSBTreeValue<V>> values   = new ArrayList<OSBTreeValue<V>>();
+    private final List<Long>            children = new ArrayList<Long>();
+    private int usedSpace;
+
+    private BulkLoadBucket(K separator) {
+      this.separator = separator;
+    }
+  }
+
   public interface OSBTreeCursor<K, V> {
     Map.Entry<K, V> next(int prefetchSize);
   }
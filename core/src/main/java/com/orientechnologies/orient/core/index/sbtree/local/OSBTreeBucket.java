@@ -104,6 +104,13 @@ public class OSBTreeBucket<K, V> extends ODurablePage {
     this.valueSerializer = valueSerializer;
   }
 
+  /**
+   * @return space which is available for entries and their positions in an empty bucket
+   */
+  static int getEmptyBucketFreeSpace() {
+    return MAX_PAGE_SIZE_BYTES - POSITIONS_ARRAY_OFFSET;
+  }
+
   public void setTreeSize(long size) throws IOException {
     setLongValue(TREE_SIZE_OFFSET, size);
   }
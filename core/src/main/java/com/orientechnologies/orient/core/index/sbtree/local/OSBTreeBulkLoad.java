@@ -0,0 +1,358 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.index.sbtree.local;
+
+import com.orientechnologies.common.comparator.ODefaultComparator;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.exception.OTooBigIndexKeyException;
+import com.orientechnologies.orient.core.index.OIndexEngine;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Loads entries into the empty {@link OSBTree}. Passed entries are collected in memory and sorted by runs, every sorted run is
+ * written into the temporary file in the system temporary directory, not in the directory of the storage. When all entries are
+ * passed, runs are merged and the tree is built from the sorted entries page by page, see
+ * {@link OSBTree#bulkLoad(Iterator, int, OIndexEngine.Validator)}.
+ * <p>
+ * Loader is not thread safe, temporary files are removed when entries are loaded, it should be closed after usage to remove them
+ * if entries are not loaded.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class OSBTreeBulkLoad<K, V> implements AutoCloseable {
+  private static final int MAX_KEY_SIZE = OGlobalConfiguration.SBTREE_MAX_KEY_SIZE.getValueAsInteger();
+
+  private final OSBTree<K, V>                tree;
+  private final OBinarySerializer<K>         keySerializer;
+  private final OType[]                      keyTypes;
+  private final OBinarySerializer<V>         valueSerializer;
+  private final OIndexEngine.Validator<K, V> validator;
+  private final int                          runSize;
+  private final Comparator<? super K>        keyComparator = ODefaultComparator.INSTANCE;
+  private final Comparator<Map.Entry<K, V>>  comparator;
+
+  private final List<Map.Entry<K, V>> buffer = new ArrayList<Map.Entry<K, V>>();
+  private final List<File>            runs   = new ArrayList<File>();
+
+  private boolean loaded;
+
+  OSBTreeBulkLoad(OSBTree<K, V> tree, OBinarySerializer<K> keySerializer, OType[] keyTypes, OBinarySerializer<V> valueSerializer,
+      OIndexEngine.Validator<K, V> validator) {
+    this.tree = tree;
+    this.keySerializer = keySerializer;
+    this.keyTypes = keyTypes;
+    this.valueSerializer = valueSerializer;
+    this.validator = validator;
+    this.runSize = Math.max(1, OGlobalConfiguration.SBTREE_BULK_LOAD_RUN_SIZE.getValueAsInteger());
+
+    this.comparator = new Comparator<Map.Entry<K, V>>() {
+      @Override
+      public int compare(Map.Entry<K, V> first, Map.Entry<K, V> second) {
+        return keyComparator.compare(first.getKey(), second.getKey());
+      }
+    };
+  }
+
+  /**
+   * Adds entry to the loader, key should not be <code>null</code>.
+   */
+  public void add(K key, V value) {
+    if (loaded)
+      throw new IllegalStateException("Entries are already loaded into the tree");
+    if (key == null)
+      throw new IllegalArgumentException("Null key can not be bulk loaded");
+
+    key = keySerializer.preprocess(key, (Object[]) keyTypes);
+
+    final int keySize = keySerializer.getObjectSize(key, (Object[]) keyTypes);
+    if (keySize > MAX_KEY_SIZE)
+      throw new OTooBigIndexKeyException(
+          "Key size is more than allowed, operation was canceled. Current key size " + keySize + ", allowed  " + MAX_KEY_SIZE,
+          tree.getName());
+
+    buffer.add(new AbstractMap.SimpleImmutableEntry<K, V>(key, value));
+    if (buffer.size() >= runSize)
+      writeRun();
+  }
+
+  /**
+   * Merges sorted runs and builds the tree from them. If the same key was added several times, the value is chosen by validator,
+   * if {@link OIndexEngine.Validator#IGNORE} is returned, the previous value is kept. If loader does not have validator the last
+   * added value is used.
+   *
+   * @return amount of loaded entries
+   */
+  public long load() {
+    if (loaded)
+      throw new IllegalStateException("Entries are already loaded into the tree");
+    loaded = true;
+
+    final List<Iterator<Map.Entry<K, V>>> sources = new ArrayList<Iterator<Map.Entry<K, V>>>();
+    try {
+      for (File run : runs)
+        sources.add(new RunIterator(run));
+
+      sortBuffer();
+      sources.add(buffer.iterator());
+
+      return tree.bulkLoad(new UniqueKeysIterator(new MergeIterator(sources)),
+          OGlobalConfiguration.SBTREE_BULK_LOAD_FILL_FACTOR.getValueAsInteger(), validator);
+    } catch (IOException e) {
+      throw OException.wrapException(new OSBTreeException("Error during reading of sorted entries of bulk load", tree), e);
+    } finally {
+      for (Iterator<Map.Entry<K, V>> source : sources) {
+        if (source instanceof RunIterator)
+          ((RunIterator) source).close();
+      }
+
+      buffer.clear();
+      deleteRuns();
+    }
+  }
+
+  @Override
+  public void close() {
+    buffer.clear();
+    deleteRuns();
+  }
+
+  private void deleteRuns() {
+    for (File run : runs) {
+      if (run.exists() && !run.delete())
+        OLogManager.instance().warn(this, "Temporary file %s of bulk load of sbtree %s can not be deleted", run, tree.getName());
+    }
+
+    runs.clear();
+  }
+
+  private void sortBuffer() {
+    @SuppressWarnings("unchecked")
+    final Map.Entry<K, V>[] entries = buffer.toArray(new Map.Entry[buffer.size()]);
+    // SORT IS STABLE SO ORDER OF VALUES OF THE SAME KEY IS PRESERVED
+    Arrays.parallelSort(entries, comparator);
+
+    buffer.clear();
+    buffer.addAll(Arrays.asList(entries));
+  }
+
+  private void writeRun() {
+    sortBuffer();
+
+    try {
+      final File run = Files.createTempFile(tree.getName(), ".sbl").toFile();
+      runs.add(run);
+
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), 64 * 1024));
+      try {
+        out.writeInt(buffer.size());
+
+        for (Map.Entry<K, V> entry : buffer) {
+          final byte[] key = new byte[keySerializer.getObjectSize(entry.getKey(), (Object[]) keyTypes)];
+          keySerializer.serializeNativeObject(entry.getKey(), key, 0, (Object[]) keyTypes);
+          out.writeInt(key.length);
+          out.write(key);
+
+          final byte[] value = new byte[valueSerializer.getObjectSize(entry.getValue())];
+          valueSerializer.serializeNativeObject(entry.getValue(), value, 0);
+          out.writeInt(value.length);
+          out.write(value);
+        }
+      } finally {
+        out.close();
+      }
+    } catch (IOException e) {
+      throw OException.wrapException(new OSBTreeException("Error during writing of sorted entries of bulk load", tree), e);
+    }
+
+    buffer.clear();
+  }
+
+  /**
+   * Reads entries of the sorted run from the temporary file.
+   */
+  private final class RunIterator implements Iterator<Map.Entry<K, V>> {
+    private final DataInputStream in;
+    private       int             remaining;
+
+    private RunIterator(File run) throws IOException {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(run), 64 * 1024));
+      remaining = in.readInt();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (remaining <= 0)
+        throw new NoSuchElementException();
+
+      try {
+        final byte[] key = new byte[in.readInt()];
+        in.readFully(key);
+
+        final byte[] value = new byte[in.readInt()];
+        in.readFully(value);
+
+        remaining--;
+        return new AbstractMap.SimpleImmutableEntry<K, V>(keySerializer.deserializeNativeObject(key, 0),
+            valueSerializer.deserializeNativeObject(value, 0));
+      } catch (IOException e) {
+        throw OException.wrapException(new OSBTreeException("Error during reading of sorted entries of bulk load", tree), e);
+      }
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    private void close() {
+      try {
+        in.close();
+      } catch (IOException e) {
+        OLogManager.instance().error(this, "Error during closing of sorted run of bulk load", e);
+      }
+    }
+  }
+
+  /**
+   * Merges sorted runs, entries with the same key are returned in order of runs, so in order of addition.
+   */
+  private final class MergeIterator implements Iterator<Map.Entry<K, V>> {
+    private final List<Iterator<Map.Entry<K, V>>> sources;
+    private final PriorityQueue<Head>             heads;
+
+    private MergeIterator(List<Iterator<Map.Entry<K, V>>> sources) {
+      this.sources = sources;
+      this.heads = new PriorityQueue<Head>(Math.max(1, sources.size()), new Comparator<Head>() {
+        @Override
+        public int compare(Head first, Head second) {
+          final int result = comparator.compare(first.entry, second.entry);
+          if (result != 0)
+            return result;
+
+          return Integer.compare(first.source, second.source);
+        }
+      });
+
+      for (int i = 0; i < sources.size(); i++)
+        advance(i);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      final Head head = heads.poll();
+      if (head == null)
+        throw new NoSuchElementException();
+
+      advance(head.source);
+      return head.entry;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    private void advance(int source) {
+      final Iterator<Map.Entry<K, V>> iterator = sources.get(source);
+      if (iterator.hasNext())
+        heads.add(new Head(iterator.next(), source));
+    }
+  }
+
+  private final class Head {
+    private final Map.Entry<K, V> entry;
+    private final int             source;
+
+    private Head(Map.Entry<K, V> entry, int source) {
+      this.entry = entry;
+      this.source = source;
+    }
+  }
+
+  /**
+   * Resolves values of duplicated keys of sorted entries.
+   */
+  private final class UniqueKeysIterator implements Iterator<Map.Entry<K, V>> {
+    private final Iterator<Map.Entry<K, V>> entries;
+    private       Map.Entry<K, V>           next;
+
+    private UniqueKeysIterator(Iterator<Map.Entry<K, V>> entries) {
+      this.entries = entries;
+      this.next = entries.hasNext() ? entries.next() : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      if (next == null)
+        throw new NoSuchElementException();
+
+      K key = next.getKey();
+      V value = next.getValue();
+      next = null;
+
+      while (entries.hasNext()) {
+        final Map.Entry<K, V> entry = entries.next();
+        if (keyComparator.compare(entry.getKey(), key) != 0) {
+          next = entry;
+          break;
+        }
+
+        if (validator == null)
+          value = entry.getValue();
+        else {
+          final Object result = validator.validate(key, value, entry.getValue());
+          if (result != OIndexEngine.Validator.IGNORE)
+            value = (V) result;
+        }
+      }
+
+      return new AbstractMap.SimpleImmutableEntry<K, V>(key, value);
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -30,6 +30,7 @@ import com.orientechnologies.orient.core.metadata.schema.clusterselection.OClust
 import com.orientechnologies.orient.core.metadata.security.ORole;
 import com.orientechnologies.orient.core.metadata.security.OSecurityShared;
 import com.orientechnologies.orient.core.metadata.security.OUser;
+import com.orientechnologies.orient.core.record.impl.OCompactFieldMap;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.schedule.OScheduledEvent;
 
@@ -61,6 +62,7 @@ public class OImmutableClass implements OClass {
   private final Map<String, OProperty>    properties;
   private Map<String, OProperty>          allPropertiesMap;
   private Collection<OProperty>           allProperties;
+  private OCompactFieldMap.Slots          fieldSlots;
   private final OClusterSelectionStrategy clusterSelection;
   private final int                       defaultClusterId;
   private final int[]                     clusterIds;
@@ -143,6 +145,7 @@ public class OImmutableClass implements OClass {
 
       this.allProperties = Collections.unmodifiableCollection(allProperties);
       this.allPropertiesMap = Collections.unmodifiableMap(allPropsMap);
+      this.fieldSlots = new OCompactFieldMap.Slots(allProperties);
       this.restricted = isSubClassOf(OSecurityShared.RESTRICTED_CLASSNAME);
       this.isVertexType = isSubClassOf(OClass.VERTEX_CLASS_NAME);
       this.isEdgeType = isSubClassOf(OClass.EDGE_CLASS_NAME);
@@ -254,6 +257,13 @@ public class OImmutableClass implements OClass {
     return allPropertiesMap;
   }
 
+  /**
+   * @return the slots of the properties used by the documents of the class to store their fields
+   */
+  public OCompactFieldMap.Slots getFieldSlots() {
+    return fieldSlots;
+  }
+
   public void getIndexedProperties(Collection<OProperty> indexedProperties) {
     for (OProperty p : properties.values())
       if (areIndexed(p.getName()))
@@ -0,0 +1,309 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.metadata.statistics;
+
+import com.orientechnologies.common.comparator.ODefaultComparator;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.parser.*;
+
+import java.util.*;
+
+/**
+ * Statistics of the records of a class, collected by {@link OStatisticsManager#analyze}. They estimate the fraction of the records
+ * of the class that match a condition, so that the query planner can choose the most selective index and the cheapest order of
+ * the patterns of a MATCH.
+ */
+public class OClassStatistics {
+  private final String                           className;
+  private final long                             recordCount;
+  private final long                             timestamp;
+  private final Map<String, OPropertyStatistics> properties;
+  private final Map<String, OIndexStatistics>    indexes;
+
+  OClassStatistics(String className, long recordCount, long timestamp, Map<String, OPropertyStatistics> properties,
+      Map<String, OIndexStatistics> indexes) {
+    this.className = className;
+    this.recordCount = recordCount;
+    this.timestamp = timestamp;
+    this.properties = properties;
+    this.indexes = indexes;
+  }
+
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * @return number of records of the class (subclasses included) at the time of the analysis
+   */
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * @return time of the analysis
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public OPropertyStatistics getProperty(String name) {
+    return properties.get(name);
+  }
+
+  public OIndexStatistics getIndex(String name) {
+    return indexes.get(name);
+  }
+
+  /**
+   * @return estimated fraction of the records of the class that match the where condition, -1 if the condition cannot be estimated
+   */
+  public double selectivity(OWhereClause where, OCommandContext ctx) {
+    if (recordCount == 0)
+      return -1;
+
+    double result = 0;
+    for (OAndBlock block : where.flatten()) {
+      final double blockSelectivity = selectivity(block, ctx);
+      if (blockSelectivity < 0)
+        return -1;
+      result += blockSelectivity;
+    }
+    return Math.min(1, result);
+  }
+
+  /**
+   * @return estimated fraction of the records of the class that match all the conditions of the block, -1 if none of the
+   * conditions can be estimated
+   */
+  public double selectivity(OAndBlock block, OCommandContext ctx) {
+    if (recordCount == 0)
+      return -1;
+
+    double result = 1;
+    boolean estimated = false;
+    final Map<String, Range> ranges = new HashMap<String, Range>();
+    for (OBooleanExpression condition : block.getSubBlocks()) {
+      if (addRange(condition, ranges, ctx)) {
+        estimated = true;
+        continue;
+      }
+      final double conditionSelectivity = selectivity(condition, ctx);
+      if (conditionSelectivity >= 0) {
+        result *= conditionSelectivity;
+        estimated = true;
+      }
+    }
+
+    for (Map.Entry<String, Range> entry : ranges.entrySet()) {
+      final Range range = entry.getValue();
+      final double rangeSelectivity = properties.get(entry.getKey())
+          .rangeSelectivity(range.from, range.fromIncluded, range.to, range.toIncluded);
+      if (rangeSelectivity >= 0)
+        result *= rangeSelectivity;
+    }
+
+    return estimated ? result : -1;
+  }
+
+  /**
+   * @param keyCondition             equality and range conditions on the fields of the index, as calculated by the planner
+   * @param additionalRangeCondition the other side of the range on the last field, if any
+   *
+   * @return estimated fraction of the records of the class returned by the index lookup, -1 if it cannot be estimated
+   */
+  public double indexLookupSelectivity(OIndex<?> index, OAndBlock keyCondition, OBinaryCondition additionalRangeCondition,
+      OCommandContext ctx) {
+    final OAndBlock block = new OAndBlock(-1);
+    block.getSubBlocks().addAll(keyCondition.getSubBlocks());
+    if (additionalRangeCondition != null)
+      block.getSubBlocks().add(additionalRangeCondition);
+
+    double result = selectivity(block, ctx);
+
+    //values of the fields of composite keys are often correlated, the selectivity of the full key cannot be lower than the average
+    final OIndexStatistics indexStatistics = indexes.get(index.getName());
+    final int fields = index.getDefinition().getFields().size();
+    if (result >= 0 && indexStatistics != null && fields > 1 && keyCondition.getSubBlocks().size() == fields
+        && additionalRangeCondition == null && isEqualityOnly(keyCondition))
+      result = Math.max(result, indexStatistics.keySelectivity());
+
+    return result;
+  }
+
+  private static boolean isEqualityOnly(OAndBlock keyCondition) {
+    for (OBooleanExpression condition : keyCondition.getSubBlocks()) {
+      if (!(condition instanceof OBinaryCondition) || !(((OBinaryCondition) condition)
+          .getOperator() instanceof OEqualsCompareOperator))
+        return false;
+    }
+    return true;
+  }
+
+  private double selectivity(OBooleanExpression condition, OCommandContext ctx) {
+    if (condition instanceof OBinaryCondition) {
+      final OBinaryCondition binary = (OBinaryCondition) condition;
+      final OPropertyStatistics property = property(binary.getLeft());
+      if (property == null || !binary.getRight().isEarlyCalculated())
+        return -1;
+
+      final OBinaryCompareOperator operator = binary.getOperator();
+      if (!(operator instanceof OEqualsCompareOperator) && !(operator instanceof ONeOperator)
+          && !(operator instanceof ONeqOperator))
+        return -1;
+
+      //plans are cached by the types of the input parameters, so their values cannot change the estimate: the average is used
+      final double equals = binary.getRight().refersToInputParameters() ?
+          property.averageEqualsSelectivity() :
+          property.equalsSelectivity(binary.getRight().execute((OResult) null, ctx));
+      if (operator instanceof OEqualsCompareOperator)
+        return equals;
+      return equals < 0 ? -1 : Math.max(0, 1 - property.getNullFraction() - equals);
+    } else if (condition instanceof OBetweenCondition) {
+      final OBetweenCondition between = (OBetweenCondition) condition;
+      final OPropertyStatistics property = property(between.getFirst());
+      if (property == null || !between.getSecond().isEarlyCalculated() || !between.getThird().isEarlyCalculated()
+          || between.getSecond().refersToInputParameters() || between.getThird().refersToInputParameters())
+        return -1;
+
+      return property.rangeSelectivity(between.getSecond().execute((OResult) null, ctx), true,
+          between.getThird().execute((OResult) null, ctx), true);
+    } else if (condition instanceof OIsNullCondition) {
+      final OPropertyStatistics property = property(((OIsNullCondition) condition).getExpression());
+      if (property != null)
+        return property.getNullFraction();
+    } else if (condition instanceof OIsNotNullCondition) {
+      final OPropertyStatistics property = property(((OIsNotNullCondition) condition).getExpression());
+      if (property != null)
+        return 1 - property.getNullFraction();
+    } else if (condition instanceof OInCondition) {
+      final OInCondition in = (OInCondition) condition;
+      final OPropertyStatistics property = property(in.getLeft());
+      if (property == null || in.getRightStatement() != null || in.getRightParam() != null || (in.getRightMathExpression() != null
+          && (!in.getRightMathExpression().isEarlyCalculated() || in.getRightMathExpression().refersToInputParameters())))
+        return -1;
+
+      final Object values = in.evaluateRight((OResult) null, ctx);
+      if (!(values instanceof Iterable))
+        return -1;
+
+      double result = 0;
+      for (Object value : (Iterable<?>) values) {
+        final double equals = property.equalsSelectivity(value);
+        if (equals < 0)
+          return -1;
+        result += equals;
+      }
+      return Math.min(1, result);
+    }
+    return -1;
+  }
+
+  private boolean addRange(OBooleanExpression condition, Map<String, Range> ranges, OCommandContext ctx) {
+    if (!(condition instanceof OBinaryCondition))
+      return false;
+
+    final OBinaryCondition binary = (OBinaryCondition) condition;
+    final OBinaryCompareOperator operator = binary.getOperator();
+    final boolean lower = operator instanceof OGtOperator || operator instanceof OGeOperator;
+    final boolean upper = operator instanceof OLtOperator || operator instanceof OLeOperator;
+    if (!lower && !upper)
+      return false;
+
+    final OPropertyStatistics property = property(binary.getLeft());
+    if (property == null || !binary.getRight().isEarlyCalculated() || binary.getRight().refersToInputParameters())
+      return false;
+
+    final Object value = property.convert(binary.getRight().execute((OResult) null, ctx));
+    if (value == null)
+      return false;
+
+    Range range = ranges.get(property.getName());
+    if (range == null) {
+      range = new Range();
+      ranges.put(property.getName(), range);
+    }
+
+    //with more conditions on the same side of the range the most restrictive is kept
+    if (lower && (range.from == null || ODefaultComparator.INSTANCE.compare(value, range.from) > 0)) {
+      range.from = value;
+      range.fromIncluded = operator instanceof OGeOperator;
+    } else if (upper && (range.to == null || ODefaultComparator.INSTANCE.compare(value, range.to) < 0)) {
+      range.to = value;
+      range.toIncluded = operator instanceof OLeOperator;
+    }
+    return true;
+  }
+
+  private OPropertyStatistics property(OExpression expression) {
+    if (expression == null || !expression.isBaseIdentifier())
+      return null;
+    return properties.get(expression.getDefaultAlias().getStringValue());
+  }
+
+  private static final class Range {
+    private Object  from;
+    private boolean fromIncluded;
+    private Object  to;
+    private boolean toIncluded;
+  }
+
+  ODocument toDocument() {
+    final ODocument document = new ODocument();
+    document.field("className", className);
+    document.field("recordCount", recordCount);
+    document.field("timestamp", timestamp);
+
+    final List<ODocument> propertyDocuments = new ArrayList<ODocument>();
+    for (OPropertyStatistics property : properties.values())
+      propertyDocuments.add(property.toDocument());
+    document.field("properties", propertyDocuments, OType.EMBEDDEDLIST);
+
+    final List<ODocument> indexDocuments = new ArrayList<ODocument>();
+    for (OIndexStatistics index : indexes.values())
+      indexDocuments.add(index.toDocument());
+    document.field("indexes", indexDocuments, OType.EMBEDDEDLIST);
+    return document;
+  }
+
+  static OClassStatistics fromDocument(ODocument document) {
+    final Map<String, OPropertyStatistics> properties = new HashMap<String, OPropertyStatistics>();
+    final List<ODocument> propertyDocuments = document.field("properties");
+    for (ODocument propertyDocument : propertyDocuments) {
+      final OPropertyStatistics property = OPropertyStatistics.fromDocument(propertyDocument);
+      properties.put(property.getName(), property);
+    }
+
+    final Map<String, OIndexStatistics> indexes = new HashMap<String, OIndexStatistics>();
+    final List<ODocument> indexDocuments = document.field("indexes");
+    for (ODocument indexDocument : indexDocuments) {
+      final OIndexStatistics index = OIndexStatistics.fromDocument(indexDocument);
+      indexes.put(index.getName(), index);
+    }
+
+    return new OClassStatistics(document.<String>field("className"), document.<Number>field("recordCount").longValue(),
+        document.<Number>field("timestamp").longValue(), properties, indexes);
+  }
+}
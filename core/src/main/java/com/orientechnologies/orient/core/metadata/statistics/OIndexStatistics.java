@@ -0,0 +1,96 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.metadata.statistics;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * Statistics of the keys of an index, used to estimate the result of the lookups of full keys of composite indexes, where the
+ * values of the properties are often correlated.
+ */
+public class OIndexStatistics {
+  private final String name;
+  private final long   rows;
+  private final long   nullKeys;
+  private final long   distinctKeys;
+
+  OIndexStatistics(String name, long rows, long nullKeys, long distinctKeys) {
+    this.name = name;
+    this.rows = rows;
+    this.nullKeys = nullKeys;
+    this.distinctKeys = distinctKeys;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getDistinctKeys() {
+    return distinctKeys;
+  }
+
+  /**
+   * @return average fraction of the records of the class returned by the lookup of a single not null key
+   */
+  public double keySelectivity() {
+    if (rows == 0 || distinctKeys == 0)
+      return 0;
+    return (double) (rows - nullKeys) / rows / distinctKeys;
+  }
+
+  ODocument toDocument() {
+    final ODocument document = new ODocument();
+    document.field("name", name);
+    document.field("rows", rows);
+    document.field("nullKeys", nullKeys);
+    document.field("distinctKeys", distinctKeys);
+    return document;
+  }
+
+  static OIndexStatistics fromDocument(ODocument document) {
+    return new OIndexStatistics(document.<String>field("name"), document.<Number>field("rows").longValue(),
+        document.<Number>field("nullKeys").longValue(), document.<Number>field("distinctKeys").longValue());
+  }
+
+  static final class Builder {
+    private final String       name;
+    private final OHyperLogLog distinct = new OHyperLogLog();
+
+    private long rows;
+    private long nullKeys;
+
+    Builder(String name) {
+      this.name = name;
+    }
+
+    void add(Object key) {
+      rows++;
+      if (key == null)
+        nullKeys++;
+      else
+        distinct.add(key);
+    }
+
+    OIndexStatistics build() {
+      return new OIndexStatistics(name, rows, nullKeys, rows > nullKeys ? Math.max(1, distinct.estimate()) : 0);
+    }
+  }
+}
@@ -0,0 +1,337 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.metadata.statistics;
+
+import com.orientechnologies.common.comparator.ODefaultComparator;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+import java.util.*;
+
+/**
+ * Statistics of the values of a property: fraction of nulls, number of distinct values, most common values with their frequency and
+ * an equi-depth histogram of the other values. All the selectivities are fractions of the records of the class, they return -1
+ * if the value cannot be compared with the values of the property.
+ */
+public class OPropertyStatistics {
+  public static final int HISTOGRAM_BUCKETS = 64;
+
+  private final String   name;
+  private final OType    type;
+  private final long     rows;
+  private final long     nulls;
+  private final long     distinct;
+  private final Object[] mostCommonValues;
+  private final double[] mostCommonFractions;
+  private final Object[] bounds;
+  private final double   histogramFraction;
+
+  OPropertyStatistics(String name, OType type, long rows, long nulls, long distinct, Object[] mostCommonValues,
+      double[] mostCommonFractions, Object[] bounds, double histogramFraction) {
+    this.name = name;
+    this.type = type;
+    this.rows = rows;
+    this.nulls = nulls;
+    this.distinct = distinct;
+    this.mostCommonValues = mostCommonValues;
+    this.mostCommonFractions = mostCommonFractions;
+    this.bounds = bounds;
+    this.histogramFraction = histogramFraction;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public OType getType() {
+    return type;
+  }
+
+  public long getDistinct() {
+    return distinct;
+  }
+
+  public double getNullFraction() {
+    return rows == 0 ? 0 : (double) nulls / rows;
+  }
+
+  /**
+   * @return fraction of records where the property is equal to the value
+   */
+  public double equalsSelectivity(Object value) {
+    final Object converted = convert(value);
+    if (converted == null)
+      return value == null ? 0 : -1;
+
+    for (int i = 0; i < mostCommonValues.length; i++) {
+      if (compare(mostCommonValues[i], converted) == 0)
+        return mostCommonFractions[i];
+    }
+
+    if (bounds.length == 0)
+      return 0;
+
+    if (compare(converted, bounds[0]) < 0 || compare(converted, bounds[bounds.length - 1]) > 0)
+      return 0;
+
+    return histogramFraction / Math.max(1, distinct - mostCommonValues.length);
+  }
+
+  /**
+   * @return fraction of records where the property is equal to a value that is not known, the histogram is ignored
+   */
+  public double averageEqualsSelectivity() {
+    return distinct == 0 ? 0 : (1 - getNullFraction()) / distinct;
+  }
+
+  /**
+   * @param from lower bound, null if unbounded
+   * @param to   upper bound, null if unbounded
+   *
+   * @return fraction of records where the property is in the range
+   */
+  public double rangeSelectivity(Object from, boolean fromIncluded, Object to, boolean toIncluded) {
+    final Object lower = convert(from);
+    final Object upper = convert(to);
+    if ((from != null && lower == null) || (to != null && upper == null))
+      return -1;
+
+    double result = 0;
+    for (int i = 0; i < mostCommonValues.length; i++) {
+      if (inRange(mostCommonValues[i], lower, fromIncluded, upper, toIncluded))
+        result += mostCommonFractions[i];
+    }
+
+    if (bounds.length > 1) {
+      final double start = lower == null ? 0 : position(lower);
+      final double end = upper == null ? bounds.length - 1 : position(upper);
+      if (end > start)
+        result += histogramFraction * (end - start) / (bounds.length - 1);
+    }
+
+    return Math.min(1, result);
+  }
+
+  private boolean inRange(Object value, Object lower, boolean lowerIncluded, Object upper, boolean upperIncluded) {
+    if (lower != null) {
+      final int cmp = compare(value, lower);
+      if (cmp < 0 || (cmp == 0 && !lowerIncluded))
+        return false;
+    }
+    if (upper != null) {
+      final int cmp = compare(value, upper);
+      if (cmp > 0 || (cmp == 0 && !upperIncluded))
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * @return position of the value in the histogram, from 0 (first bound) to number of buckets (last bound), interpolated inside the
+   * bucket for numbers
+   */
+  private double position(Object value) {
+    if (compare(value, bounds[0]) <= 0)
+      return 0;
+    if (compare(value, bounds[bounds.length - 1]) >= 0)
+      return bounds.length - 1;
+
+    int low = 0;
+    int high = bounds.length - 1;
+    while (high - low > 1) {
+      final int middle = (low + high) >>> 1;
+      if (compare(bounds[middle], value) <= 0)
+        low = middle;
+      else
+        high = middle;
+    }
+
+    double inBucket = 0.5;
+    if (value instanceof Number) {
+      final double lowValue = ((Number) bounds[low]).doubleValue();
+      final double highValue = ((Number) bounds[high]).doubleValue();
+      if (highValue > lowValue)
+        inBucket = (((Number) value).doubleValue() - lowValue) / (highValue - lowValue);
+    } else if (value instanceof Date) {
+      final long lowValue = ((Date) bounds[low]).getTime();
+      final long highValue = ((Date) bounds[high]).getTime();
+      if (highValue > lowValue)
+        inBucket = (double) (((Date) value).getTime() - lowValue) / (highValue - lowValue);
+    }
+
+    return low + inBucket;
+  }
+
+  Object convert(Object value) {
+    if (value == null)
+      return null;
+    try {
+      return OType.convert(value, type.getDefaultJavaType());
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static int compare(Object first, Object second) {
+    return ODefaultComparator.INSTANCE.compare(first, second);
+  }
+
+  ODocument toDocument() {
+    final ODocument document = new ODocument();
+    document.field("name", name);
+    document.field("type", type.name());
+    document.field("rows", rows);
+    document.field("nulls", nulls);
+    document.field("distinct", distinct);
+    document.field("mostCommonValues", Arrays.asList(mostCommonValues));
+    final List<Double> fractions = new ArrayList<Double>(mostCommonFractions.length);
+    for (double fraction : mostCommonFractions)
+      fractions.add(fraction);
+    document.field("mostCommonFractions", fractions);
+    document.field("bounds", Arrays.asList(bounds));
+    document.field("histogramFraction", histogramFraction);
+    return document;
+  }
+
+  static OPropertyStatistics fromDocument(ODocument document) {
+    final OType type = OType.valueOf(document.<String>field("type"));
+    final List<Object> mostCommonValues = document.field("mostCommonValues");
+    final List<Number> fractions = document.field("mostCommonFractions");
+    final List<Object> bounds = document.field("bounds");
+
+    final Object[] values = new Object[mostCommonValues.size()];
+    for (int i = 0; i < values.length; i++)
+      values[i] = OType.convert(mostCommonValues.get(i), type.getDefaultJavaType());
+    final double[] mostCommonFractions = new double[fractions.size()];
+    for (int i = 0; i < mostCommonFractions.length; i++)
+      mostCommonFractions[i] = fractions.get(i).doubleValue();
+    final Object[] histogramBounds = new Object[bounds.size()];
+    for (int i = 0; i < histogramBounds.length; i++)
+      histogramBounds[i] = OType.convert(bounds.get(i), type.getDefaultJavaType());
+
+    return new OPropertyStatistics(document.field("name"), type, document.<Number>field("rows").longValue(),
+        document.<Number>field("nulls").longValue(), document.<Number>field("distinct").longValue(), values, mostCommonFractions,
+        histogramBounds, document.<Number>field("histogramFraction").doubleValue());
+  }
+
+  /**
+   * Collects the values of the property while the records of the class are scanned. Null fraction and distinct values are
+   * calculated on all the records, the histogram on a sample of them.
+   */
+  static final class Builder {
+    private final String       name;
+    private final OType        type;
+    private final Object[]     sample;
+    private final OHyperLogLog distinct = new OHyperLogLog();
+
+    private long rows;
+    private long nulls;
+
+    Builder(String name, OType type, int sampleSize) {
+      this.name = name;
+      this.type = type;
+      this.sample = new Object[sampleSize];
+    }
+
+    String getName() {
+      return name;
+    }
+
+    OType getType() {
+      return type;
+    }
+
+    /**
+     * @param value already converted value of the property
+     * @param slot  position of the record in the sample, -1 if the record is not sampled
+     */
+    void add(Object value, int slot) {
+      rows++;
+      if (value == null) {
+        nulls++;
+        if (slot >= 0)
+          sample[slot] = null;
+        return;
+      }
+
+      distinct.add(value);
+      if (slot >= 0)
+        sample[slot] = value;
+    }
+
+    OPropertyStatistics build() {
+      final List<Object> values = new ArrayList<Object>();
+      for (Object value : sample) {
+        if (value != null)
+          values.add(value);
+      }
+      Collections.sort(values, ODefaultComparator.INSTANCE);
+
+      final long distinctValues = Math.max(distinct.estimate(), values.isEmpty() ? 0 : 1);
+      if (values.isEmpty())
+        return new OPropertyStatistics(name, type, rows, nulls, distinctValues, new Object[0], new double[0], new Object[0], 0);
+
+      final double nonNullFraction = (double) (rows - nulls) / rows;
+
+      //values which are more frequent than a bucket of the histogram are kept apart with their frequency
+      final List<Object> runValues = new ArrayList<Object>();
+      final List<Integer> runLengths = new ArrayList<Integer>();
+      int start = 0;
+      for (int i = 1; i <= values.size(); i++) {
+        if (i == values.size() || compare(values.get(start), values.get(i)) != 0) {
+          runValues.add(values.get(start));
+          runLengths.add(i - start);
+          start = i;
+        }
+      }
+
+      final int threshold = Math.max(2, values.size() / HISTOGRAM_BUCKETS);
+      final List<Object> mostCommon = new ArrayList<Object>();
+      final List<Double> mostCommonFractions = new ArrayList<Double>();
+      final List<Object> others = new ArrayList<Object>();
+      for (int i = 0; i < runValues.size(); i++) {
+        final int length = runLengths.get(i);
+        if (length >= threshold && length < values.size() || runValues.size() == 1) {
+          mostCommon.add(runValues.get(i));
+          mostCommonFractions.add(nonNullFraction * length / values.size());
+        } else {
+          for (int n = 0; n < length; n++)
+            others.add(runValues.get(i));
+        }
+      }
+
+      final double[] fractions = new double[mostCommonFractions.size()];
+      for (int i = 0; i < fractions.length; i++)
+        fractions[i] = mostCommonFractions.get(i);
+
+      Object[] bounds = new Object[0];
+      if (!others.isEmpty()) {
+        final int buckets = Math.min(HISTOGRAM_BUCKETS, others.size());
+        bounds = new Object[buckets + 1];
+        for (int i = 0; i <= buckets; i++)
+          bounds[i] = others.get((int) ((long) i * (others.size() - 1) / buckets));
+      }
+
+      return new OPropertyStatistics(name, type, rows, nulls, distinctValues, mostCommon.toArray(), fractions, bounds,
+          nonNullFraction * others.size() / values.size());
+    }
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.metadata.statistics;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.OScenarioThreadLocal;
+import com.orientechnologies.orient.core.exception.ODatabaseException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexDefinition;
+import com.orientechnologies.orient.core.metadata.OMetadataDefault;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.parser.OExecutionPlanCache;
+import com.orientechnologies.orient.core.storage.OStorage;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the statistics of the classes of a database, used by the query planner to estimate the selectivity of the conditions.
+ * Statistics are collected on demand by {@link #analyze(ODatabaseDocumentInternal, String)} and stored in a document of the
+ * internal cluster. If {@link OGlobalConfiguration#QUERY_STATISTICS_REFRESH_RATIO} is set, statistics of an analyzed class are
+ * collected again in background when the number of records of the class changes more than that ratio since the last analysis.
+ */
+public class OStatisticsManager {
+  public static final String STATISTICS_RECORD_ID = "statisticsRecordId";
+
+  private static final long DRIFT_CHECK_INTERVAL = 10000;
+  private static final int  MIN_DRIFT            = 100;
+
+  private static final Set<OType> ANALYZED_TYPES = EnumSet
+      .of(OType.BOOLEAN, OType.BYTE, OType.SHORT, OType.INTEGER, OType.LONG, OType.FLOAT, OType.DOUBLE, OType.DECIMAL,
+          OType.STRING, OType.DATE, OType.DATETIME);
+
+  private final Map<String, OClassStatistics> classes    = new ConcurrentHashMap<String, OClassStatistics>();
+  private final Map<String, Long>             lastChecks = new ConcurrentHashMap<String, Long>();
+  private final Set<String>                   refreshing = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  private final OExecutionPlanCache executionPlanCache;
+  private volatile boolean loaded = false;
+
+  /**
+   * @param executionPlanCache cache of the execution plans, invalidated when new statistics are collected
+   */
+  public OStatisticsManager(OExecutionPlanCache executionPlanCache) {
+    this.executionPlanCache = executionPlanCache;
+  }
+
+  /**
+   * @return the statistics of the class, null if the class was never analyzed
+   */
+  public OClassStatistics getClassStatistics(ODatabaseDocumentInternal database, String className) {
+    if (className == null)
+      return null;
+    if (!loaded)
+      load(database);
+
+    final String key = className.toLowerCase(Locale.ENGLISH);
+    final OClassStatistics result = classes.get(key);
+    if (result != null)
+      checkDrift(database, key, result);
+    return result;
+  }
+
+  /**
+   * Collects the statistics of the class scanning all its records (subclasses included) and stores them in the database.
+   *
+   * @return the new statistics of the class
+   */
+  public OClassStatistics analyze(ODatabaseDocumentInternal database, String className) {
+    final OClass oClass = database.getMetadata().getImmutableSchemaSnapshot().getClass(className);
+    if (oClass == null)
+      throw new ODatabaseException("Class '" + className + "' not found");
+    if (database.getTransaction().isActive())
+      throw new ODatabaseException("Statistics of class '" + className + "' cannot be collected inside a transaction");
+    if (!loaded)
+      load(database);
+
+    final OClassStatistics statistics = collect(database, oClass);
+    classes.put(oClass.getName().toLowerCase(Locale.ENGLISH), statistics);
+    lastChecks.put(oClass.getName().toLowerCase(Locale.ENGLISH), System.currentTimeMillis());
+    save(database);
+
+    if (executionPlanCache != null)
+      executionPlanCache.invalidate();
+    return statistics;
+  }
+
+  /**
+   * removes the statistics of the class, the planner falls back to the runtime statistics of the queries
+   */
+  public void drop(ODatabaseDocumentInternal database, String className) {
+    if (!loaded)
+      load(database);
+    if (classes.remove(className.toLowerCase(Locale.ENGLISH)) != null) {
+      save(database);
+      if (executionPlanCache != null)
+        executionPlanCache.invalidate();
+    }
+  }
+
+  /**
+   * discards the statistics kept in memory, they are loaded again from the database on next access
+   */
+  public void clear() {
+    classes.clear();
+    lastChecks.clear();
+    loaded = false;
+  }
+
+  private OClassStatistics collect(ODatabaseDocumentInternal database, OClass oClass) {
+    final int sampleSize = database.getConfiguration().getValueAsInteger(OGlobalConfiguration.QUERY_STATISTICS_SAMPLE_SIZE);
+
+    final Map<String, OPropertyStatistics.Builder> properties = new HashMap<String, OPropertyStatistics.Builder>();
+    for (OProperty property : oClass.properties()) {
+      if (ANALYZED_TYPES.contains(property.getType()))
+        properties.put(property.getName(), new OPropertyStatistics.Builder(property.getName(), property.getType(), sampleSize));
+    }
+
+    final Map<OIndex<?>, OIndexStatistics.Builder> indexes = new HashMap<OIndex<?>, OIndexStatistics.Builder>();
+    for (OIndex<?> index : oClass.getIndexes()) {
+      final OIndexDefinition definition = index.getDefinition();
+      if (definition == null || !isScalar(definition))
+        continue;
+
+      indexes.put(index, new OIndexStatistics.Builder(index.getName()));
+      final List<String> fields = definition.getFields();
+      for (int i = 0; i < fields.size(); i++) {
+        final String field = fields.get(i);
+        if (!properties.containsKey(field))
+          properties.put(field, new OPropertyStatistics.Builder(field, definition.getTypes()[i], sampleSize));
+      }
+    }
+
+    //reservoir sampling, every record has the same probability to be in the sample of the histograms
+    final Random random = new Random();
+    long count = 0;
+    for (ODocument document : database.browseClass(oClass.getName(), true)) {
+      final int slot;
+      if (count < sampleSize)
+        slot = (int) count;
+      else {
+        final long candidate = (long) (random.nextDouble() * (count + 1));
+        slot = candidate < sampleSize ? (int) candidate : -1;
+      }
+      count++;
+
+      for (OPropertyStatistics.Builder builder : properties.values())
+        builder.add(convert(document.field(builder.getName()), builder.getType()), slot);
+      for (Map.Entry<OIndex<?>, OIndexStatistics.Builder> entry : indexes.entrySet())
+        entry.getValue().add(entry.getKey().getDefinition().getDocumentValueToIndex(document));
+    }
+
+    final Map<String, OPropertyStatistics> propertyStatistics = new HashMap<String, OPropertyStatistics>();
+    for (OPropertyStatistics.Builder builder : properties.values())
+      propertyStatistics.put(builder.getName(), builder.build());
+    final Map<String, OIndexStatistics> indexStatistics = new HashMap<String, OIndexStatistics>();
+    for (OIndexStatistics.Builder builder : indexes.values()) {
+      final OIndexStatistics statistics = builder.build();
+      indexStatistics.put(statistics.getName(), statistics);
+    }
+
+    return new OClassStatistics(oClass.getName(), count, System.currentTimeMillis(), propertyStatistics, indexStatistics);
+  }
+
+  private static boolean isScalar(OIndexDefinition definition) {
+    for (OType type : definition.getTypes()) {
+      if (!ANALYZED_TYPES.contains(type))
+        return false;
+    }
+    for (String field : definition.getFields()) {
+      //fields indexed by key or value of a map
+      if (field.indexOf(' ') >= 0)
+        return false;
+    }
+    return true;
+  }
+
+  private static Object convert(Object value, OType type) {
+    if (value == null)
+      return null;
+    try {
+      return OType.convert(value, type.getDefaultJavaType());
+    } catch (RuntimeException e) {
+      //not comparable with the other values of the property
+      return null;
+    }
+  }
+
+  private void checkDrift(ODatabaseDocumentInternal database, String key, OClassStatistics statistics) {
+    final float ratio = database.getConfiguration().getValueAsFloat(OGlobalConfiguration.QUERY_STATISTICS_REFRESH_RATIO);
+    if (ratio <= 0 || refreshing.contains(key))
+      return;
+
+    final long now = System.currentTimeMillis();
+    final Long lastCheck = lastChecks.get(key);
+    if (lastCheck != null && now - lastCheck < DRIFT_CHECK_INTERVAL)
+      return;
+    lastChecks.put(key, now);
+
+    final OClass oClass = database.getMetadata().getImmutableSchemaSnapshot().getClass(statistics.getClassName());
+    if (oClass == null)
+      return;
+
+    final long recordCount = statistics.getRecordCount();
+    if (Math.abs(oClass.count() - recordCount) > ratio * Math.max(recordCount, MIN_DRIFT))
+      scheduleRefresh(database, key, statistics.getClassName());
+  }
+
+  private void scheduleRefresh(ODatabaseDocumentInternal database, final String key, final String className) {
+    if (!refreshing.add(key))
+      return;
+
+    final ODatabaseDocumentInternal copy;
+    try {
+      copy = database.copy();
+    } catch (RuntimeException e) {
+      refreshing.remove(key);
+      OLogManager.instance().warn(this, "Cannot refresh statistics of class '%s'", e, className);
+      return;
+    } finally {
+      database.activateOnCurrentThread();
+    }
+
+    Orient.instance().submit(new Runnable() {
+      @Override
+      public void run() {
+        copy.activateOnCurrentThread();
+        try {
+          analyze(copy, className);
+        } catch (Exception e) {
+          OLogManager.instance().warn(this, "Error on refresh of statistics of class '%s'", e, className);
+        } finally {
+          refreshing.remove(key);
+          copy.close();
+        }
+      }
+    });
+  }
+
+  private synchronized void load(ODatabaseDocumentInternal database) {
+    if (loaded)
+      return;
+
+    final String recordId = database.getStorage().getConfiguration().getProperty(STATISTICS_RECORD_ID);
+    if (recordId != null) {
+      final ODocument document = database.load(new ORecordId(recordId), null, true);
+      if (document != null) {
+        final List<ODocument> classDocuments = document.field("classes");
+        if (classDocuments != null) {
+          for (ODocument classDocument : classDocuments) {
+            final OClassStatistics statistics = OClassStatistics.fromDocument(classDocument);
+            classes.put(statistics.getClassName().toLowerCase(Locale.ENGLISH), statistics);
+          }
+        }
+      }
+    }
+    loaded = true;
+  }
+
+  private synchronized void save(final ODatabaseDocumentInternal database) {
+    final List<ODocument> classDocuments = new ArrayList<ODocument>();
+    for (OClassStatistics statistics : classes.values())
+      classDocuments.add(statistics.toDocument());
+
+    OScenarioThreadLocal.executeAsDistributed(() -> {
+      final OStorage storage = database.getStorage();
+      final String recordId = storage.getConfiguration().getProperty(STATISTICS_RECORD_ID);
+
+      ODocument document = null;
+      if (recordId != null)
+        document = database.load(new ORecordId(recordId), null, true);
+
+      final boolean created = document == null;
+      if (created)
+        document = new ODocument();
+      document.field("classes", classDocuments, OType.EMBEDDEDLIST);
+
+      final ORID rid = database.save(document, OMetadataDefault.CLUSTER_INTERNAL_NAME).getIdentity();
+      if (created) {
+        storage.getConfiguration().setProperty(STATISTICS_RECORD_ID, rid.toString());
+        storage.getConfiguration().update();
+      }
+      return null;
+    });
+  }
+}
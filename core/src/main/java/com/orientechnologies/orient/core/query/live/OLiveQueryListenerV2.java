@@ -19,6 +19,9 @@
   */
 package com.orientechnologies.orient.core.query.live;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * Created by luigidellaquila on 16/03/15.
  */
@@ -29,4 +32,20 @@ public interface OLiveQueryListenerV2 {
   void onLiveResultEnd();
 
   int getToken();
+
+  /**
+   * @return name of the class which records (including records of its subclasses) are passed to this listener, or
+   * <code>null</code> if all the records should be passed
+   */
+  default String getClassName() {
+    return null;
+  }
+
+  /**
+   * Fields and values which the records passed to this listener have to be equal to. They are used only to skip the listeners
+   * which can not match the record, so the listener still has to check the record by itself.
+   */
+  default Map<String, Object> getEqualityFilters() {
+    return Collections.emptyMap();
+  }
 }
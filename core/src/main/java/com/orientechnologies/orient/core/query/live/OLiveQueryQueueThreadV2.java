@@ -20,77 +20,127 @@
 package com.orientechnologies.orient.core.query.live;
 
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.record.ORecordOperation;
+import com.orientechnologies.orient.core.sql.executor.OResult;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Takes changed records from the queue and routes them to interested subscribers through {@link OLiveQuerySubscriptionIndex}.
+ * Subscribers are called by the pool of dispatch lanes, see {@link OGlobalConfiguration#QUERY_LIVE_DISPATCH_THREADS}. Every
+ * subscriber is always called by the same lane, so it receives changes in the same order as they were queued.
+ *
  * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
  */
 public class OLiveQueryQueueThreadV2 extends Thread {
 
   private final BlockingQueue<OLiveQueryHookV2.OLiveQueryOp>            queue;
   private final ConcurrentMap<Integer, OLiveQueryListenerV2> subscribers;
-  private boolean                                          stopped = false;
+  private final OLiveQuerySubscriptionIndex                 index;
+  private final Statistics                                  statistics;
+  private final DispatchLane[]                              lanes;
+  private volatile boolean                                  stopped = false;
 
-  private OLiveQueryQueueThreadV2(BlockingQueue<OLiveQueryHookV2.OLiveQueryOp> queue, ConcurrentMap<Integer, OLiveQueryListenerV2> subscribers) {
+  private OLiveQueryQueueThreadV2(BlockingQueue<OLiveQueryHookV2.OLiveQueryOp> queue, ConcurrentMap<Integer, OLiveQueryListenerV2> subscribers,
+      OLiveQuerySubscriptionIndex index, Statistics statistics) {
     this.queue = queue;
     this.subscribers = subscribers;
-  }
+    this.index = index;
+    this.statistics = statistics;
+
+    this.lanes = new DispatchLane[Math.max(1, OGlobalConfiguration.QUERY_LIVE_DISPATCH_THREADS.getValueAsInteger())];
+    for (int i = 0; i < lanes.length; i++) {
+      lanes[i] = new DispatchLane(i);
+    }
 
-  public OLiveQueryQueueThreadV2() {
-    this(new LinkedBlockingQueue<OLiveQueryHookV2.OLiveQueryOp>(), new ConcurrentHashMap<Integer, OLiveQueryListenerV2>());
     setName("LiveQueryQueueThreadV2");
     this.setDaemon(true);
   }
 
+  public OLiveQueryQueueThreadV2() {
+    this(new LinkedBlockingQueue<OLiveQueryHookV2.OLiveQueryOp>(), new ConcurrentHashMap<Integer, OLiveQueryListenerV2>(),
+        new OLiveQuerySubscriptionIndex(), new Statistics());
+  }
+
   public OLiveQueryQueueThreadV2 clone() {
-    return new OLiveQueryQueueThreadV2(this.queue, this.subscribers);
+    return new OLiveQueryQueueThreadV2(this.queue, this.subscribers, this.index, this.statistics);
+  }
+
+  @Override
+  public synchronized void start() {
+    for (DispatchLane lane : lanes) {
+      lane.start();
+    }
+    super.start();
   }
 
   @Override
   public void run() {
-    while (!stopped) {
-      OLiveQueryHookV2.OLiveQueryOp next = null;
-      try {
-        next = queue.take();
-      } catch (InterruptedException ignore) {
-        break;
+    try {
+      while (!stopped) {
+        OLiveQueryHookV2.OLiveQueryOp next = null;
+        try {
+          next = queue.take();
+        } catch (InterruptedException ignore) {
+          break;
+        }
+        if (next == null) {
+          continue;
+        }
+        dispatch(next);
       }
-      if (next == null) {
-        continue;
+    } finally {
+      for (DispatchLane lane : lanes) {
+        lane.interrupt();
       }
-      for (OLiveQueryListenerV2 listener : subscribers.values()) {
+      for (DispatchLane lane : lanes) {
         try {
-          listener.onLiveResult(next);
-        } catch (Exception e) {
-          OLogManager.instance().warn(this, "Error executing live query subscriber.", e);
+          lane.join();
+        } catch (InterruptedException ignore) {
+          Thread.currentThread().interrupt();
+          break;
         }
-
       }
     }
   }
 
+  private void dispatch(final OLiveQueryHookV2.OLiveQueryOp op) {
+    final OResult record = op.type == ORecordOperation.DELETED ? op.before : op.after;
+    final int routed = index.route(op.classNames, record, listener -> laneOf(listener.getToken()).deliver(listener, op));
+
+    statistics.dispatchedOps.increment();
+    statistics.deliveries.add(routed);
+    statistics.skippedDeliveries.add(Math.max(0, subscribers.size() - routed));
+  }
+
   public void stopExecution() {
     this.stopped = true;
     this.interrupt();
   }
 
   public void enqueue(OLiveQueryHookV2.OLiveQueryOp item) {
+    item.enqueueTime = System.nanoTime();
     queue.offer(item);
   }
 
   public Integer subscribe(Integer id, OLiveQueryListenerV2 iListener) {
     subscribers.put(id, iListener);
+    index.add(id, iListener);
     return id;
   }
 
   public void unsubscribe(Integer id) {
     OLiveQueryListenerV2 res = subscribers.remove(id);
     if (res != null) {
-      res.onLiveResultEnd();
+      index.remove(id);
+      // END IS PASSED AFTER ALL THE CHANGES ALREADY ROUTED TO THE SUBSCRIBER
+      laneOf(id).end(res);
     }
   }
 
@@ -101,4 +151,136 @@ public class OLiveQueryQueueThreadV2 extends Thread {
   public boolean hasToken(Integer key) {
     return subscribers.containsKey(key);
   }
+
+  /**
+   * @return amount of changes which are waiting to be routed or passed to subscribers
+   */
+  public long getQueueSize() {
+    long size = queue.size();
+    for (DispatchLane lane : lanes) {
+      size += lane.deliveries.size();
+    }
+    return size;
+  }
+
+  /**
+   * @return amount of changes routed to subscribers
+   */
+  public long getDispatchedOps() {
+    return statistics.dispatchedOps.sum();
+  }
+
+  /**
+   * @return amount of changes passed to subscribers
+   */
+  public long getDeliveries() {
+    return statistics.deliveries.sum();
+  }
+
+  /**
+   * @return amount of checks of changes by subscribers which were avoided by routing of changes only to interested subscribers
+   */
+  public long getSkippedDeliveries() {
+    return statistics.skippedDeliveries.sum();
+  }
+
+  /**
+   * @return average time in microseconds passed from the moment the change was queued till the moment it was passed to subscriber
+   */
+  public long getAverageLatency() {
+    final long deliveries = statistics.latencyCount.sum();
+    if (deliveries == 0) {
+      return 0;
+    }
+    return statistics.latencySum.sum() / deliveries / 1000;
+  }
+
+  /**
+   * @return maximum time in microseconds passed from the moment the change was queued till the moment it was passed to subscriber
+   */
+  public long getMaxLatency() {
+    return statistics.maxLatency.get() / 1000;
+  }
+
+  private DispatchLane laneOf(int token) {
+    return lanes[(token & Integer.MAX_VALUE) % lanes.length];
+  }
+
+  private static final class Statistics {
+    private final LongAdder  dispatchedOps     = new LongAdder();
+    private final LongAdder  deliveries        = new LongAdder();
+    private final LongAdder  skippedDeliveries = new LongAdder();
+    private final LongAdder  latencySum        = new LongAdder();
+    private final LongAdder  latencyCount      = new LongAdder();
+    private final AtomicLong maxLatency        = new AtomicLong();
+
+    private void recordLatency(long latency) {
+      latencySum.add(latency);
+      latencyCount.increment();
+
+      long max = maxLatency.get();
+      while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+        max = maxLatency.get();
+      }
+    }
+  }
+
+  /**
+   * Change which is passed to the subscriber, or end of the subscription if change is <code>null</code>.
+   */
+  private static final class Delivery {
+    private final OLiveQueryListenerV2          listener;
+    private final OLiveQueryHookV2.OLiveQueryOp op;
+
+    private Delivery(OLiveQueryListenerV2 listener, OLiveQueryHookV2.OLiveQueryOp op) {
+      this.listener = listener;
+      this.op = op;
+    }
+  }
+
+  private final class DispatchLane extends Thread {
+    private final BlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<Delivery>();
+
+    private DispatchLane(int index) {
+      setName("LiveQueryDispatchThreadV2-" + index);
+      setDaemon(true);
+    }
+
+    private void deliver(OLiveQueryListenerV2 listener, OLiveQueryHookV2.OLiveQueryOp op) {
+      deliveries.offer(new Delivery(listener, op));
+    }
+
+    private void end(OLiveQueryListenerV2 listener) {
+      final Delivery delivery = new Delivery(listener, null);
+      deliveries.offer(delivery);
+
+      // LANE IS NOT STARTED OR IS ALREADY STOPPED, SO SUBSCRIBER IS NOTIFIED BY THE CALLER
+      if (!isAlive() && deliveries.remove(delivery)) {
+        listener.onLiveResultEnd();
+      }
+    }
+
+    @Override
+    public void run() {
+      while (!stopped) {
+        final Delivery delivery;
+        try {
+          delivery = deliveries.take();
+        } catch (InterruptedException ignore) {
+          break;
+        }
+
+        try {
+          if (delivery.op == null) {
+            delivery.listener.onLiveResultEnd();
+          } else {
+            statistics.recordLatency(System.nanoTime() - delivery.op.enqueueTime);
+            delivery.listener.onLiveResult(delivery.op);
+          }
+        } catch (Exception e) {
+          OLogManager.instance().warn(this, "Error executing live query subscriber.", e);
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,236 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.query.live;
+
+import com.orientechnologies.orient.core.sql.executor.OResult;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Index of live query subscribers by the class of the records they are interested in and, if possible, by the value of one of the
+ * fields the subscriber compares for equality, see {@link OLiveQueryListenerV2#getClassName()} and
+ * {@link OLiveQueryListenerV2#getEqualityFilters()}.
+ * <p>
+ * Index may route a record to the subscriber which does not match it, but never skips a subscriber which may match it. Values are
+ * compared by the normalized form returned by {@link #routingKey(Object)}, values which can be equal to the value of other type
+ * after conversion are not indexed and records which contain them are routed to all the subscribers of the field.
+ * <p>
+ * Changes of the index are serialized, routing is lock free.
+ */
+final class OLiveQuerySubscriptionIndex {
+  private static final Object UNROUTABLE = new Object();
+
+  private final ConcurrentMap<Integer, OLiveQueryListenerV2> allClasses    = new ConcurrentHashMap<Integer, OLiveQueryListenerV2>();
+  private final ConcurrentMap<String, ClassSubscribers>      classes       = new ConcurrentHashMap<String, ClassSubscribers>();
+  private final Map<Integer, Subscription>                   subscriptions = new ConcurrentHashMap<Integer, Subscription>();
+
+  synchronized void add(Integer token, OLiveQueryListenerV2 listener) {
+    remove(token);
+
+    final String className = listener.getClassName();
+    if (className == null) {
+      allClasses.put(token, listener);
+      subscriptions.put(token, new Subscription(null, null, null));
+      return;
+    }
+
+    final String classKey = className.toLowerCase(Locale.ENGLISH);
+    final ClassSubscribers classSubscribers = classes.computeIfAbsent(classKey, k -> new ClassSubscribers());
+
+    final Map<String, Object> filters = listener.getEqualityFilters();
+    if (filters != null) {
+      for (Map.Entry<String, Object> filter : filters.entrySet()) {
+        final Object key = routingKey(filter.getValue());
+        if (filter.getKey() == null || key == UNROUTABLE) {
+          continue;
+        }
+
+        classSubscribers.byField.computeIfAbsent(filter.getKey(), k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(token, listener);
+        subscriptions.put(token, new Subscription(classKey, filter.getKey(), key));
+        return;
+      }
+    }
+
+    classSubscribers.all.put(token, listener);
+    subscriptions.put(token, new Subscription(classKey, null, null));
+  }
+
+  synchronized OLiveQueryListenerV2 remove(Integer token) {
+    final Subscription subscription = subscriptions.remove(token);
+    if (subscription == null) {
+      return null;
+    }
+
+    if (subscription.classKey == null) {
+      return allClasses.remove(token);
+    }
+
+    final ClassSubscribers classSubscribers = classes.get(subscription.classKey);
+    final OLiveQueryListenerV2 listener;
+    if (subscription.field == null) {
+      listener = classSubscribers.all.remove(token);
+    } else {
+      final ConcurrentMap<Object, ConcurrentMap<Integer, OLiveQueryListenerV2>> values = classSubscribers.byField
+          .get(subscription.field);
+      final ConcurrentMap<Integer, OLiveQueryListenerV2> listeners = values.get(subscription.key);
+      listener = listeners.remove(token);
+
+      if (listeners.isEmpty()) {
+        values.remove(subscription.key);
+        if (values.isEmpty()) {
+          classSubscribers.byField.remove(subscription.field);
+        }
+      }
+    }
+
+    if (classSubscribers.all.isEmpty() && classSubscribers.byField.isEmpty()) {
+      classes.remove(subscription.classKey);
+    }
+
+    return listener;
+  }
+
+  /**
+   * Passes to the consumer all the subscribers which may be interested in the record.
+   *
+   * @param classNames lower case names of the class of the record and of all its superclasses
+   * @param record     record which is checked by subscribers
+   *
+   * @return amount of subscribers passed to the consumer
+   */
+  int route(Set<String> classNames, OResult record, Consumer<OLiveQueryListenerV2> consumer) {
+    int routed = routeAll(allClasses, consumer);
+    if (classNames == null) {
+      return routed;
+    }
+
+    for (String className : classNames) {
+      final ClassSubscribers classSubscribers = classes.get(className);
+      if (classSubscribers == null) {
+        continue;
+      }
+
+      routed += routeAll(classSubscribers.all, consumer);
+
+      for (Map.Entry<String, ConcurrentMap<Object, ConcurrentMap<Integer, OLiveQueryListenerV2>>> field : classSubscribers.byField
+          .entrySet()) {
+        final Object value = record == null ? null : record.getProperty(field.getKey());
+        if (value == null) {
+          // NULL IS NOT EQUAL TO ANY INDEXED VALUE
+          continue;
+        }
+
+        final Object key = routingKey(value);
+        if (key == UNROUTABLE) {
+          for (ConcurrentMap<Integer, OLiveQueryListenerV2> listeners : field.getValue().values()) {
+            routed += routeAll(listeners, consumer);
+          }
+        } else {
+          final ConcurrentMap<Integer, OLiveQueryListenerV2> listeners = field.getValue().get(key);
+          if (listeners != null) {
+            routed += routeAll(listeners, consumer);
+          }
+        }
+      }
+    }
+
+    return routed;
+  }
+
+  int size() {
+    return subscriptions.size();
+  }
+
+  private static int routeAll(ConcurrentMap<Integer, OLiveQueryListenerV2> listeners, Consumer<OLiveQueryListenerV2> consumer) {
+    int routed = 0;
+    for (OLiveQueryListenerV2 listener : listeners.values()) {
+      consumer.accept(listener);
+      routed++;
+    }
+    return routed;
+  }
+
+  /**
+   * Normalizes the value so values which are equal for SQL have the same key. Strings are compared ignoring the case and integral
+   * numbers are compared by their <code>long</code> value. Values which can be equal to the value of other type after conversion
+   * (strings which look like numbers or dates, fractional numbers, dates, links, collections) are not normalized.
+   */
+  static Object routingKey(Object value) {
+    if (value instanceof Boolean) {
+      return value.toString();
+    }
+
+    if (value instanceof String) {
+      final String string = (String) value;
+      final String trimmed = string.trim();
+      if (!trimmed.isEmpty()) {
+        final char first = trimmed.charAt(0);
+        if (Character.isDigit(first) || first == '-' || first == '+' || first == '.') {
+          return UNROUTABLE;
+        }
+      }
+      return string.toLowerCase(Locale.ENGLISH);
+    }
+
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+
+    if (value instanceof BigInteger) {
+      final BigInteger integer = (BigInteger) value;
+      return integer.bitLength() < 64 ? (Object) integer.longValue() : UNROUTABLE;
+    }
+
+    if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+      final double number = ((Number) value).doubleValue();
+      if (Double.isInfinite(number) || Double.isNaN(number) || number != Math.rint(number) || Math.abs(number) >= 0x1p53) {
+        return UNROUTABLE;
+      }
+      return (long) number;
+    }
+
+    return UNROUTABLE;
+  }
+
+  private static final class ClassSubscribers {
+    private final ConcurrentMap<Integer, OLiveQueryListenerV2>                                               all     = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<Object, ConcurrentMap<Integer, OLiveQueryListenerV2>>> byField = new ConcurrentHashMap<>();
+  }
+
+  private static final class Subscription {
+    private final String classKey;
+    private final String field;
+    private final Object key;
+
+    private Subscription(String classKey, String field, Object key) {
+      this.classKey = classKey;
+      this.field = field;
+      this.key = key;
+    }
+  }
+}
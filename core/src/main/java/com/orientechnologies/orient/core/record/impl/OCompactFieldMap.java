@@ -0,0 +1,241 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.record.impl;
+
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+
+import java.util.*;
+
+/**
+ * Fields of a document of a schema-full class. The entries of the properties of the class are kept in an array indexed by the
+ * slot of the property, the slots are calculated once for every class of the schema snapshot and shared by all its documents,
+ * so no hash table and no map entry are allocated per document and field. Fields that are not properties of the class are
+ * appended after the slots of the properties. Iteration follows the insertion order, as for the default map of the documents.
+ */
+public class OCompactFieldMap extends AbstractMap<String, ODocumentEntry> {
+
+  /**
+   * Slots of the properties of a class, shared by all the documents of the class.
+   */
+  public static final class Slots {
+    private final String[]             names;
+    private final Map<String, Integer> indexes;
+
+    public Slots(Collection<OProperty> properties) {
+      final List<String> names = new ArrayList<String>(properties.size());
+      indexes = new HashMap<String, Integer>(properties.size() * 2);
+      for (OProperty property : properties) {
+        if (!indexes.containsKey(property.getName())) {
+          indexes.put(property.getName(), names.size());
+          names.add(property.getName());
+        }
+      }
+      this.names = names.toArray(new String[names.size()]);
+    }
+
+    public int size() {
+      return names.length;
+    }
+
+    private int indexOf(Object name) {
+      final Integer index = indexes.get(name);
+      return index == null ? -1 : index;
+    }
+  }
+
+  private static final String[] NO_EXTRA_NAMES = new String[0];
+  private static final int[]    NO_ORDER       = new int[0];
+
+  private final Slots            slots;
+  private       ODocumentEntry[] entries;
+  private       String[]         extraNames = NO_EXTRA_NAMES;
+  private       int[]            order      = NO_ORDER;
+  private       int              size       = 0;
+  private       Set<Entry<String, ODocumentEntry>> entrySet;
+
+  public OCompactFieldMap(Slots slots) {
+    this.slots = slots;
+    this.entries = new ODocumentEntry[slots.size()];
+  }
+
+  public Slots getSlots() {
+    return slots;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    final int index = indexOf(key);
+    return index >= 0 && entries[index] != null;
+  }
+
+  @Override
+  public ODocumentEntry get(Object key) {
+    final int index = indexOf(key);
+    return index >= 0 ? entries[index] : null;
+  }
+
+  @Override
+  public ODocumentEntry put(String key, ODocumentEntry value) {
+    if (key == null || value == null)
+      throw new NullPointerException();
+
+    int index = indexOf(key);
+    if (index < 0)
+      index = addExtraName(key);
+
+    final ODocumentEntry previous = entries[index];
+    entries[index] = value;
+    if (previous == null)
+      appendToOrder(index);
+    return previous;
+  }
+
+  @Override
+  public ODocumentEntry remove(Object key) {
+    final int index = indexOf(key);
+    if (index < 0 || entries[index] == null)
+      return null;
+    return removeAt(index);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(entries, null);
+    Arrays.fill(extraNames, null);
+    size = 0;
+  }
+
+  @Override
+  public Set<Entry<String, ODocumentEntry>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, ODocumentEntry>>() {
+        @Override
+        public Iterator<Entry<String, ODocumentEntry>> iterator() {
+          return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public void clear() {
+          OCompactFieldMap.this.clear();
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  private int indexOf(Object key) {
+    final int index = slots.indexOf(key);
+    if (index >= 0)
+      return index;
+    for (int i = 0; i < extraNames.length; i++) {
+      if (extraNames[i] != null && extraNames[i].equals(key))
+        return slots.size() + i;
+    }
+    return -1;
+  }
+
+  private String nameAt(int index) {
+    return index < slots.size() ? slots.names[index] : extraNames[index - slots.size()];
+  }
+
+  private int addExtraName(String key) {
+    //slots of removed fields are reused
+    for (int i = 0; i < extraNames.length; i++) {
+      if (extraNames[i] == null) {
+        extraNames[i] = key;
+        return slots.size() + i;
+      }
+    }
+    final int position = extraNames.length;
+    extraNames = Arrays.copyOf(extraNames, position + Math.max(2, position / 2));
+    extraNames[position] = key;
+    entries = Arrays.copyOf(entries, slots.size() + extraNames.length);
+    return slots.size() + position;
+  }
+
+  private void appendToOrder(int index) {
+    if (size == order.length)
+      order = Arrays.copyOf(order, Math.max(4, size + (size >> 1)));
+    order[size++] = index;
+  }
+
+  private ODocumentEntry removeAt(int index) {
+    final ODocumentEntry previous = entries[index];
+    entries[index] = null;
+    if (index >= slots.size())
+      extraNames[index - slots.size()] = null;
+
+    for (int i = 0; i < size; i++) {
+      if (order[i] == index) {
+        System.arraycopy(order, i + 1, order, i, size - i - 1);
+        size--;
+        break;
+      }
+    }
+    return previous;
+  }
+
+  private final class EntryIterator implements Iterator<Entry<String, ODocumentEntry>> {
+    private int position = 0;
+    private int last     = -1;
+
+    @Override
+    public boolean hasNext() {
+      return position < size;
+    }
+
+    @Override
+    public Entry<String, ODocumentEntry> next() {
+      if (position >= size)
+        throw new NoSuchElementException();
+      last = order[position++];
+      final int index = last;
+      return new SimpleEntry<String, ODocumentEntry>(nameAt(index), entries[index]) {
+        @Override
+        public ODocumentEntry setValue(ODocumentEntry value) {
+          if (value == null)
+            throw new NullPointerException();
+          entries[index] = value;
+          return super.setValue(value);
+        }
+      };
+    }
+
+    @Override
+    public void remove() {
+      if (last < 0)
+        throw new IllegalStateException();
+      removeAt(last);
+      last = -1;
+      position--;
+    }
+  }
+}
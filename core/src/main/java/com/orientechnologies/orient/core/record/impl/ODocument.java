@@ -25,6 +25,7 @@ import com.orientechnologies.common.io.OIOUtils;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.util.OCommonConst;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
@@ -44,6 +45,7 @@ import com.orientechnologies.orient.core.record.*;
 import com.orientechnologies.orient.core.serialization.serializer.OStringSerializerHelper;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializerFactory;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerBinary;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetwork;
 import com.orientechnologies.orient.core.sql.OSQLHelper;
 import com.orientechnologies.orient.core.sql.filter.OSQLPredicate;
@@ -839,7 +841,10 @@ public class ODocument extends ORecordAbstract
       destination._owners = null;
 
     if (_fields != null) {
-      destination._fields = _fields instanceof LinkedHashMap ? new LinkedHashMap<>() : new HashMap<>();
+      if (_fields instanceof OCompactFieldMap)
+        destination._fields = new OCompactFieldMap(((OCompactFieldMap) _fields).getSlots());
+      else
+        destination._fields = _fields instanceof LinkedHashMap ? new LinkedHashMap<>() : new HashMap<>();
       for (Entry<String, ODocumentEntry> entry : _fields.entrySet()) {
         ODocumentEntry docEntry = entry.getValue().clone();
         destination._fields.put(entry.getKey(), docEntry);
@@ -2096,7 +2101,7 @@ public class ODocument extends ORecordAbstract
     checkForFields(iFieldName);
     if (iFieldType != null) {
       if (_fields == null)
-        _fields = _ordered ? new LinkedHashMap<>() : new HashMap<>();
+        _fields = createFieldsMap();
       // SET THE FORCED TYPE
       ODocumentEntry entry = getOrCreate(iFieldName);
       if (entry.type != iFieldType)
@@ -2560,7 +2565,7 @@ public class ODocument extends ORecordAbstract
 
   protected void rawField(final String iFieldName, final Object iFieldValue, final OType iFieldType) {
     if (_fields == null)
-      _fields = _ordered ? new LinkedHashMap<>() : new HashMap<>();
+      _fields = createFieldsMap();
 
     ODocumentEntry entry = getOrCreate(iFieldName);
     removeCollectionChangeListener(entry, entry.value);
@@ -2571,6 +2576,31 @@ public class ODocument extends ORecordAbstract
       track((OIdentifiable) iFieldValue);
   }
 
+  /**
+   * Creates the map of the fields: documents of classes with properties use a compact map indexed by property if {@link
+   * OGlobalConfiguration#DOCUMENT_COMPACT_FIELDS} is enabled.
+   */
+  private Map<String, ODocumentEntry> createFieldsMap() {
+    final ODatabaseDocumentInternal database = getDatabaseIfDefinedInternal();
+    if (database != null && database.getConfiguration().getValueAsBoolean(OGlobalConfiguration.DOCUMENT_COMPACT_FIELDS)) {
+      //the class is not fetched from the content here, the content is not unmarshalled yet
+      OImmutableClass clazz = _immutableClazz;
+      if (clazz == null && database.getMetadata() != null) {
+        final OImmutableSchema schema = ((OMetadataInternal) database.getMetadata()).getImmutableSchemaSnapshot();
+        if (schema != null) {
+          final OClass found = _className != null ?
+              schema.getClass(_className) :
+              (_recordId != null && _recordId.getClusterId() >= 0 ? schema.getClassByClusterId(_recordId.getClusterId()) : null);
+          if (found instanceof OImmutableClass)
+            clazz = (OImmutableClass) found;
+        }
+      }
+      if (clazz != null && clazz.getFieldSlots() != null && clazz.getFieldSlots().size() > 0)
+        return new OCompactFieldMap(clazz.getFieldSlots());
+    }
+    return _ordered ? new LinkedHashMap<>() : new HashMap<>();
+  }
+
   protected ODocumentEntry getOrCreate(String key) {
     ODocumentEntry entry = _fields.get(key);
     if (entry == null) {
@@ -2935,7 +2965,7 @@ public class ODocument extends ORecordAbstract
 
   protected boolean checkForFields(final String... iFields) {
     if (_fields == null)
-      _fields = _ordered ? new LinkedHashMap<>() : new HashMap<>();
+      _fields = createFieldsMap();
 
     if (_status == ORecordElement.STATUS.LOADED && _source != null)
       // POPULATE FIELDS LAZY
@@ -2988,6 +3018,18 @@ public class ODocument extends ORecordAbstract
     return _fields == null ? new HashSet<>() : _fields.entrySet();
   }
 
+  /**
+   * Returns the content of the document in binary format as it was loaded from the storage, without serializing it.
+   *
+   * @return the serialized content, null if the document was changed after the load or it does not use the binary serializer
+   */
+  protected byte[] getBinarySource() {
+    if (_status != STATUS.LOADED || _dirty || _source == null || _source.length == 0
+        || !(_recordFormat instanceof ORecordSerializerBinary))
+      return null;
+    return _source;
+  }
+
   private void fetchSchemaIfCan() {
     if (_schema == null) {
       ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.INSTANCE.getIfDefined();
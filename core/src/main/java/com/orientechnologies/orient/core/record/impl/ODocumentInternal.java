@@ -91,6 +91,10 @@ public class ODocumentInternal {
     return doc.getRawProperty(propertyName);
   }
 
+  public static byte[] getBinarySource(ODocument doc) {
+    return doc.getBinarySource();
+  }
+
   public static ODocument toRawDocument(OElement element) {
     if (element instanceof ODocument) {
       return (ODocument) element;
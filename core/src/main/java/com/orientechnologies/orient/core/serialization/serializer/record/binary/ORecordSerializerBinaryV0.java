@@ -186,12 +186,12 @@ public class ORecordSerializerBinaryV0 implements ODocumentSerializer {
           final int valuePos = readInteger(bytes);
           final OType type = readOType(bytes);
 
-          if (valuePos == 0)
-            return null;
-
           if (!match)
             continue;
 
+          if (valuePos == 0)
+            return null;
+
           if (!ORecordSerializerBinary.INSTANCE.getCurrentSerializer().getComparator().isBinaryComparable(type))
             return null;
 
@@ -223,7 +223,7 @@ public class ORecordSerializerBinaryV0 implements ODocumentSerializer {
 
           bytes.offset = valuePos;
 
-          final OProperty classProp = iClass.getProperty(iFieldName);
+          final OProperty classProp = iClass != null ? iClass.getProperty(iFieldName) : null;
           return new OBinaryField(iFieldName, type, bytes, classProp != null ? classProp.getCollate() : null);
         }
         bytes.skip(OIntegerSerializer.INT_SIZE + (prop.getType() != OType.ANY ? 0 : 1));
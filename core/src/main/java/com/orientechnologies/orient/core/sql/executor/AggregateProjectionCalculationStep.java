@@ -1,33 +1,81 @@
 package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.exception.OSerializationException;
 import com.orientechnologies.orient.core.sql.parser.OExpression;
 import com.orientechnologies.orient.core.sql.parser.OGroupBy;
 import com.orientechnologies.orient.core.sql.parser.OProjection;
 import com.orientechnologies.orient.core.sql.parser.OProjectionItem;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.*;
 
 /**
+ * Calculates aggregate projections, grouping the upstream results by the GROUP BY key in a hash table.
+ * <p>
+ * When the number of groups exceeds {@link OGlobalConfiguration#QUERY_MAX_HEAP_RECORDS}, the partial aggregates are
+ * hash-partitioned by GROUP BY key and spilled to temporary files (if all the aggregations are {@link OMergeableAggregationContext}
+ * and the values are serializable); at the end each partition is read back, merged with the groups still in heap and returned.
+ * <p>
+ * The step can also run in two phases: a {@link Phase#PARTIAL} step returns one partial aggregate per group (with the GROUP BY key
+ * in the metadata) and a {@link Phase#MERGE} step combines the partial aggregates calculated by other steps, eg. in parallel on
+ * different clusters.
+ * <p>
  * Created by luigidellaquila on 12/07/16.
  */
 public class AggregateProjectionCalculationStep extends ProjectionCalculationStep {
 
+  public enum Phase {
+    /**
+     * aggregates the upstream records and returns the final values
+     */
+    COMPLETE, /**
+     * aggregates the upstream records and returns partial values, to be merged by a MERGE step
+     */
+    PARTIAL, /**
+     * merges the partial values returned by PARTIAL steps and returns the final values
+     */
+    MERGE
+  }
+
+  /**
+   * metadata key of partial aggregates, that contains the GROUP BY key
+   */
+  static final String GROUP_KEY_METADATA = "$groupKey";
+
+  private static final int SPILL_PARTITIONS = 16;
+
   private final OGroupBy groupBy;
+  private final Phase    phase;
 
   //the key is the GROUP BY key, the value is the (partially) aggregated value
-  private Map<List, OResultInternal> aggregateResults = new LinkedHashMap<>();
-  private List<OResultInternal>      finalResults     = null;
+  private Map<List, OResultInternal>      aggregateResults = new LinkedHashMap<>();
+  private Iterator<OResultInternal>       finalResults     = null;
+  private OResultInternal                 nextResult       = null;
+  private OResultSpillFile[]              spilledPartitions;
+  private int                             nextPartition    = 0;
+  private boolean                         spillDisabled    = false;
+  private int                             spilledGroups    = 0;
 
-  private int  nextItem = 0;
-  private long cost     = 0;
+  private long cost = 0;
 
   public AggregateProjectionCalculationStep(OProjection projection, OGroupBy groupBy, OCommandContext ctx,
       boolean profilingEnabled) {
+    this(projection, groupBy, Phase.COMPLETE, ctx, profilingEnabled);
+  }
+
+  public AggregateProjectionCalculationStep(OProjection projection, OGroupBy groupBy, Phase phase, OCommandContext ctx,
+      boolean profilingEnabled) {
     super(projection, ctx, profilingEnabled);
     this.groupBy = groupBy;
+    this.phase = phase;
   }
 
   @Override
@@ -41,19 +89,22 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
 
       @Override
       public boolean hasNext() {
-        if (localNext > nRecords || nextItem >= finalResults.size()) {
+        if (localNext >= nRecords) {
           return false;
         }
-        return true;
+        if (nextResult == null) {
+          nextResult = fetchNextResult();
+        }
+        return nextResult != null;
       }
 
       @Override
       public OResult next() {
-        if (localNext > nRecords || nextItem >= finalResults.size()) {
+        if (!hasNext()) {
           throw new IllegalStateException();
         }
-        OResult result = finalResults.get(nextItem);
-        nextItem++;
+        OResult result = nextResult;
+        nextResult = null;
         localNext++;
         return result;
       }
@@ -79,30 +130,65 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
     if (!prev.isPresent()) {
       throw new OCommandExecutionException("Cannot execute an aggregation or a GROUP BY without a previous result");
     }
+    int maxHeapGroups = getMaxHeapGroups(ctx);
     OExecutionStepInternal prevStep = prev.get();
     OResultSet lastRs = prevStep.syncPull(ctx, nRecords);
     while (lastRs.hasNext()) {
       aggregate(lastRs.next(), ctx);
+      if (maxHeapGroups > 0 && aggregateResults.size() > maxHeapGroups && !spillDisabled) {
+        spill();
+      }
       if (!lastRs.hasNext()) {
         lastRs = prevStep.syncPull(ctx, nRecords);
       }
     }
-    finalResults = new ArrayList<>();
-    finalResults.addAll(aggregateResults.values());
-    aggregateResults.clear();
-    for (OResultInternal item : finalResults) {
-      for (String name : item.getPropertyNames()) {
-        Object prevVal = item.getProperty(name);
-        if (prevVal instanceof AggregationContext) {
-          item.setProperty(name, ((AggregationContext) prevVal).getFinalValue());
+    if (spilledPartitions == null) {
+      List<OResultInternal> results = new ArrayList<>(aggregateResults.size());
+      for (Map.Entry<List, OResultInternal> entry : aggregateResults.entrySet()) {
+        results.add(finish(entry.getKey(), entry.getValue()));
+      }
+      aggregateResults.clear();
+      finalResults = results.iterator();
+    } else {
+      finalResults = Collections.emptyIterator();
+    }
+  }
+
+  private OResultInternal fetchNextResult() {
+    while (true) {
+      if (finalResults.hasNext()) {
+        return finalResults.next();
+      }
+      if (spilledPartitions == null || nextPartition >= SPILL_PARTITIONS) {
+        return null;
+      }
+      long begin = profilingEnabled ? System.nanoTime() : 0;
+      try {
+        finalResults = loadPartition(nextPartition++).iterator();
+      } finally {
+        if (profilingEnabled) {
+          cost += (System.nanoTime() - begin);
         }
       }
     }
   }
 
+  private int getMaxHeapGroups(OCommandContext ctx) {
+    if (ctx.getDatabase() instanceof ODatabaseDocumentInternal) {
+      return ((ODatabaseDocumentInternal) ctx.getDatabase()).getConfiguration()
+          .getValueAsInteger(OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS);
+    }
+    return OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS.getValueAsInteger();
+  }
+
   private void aggregate(OResult next, OCommandContext ctx) {
     long begin = profilingEnabled ? System.nanoTime() : 0;
     try {
+      if (phase == Phase.MERGE) {
+        List key = (List) next.getMetadata(GROUP_KEY_METADATA);
+        merge(getGroup(key == null ? new ArrayList<>() : key), next, ctx);
+        return;
+      }
       List<Object> key = new ArrayList<>();
       if (groupBy != null) {
         for (OExpression item : groupBy.getItems()) {
@@ -110,11 +196,7 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
           key.add(val);
         }
       }
-      OResultInternal preAggr = aggregateResults.get(key);
-      if (preAggr == null) {
-        preAggr = new OResultInternal();
-        aggregateResults.put(key, preAggr);
-      }
+      OResultInternal preAggr = getGroup(key);
 
       for (OProjectionItem proj : this.projection.getItems()) {
         String alias = proj.getProjectionAlias().getStringValue();
@@ -136,15 +218,212 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
     }
   }
 
+  private OResultInternal getGroup(List key) {
+    OResultInternal preAggr = aggregateResults.get(key);
+    if (preAggr == null) {
+      preAggr = new OResultInternal();
+      aggregateResults.put(key, preAggr);
+    }
+    return preAggr;
+  }
+
+  /**
+   * merges a partial aggregate (see {@link #toPartial(List, OResultInternal)}) into a group
+   */
+  private void merge(OResultInternal preAggr, OResult partial, OCommandContext ctx) {
+    for (OProjectionItem proj : this.projection.getItems()) {
+      String alias = proj.getProjectionAlias().getStringValue();
+      if (proj.isAggregate()) {
+        AggregationContext aggrCtx = preAggr.getProperty(alias);
+        if (aggrCtx == null) {
+          aggrCtx = proj.getAggregationContext(ctx);
+          preAggr.setProperty(alias, aggrCtx);
+        }
+        if (!(aggrCtx instanceof OMergeableAggregationContext)) {
+          throw new OCommandExecutionException("Cannot merge partial results of aggregate projection " + proj);
+        }
+        ((OMergeableAggregationContext) aggrCtx).merge(partial.getProperty(alias));
+      } else {
+        preAggr.setProperty(alias, partial.getProperty(alias));
+      }
+    }
+  }
+
+  /**
+   * replaces the aggregation contexts of a group with the final values (or with the partial values, in PARTIAL phase)
+   */
+  private OResultInternal finish(List key, OResultInternal item) {
+    if (phase == Phase.PARTIAL) {
+      OResultInternal result = toPartial(key, item);
+      if (result == null) {
+        throw new OCommandExecutionException("Cannot calculate partial results of aggregate projections " + projection);
+      }
+      return result;
+    }
+    for (String name : item.getPropertyNames()) {
+      Object prevVal = item.getProperty(name);
+      if (prevVal instanceof AggregationContext) {
+        item.setProperty(name, ((AggregationContext) prevVal).getFinalValue());
+      }
+    }
+    return item;
+  }
+
+  /**
+   * @return a result with the partial values of the group and the GROUP BY key in the metadata, null if the aggregations of this
+   * group cannot be merged
+   */
+  private OResultInternal toPartial(List key, OResultInternal item) {
+    OResultInternal result = new OResultInternal();
+    for (String name : item.getPropertyNames()) {
+      Object value = item.getProperty(name);
+      if (value instanceof AggregationContext) {
+        if (!(value instanceof OMergeableAggregationContext)) {
+          return null;
+        }
+        value = ((OMergeableAggregationContext) value).getPartialValue();
+      }
+      result.setProperty(name, value);
+    }
+    result.setMetadata(GROUP_KEY_METADATA, key);
+    return result;
+  }
+
+  /**
+   * moves all the groups in heap to the spill files, partitioned by hash of the GROUP BY key. If some groups cannot be written,
+   * spilling is disabled for this step and the remaining groups stay in heap
+   */
+  private void spill() {
+    if (spilledPartitions == null) {
+      spilledPartitions = new OResultSpillFile[SPILL_PARTITIONS];
+    }
+    Iterator<Map.Entry<List, OResultInternal>> iterator = aggregateResults.entrySet().iterator();
+    try {
+      while (iterator.hasNext()) {
+        Map.Entry<List, OResultInternal> entry = iterator.next();
+        OResultInternal partial = toPartial(entry.getKey(), entry.getValue());
+        if (partial == null || !isSpillable(entry.getKey()) || !isSpillable(partial.content.values())) {
+          OLogManager.instance().debug(this, "GROUP BY cannot spill aggregates %s to disk, keeping them in heap", projection);
+          spillDisabled = true;
+          return;
+        }
+        int partition = partition(entry.getKey());
+        if (spilledPartitions[partition] == null) {
+          spilledPartitions[partition] = new OResultSpillFile();
+        }
+        spilledPartitions[partition].write(partial);
+        iterator.remove();
+        spilledGroups++;
+      }
+    } catch (IOException | OSerializationException e) {
+      //the groups written so far are in the file, the others are still in heap
+      OLogManager.instance().warn(this, "Cannot spill GROUP BY aggregates to disk, keeping them in heap", e);
+      spillDisabled = true;
+    }
+  }
+
+  /**
+   * @return all the groups of a partition, with the final values: the partial aggregates spilled to disk are merged with the groups
+   * still in heap
+   */
+  private List<OResultInternal> loadPartition(int partition) {
+    Map<List, OResultInternal> groups = new LinkedHashMap<>();
+    Map<List, OResultInternal> inHeap = aggregateResults;
+    aggregateResults = groups;
+    try {
+      OResultSpillFile file = spilledPartitions[partition];
+      if (file != null) {
+        file.finishWrite();
+        OResult partial;
+        while ((partial = file.read()) != null) {
+          merge(getGroup((List) partial.getMetadata(GROUP_KEY_METADATA)), partial, ctx);
+        }
+      }
+      Iterator<Map.Entry<List, OResultInternal>> iterator = inHeap.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<List, OResultInternal> entry = iterator.next();
+        if (partition(entry.getKey()) == partition) {
+          OResultInternal group = groups.get(entry.getKey());
+          if (group == null) {
+            groups.put(entry.getKey(), entry.getValue());
+          } else {
+            merge(group, toPartial(entry.getKey(), entry.getValue()), ctx);
+          }
+          iterator.remove();
+        }
+      }
+    } catch (IOException e) {
+      throw OException.wrapException(new OCommandExecutionException("Cannot read GROUP BY aggregates spilled to disk"), e);
+    } finally {
+      aggregateResults = inHeap;
+      if (spilledPartitions[partition] != null) {
+        spilledPartitions[partition].close();
+        spilledPartitions[partition] = null;
+      }
+    }
+    List<OResultInternal> result = new ArrayList<>(groups.size());
+    for (Map.Entry<List, OResultInternal> entry : groups.entrySet()) {
+      result.add(finish(entry.getKey(), entry.getValue()));
+    }
+    return result;
+  }
+
+  private static int partition(List key) {
+    int hash = key.hashCode();
+    hash ^= (hash >>> 16);
+    return (hash & 0x7FFFFFFF) % SPILL_PARTITIONS;
+  }
+
+  private static boolean isSpillable(Collection<?> values) {
+    for (Object value : values) {
+      if (!isSpillable(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if the value is written to a spill file and read back as an equal value of the same class
+   */
+  private static boolean isSpillable(Object value) {
+    if (value == null || value instanceof String || value instanceof Boolean || value instanceof Integer
+        || value instanceof Long || value instanceof Short || value instanceof Byte || value instanceof Float
+        || value instanceof Double || value instanceof BigDecimal || value.getClass() == Date.class) {
+      return true;
+    }
+    return value instanceof List && isSpillable((List<?>) value);
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    if (spilledPartitions != null) {
+      for (OResultSpillFile file : spilledPartitions) {
+        if (file != null) {
+          file.close();
+        }
+      }
+    }
+  }
+
   @Override
   public String prettyPrint(int depth, int indent) {
     String spaces = OExecutionStepInternal.getIndent(depth, indent);
     String result = spaces + "+ CALCULATE AGGREGATE PROJECTIONS";
+    if (phase == Phase.PARTIAL) {
+      result += " (PARTIAL)";
+    } else if (phase == Phase.MERGE) {
+      result += " (MERGE PARTIAL RESULTS)";
+    }
     if (profilingEnabled) {
       result += " (" + getCostFormatted() + ")";
     }
     result +=
         "\n" + spaces + "      " + projection.toString() + "" + (groupBy == null ? "" : (spaces + "\n  " + groupBy.toString()));
+    if (spilledPartitions != null) {
+      result += "\n" + spaces + "  (spilled to disk: " + spilledGroups + " partial groups)";
+    }
     return result;
   }
 
@@ -152,4 +431,15 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
   public long getCost() {
     return cost;
   }
+
+  @Override
+  public boolean canBeCached() {
+    return phase == Phase.COMPLETE;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new AggregateProjectionCalculationStep(projection.copy(), groupBy == null ? null : groupBy.copy(), phase, ctx,
+        profilingEnabled);
+  }
 }
@@ -93,4 +93,14 @@ public class CountFromIndexStep extends AbstractExecutionStep {
     String spaces = OExecutionStepInternal.getIndent(depth, indent);
     return spaces + "+ CALCULATE INDEX SIZE: " + target;
   }
+
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new CountFromIndexStep(target.copy(), alias, ctx, profilingEnabled);
+  }
 }
@@ -81,6 +81,16 @@ public class FetchFromClassExecutionStep extends AbstractExecutionStep {
     }
   }
 
+  private FetchFromClassExecutionStep(FetchFromClassExecutionStep source, OCommandContext ctx) {
+    super(ctx, source.profilingEnabled);
+    this.className = source.className;
+    this.orderByRidAsc = source.orderByRidAsc;
+    this.orderByRidDesc = source.orderByRidDesc;
+    for (OExecutionStep step : source.getSubSteps()) {
+      getSubSteps().add(((OExecutionStepInternal) step).copy(ctx));
+    }
+  }
+
   private void sortClusers(int[] clusterIds) {
     if (orderByRidAsc) {
       Arrays.sort(clusterIds);
@@ -235,5 +245,19 @@ public class FetchFromClassExecutionStep extends AbstractExecutionStep {
   public List<OExecutionStep> getSubSteps() {
     return subSteps;
   }
-}
 
+  @Override
+  public boolean canBeCached() {
+    for (OExecutionStep step : getSubSteps()) {
+      if (!((OExecutionStepInternal) step).canBeCached()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new FetchFromClassExecutionStep(this, ctx);
+  }
+}
@@ -173,4 +173,16 @@ public class FetchFromClusterExecutionStep extends AbstractExecutionStep {
       throw OException.wrapException(new OCommandExecutionException(""), e);
     }
   }
+
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    FetchFromClusterExecutionStep result = new FetchFromClusterExecutionStep(clusterId, ctx, profilingEnabled);
+    result.order = order;
+    return result;
+  }
 }
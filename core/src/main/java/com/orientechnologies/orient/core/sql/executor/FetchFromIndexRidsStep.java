@@ -0,0 +1,226 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.id.ORID;
+
+import java.util.*;
+
+/**
+ * Fetches the RIDs from multiple indexes, combines them in memory (intersection for conditions in AND, union for conditions in
+ * OR) and only then returns the records, so that records that do not match all the indexed conditions are never loaded and records
+ * that match more indexed conditions are returned only once.
+ * <p>
+ * RIDs are kept in {@link ORidSet} bitmaps, intersection and union are bitwise operations on them. Temporary RIDs of records
+ * created in current transaction are kept apart.
+ */
+public class FetchFromIndexRidsStep extends AbstractExecutionStep {
+
+  private static final int BATCH_SIZE = 1000;
+
+  private boolean              intersection;
+  private List<OExecutionStep> subSteps = new ArrayList<>();
+
+  private Iterator<ORID> rids;
+
+  private long cost = 0;
+
+  /**
+   * @param indexFetchSteps steps that fetch the index entries, for intersections the most selective should be the first one
+   * @param intersection    true to return the RIDs returned by all the steps, false to return the RIDs returned by any of them
+   */
+  public FetchFromIndexRidsStep(List<FetchFromIndexStep> indexFetchSteps, boolean intersection, OCommandContext ctx,
+      boolean profilingEnabled) {
+    super(ctx, profilingEnabled);
+    this.intersection = intersection;
+    subSteps.addAll(indexFetchSteps);
+  }
+
+  @Override
+  public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
+    getPrev().ifPresent(x -> x.syncPull(ctx, nRecords));
+    init(ctx);
+
+    return new OResultSet() {
+      int localCount = 0;
+
+      @Override
+      public boolean hasNext() {
+        return localCount < nRecords && rids.hasNext();
+      }
+
+      @Override
+      public OResult next() {
+        if (!hasNext()) {
+          throw new IllegalStateException();
+        }
+        localCount++;
+        OResultInternal result = new OResultInternal();
+        result.setElement(rids.next());
+        ctx.setVariable("$current", result);
+        return result;
+      }
+
+      @Override
+      public void close() {
+      }
+
+      @Override
+      public Optional<OExecutionPlan> getExecutionPlan() {
+        return null;
+      }
+
+      @Override
+      public Map<String, Long> getQueryStats() {
+        return null;
+      }
+    };
+  }
+
+  private void init(OCommandContext ctx) {
+    if (rids != null) {
+      return;
+    }
+    long begin = profilingEnabled ? System.nanoTime() : 0;
+    try {
+      ORidSet persistent = new ORidSet();
+      Set<ORID> temporary = new HashSet<>();
+      boolean first = true;
+      for (OExecutionStep step : subSteps) {
+        ORidSet stepPersistent = new ORidSet();
+        Set<ORID> stepTemporary = new HashSet<>();
+        fetchRids((AbstractExecutionStep) step, ctx, stepPersistent, stepTemporary);
+
+        if (first) {
+          persistent = stepPersistent;
+          temporary = stepTemporary;
+          first = false;
+        } else if (intersection) {
+          persistent.retainAll(stepPersistent);
+          temporary.retainAll(stepTemporary);
+        } else {
+          persistent.addAll(stepPersistent);
+          temporary.addAll(stepTemporary);
+        }
+
+        if (intersection && persistent.isEmpty() && temporary.isEmpty()) {
+          //no need to scan the other indexes
+          break;
+        }
+      }
+
+      Iterator<ORID> persistentIterator = persistent.iterator();
+      Iterator<ORID> temporaryIterator = temporary.iterator();
+      rids = new Iterator<ORID>() {
+        @Override
+        public boolean hasNext() {
+          return persistentIterator.hasNext() || temporaryIterator.hasNext();
+        }
+
+        @Override
+        public ORID next() {
+          return persistentIterator.hasNext() ? persistentIterator.next() : temporaryIterator.next();
+        }
+      };
+    } finally {
+      if (profilingEnabled) {
+        cost += (System.nanoTime() - begin);
+      }
+    }
+  }
+
+  private void fetchRids(AbstractExecutionStep step, OCommandContext ctx, ORidSet persistent, Set<ORID> temporary) {
+    while (true) {
+      OResultSet entries = step.syncPull(ctx, BATCH_SIZE);
+      if (!entries.hasNext()) {
+        return;
+      }
+      while (entries.hasNext()) {
+        Object value = entries.next().getProperty("rid");
+        if (!(value instanceof OIdentifiable)) {
+          continue;
+        }
+        ORID rid = ((OIdentifiable) value).getIdentity();
+        if (rid.isPersistent()) {
+          persistent.add(rid);
+        } else {
+          temporary.add(rid);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String prettyPrint(int depth, int indent) {
+    String spaces = OExecutionStepInternal.getIndent(depth, indent);
+    StringBuilder result = new StringBuilder();
+    result.append(spaces);
+    result.append(intersection ? "+ INTERSECT RIDS FROM INDEXES" : "+ UNION RIDS FROM INDEXES");
+    if (profilingEnabled) {
+      result.append(" (" + getCostFormatted() + ")");
+    }
+    for (OExecutionStep step : subSteps) {
+      result.append("\n");
+      result.append(((OExecutionStepInternal) step).prettyPrint(depth + 1, indent));
+    }
+    return result.toString();
+  }
+
+  @Override
+  public long getCost() {
+    return cost;
+  }
+
+  @Override
+  public List<OExecutionStep> getSubSteps() {
+    return subSteps;
+  }
+
+  @Override
+  public void close() {
+    for (OExecutionStep step : subSteps) {
+      ((OExecutionStepInternal) step).close();
+    }
+    super.close();
+  }
+
+  @Override
+  public OResult serialize() {
+    OResultInternal result = OExecutionStepInternal.basicSerialize(this);
+    result.setProperty("intersection", intersection);
+    return result;
+  }
+
+  @Override
+  public void deserialize(OResult fromResult) {
+    try {
+      OExecutionStepInternal.basicDeserialize(fromResult, this);
+      intersection = fromResult.getProperty("intersection");
+    } catch (Exception e) {
+      throw OException.wrapException(new OCommandExecutionException(""), e);
+    }
+  }
+
+  @Override
+  public boolean canBeCached() {
+    //the indexes are chosen with estimates that do not depend on the values of the input parameters (see OClassStatistics)
+    for (OExecutionStep step : subSteps) {
+      if (!((OExecutionStepInternal) step).canBeCached()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    List<FetchFromIndexStep> steps = new ArrayList<>();
+    for (OExecutionStep step : subSteps) {
+      steps.add((FetchFromIndexStep) ((OExecutionStepInternal) step).copy(ctx));
+    }
+    return new FetchFromIndexRidsStep(steps, intersection, ctx, profilingEnabled);
+  }
+}
@@ -588,4 +588,15 @@ public class FetchFromIndexStep extends AbstractExecutionStep {
       throw OException.wrapException(new OCommandExecutionException(""), e);
     }
   }
+
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new FetchFromIndexStep(index, condition == null ? null : condition.copy(),
+        additionalRangeCondition == null ? null : additionalRangeCondition.copy(), orderAsc, ctx, profilingEnabled);
+  }
 }
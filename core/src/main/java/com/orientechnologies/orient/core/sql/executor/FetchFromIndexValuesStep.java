@@ -48,4 +48,8 @@ public class FetchFromIndexValuesStep extends FetchFromIndexStep {
     }
   }
 
-}
\ No newline at end of file
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new FetchFromIndexValuesStep(index, asc, ctx, profilingEnabled);
+  }
+}
@@ -208,4 +208,16 @@ public class FetchTemporaryFromTxStep extends AbstractExecutionStep {
       throw OException.wrapException(new OCommandExecutionException(""), e);
     }
   }
+
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    FetchTemporaryFromTxStep result = new FetchTemporaryFromTxStep(ctx, className, profilingEnabled);
+    result.order = order;
+    return result;
+  }
 }
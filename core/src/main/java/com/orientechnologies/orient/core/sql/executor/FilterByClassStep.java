@@ -142,4 +142,14 @@ public class FilterByClassStep extends AbstractExecutionStep {
       throw OException.wrapException(new OCommandExecutionException(""), e);
     }
   }
-}
\ No newline at end of file
+
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new FilterByClassStep(identifier.copy(), ctx, profilingEnabled);
+  }
+}
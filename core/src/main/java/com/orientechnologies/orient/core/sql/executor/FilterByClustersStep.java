@@ -28,6 +28,12 @@ public class FilterByClustersStep extends AbstractExecutionStep {
 
   }
 
+  private FilterByClustersStep(FilterByClustersStep source, OCommandContext ctx) {
+    super(ctx, source.profilingEnabled);
+    this.clusters = source.clusters;
+    this.clusterIds = source.clusterIds;
+  }
+
   private void init(ODatabase db) {
     if (this.clusterIds == null) {
       this.clusterIds = clusters.stream().map(x -> db.getClusterIdByName(x)).filter(x -> x != null).collect(Collectors.toSet());
@@ -156,4 +162,13 @@ public class FilterByClustersStep extends AbstractExecutionStep {
     }
   }
 
-}
\ No newline at end of file
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new FilterByClustersStep(this, ctx);
+  }
+}
@@ -15,6 +15,9 @@ import java.util.Optional;
 public class FilterStep extends AbstractExecutionStep {
   private OWhereClause whereClause;
 
+  private boolean              binaryMatcherCompiled = false;
+  private OBinaryRecordMatcher binaryMatcher;
+
   OResultSet prevResult = null;
 
   public FilterStep(OWhereClause whereClause, OCommandContext ctx, boolean profilingEnabled) {
@@ -28,6 +31,11 @@ public class FilterStep extends AbstractExecutionStep {
       throw new IllegalStateException("filter step requires a previous step");
     }
     OExecutionStepInternal prevStep = prev.get();
+    if (!binaryMatcherCompiled) {
+      //input parameters are known only at execution time
+      binaryMatcher = OBinaryRecordMatcher.compile(whereClause, ctx);
+      binaryMatcherCompiled = true;
+    }
 
     return new OResultSet() {
       public boolean finished = false;
@@ -56,7 +64,9 @@ public class FilterStep extends AbstractExecutionStep {
             }
           }
           nextItem = prevResult.next();
-          if (whereClause.matchesFilters(nextItem, ctx)) {
+          //records that do not match the simple conditions are discarded before being deserialized
+          Boolean binaryMatch = binaryMatcher == null ? null : binaryMatcher.matches(nextItem);
+          if (Boolean.TRUE.equals(binaryMatch) || (binaryMatch == null && whereClause.matchesFilters(nextItem, ctx))) {
             break;
           }
           nextItem = null;
@@ -142,4 +152,13 @@ public class FilterStep extends AbstractExecutionStep {
     }
   }
 
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new FilterStep(whereClause.copy(), ctx, profilingEnabled);
+  }
 }
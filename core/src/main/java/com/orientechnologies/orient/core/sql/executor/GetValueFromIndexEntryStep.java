@@ -60,4 +60,14 @@ public class GetValueFromIndexEntryStep extends AbstractExecutionStep {
     String spaces = OExecutionStepInternal.getIndent(depth, indent);
     return spaces + "+ EXTRACT VALUE FROM INDEX ENTRY";
   }
+
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new GetValueFromIndexEntryStep(ctx, profilingEnabled);
+  }
 }
@@ -2,7 +2,9 @@ package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.OSharedContext;
 import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.metadata.statistics.OClassStatistics;
 import com.orientechnologies.orient.core.sql.parser.OAndBlock;
 import com.orientechnologies.orient.core.sql.parser.OBinaryCompareOperator;
 import com.orientechnologies.orient.core.sql.parser.OBinaryCondition;
@@ -30,7 +32,13 @@ public class IndexSearchDescriptor {
   }
 
   public int cost(OCommandContext ctx) {
-    OQueryStats stats = OQueryStats.get((ODatabaseDocumentInternal) ctx.getDatabase());
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    long estimate = estimateFromStatistics(db, ctx);
+    if (estimate >= 0) {
+      return estimate > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) estimate;
+    }
+
+    OQueryStats stats = OQueryStats.get(db);
 
     String indexName = idx.getName();
     int size = keyCondition.getSubBlocks().size();
@@ -47,4 +55,26 @@ public class IndexSearchDescriptor {
     }
     return Integer.MAX_VALUE;
   }
+
+  /**
+   * estimates the number of records returned by the index lookup from the statistics of the values of the indexed class
+   *
+   * @return the estimated number of records, -1 if the class was never analyzed or the conditions cannot be estimated
+   */
+  private long estimateFromStatistics(ODatabaseDocumentInternal db, OCommandContext ctx) {
+    OSharedContext sharedContext = db.getSharedContext();
+    if (sharedContext == null || sharedContext.getStatisticsManager() == null || idx.getDefinition() == null) {
+      return -1;
+    }
+    OClassStatistics statistics = sharedContext.getStatisticsManager()
+        .getClassStatistics(db, idx.getDefinition().getClassName());
+    if (statistics == null) {
+      return -1;
+    }
+    double selectivity = statistics.indexLookupSelectivity(idx, keyCondition, additionalRangeCondition, ctx);
+    if (selectivity < 0) {
+      return -1;
+    }
+    return Math.round(selectivity * statistics.getRecordCount());
+  }
 }
@@ -43,4 +43,13 @@ public class LimitExecutionStep extends AbstractExecutionStep {
     return OExecutionStepInternal.getIndent(depth, indent) + "+ LIMIT (" + limit.toString() + ")";
   }
 
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new LimitExecutionStep(limit.copy(), ctx, profilingEnabled);
+  }
 }
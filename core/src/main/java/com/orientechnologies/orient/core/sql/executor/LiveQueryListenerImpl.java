@@ -15,13 +15,9 @@ import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.query.live.OLiveQueryHookV2;
 import com.orientechnologies.orient.core.query.live.OLiveQueryListenerV2;
 import com.orientechnologies.orient.core.sql.OSQLEngine;
-import com.orientechnologies.orient.core.sql.parser.OSelectStatement;
-import com.orientechnologies.orient.core.sql.parser.OStatement;
-import com.orientechnologies.orient.core.sql.parser.OWhereClause;
+import com.orientechnologies.orient.core.sql.parser.*;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
+import java.util.*;
 
 /**
  * Created by luigidellaquila on 15/06/17.
@@ -36,6 +32,7 @@ public class LiveQueryListenerImpl implements OLiveQueryListenerV2 {
   private       String           className;
 
   private final Map<Object, Object> params;
+  private final Map<String, Object> equalityFilters;
 
   private int token;
   private static final Random random = new Random();
@@ -62,6 +59,7 @@ public class LiveQueryListenerImpl implements OLiveQueryListenerV2 {
     if (db.getClass(className) == null) {
       throw new OCommandExecutionException("Class " + className + " not found in the schema: " + query);
     }
+    this.equalityFilters = extractEqualityFilters(statement.getWhereClause(), params);
     execInSeparateDatabase(new OCallable() {
       @Override
       public Object call(Object iArgument) {
@@ -111,6 +109,58 @@ public class LiveQueryListenerImpl implements OLiveQueryListenerV2 {
     return token;
   }
 
+  @Override
+  public String getClassName() {
+    return className;
+  }
+
+  @Override
+  public Map<String, Object> getEqualityFilters() {
+    return equalityFilters;
+  }
+
+  /**
+   * Collects conditions like <code>field = value</code> which have to be true for every record matched by WHERE clause, if value is
+   * a string, number or boolean literal or input parameter. They are used only to route changed records to the listener.
+   */
+  private static Map<String, Object> extractEqualityFilters(OWhereClause where, Map<Object, Object> params) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    if (where == null) {
+      return result;
+    }
+    List<OAndBlock> flattened = where.flatten();
+    if (flattened.size() != 1) {
+      return result;
+    }
+
+    OBasicCommandContext ctx = new OBasicCommandContext();
+    ctx.setInputParameters(params);
+    for (OBooleanExpression exp : flattened.get(0).getSubBlocks()) {
+      if (!(exp instanceof OBinaryCondition) || !(((OBinaryCondition) exp).getOperator() instanceof OEqualsCompareOperator)) {
+        continue;
+      }
+      OExpression left = ((OBinaryCondition) exp).getLeft();
+      OExpression right = ((OBinaryCondition) exp).getRight();
+      OExpression field;
+      OExpression value;
+      if (left.isBaseIdentifier() && right.isLiteralOrParameter()) {
+        field = left;
+        value = right;
+      } else if (right.isBaseIdentifier() && left.isLiteralOrParameter()) {
+        field = right;
+        value = left;
+      } else {
+        continue;
+      }
+
+      Object constant = value.execute((OResult) null, ctx);
+      if (constant instanceof String || constant instanceof Number || constant instanceof Boolean) {
+        result.putIfAbsent(field.getDefaultAlias().getStringValue(), constant);
+      }
+    }
+    return result;
+  }
+
   @Override
   public void onLiveResult(OLiveQueryHookV2.OLiveQueryOp iRecord) {
     execDb.activateOnCurrentThread();
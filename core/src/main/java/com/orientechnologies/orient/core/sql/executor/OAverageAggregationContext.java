@@ -0,0 +1,77 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.collection.OMultiValue;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.sql.parser.OExpression;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregation context for avg(). The sum is calculated as in {@link OSumAggregationContext}, the partial value is the pair
+ * [sum, number of values].
+ *
+ * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
+ */
+public class OAverageAggregationContext implements OMergeableAggregationContext {
+  private final OExpression            param;
+  private final OSumAggregationContext sum   = new OSumAggregationContext(null);
+  private       int                    total = 0;
+
+  public OAverageAggregationContext(OExpression param) {
+    this.param = param;
+  }
+
+  @Override
+  public Object getFinalValue() {
+    Number iSum = sum.getSum();
+    if (iSum instanceof Integer)
+      return iSum.intValue() / total;
+    else if (iSum instanceof Long)
+      return iSum.longValue() / total;
+    else if (iSum instanceof Float)
+      return iSum.floatValue() / total;
+    else if (iSum instanceof Double)
+      return iSum.doubleValue() / total;
+    else if (iSum instanceof BigDecimal)
+      return ((BigDecimal) iSum).divide(new BigDecimal(total), RoundingMode.HALF_UP);
+
+    return null;
+  }
+
+  @Override
+  public void apply(OResult next, OCommandContext ctx) {
+    Object value = param.execute(next, ctx);
+    if (value instanceof Number) {
+      add((Number) value);
+    } else if (OMultiValue.isMultiValue(value)) {
+      for (Object n : OMultiValue.getMultiValueIterable(value)) {
+        add((Number) n);
+      }
+    }
+  }
+
+  private void add(Number value) {
+    if (value != null) {
+      total++;
+      sum.add(value);
+    }
+  }
+
+  @Override
+  public Object getPartialValue() {
+    List<Object> result = new ArrayList<>(2);
+    result.add(sum.getSum());
+    result.add(total);
+    return result;
+  }
+
+  @Override
+  public void merge(Object partialValue) {
+    List<?> partial = (List<?>) partialValue;
+    sum.add((Number) partial.get(0));
+    total += ((Number) partial.get(1)).intValue();
+  }
+}
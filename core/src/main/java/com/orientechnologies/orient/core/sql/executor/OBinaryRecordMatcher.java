@@ -0,0 +1,285 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.collection.OMultiValue;
+import com.orientechnologies.orient.core.collate.ODefaultCollate;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentInternal;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.*;
+import com.orientechnologies.orient.core.sql.parser.*;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evaluates the simple conditions of a WHERE clause directly on the serialized content of the records, so that the records that
+ * do not match are discarded before their fields are deserialized. Supported conditions are =, &lt;, &lt;=, &gt;, &gt;=, IN, IS
+ * NULL and IS NOT NULL on top level properties, compared with literals or input parameters, combined with AND, OR and NOT.
+ * <p>
+ * The result of the evaluation is TRUE or FALSE when it is certain, null when it cannot be calculated on the binary content (eg.
+ * the property is missing or null, its type is not binary comparable or it has a collate); in this case the condition has to be
+ * evaluated on the record as usual.
+ */
+class OBinaryRecordMatcher {
+  private static final Set<OType> NUMBERS = EnumSet.of(OType.INTEGER, OType.LONG, OType.SHORT, OType.FLOAT, OType.DOUBLE);
+
+  private final Node root;
+
+  private OBinaryRecordMatcher(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * @return the matcher of the where clause, null if no condition of the where clause can be evaluated on the binary content
+   */
+  static OBinaryRecordMatcher compile(OWhereClause whereClause, OCommandContext ctx) {
+    if (whereClause == null || whereClause.getBaseExpression() == null)
+      return null;
+    final Node root = compile(whereClause.getBaseExpression(), ctx);
+    return root == null ? null : new OBinaryRecordMatcher(root);
+  }
+
+  /**
+   * @return TRUE if the record matches the where clause, FALSE if it does not, null if it cannot be said without deserializing it
+   */
+  Boolean matches(OResult result) {
+    if (!(result instanceof OResultInternal) || !((OResultInternal) result).content.isEmpty())
+      return null;
+
+    final OIdentifiable element = ((OResultInternal) result).element;
+    if (!(element instanceof OElement))
+      return null;
+    final ODocument document = ODocumentInternal.toRawDocument((OElement) element);
+    if (document == null)
+      return null;
+    final byte[] source = ODocumentInternal.getBinarySource(document);
+    if (source == null || source[0] != ORecordSerializerBinary.INSTANCE.getCurrentVersion())
+      return null;
+
+    try {
+      return root.matches(new BinaryRecord(source, ODocumentInternal.getImmutableSchemaClass(document)));
+    } catch (RuntimeException e) {
+      //malformed or unexpected content, the record is evaluated as usual
+      return null;
+    }
+  }
+
+  private static Node compile(OBooleanExpression expression, OCommandContext ctx) {
+    if (expression instanceof OAndBlock)
+      return compileBlock(((OAndBlock) expression).getSubBlocks(), true, ctx);
+    if (expression instanceof OOrBlock)
+      return compileBlock(((OOrBlock) expression).getSubBlocks(), false, ctx);
+    if (expression instanceof ONotBlock) {
+      final ONotBlock not = (ONotBlock) expression;
+      final Node sub = compile(not.getSub(), ctx);
+      if (sub == null || !not.isNegate())
+        return sub;
+      return record -> {
+        final Boolean result = sub.matches(record);
+        return result == null ? null : !result;
+      };
+    }
+    if (expression instanceof OParenthesisBlock)
+      return compile(((OParenthesisBlock) expression).getSubElement(), ctx);
+    if (expression instanceof OBinaryCondition)
+      return compileComparison((OBinaryCondition) expression, ctx);
+    if (expression instanceof OInCondition)
+      return compileIn((OInCondition) expression, ctx);
+    if (expression instanceof OIsNullCondition)
+      return compileIsNull(((OIsNullCondition) expression).getExpression(), true);
+    if (expression instanceof OIsNotNullCondition)
+      return compileIsNull(((OIsNotNullCondition) expression).getExpression(), false);
+    return null;
+  }
+
+  private static Node compileBlock(List<OBooleanExpression> subBlocks, boolean and, OCommandContext ctx) {
+    final List<Node> nodes = new ArrayList<Node>();
+    boolean complete = true;
+    for (OBooleanExpression subBlock : subBlocks) {
+      final Node node = compile(subBlock, ctx);
+      if (node == null)
+        complete = false;
+      else
+        nodes.add(node);
+    }
+    if (nodes.isEmpty() || (!and && !complete))
+      //one unknown condition in OR makes the whole block unknown
+      return null;
+
+    final boolean certain = complete;
+    return record -> {
+      boolean allCertain = certain;
+      for (Node node : nodes) {
+        final Boolean result = node.matches(record);
+        if (result == null)
+          allCertain = false;
+        else if (result != and)
+          return !and;
+      }
+      return allCertain ? and : null;
+    };
+  }
+
+  private static Node compileComparison(OBinaryCondition condition, OCommandContext ctx) {
+    final String field = fieldName(condition.getLeft());
+    if (field == null || !condition.getRight().isEarlyCalculated())
+      return null;
+
+    final OBinaryCompareOperator operator = condition.getOperator();
+    final boolean equals = operator instanceof OEqualsCompareOperator;
+    if (!equals && !(operator instanceof OLtOperator) && !(operator instanceof OLeOperator) && !(operator instanceof OGtOperator)
+        && !(operator instanceof OGeOperator))
+      return null;
+
+    final OBinaryField value = toBinaryField(condition.getRight().execute((OResult) null, ctx));
+    if (value == null || (!equals && value.type == OType.BOOLEAN))
+      return null;
+
+    return record -> {
+      final OBinaryField fieldValue = record.field(field);
+      if (fieldValue == null || !isComparable(fieldValue.type, value.type))
+        return null;
+
+      final OBinaryComparator comparator = ORecordSerializerBinary.INSTANCE.getCurrentSerializer().getComparator();
+      if (equals)
+        return comparator.isEqual(fieldValue, value.copy());
+
+      final int compare = comparator.compare(fieldValue, value.copy());
+      if (operator instanceof OLtOperator)
+        return compare < 0;
+      if (operator instanceof OLeOperator)
+        return compare <= 0;
+      if (operator instanceof OGtOperator)
+        return compare > 0;
+      return compare >= 0;
+    };
+  }
+
+  private static Node compileIn(OInCondition condition, OCommandContext ctx) {
+    final String field = fieldName(condition.getLeft());
+    if (field == null || condition.getRightStatement() != null || (condition.getRightMathExpression() != null && !condition
+        .getRightMathExpression().isEarlyCalculated()))
+      return null;
+
+    final Object right = condition.evaluateRight((OResult) null, ctx);
+    //sets are checked with contains(), that does not convert the values
+    if (right == null || right instanceof Set || !OMultiValue.isMultiValue(right))
+      return null;
+
+    final List<OBinaryField> values = new ArrayList<OBinaryField>();
+    for (Object item : OMultiValue.getMultiValueIterable(right, false)) {
+      final OBinaryField value = toBinaryField(item);
+      if (value == null)
+        return null;
+      values.add(value);
+    }
+
+    return record -> {
+      final OBinaryField fieldValue = record.field(field);
+      if (fieldValue == null)
+        return null;
+
+      final OBinaryComparator comparator = ORecordSerializerBinary.INSTANCE.getCurrentSerializer().getComparator();
+      for (OBinaryField value : values) {
+        if (!isComparable(fieldValue.type, value.type))
+          return null;
+        if (comparator.isEqual(fieldValue, value.copy()))
+          return true;
+      }
+      return false;
+    };
+  }
+
+  private static Node compileIsNull(OExpression expression, boolean isNull) {
+    final String field = fieldName(expression);
+    if (field == null)
+      return null;
+
+    //only the presence of a value is certain, a missing field could be a field with a type that is not binary comparable
+    return record -> record.field(field) != null ? !isNull : null;
+  }
+
+  private static String fieldName(OExpression expression) {
+    if (expression == null || !expression.isBaseIdentifier())
+      return null;
+    final String name = expression.getDefaultAlias().getStringValue();
+    //context variables take precedence on the properties of the record
+    return name.startsWith("$") ? null : name;
+  }
+
+  private static OBinaryField toBinaryField(Object value) {
+    if (value == null)
+      return null;
+    final OType type = OType.getTypeByValue(value);
+    if (type != OType.STRING && type != OType.BOOLEAN && !NUMBERS.contains(type))
+      return null;
+
+    final BytesContainer bytes = new BytesContainer();
+    ORecordSerializerBinary.INSTANCE.getCurrentSerializer().serializeValue(bytes, value, type, null);
+    bytes.offset = 0;
+    return new OBinaryField(null, type, bytes, null);
+  }
+
+  /**
+   * The binary comparator converts between all the types, here only the types that the usual evaluation compares in the same way
+   * are accepted
+   */
+  private static boolean isComparable(OType fieldType, OType valueType) {
+    if (fieldType == OType.STRING || fieldType == OType.BOOLEAN)
+      return fieldType == valueType;
+    return NUMBERS.contains(fieldType) && NUMBERS.contains(valueType);
+  }
+
+  private interface Node {
+    Boolean matches(BinaryRecord record);
+  }
+
+  private static final class BinaryRecord {
+    private final byte[] source;
+    private final OClass clazz;
+
+    private BinaryRecord(byte[] source, OClass clazz) {
+      this.source = source;
+      this.clazz = clazz;
+    }
+
+    /**
+     * @return the value of the field, null if it is missing, null, not binary comparable or it has a collate
+     */
+    private OBinaryField field(String name) {
+      //the collate is taken from the schema, the field read by name does not carry it
+      final OProperty property = clazz == null ? null : clazz.getProperty(name);
+      if (property != null && property.getCollate() != null && !ODefaultCollate.NAME.equals(property.getCollate().getName()))
+        return null;
+      return ORecordSerializerBinary.INSTANCE.getCurrentSerializer()
+          .deserializeField(new BytesContainer(source).skip(1), clazz, name);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.sql.parser.OExpression;
+
+/**
+ * Aggregation context for count(), with a primitive counter
+ *
+ * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
+ */
+public class OCountAggregationContext implements OMergeableAggregationContext {
+  private final OExpression param;
+  private       long        total = 0;
+
+  /**
+   * @param param the expression to count (only non-null values are counted), null to count all the rows (count(*))
+   */
+  public OCountAggregationContext(OExpression param) {
+    this.param = param;
+  }
+
+  @Override
+  public Object getFinalValue() {
+    return total;
+  }
+
+  @Override
+  public void apply(OResult next, OCommandContext ctx) {
+    if (param == null || param.execute(next, ctx) != null) {
+      total++;
+    }
+  }
+
+  @Override
+  public Object getPartialValue() {
+    return total;
+  }
+
+  @Override
+  public void merge(Object partialValue) {
+    if (partialValue != null) {
+      total += ((Number) partialValue).longValue();
+    }
+  }
+}
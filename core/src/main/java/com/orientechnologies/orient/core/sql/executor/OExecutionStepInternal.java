@@ -78,6 +78,26 @@ public interface OExecutionStepInternal extends OExecutionStep {
     //do nothing
   }
 
+  /**
+   * @return true if the step depends only on the statement and on the schema, but not on the values of the input parameters nor
+   * on the data, so it can be copied and reused by next executions of the same statement
+   */
+  default boolean canBeCached() {
+    return false;
+  }
+
+  /**
+   * creates a copy of this step, that is not yet executed and is bound to a new context. It's invoked only on steps that return
+   * true from {@link #canBeCached()}
+   *
+   * @param ctx the context of the new execution
+   *
+   * @return a copy of this step
+   */
+  default OExecutionStepInternal copy(OCommandContext ctx) {
+    throw new UnsupportedOperationException();
+  }
+
   default OResult serialize() {
     throw new UnsupportedOperationException();
   }
@@ -25,6 +25,24 @@ public interface OInternalExecutionPlan extends OExecutionPlan {
 
   long getCost();
 
+  /**
+   * @return true if all the steps of the plan can be cached, see {@link OExecutionStepInternal#canBeCached()}
+   */
+  default boolean canBeCached() {
+    return false;
+  }
+
+  /**
+   * creates a copy of this execution plan, bound to a new context
+   *
+   * @param ctx the context of the new execution
+   *
+   * @return a copy of the plan, ready to be executed
+   */
+  default OInternalExecutionPlan copy(OCommandContext ctx) {
+    throw new UnsupportedOperationException();
+  }
+
   default OResult serialize() {
     throw new UnsupportedOperationException();
   }
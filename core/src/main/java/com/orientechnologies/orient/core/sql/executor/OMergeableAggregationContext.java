@@ -0,0 +1,23 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+/**
+ * An aggregation context whose intermediate state can be exported and merged with the state of other contexts of the same
+ * aggregation. This allows to calculate partial aggregates separately (eg. on different threads, or after part of the groups were
+ * spilled to disk) and to combine them afterwards.
+ * <p>
+ * Partial values have to be simple values (numbers, strings, dates, lists of them), so that they can be serialized.
+ *
+ * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
+ */
+public interface OMergeableAggregationContext extends AggregationContext {
+
+  /**
+   * @return the current state of the aggregation, to be passed to {@link #merge(Object)} of another context
+   */
+  Object getPartialValue();
+
+  /**
+   * adds a partial state, as returned by {@link #getPartialValue()}, to this aggregation
+   */
+  void merge(Object partialValue);
+}
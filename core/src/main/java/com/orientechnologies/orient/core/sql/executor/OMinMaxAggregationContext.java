@@ -0,0 +1,79 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.sql.parser.OExpression;
+
+import java.util.Collection;
+
+/**
+ * Aggregation context for min() and max(), with the same semantics of
+ * {@link com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionMin} and
+ * {@link com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionMax}
+ *
+ * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
+ */
+public class OMinMaxAggregationContext implements OMergeableAggregationContext {
+  private final OExpression param;
+  private final boolean     max;
+  private       Object      context;
+
+  public OMinMaxAggregationContext(OExpression param, boolean max) {
+    this.param = param;
+    this.max = max;
+  }
+
+  @Override
+  public Object getFinalValue() {
+    return context;
+  }
+
+  @Override
+  public void apply(OResult next, OCommandContext ctx) {
+    Object item = param.execute(next, ctx);
+    if (item instanceof Collection<?>) {
+      Object candidate = null;
+      for (Object subitem : ((Collection<?>) item)) {
+        if (candidate == null || subitem != null && isBetter(subitem, candidate)) {
+          candidate = subitem;
+        }
+      }
+      item = candidate;
+    }
+    accumulate(item);
+  }
+
+  @Override
+  public Object getPartialValue() {
+    return context;
+  }
+
+  @Override
+  public void merge(Object partialValue) {
+    accumulate(partialValue);
+  }
+
+  private void accumulate(Object value) {
+    if (value == null) {
+      return;
+    }
+    if (context == null) {
+      context = value;
+      return;
+    }
+    if (context instanceof Number && value instanceof Number) {
+      final Number[] casted = OType.castComparableNumber((Number) context, (Number) value);
+      context = casted[0];
+      value = casted[1];
+    }
+    if (isBetter(value, context)) {
+      context = value;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean isBetter(Object value, Object current) {
+    int result = ((Comparable<Object>) current).compareTo(value);
+    return max ? result < 0 : result > 0;
+  }
+}
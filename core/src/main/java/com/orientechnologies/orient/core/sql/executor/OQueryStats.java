@@ -76,6 +76,34 @@ public class OQueryStats {
     pushValue(key, value);
   }
 
+  public long getParallelSubPlanRecords(String subPlan) {
+    String key = generateKey("PARALLEL", subPlan, "records");
+    Long val = stats.get(key);
+    if (val != null) {
+      return val;
+    }
+    return -1;
+  }
+
+  public long getParallelSubPlanCost(String subPlan) {
+    String key = generateKey("PARALLEL", subPlan, "cost");
+    Long val = stats.get(key);
+    if (val != null) {
+      return val;
+    }
+    return -1;
+  }
+
+  /**
+   * @param subPlan the description of the sub-plan (typically its first step, eg. "FETCH FROM CLUSTER 12 ASC")
+   * @param records the number of records the sub-plan produced
+   * @param cost    the time (in nanoseconds) spent by the worker thread fetching from the sub-plan
+   */
+  public void pushParallelSubPlanStats(String subPlan, Long records, Long cost) {
+    pushValue(generateKey("PARALLEL", subPlan, "records"), records);
+    pushValue(generateKey("PARALLEL", subPlan, "cost"), cost);
+  }
+
   private void pushValue(String key, Long value) {
     if (value == null) {
       return;
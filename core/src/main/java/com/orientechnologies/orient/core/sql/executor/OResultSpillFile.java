@@ -0,0 +1,131 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.exception.OSerializationException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
+import com.orientechnologies.orient.core.serialization.serializer.result.binary.OResultSerializerNetwork;
+
+import java.io.*;
+
+/**
+ * Temporary file that holds a sequence of {@link OResult}, used by blocking steps (eg. ORDER BY) to move part of their state out
+ * of the heap. Results are written with the binary result serializer; results that wrap a persistent record only store the RID
+ * (plus projections and metadata), the record is loaded again when the result is read back.
+ * <p>
+ * The file is written once (write(), then finishWrite()) and then read sequentially (read()). It's deleted by close().
+ *
+ * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
+ */
+public class OResultSpillFile implements Closeable {
+  private static final byte PROJECTION = 0;
+  private static final byte ELEMENT    = 1;
+
+  private final OResultSerializerNetwork serializer = new OResultSerializerNetwork();
+  private final File                     file;
+  private       DataOutputStream         out;
+  private       DataInputStream          in;
+  private       long                     size       = 0;
+
+  public OResultSpillFile() throws IOException {
+    File dir = new File(Orient.getTempPath());
+    if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+      throw new IOException("Cannot create temporary directory " + dir);
+    }
+    file = File.createTempFile("query-spill-", ".tmp", dir);
+    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+  }
+
+  /**
+   * @return true if the result can be written to a spill file and read back without loss of information
+   */
+  public static boolean canSpill(OResult item) {
+    if (item == null || item.getClass() != OResultInternal.class) {
+      return false;
+    }
+    OResultInternal result = (OResultInternal) item;
+    return result.element == null || result.element.getIdentity().isPersistent();
+  }
+
+  /**
+   * @throws OSerializationException if a value of the result cannot be serialized. In this case the file is not valid anymore
+   */
+  public void write(OResult item) throws IOException {
+    OResultInternal result = (OResultInternal) item;
+    BytesContainer bytes = new BytesContainer();
+    OResultInternal projection = new OResultInternal();
+    projection.content.putAll(result.content);
+    projection.addMetadata(result.metadata);
+    int kindPos = bytes.alloc(1);
+    if (result.element != null) {
+      bytes.bytes[kindPos] = ELEMENT;
+      serializer.serializeValue(bytes, result.element.getIdentity(), OType.LINK, null);
+    } else {
+      bytes.bytes[kindPos] = PROJECTION;
+    }
+    serializer.serialize(projection, bytes);
+
+    out.writeInt(bytes.offset);
+    out.write(bytes.bytes, 0, bytes.offset);
+    size++;
+  }
+
+  public void finishWrite() throws IOException {
+    out.close();
+    out = null;
+    in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+  }
+
+  /**
+   * @return the next result in the file, null if the file is over. Results of records that were deleted in the meantime are skipped
+   */
+  public OResult read() throws IOException {
+    while (size > 0) {
+      size--;
+      byte[] content = new byte[in.readInt()];
+      in.readFully(content);
+      BytesContainer bytes = new BytesContainer(content);
+      byte kind = content[0];
+      bytes.skip(1);
+      ORID rid = null;
+      if (kind == ELEMENT) {
+        rid = (ORID) serializer.deserializeValue(bytes, OType.LINK);
+      }
+      OResultInternal result = serializer.deserialize(bytes);
+      if (rid != null) {
+        result.setElement(rid);
+        if (result.element == null) {
+          continue;
+        }
+      }
+      return result;
+    }
+    return null;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (out != null) {
+        out.close();
+      }
+      if (in != null) {
+        in.close();
+      }
+    } catch (IOException e) {
+      OLogManager.instance().warn(this, "Error closing query spill file %s", e, file);
+    } finally {
+      out = null;
+      in = null;
+      if (file.exists() && !file.delete()) {
+        OLogManager.instance().warn(this, "Cannot delete query spill file %s", file);
+      }
+    }
+  }
+}
@@ -2,9 +2,7 @@ package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.orient.core.id.ORID;
 
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Special implementation of Java Set&lt;ORID&gt; to efficiently handle memory and performance.
@@ -120,6 +118,19 @@ public class ORidSet implements Set<ORID> {
     int block = (int) (positionByte / maxArraySize);
     int blockPositionByteInt = (int) (positionByte % maxArraySize);
 
+    ensureCapacity(cluster, block, blockPositionByteInt);
+
+    long original = content[cluster][block][blockPositionByteInt];
+    long currentMask = 1L << positionBit;
+    long existed = content[cluster][block][blockPositionByteInt] & currentMask;
+    content[cluster][block][blockPositionByteInt] = original | currentMask;
+    if (existed == 0L) {
+      size++;
+    }
+    return existed == 0L;
+  }
+
+  private void ensureCapacity(int cluster, int block, int blockPositionByteInt) {
     if (content.length <= cluster) {
       long[][][] oldContent = content;
       content = new long[cluster + 1][][];
@@ -138,15 +149,6 @@ public class ORidSet implements Set<ORID> {
     if (content[cluster][block].length <= blockPositionByteInt) {
       content[cluster][block] = expandClusterArray(content[cluster][block], blockPositionByteInt);
     }
-
-    long original = content[cluster][block][blockPositionByteInt];
-    long currentMask = 1L << positionBit;
-    long existed = content[cluster][block][blockPositionByteInt] & currentMask;
-    content[cluster][block][blockPositionByteInt] = original | currentMask;
-    if (existed == 0L) {
-      size++;
-    }
-    return existed == 0L;
   }
 
   private static long[][] expandClusterBlocks(long[][] longs, int block, int blockPositionByteInt) {
@@ -237,15 +239,100 @@ public class ORidSet implements Set<ORID> {
   }
 
   @Override public boolean addAll(Collection<? extends ORID> c) {
+    if (c instanceof ORidSet && ((ORidSet) c).maxArraySize == maxArraySize) {
+      return union((ORidSet) c);
+    }
     boolean added = false;
     for (ORID o : c) {
-      added = added && add(o);
+      added = add(o) || added;
     }
     return added;
   }
 
+  /**
+   * bitwise OR of the content of the two sets, without creating any RID
+   */
+  private boolean union(ORidSet other) {
+    boolean changed = false;
+    for (int cluster = 0; cluster < other.content.length; cluster++) {
+      long[][] otherBlocks = other.content[cluster];
+      if (otherBlocks == null) {
+        continue;
+      }
+      for (int block = 0; block < otherBlocks.length; block++) {
+        long[] otherWords = otherBlocks[block];
+        if (otherWords == null) {
+          continue;
+        }
+        for (int i = otherWords.length - 1; i >= 0; i--) {
+          long word = otherWords[i];
+          if (word == 0L) {
+            continue;
+          }
+          ensureCapacity(cluster, block, i);
+          long original = content[cluster][block][i];
+          long result = original | word;
+          if (result != original) {
+            content[cluster][block][i] = result;
+            size += Long.bitCount(result) - Long.bitCount(original);
+            changed = true;
+          }
+        }
+      }
+    }
+    return changed;
+  }
+
   @Override public boolean retainAll(Collection<?> c) {
-    throw new UnsupportedOperationException();
+    if (c instanceof ORidSet && ((ORidSet) c).maxArraySize == maxArraySize) {
+      return intersection((ORidSet) c);
+    }
+    List<ORID> toRemove = new ArrayList<>();
+    for (ORID rid : this) {
+      if (!c.contains(rid)) {
+        toRemove.add(rid);
+      }
+    }
+    for (ORID rid : toRemove) {
+      remove(rid);
+    }
+    return !toRemove.isEmpty();
+  }
+
+  /**
+   * bitwise AND of the content of the two sets, without creating any RID
+   */
+  private boolean intersection(ORidSet other) {
+    boolean changed = false;
+    long newSize = 0;
+    for (int cluster = 0; cluster < content.length; cluster++) {
+      long[][] blocks = content[cluster];
+      if (blocks == null) {
+        continue;
+      }
+      long[][] otherBlocks = other.content.length > cluster ? other.content[cluster] : null;
+      for (int block = 0; block < blocks.length; block++) {
+        long[] words = blocks[block];
+        if (words == null) {
+          continue;
+        }
+        long[] otherWords = otherBlocks != null && otherBlocks.length > block ? otherBlocks[block] : null;
+        for (int i = 0; i < words.length; i++) {
+          long word = words[i];
+          if (word == 0L) {
+            continue;
+          }
+          long result = otherWords != null && otherWords.length > i ? word & otherWords[i] : 0L;
+          if (result != word) {
+            words[i] = result;
+            changed = true;
+          }
+          newSize += Long.bitCount(result);
+        }
+      }
+    }
+    size = newSize;
+    return changed;
   }
 
   @Override public boolean removeAll(Collection<?> c) {
@@ -53,6 +53,26 @@ public class OSelectExecutionPlan implements OInternalExecutionPlan {
     steps.forEach(OExecutionStepInternal::reset);
   }
 
+  @Override
+  public boolean canBeCached() {
+    for (OExecutionStepInternal step : steps) {
+      if (!step.canBeCached()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public OInternalExecutionPlan copy(OCommandContext ctx) {
+    OSelectExecutionPlan copy = new OSelectExecutionPlan(ctx);
+    copy.location = location;
+    for (OExecutionStepInternal step : steps) {
+      copy.chain(step.copy(ctx));
+    }
+    return copy;
+  }
+
   public void chain(OExecutionStepInternal nextStep) {
     if (lastStep != null) {
       lastStep.setNext(nextStep);
@@ -2,6 +2,7 @@ package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseInternal;
@@ -23,6 +24,12 @@ import java.util.stream.Collectors;
  */
 public class OSelectExecutionPlanner {
 
+  /**
+   * cost of reading an index entry, compared to the cost of loading a record (1), used to choose between index intersections and
+   * single index lookups
+   */
+  private static final double INDEX_ENTRY_COST = 0.2;
+
   QueryPlanningInfo info;
 
   public OSelectExecutionPlanner(OSelectStatement oSelectStatement) {
@@ -550,11 +557,15 @@ public class OSelectExecutionPlanner {
   private static void handleProjections(OSelectExecutionPlan result, QueryPlanningInfo info, OCommandContext ctx,
       boolean profilingEnabled) {
     if (!info.projectionsCalculated && info.projection != null) {
-      if (info.preAggregateProjection != null) {
-        result.chain(new ProjectionCalculationStep(info.preAggregateProjection, ctx, profilingEnabled));
-      }
-      if (info.aggregateProjection != null) {
-        result.chain(new AggregateProjectionCalculationStep(info.aggregateProjection, info.groupBy, ctx, profilingEnabled));
+      if (info.aggregateProjection != null && canAggregateInParallel(result, info, ctx)) {
+        handleParallelAggregation(result, info, ctx, profilingEnabled);
+      } else {
+        if (info.preAggregateProjection != null) {
+          result.chain(new ProjectionCalculationStep(info.preAggregateProjection, ctx, profilingEnabled));
+        }
+        if (info.aggregateProjection != null) {
+          result.chain(new AggregateProjectionCalculationStep(info.aggregateProjection, info.groupBy, ctx, profilingEnabled));
+        }
       }
       result.chain(new ProjectionCalculationStep(info.projection, ctx, profilingEnabled));
 
@@ -562,6 +573,40 @@ public class OSelectExecutionPlanner {
     }
   }
 
+  /**
+   * @return true if the plan is only a parallel class scan and all the aggregate functions can be calculated partially, so that
+   * every sub-plan can aggregate its own records
+   */
+  private static boolean canAggregateInParallel(OSelectExecutionPlan result, QueryPlanningInfo info, OCommandContext ctx) {
+    if (info.parallelClassScan == null || result.getSteps().size() != 1 || result.getSteps().get(0) != info.parallelClassScan) {
+      return false;
+    }
+    for (OProjectionItem item : info.aggregateProjection.getItems()) {
+      if (item.isAggregate() && !(item.getAggregationContext(ctx) instanceof OMergeableAggregationContext)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * calculates partial aggregates in each sub-plan of the parallel class scan, then merges them
+   */
+  private static void handleParallelAggregation(OSelectExecutionPlan result, QueryPlanningInfo info, OCommandContext ctx,
+      boolean profilingEnabled) {
+    for (OExecutionPlan subPlan : info.parallelClassScan.getSubExecutionPlans()) {
+      OSelectExecutionPlan plan = (OSelectExecutionPlan) subPlan;
+      if (info.preAggregateProjection != null) {
+        plan.chain(new ProjectionCalculationStep(info.preAggregateProjection.copy(), ctx, profilingEnabled));
+      }
+      plan.chain(new AggregateProjectionCalculationStep(info.aggregateProjection.copy(),
+          info.groupBy == null ? null : info.groupBy.copy(), AggregateProjectionCalculationStep.Phase.PARTIAL, ctx,
+          profilingEnabled));
+    }
+    result.chain(new AggregateProjectionCalculationStep(info.aggregateProjection, info.groupBy,
+        AggregateProjectionCalculationStep.Phase.MERGE, ctx, profilingEnabled));
+  }
+
   protected static void optimizeQuery(QueryPlanningInfo info) {
     splitLet(info);
     extractSubQueries(info);
@@ -1313,6 +1358,9 @@ public class OSelectExecutionPlanner {
     } else if (isOrderByRidDesc(info)) {
       orderByRidAsc = false;
     }
+    if (orderByRidAsc == null && handleClassAsTargetInParallel(plan, filterClusters, identifier, info, ctx, profilingEnabled)) {
+      return;
+    }
     FetchFromClassExecutionStep fetcher = new FetchFromClassExecutionStep(identifier.getStringValue(), filterClusters, ctx,
         orderByRidAsc, profilingEnabled);
     if (orderByRidAsc != null && info.serverToClusters.size() == 1) {
@@ -1321,6 +1369,53 @@ public class OSelectExecutionPlanner {
     plan.chain(fetcher);
   }
 
+  /**
+   * if parallel execution is enabled ({@link OGlobalConfiguration#QUERY_PARALLEL_EXEC_LEVEL}), fetches the clusters of the class
+   * with one sub-plan per cluster, so that they can be scanned (and filtered, when possible) concurrently
+   *
+   * @return true if the fetch step was added to the plan, false if parallel execution does not apply
+   */
+  private boolean handleClassAsTargetInParallel(OSelectExecutionPlan plan, Set<String> filterClusters, OIdentifier queryTarget,
+      QueryPlanningInfo info, OCommandContext ctx, boolean profilingEnabled) {
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    if (db.getConfiguration().getValueAsInteger(OGlobalConfiguration.QUERY_PARALLEL_EXEC_LEVEL) <= 1 || db.getTransaction()
+        .isActive()) {
+      return false;
+    }
+    OClass clazz = db.getMetadata().getSchema().getClass(queryTarget.getStringValue());
+    if (clazz == null) {
+      throw new OCommandExecutionException("Class not found: " + queryTarget);
+    }
+    List<Integer> clusterIds = new ArrayList<>();
+    for (int clusterId : clazz.getPolymorphicClusterIds()) {
+      if (clusterId >= 0 && (filterClusters == null || filterClusters.contains(db.getClusterNameById(clusterId)))) {
+        clusterIds.add(clusterId);
+      }
+    }
+    if (clusterIds.size() < 2) {
+      return false;
+    }
+    // per-record LET values are calculated after the fetch, so in that case the WHERE cannot be pushed down to the sub-plans
+    boolean pushDownWhere = info.whereClause != null && info.perRecordLetClause == null;
+    List<OInternalExecutionPlan> subPlans = new ArrayList<>();
+    for (Integer clusterId : clusterIds) {
+      OSelectExecutionPlan subPlan = new OSelectExecutionPlan(ctx);
+      subPlan.chain(new FetchFromClusterExecutionStep(clusterId, ctx, profilingEnabled));
+      if (pushDownWhere) {
+        subPlan.chain(new FilterStep(info.whereClause.copy(), ctx, profilingEnabled));
+      }
+      subPlans.add(subPlan);
+    }
+    if (pushDownWhere) {
+      info.whereClause = null;
+      info.flattenedWhereClause = null;
+    }
+    ParallelExecStep step = new ParallelExecStep(subPlans, ctx, profilingEnabled);
+    plan.chain(step);
+    info.parallelClassScan = step;
+    return true;
+  }
+
   private boolean handleClassAsTargetWithIndexedFunction(OSelectExecutionPlan plan, Set<String> filterClusters,
       OIdentifier queryTarget, QueryPlanningInfo info, OCommandContext ctx, boolean profilingEnabled) {
     if (queryTarget == null) {
@@ -1633,6 +1728,17 @@ public class OSelectExecutionPlanner {
       IndexSearchDescriptor desc = indexSearchDescriptors.get(0);
       result = new ArrayList<>();
       Boolean orderAsc = getOrderDirection(info);
+      boolean sortedByIndex = orderAsc != null && info.orderBy != null && fullySorted(info.orderBy, desc.keyCondition, desc.idx)
+          && info.serverToClusters.size() == 1;
+      List<IndexSearchDescriptor> intersection = sortedByIndex ? null : findIndexIntersection(ctx, indexes, desc, clazz);
+      if (intersection != null) {
+        result.add(createIndexRidsFetch(intersection, true, ctx, profilingEnabled));
+        OBooleanExpression remainingCondition = intersection.get(intersection.size() - 1).remainingCondition;
+        if (remainingCondition != null && !remainingCondition.isEmpty()) {
+          result.add(new FilterStep(createWhereFrom(remainingCondition), ctx, profilingEnabled));
+        }
+        return result;
+      }
       result.add(
           new FetchFromIndexStep(desc.idx, desc.keyCondition, desc.additionalRangeCondition, !Boolean.FALSE.equals(orderAsc), ctx,
               profilingEnabled));
@@ -1644,6 +1750,18 @@ public class OSelectExecutionPlanner {
       if (desc.remainingCondition != null && !desc.remainingCondition.isEmpty()) {
         result.add(new FilterStep(createWhereFrom(desc.remainingCondition), ctx, profilingEnabled));
       }
+    } else if (info.limit == null && isUnionCheaper(optimumIndexSearchDescriptors, clazz, ctx)) {
+      result = new ArrayList<>();
+      result.add(createIndexRidsFetch(optimumIndexSearchDescriptors, false, ctx, profilingEnabled));
+      //a record returned by the index lookup of a block can still be discarded by the non indexed conditions of that block and
+      //match another block, so the whole condition is evaluated again
+      if (indexSearchDescriptors.stream().anyMatch(x -> x.remainingCondition != null && !x.remainingCondition.isEmpty())) {
+        OOrBlock allBlocks = new OOrBlock(-1);
+        for (OAndBlock block : info.flattenedWhereClause) {
+          allBlocks.getSubBlocks().add(block.copy());
+        }
+        result.add(new FilterStep(createWhereFrom(allBlocks), ctx, profilingEnabled));
+      }
     } else {
       result = new ArrayList<>();
       result.add(createParallelIndexFetch(optimumIndexSearchDescriptors, ctx, profilingEnabled));
@@ -1651,6 +1769,93 @@ public class OSelectExecutionPlanner {
     return result;
   }
 
+  /**
+   * looks for other indexes that can be intersected with the best one, to filter the RIDs before the records are loaded. Indexes
+   * are added one by one, starting from the most selective, while the estimated cost of the plan decreases. The cost counts the
+   * index entries that are read and the records that are loaded, assuming that the conditions are independent.
+   *
+   * @param best the best single index for the block
+   *
+   * @return the indexes to be intersected, with the conditions not yet managed by an index in the remaining condition of the last
+   * one; null if no intersection is cheaper than the single index
+   */
+  private List<IndexSearchDescriptor> findIndexIntersection(OCommandContext ctx, Set<OIndex<?>> indexes,
+      IndexSearchDescriptor best, OClass clazz) {
+    if (best.remainingCondition == null || best.remainingCondition.isEmpty() || indexes.size() < 2) {
+      return null;
+    }
+    int bestCost = best.cost(ctx);
+    long classCount = clazz.count();
+    if (bestCost == Integer.MAX_VALUE || classCount == 0) {
+      return null;
+    }
+
+    List<IndexSearchDescriptor> result = new ArrayList<>();
+    result.add(best);
+    double indexEntries = bestCost * INDEX_ENTRY_COST;
+    double loadedRecords = Math.min(bestCost, classCount);
+    double currentCost = indexEntries + loadedRecords;
+
+    IndexSearchDescriptor last = best;
+    Set<OIndex<?>> candidates = new HashSet<>(indexes);
+    candidates.remove(best.idx);
+    while (!candidates.isEmpty() && last.remainingCondition instanceof OAndBlock && !last.remainingCondition.isEmpty()) {
+      IndexSearchDescriptor next = findBestIndexFor(ctx, candidates, (OAndBlock) last.remainingCondition, clazz);
+      if (next == null) {
+        break;
+      }
+      int nextCost = next.cost(ctx);
+      if (nextCost == Integer.MAX_VALUE) {
+        break;
+      }
+      double selectivity = Math.min(1d, (double) nextCost / classCount);
+      double newCost = indexEntries + nextCost * INDEX_ENTRY_COST + loadedRecords * selectivity;
+      if (newCost >= currentCost) {
+        break;
+      }
+      result.add(next);
+      candidates.remove(next.idx);
+      indexEntries += nextCost * INDEX_ENTRY_COST;
+      loadedRecords *= selectivity;
+      currentCost = newCost;
+      last = next;
+    }
+    return result.size() > 1 ? result : null;
+  }
+
+  /**
+   * checks if it's cheaper to collect the RIDs of all the OR blocks and load each record once, than to load the records of each
+   * block separately (and possibly more than once). Only possible if the result size of all the lookups can be estimated.
+   */
+  private boolean isUnionCheaper(List<IndexSearchDescriptor> descriptors, OClass clazz, OCommandContext ctx) {
+    long classCount = clazz.count();
+    if (classCount == 0) {
+      return false;
+    }
+    long total = 0;
+    double notMatching = 1;
+    for (IndexSearchDescriptor desc : descriptors) {
+      int cost = desc.cost(ctx);
+      if (cost == Integer.MAX_VALUE) {
+        return false;
+      }
+      total += cost;
+      notMatching *= 1 - Math.min(1d, (double) cost / classCount);
+    }
+    double parallelCost = total * (1 + INDEX_ENTRY_COST);
+    double unionCost = total * INDEX_ENTRY_COST + classCount * (1 - notMatching);
+    return unionCost < parallelCost;
+  }
+
+  private OExecutionStepInternal createIndexRidsFetch(List<IndexSearchDescriptor> indexSearchDescriptors, boolean intersection,
+      OCommandContext ctx, boolean profilingEnabled) {
+    List<FetchFromIndexStep> indexFetchSteps = new ArrayList<>();
+    for (IndexSearchDescriptor desc : indexSearchDescriptors) {
+      indexFetchSteps.add(new FetchFromIndexStep(desc.idx, desc.keyCondition, desc.additionalRangeCondition, ctx, profilingEnabled));
+    }
+    return new FetchFromIndexRidsStep(indexFetchSteps, intersection, ctx, profilingEnabled);
+  }
+
   private boolean fullySorted(OOrderBy orderBy, OAndBlock conditions, OIndex idx) {
     if (!idx.supportsOrderedIterations())
       return false;
@@ -0,0 +1,105 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.collection.OMultiValue;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.sql.parser.OExpression;
+
+/**
+ * Aggregation context for sum(). Integral values are summed on a primitive long, without boxing a new Number for each record; as
+ * soon as a floating point or decimal value is found, the sum continues with {@link OType#increment(Number, Number)}, as
+ * {@link com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionSum} does.
+ *
+ * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
+ */
+public class OSumAggregationContext implements OMergeableAggregationContext {
+  private final OExpression param;
+
+  private long    longSum  = 0;
+  private boolean onlyInts = true;//only Integer and Short values so far, the result is an Integer if it fits
+  private Number  sum      = null;//generic accumulator, used after the first non integral value
+  private Number  first    = null;
+  private long    count    = 0;
+
+  public OSumAggregationContext(OExpression param) {
+    this.param = param;
+  }
+
+  @Override
+  public Object getFinalValue() {
+    Number result = getSum();
+    return result == null ? 0 : result;
+  }
+
+  @Override
+  public void apply(OResult next, OCommandContext ctx) {
+    Object value = param.execute(next, ctx);
+    if (value instanceof Number) {
+      add((Number) value);
+    } else if (OMultiValue.isMultiValue(value)) {
+      for (Object n : OMultiValue.getMultiValueIterable(value)) {
+        add((Number) n);
+      }
+    }
+  }
+
+  @Override
+  public Object getPartialValue() {
+    return getSum();
+  }
+
+  @Override
+  public void merge(Object partialValue) {
+    add((Number) partialValue);
+  }
+
+  /**
+   * @return the sum of the values, null if no values were added
+   */
+  Number getSum() {
+    if (count == 0) {
+      return null;
+    }
+    if (sum != null) {
+      return sum;
+    }
+    if (count == 1) {
+      return first;
+    }
+    return integralSum();
+  }
+
+  /**
+   * @return the number of (non null) values added
+   */
+  long getCount() {
+    return count;
+  }
+
+  void add(Number value) {
+    if (value == null) {
+      return;
+    }
+    count++;
+    if (count == 1) {
+      first = value;
+    }
+    if (sum == null && (value instanceof Integer || value instanceof Short || value instanceof Long)) {
+      longSum += value.longValue();
+      if (value instanceof Long) {
+        onlyInts = false;
+      }
+    } else if (sum == null) {
+      sum = count == 1 ? value : OType.increment(integralSum(), value);
+    } else {
+      sum = OType.increment(sum, value);
+    }
+  }
+
+  private Number integralSum() {
+    if (onlyInts && longSum >= Integer.MIN_VALUE && longSum <= Integer.MAX_VALUE) {
+      return (int) longSum;
+    }
+    return longSum;
+  }
+}
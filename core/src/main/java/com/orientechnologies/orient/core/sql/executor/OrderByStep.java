@@ -1,12 +1,25 @@
 package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.sql.parser.OOrderBy;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
+ * Sorts the upstream results.
+ * <p>
+ * If a maximum number of results is known (eg. ORDER BY ... LIMIT), only the best maxResults items are kept, in a bounded heap.
+ * Otherwise the items are collected in heap until {@link OGlobalConfiguration#QUERY_MAX_HEAP_RECORDS} is reached; then the buffer
+ * is sorted and spilled to a temporary file (a sorted run) and the collection starts again. At the end the sorted runs are merged
+ * lazily while the step is pulled.
+ * <p>
  * Created by luigidellaquila on 11/07/16.
  */
 public class OrderByStep extends AbstractExecutionStep {
@@ -18,6 +31,11 @@ public class OrderByStep extends AbstractExecutionStep {
   List<OResult> cachedResult = null;
   int           nextElement  = 0;
 
+  private List<OResultSpillFile> spilledRuns   = new ArrayList<>();
+  private boolean                spillDisabled = false;
+  private PriorityQueue<RunCursor> mergeQueue;
+  private OResult                  nextItem;
+
   public OrderByStep(OOrderBy orderBy, OCommandContext ctx, boolean profilingEnabled) {
     this(orderBy, null, ctx, profilingEnabled);
   }
@@ -40,31 +58,27 @@ public class OrderByStep extends AbstractExecutionStep {
 
     return new OResultSet() {
       int currentBatchReturned = 0;
-      int offset = nextElement;
 
       @Override
       public boolean hasNext() {
         if (currentBatchReturned >= nRecords) {
           return false;
         }
-        if (cachedResult.size() <= nextElement) {
-          return false;
+        if (nextItem == null) {
+          nextItem = fetchNextSorted(ctx);
         }
-        return true;
+        return nextItem != null;
       }
 
       @Override
       public OResult next() {
         long begin = profilingEnabled ? System.nanoTime() : 0;
         try {
-          if (currentBatchReturned >= nRecords) {
-            throw new IllegalStateException();
-          }
-          if (cachedResult.size() <= nextElement) {
+          if (!hasNext()) {
             throw new IllegalStateException();
           }
-          OResult result = cachedResult.get(offset + currentBatchReturned);
-          nextElement++;
+          OResult result = nextItem;
+          nextItem = null;
           currentBatchReturned++;
           return result;
         } finally {
@@ -91,9 +105,38 @@ public class OrderByStep extends AbstractExecutionStep {
     };
   }
 
-  private void init(OExecutionStepInternal p, OCommandContext ctx) {
+  private OResult fetchNextSorted(OCommandContext ctx) {
+    if (mergeQueue == null) {
+      if (cachedResult.size() <= nextElement) {
+        return null;
+      }
+      OResult result = cachedResult.get(nextElement);
+      cachedResult.set(nextElement, null);//already returned, let it be collected
+      nextElement++;
+      return result;
+    }
+    RunCursor cursor = mergeQueue.poll();
+    if (cursor == null) {
+      return null;
+    }
+    OResult result = cursor.current;
+    if (cursor.advance()) {
+      mergeQueue.add(cursor);
+    } else {
+      cursor.close();
+    }
+    return result;
+  }
 
-    boolean sorted = true;
+  private void init(OExecutionStepInternal p, OCommandContext ctx) {
+    Comparator<OResult> comparator = (a, b) -> orderBy.compare(a, b, ctx);
+    int maxHeapRecords = getMaxHeapRecords(ctx);
+    PriorityQueue<SortItem> topN = null;
+    if (maxResults != null) {
+      //reversed, so the worst item of the current top N is always on the head
+      topN = new PriorityQueue<>(Math.min(maxResults, 1024) + 1, (a, b) -> b.compareTo(a, comparator));
+    }
+    long seq = 0;
     do {
       OResultSet lastBatch = p.syncPull(ctx, 100);
       if (!lastBatch.hasNext()) {
@@ -106,13 +149,19 @@ public class OrderByStep extends AbstractExecutionStep {
         OResult item = lastBatch.next();
         long begin = profilingEnabled ? System.nanoTime() : 0;
         try {
-          cachedResult.add(item);
-          sorted = false;
-          //compact, only at twice as the buffer, to avoid to do it at each add
-          if (this.maxResults != null && maxResults * 2 < cachedResult.size()) {
-            cachedResult.sort((a, b) -> orderBy.compare(a, b, ctx));
-            cachedResult = new ArrayList<>(cachedResult.subList(0, maxResults));
-            sorted = true;
+          if (topN != null) {
+            SortItem candidate = new SortItem(item, seq++);
+            if (topN.size() < maxResults) {
+              topN.add(candidate);
+            } else if (maxResults > 0 && candidate.compareTo(topN.peek(), comparator) < 0) {
+              topN.poll();
+              topN.add(candidate);
+            }
+          } else {
+            cachedResult.add(item);
+            if (maxHeapRecords > 0 && cachedResult.size() >= maxHeapRecords && !spillDisabled) {
+              spill(comparator);
+            }
           }
         } finally {
           if (profilingEnabled) {
@@ -123,31 +172,95 @@ public class OrderByStep extends AbstractExecutionStep {
       if (timedOut) {
         break;
       }
-      long begin = profilingEnabled ? System.nanoTime() : 0;
-      try {
-        //compact at each batch, if needed
-        if (!sorted && this.maxResults != null && maxResults < cachedResult.size()) {
-          cachedResult.sort((a, b) -> orderBy.compare(a, b, ctx));
-          cachedResult = new ArrayList<>(cachedResult.subList(0, maxResults));
-          sorted = true;
-        }
-      } finally {
-        if (profilingEnabled) {
-          cost += (System.nanoTime() - begin);
-        }
-      }
     } while (true);
     long begin = profilingEnabled ? System.nanoTime() : 0;
     try {
-      if (!sorted) {
-        cachedResult.sort((a, b) -> orderBy.compare(a, b, ctx));
+      if (topN != null) {
+        List<SortItem> sorted = new ArrayList<>(topN);
+        sorted.sort((a, b) -> a.compareTo(b, comparator));
+        cachedResult = new ArrayList<>(sorted.size());
+        for (SortItem item : sorted) {
+          cachedResult.add(item.result);
+        }
+      } else {
+        //List.sort() is stable, items that are equal for the ORDER BY keep the upstream order
+        cachedResult.sort(comparator);
+      }
+      if (!spilledRuns.isEmpty()) {
+        initMerge(comparator);
       }
     } finally {
       if (profilingEnabled) {
         cost += (System.nanoTime() - begin);
       }
     }
+  }
+
+  private int getMaxHeapRecords(OCommandContext ctx) {
+    if (ctx.getDatabase() instanceof ODatabaseDocumentInternal) {
+      return ((ODatabaseDocumentInternal) ctx.getDatabase()).getConfiguration()
+          .getValueAsInteger(OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS);
+    }
+    return OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS.getValueAsInteger();
+  }
+
+  /**
+   * sorts the items collected so far and writes them to a new sorted run on disk. If some of them cannot be written, spilling is
+   * disabled for this step and the items stay in heap
+   */
+  private void spill(Comparator<OResult> comparator) {
+    for (OResult item : cachedResult) {
+      if (!OResultSpillFile.canSpill(item)) {
+        OLogManager.instance()
+            .debug(this, "ORDER BY cannot spill results of type %s to disk, keeping them in heap", item.getClass().getName());
+        spillDisabled = true;
+        return;
+      }
+    }
+    cachedResult.sort(comparator);
+    OResultSpillFile run = null;
+    try {
+      run = new OResultSpillFile();
+      for (OResult item : cachedResult) {
+        run.write(item);
+      }
+      run.finishWrite();
+      spilledRuns.add(run);
+      cachedResult = new ArrayList<>();
+    } catch (IOException | RuntimeException e) {
+      //eg. values that the serializer does not support, like LINKBAGs
+      OLogManager.instance().warn(this, "Cannot spill ORDER BY results to disk, keeping them in heap", e);
+      spillDisabled = true;
+      if (run != null) {
+        run.close();
+      }
+    }
+  }
+
+  private void initMerge(Comparator<OResult> comparator) {
+    mergeQueue = new PriorityQueue<>(spilledRuns.size() + 1, (a, b) -> {
+      int result = comparator.compare(a.current, b.current);
+      //on equal items, older runs first: the merge is stable
+      return result != 0 ? result : Integer.compare(a.runIndex, b.runIndex);
+    });
+    for (int i = 0; i < spilledRuns.size(); i++) {
+      RunCursor cursor = new RunCursor(i, spilledRuns.get(i), null);
+      if (cursor.advance()) {
+        mergeQueue.add(cursor);
+      }
+    }
+    RunCursor inMemory = new RunCursor(spilledRuns.size(), null, cachedResult.iterator());
+    if (inMemory.advance()) {
+      mergeQueue.add(inMemory);
+    }
+  }
 
+  @Override
+  public void close() {
+    super.close();
+    for (OResultSpillFile run : spilledRuns) {
+      run.close();
+    }
   }
 
   @Override
@@ -157,6 +270,9 @@ public class OrderByStep extends AbstractExecutionStep {
       result += " (" + getCostFormatted() + ")";
     }
     result += (maxResults != null ? "\n  (buffer size: " + maxResults + ")" : "");
+    if (!spilledRuns.isEmpty()) {
+      result += "\n  (spilled to disk: " + spilledRuns.size() + " sorted runs)";
+    }
     return result;
   }
 
@@ -164,4 +280,64 @@ public class OrderByStep extends AbstractExecutionStep {
   public long getCost() {
     return cost;
   }
+
+  private static class SortItem {
+    private final OResult result;
+    private final long    seq;
+
+    SortItem(OResult result, long seq) {
+      this.result = result;
+      this.seq = seq;
+    }
+
+    int compareTo(SortItem other, Comparator<OResult> comparator) {
+      int result = comparator.compare(this.result, other.result);
+      return result != 0 ? result : Long.compare(seq, other.seq);
+    }
+  }
+
+  /**
+   * current position of the merge in a sorted run (spilled to disk or still in heap)
+   */
+  private static class RunCursor {
+    private final int               runIndex;
+    private final OResultSpillFile  file;
+    private final Iterator<OResult> iterator;
+    private       OResult           current;
+
+    RunCursor(int runIndex, OResultSpillFile file, Iterator<OResult> iterator) {
+      this.runIndex = runIndex;
+      this.file = file;
+      this.iterator = iterator;
+    }
+
+    boolean advance() {
+      if (iterator != null) {
+        current = iterator.hasNext() ? iterator.next() : null;
+        return current != null;
+      }
+      try {
+        current = file.read();
+      } catch (IOException e) {
+        throw OException.wrapException(new OCommandExecutionException("Cannot read ORDER BY results spilled to disk"), e);
+      }
+      return current != null;
+    }
+
+    void close() {
+      if (file != null) {
+        file.close();
+      }
+    }
+  }
+
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new OrderByStep(orderBy.copy(), maxResults, ctx, profilingEnabled);
+  }
 }
@@ -1,21 +1,61 @@
 package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
+import com.orientechnologies.common.util.OUncaughtExceptionHandler;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.exception.OCommandInterruptedException;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Executes a list of sub-plans (eg. one per cluster of a class, one per sub-class, one per index of an OR condition) and returns
+ * the union of their results.
+ * <p>
+ * By default the sub-plans are fetched one after the other on the query thread. If {@link OGlobalConfiguration#QUERY_PARALLEL_EXEC_LEVEL}
+ * is greater than 1, no transaction is active and the step is not already running inside a parallel worker, the sub-plans are
+ * fetched concurrently by a bounded number of worker threads, each one working on its own copy of the database. Every sub-plan
+ * has its own bounded buffer, so a slow consumer blocks the workers (backpressure) and the results are merged round-robin on the
+ * query thread.
+ * <p>
+ * Workers run on a pool shared by all the parallel steps and sized by {@link OGlobalConfiguration#QUERY_PARALLEL_POOL_SIZE}, when
+ * all its threads are busy the sub-plans are fetched on the query thread. Workers stop when the step is closed (also when the
+ * database closes its pending result sets) and do not keep the step reachable, so a plan dropped without closing it releases
+ * them once it is garbage collected.
+ *
  * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
  */
 public class ParallelExecStep extends AbstractExecutionStep {
+  private static final OResult             END_OF_PLAN    = new OResultInternal();
+  private static final ThreadLocal<Boolean> IN_WORKER      = new ThreadLocal<>();
+  private static final long                OFFER_TIMEOUT  = 100;
+
   private final List<OInternalExecutionPlan> subExecutionPlans;
 
   int current = 0;
   private OResultSet currentResultSet = null;
 
+  private boolean parallelInitialized = false;
+  private Workers workers;
+  private int     nextBuffer          = 0;
+  private int     finishedPlans       = 0;
+  private int     parallelism         = 1;
+
+  private long cost = 0;
+
   public ParallelExecStep(List<OInternalExecutionPlan> subExecuitonPlans, OCommandContext ctx, boolean profilingEnabled) {
     super(ctx, profilingEnabled);
     this.subExecutionPlans = subExecuitonPlans;
@@ -24,6 +64,15 @@ public class ParallelExecStep extends AbstractExecutionStep {
   @Override
   public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
     getPrev().ifPresent(x -> x.syncPull(ctx, nRecords));
+    if (!parallelInitialized) {
+      parallelInitialized = true;
+      if (canRunParallel(ctx)) {
+        startWorkers(ctx);
+      }
+    }
+    if (workers != null) {
+      return new ParallelResultSet(nRecords);
+    }
     return new OResultSet() {
       int localCount = 0;
 
@@ -86,6 +135,380 @@ public class ParallelExecStep extends AbstractExecutionStep {
     } while (!currentResultSet.hasNext());
   }
 
+  private boolean canRunParallel(OCommandContext ctx) {
+    if (subExecutionPlans.size() < 2 || Boolean.TRUE.equals(IN_WORKER.get())) {
+      return false;
+    }
+    for (OInternalExecutionPlan plan : subExecutionPlans) {
+      if (!(plan instanceof OSelectExecutionPlan) || ((OSelectExecutionPlan) plan).lastStep == null) {
+        return false;
+      }
+    }
+    if (!(ctx.getDatabase() instanceof ODatabaseDocumentInternal)) {
+      return false;
+    }
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    if (db.getTransaction().isActive() || !Orient.instance().isActive()) {
+      return false;
+    }
+    parallelism = Math.min(subExecutionPlans.size(),
+        db.getConfiguration().getValueAsInteger(OGlobalConfiguration.QUERY_PARALLEL_EXEC_LEVEL));
+    return parallelism > 1;
+  }
+
+  private void startWorkers(OCommandContext ctx) {
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    int bufferSize = Math.max(1,
+        db.getConfiguration().getValueAsInteger(OGlobalConfiguration.QUERY_PARALLEL_RESULT_QUEUE_SIZE) / subExecutionPlans.size());
+
+    SubPlanBuffer[] buffers = new SubPlanBuffer[subExecutionPlans.size()];
+    Workers started = new Workers(this, buffers, profilingEnabled);
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = new SubPlanBuffer(started, (OSelectExecutionPlan) subExecutionPlans.get(i), bufferSize);
+    }
+
+    // CREATE A SNAPSHOT TO AVOID DEADLOCKS
+    db.getMetadata().getSchema().makeSnapshot();
+
+    int submitted = 0;
+    for (int i = 0; i < parallelism; i++) {
+      // THE COPY IS CREATED ON THE QUERY THREAD, copy() RE-ACTIVATES THE ORIGINAL DATABASE ON IT
+      ODatabaseDocumentInternal localDatabase = db.copy();
+      OBasicCommandContext workerCtx = new OBasicCommandContext();
+      // $parent RESOLVES AS ON THE QUERY CONTEXT, WITHOUT REPLACING ITS CHILD
+      workerCtx.setParentWithoutOverridingChild(ctx.getParent());
+      workerCtx.setInputParameters(ctx.getInputParameters());
+      for (Map.Entry<String, Object> variable : ctx.getVariables().entrySet()) {
+        workerCtx.setVariable(variable.getKey(), variable.getValue());
+      }
+      workerCtx.setDatabase(localDatabase);
+      try {
+        // THE TASK MUST NOT REFERENCE THE STEP, SEE Workers
+        WorkerPool.EXECUTOR.execute(() -> runWorker(started, localDatabase, workerCtx));
+        submitted++;
+      } catch (RuntimeException e) {
+        localDatabase.activateOnCurrentThread();
+        localDatabase.close();
+        db.activateOnCurrentThread();
+        if (!(e instanceof RejectedExecutionException)) {
+          started.stop();
+          throw e;
+        }
+        // ALL THE THREADS OF THE POOL ARE BUSY: THE WORKERS ALREADY STARTED FETCH ALL THE SUB-PLANS
+        break;
+      }
+    }
+
+    if (submitted == 0) {
+      OLogManager.instance().debug(this, "Parallel workers are all busy, sub-plans are fetched sequentially");
+      parallelism = 1;
+      return;
+    }
+    parallelism = submitted;
+    workers = started;
+  }
+
+  private static void runWorker(Workers workers, ODatabaseDocumentInternal localDatabase, OCommandContext workerCtx) {
+    IN_WORKER.set(true);
+    try {
+      localDatabase.activateOnCurrentThread();
+      int idx;
+      while (workers.isRunning() && (idx = workers.nextPlan.getAndIncrement()) < workers.buffers.length) {
+        workers.buffers[idx].fill(workerCtx);
+      }
+    } finally {
+      IN_WORKER.remove();
+      try {
+        localDatabase.activateOnCurrentThread();
+        localDatabase.close();
+      } finally {
+        ODatabaseRecordThreadLocal.INSTANCE.remove();
+      }
+    }
+  }
+
+  /**
+   * Returns next result produced by the workers, blocking until one is available
+   *
+   * @return the next result, or null if all the sub-plans are exhausted
+   */
+  private OResult nextFromBuffers() {
+    SubPlanBuffer[] buffers = workers.buffers;
+    while (finishedPlans < buffers.length) {
+      if (timedOut) {
+        throw new OTimeoutException("Timeout expired while fetching from parallel sub-plans");
+      }
+      long begin = profilingEnabled ? System.nanoTime() : 0;
+      try {
+        if (!workers.available.tryAcquire(OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+          continue;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        close();
+        throw OException.wrapException(new OCommandInterruptedException("Parallel execution interrupted"), e);
+      } finally {
+        if (profilingEnabled) {
+          cost += (System.nanoTime() - begin);
+        }
+      }
+      // A PERMIT GUARANTEES THAT AT LEAST ONE BUFFER HAS AN ITEM; SCAN THEM ROUND-ROBIN TO MERGE FAIRLY
+      for (int i = 0; i < buffers.length; i++) {
+        int idx = (nextBuffer + i) % buffers.length;
+        OResult item = buffers[idx].queue.poll();
+        if (item == null) {
+          continue;
+        }
+        nextBuffer = (idx + 1) % buffers.length;
+        if (item == END_OF_PLAN) {
+          finishedPlans++;
+          buffers[idx].checkError();
+          break;
+        }
+        return item;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void sendTimeout() {
+    super.sendTimeout();
+    stopWorkers();
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    stopWorkers();
+  }
+
+  private void stopWorkers() {
+    if (workers != null) {
+      workers.stop();
+    }
+  }
+
+  /**
+   * @return number of threads of the shared pool that are fetching sub-plans
+   */
+  static int getActiveWorkers() {
+    return WorkerPool.EXECUTOR.getActiveCount();
+  }
+
+  private class ParallelResultSet implements OResultSet {
+    private final int     nRecords;
+    private       int     localCount = 0;
+    private       OResult nextItem   = null;
+
+    ParallelResultSet(int nRecords) {
+      this.nRecords = nRecords;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (localCount >= nRecords) {
+        return false;
+      }
+      if (nextItem == null) {
+        nextItem = nextFromBuffers();
+      }
+      return nextItem != null;
+    }
+
+    @Override
+    public OResult next() {
+      if (!hasNext()) {
+        throw new IllegalStateException();
+      }
+      OResult result = nextItem;
+      nextItem = null;
+      localCount++;
+      return result;
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public Optional<OExecutionPlan> getExecutionPlan() {
+      return null;
+    }
+
+    @Override
+    public Map<String, Long> getQueryStats() {
+      return null;
+    }
+  }
+
+  /**
+   * Pool of the worker threads shared by all the parallel steps. It has no queue: when all the threads are busy the task is
+   * rejected and the step fetches the sub-plans on the query thread, so parallel queries never wait for threads and never occupy
+   * the threads of {@link Orient#submit(Runnable)}
+   */
+  private static final class WorkerPool {
+    private static final ThreadPoolExecutor EXECUTOR = new OThreadPoolExecutorWithLogging(0,
+        Math.max(1, OGlobalConfiguration.QUERY_PARALLEL_POOL_SIZE.getValueAsInteger()), 60L, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), new WorkerThreadFactory());
+  }
+
+  private static final class WorkerThreadFactory implements ThreadFactory {
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r);
+      thread.setDaemon(true);
+      thread.setName("OrientDB Parallel Query Worker " + counter.incrementAndGet());
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      return thread;
+    }
+  }
+
+  /**
+   * State shared between the step and its workers. Workers reference the step only weakly, so a step whose result set was dropped
+   * without closing it can be garbage collected, then the workers stop as if the step was closed
+   */
+  private static final class Workers {
+    private final WeakReference<ParallelExecStep> owner;
+    private final SubPlanBuffer[]                 buffers;
+    private final Semaphore                       available = new Semaphore(0);
+    private final AtomicInteger                   nextPlan  = new AtomicInteger();
+    private final boolean                         profilingEnabled;
+    private volatile boolean running = true;
+
+    Workers(ParallelExecStep owner, SubPlanBuffer[] buffers, boolean profilingEnabled) {
+      this.owner = new WeakReference<>(owner);
+      this.buffers = buffers;
+      this.profilingEnabled = profilingEnabled;
+    }
+
+    boolean isRunning() {
+      if (running && owner.get() == null) {
+        OLogManager.instance().debug(this, "Result set of a parallel query was not closed, stopping its workers");
+        stop();
+      }
+      return running;
+    }
+
+    void stop() {
+      running = false;
+      for (SubPlanBuffer buffer : buffers) {
+        if (buffer != null) {
+          buffer.queue.clear();
+        }
+      }
+    }
+  }
+
+  /**
+   * Bounded buffer between the worker fetching from a sub-plan and the query thread
+   */
+  private static final class SubPlanBuffer {
+    private final Workers                     workers;
+    private final OSelectExecutionPlan        plan;
+    private final ArrayBlockingQueue<OResult> queue;
+    private volatile Throwable error;
+    private volatile long records  = 0;
+    private volatile long workCost = 0;
+    private volatile long waitCost = 0;
+
+    SubPlanBuffer(Workers workers, OSelectExecutionPlan plan, int size) {
+      this.workers = workers;
+      this.plan = plan;
+      this.queue = new ArrayBlockingQueue<>(size);
+    }
+
+    void fill(OCommandContext workerCtx) {
+      long begin = System.nanoTime();
+      long waited = 0;
+      try {
+        while (workers.isRunning()) {
+          OResultSet block = plan.lastStep.syncPull(workerCtx, queue.remainingCapacity() + 1);
+          if (!block.hasNext()) {
+            break;
+          }
+          while (workers.isRunning() && block.hasNext()) {
+            OResult item = block.next();
+            long beginWait = workers.profilingEnabled ? System.nanoTime() : 0;
+            if (!offer(item)) {
+              break;
+            }
+            if (workers.profilingEnabled) {
+              waited += (System.nanoTime() - beginWait);
+            }
+            records++;
+          }
+        }
+      } catch (Throwable e) {
+        error = e;
+      } finally {
+        workCost = System.nanoTime() - begin - waited;
+        waitCost = waited;
+        if (!offer(END_OF_PLAN)) {
+          // THE QUERY WAS STOPPED: NOBODY WILL CONSUME THE PENDING RESULTS ANYWAY
+          queue.clear();
+          queue.offer(END_OF_PLAN);
+          workers.available.release();
+        }
+        if (workers.profilingEnabled) {
+          OQueryStats.get((ODatabaseDocumentInternal) workerCtx.getDatabase())
+              .pushParallelSubPlanStats(describe(), records, workCost);
+        }
+      }
+    }
+
+    /**
+     * Waits while the buffer is full, as long as the consumer may read it: a slow consumer only slows the workers down
+     */
+    private boolean offer(OResult item) {
+      try {
+        while (workers.isRunning()) {
+          if (queue.offer(item, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            workers.available.release();
+            return true;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return false;
+    }
+
+    void checkError() {
+      if (error == null) {
+        return;
+      }
+      workers.stop();
+      if (error instanceof OException) {
+        throw (OException) error;
+      }
+      if (error instanceof Error) {
+        throw (Error) error;
+      }
+      OLogManager.instance().error(this, "Error on executing parallel sub-plan", error);
+      throw OException.wrapException(new OCommandExecutionException("Error on executing parallel sub-plan"), error);
+    }
+
+    String describe() {
+      String description = plan.prettyPrint(0, 0).trim();
+      int newLine = description.indexOf('\n');
+      if (newLine > 0) {
+        description = description.substring(0, newLine);
+      }
+      int costSuffix = description.lastIndexOf(" (");
+      if (workers.profilingEnabled && costSuffix > 0) {
+        description = description.substring(0, costSuffix);
+      }
+      if (description.startsWith("+ ")) {
+        description = description.substring(2);
+      }
+      return description;
+    }
+  }
+
   @Override
   public String prettyPrint(int depth, int indent) {
     String result = "";
@@ -177,7 +600,21 @@ public class ParallelExecStep extends AbstractExecutionStep {
 
   private String head(int depth, int indent, int nItems) {
     String ind = OExecutionStepInternal.getIndent(depth, indent);
-    return ind + "+ PARALLEL";
+    String result = ind + "+ PARALLEL";
+    if (workers != null) {
+      result += " (" + parallelism + " threads)";
+    }
+    if (profilingEnabled) {
+      result += " (" + getCostFormatted() + ")";
+      if (workers != null) {
+        for (int i = 0; i < workers.buffers.length; i++) {
+          SubPlanBuffer buffer = workers.buffers[i];
+          result += "\n" + ind + "  sub-plan " + i + ": " + buffer.records + " records, " + (buffer.workCost / 1000) + "μs fetching, "
+              + (buffer.waitCost / 1000) + "μs waiting for consumer";
+        }
+      }
+    }
+    return result;
   }
 
   private String foot(int[] blockSizes) {
@@ -203,4 +640,9 @@ public class ParallelExecStep extends AbstractExecutionStep {
   public List<OExecutionPlan> getSubExecutionPlans() {
     return (List) subExecutionPlans;
   }
+
+  @Override
+  public long getCost() {
+    return cost;
+  }
 }
@@ -45,6 +45,11 @@ public class QueryPlanningInfo {
   OSkip           skip;
   OLimit          limit;
 
+  /**
+   * the parallel scan of the target class, if any; aggregations can be calculated partially in its sub-plans
+   */
+  ParallelExecStep parallelClassScan;
+
   boolean orderApplied          = false;
   boolean projectionsCalculated = false;
 
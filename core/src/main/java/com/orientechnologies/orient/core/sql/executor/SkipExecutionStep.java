@@ -54,4 +54,13 @@ public class SkipExecutionStep extends AbstractExecutionStep {
     return OExecutionStepInternal.getIndent(depth, indent) + "+ SKIP (" + skip.toString() + ")";
   }
 
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new SkipExecutionStep(skip.copy(), ctx, profilingEnabled);
+  }
 }
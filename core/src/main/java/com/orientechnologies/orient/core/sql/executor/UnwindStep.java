@@ -168,4 +168,14 @@ public class UnwindStep extends AbstractExecutionStep {
     String spaces = OExecutionStepInternal.getIndent(depth, indent);
     return spaces + "+ " + unwind;
   }
+
+  @Override
+  public boolean canBeCached() {
+    return true;
+  }
+
+  @Override
+  public OExecutionStepInternal copy(OCommandContext ctx) {
+    return new UnwindStep(unwind.copy(), ctx, profilingEnabled);
+  }
 }
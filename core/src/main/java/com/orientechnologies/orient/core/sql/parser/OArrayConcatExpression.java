@@ -169,6 +169,15 @@ public class OArrayConcatExpression extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    for (OArrayConcatExpressionElement expr : this.childExpressions) {
+      if (expr.refersToInputParameters()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public List<String> getMatchPatternInvolvedAliases() {
     List<String> result = new ArrayList<String>();
     for (OArrayConcatExpressionElement exp : childExpressions) {
@@ -131,6 +131,16 @@ public class OArrayNumberSelector extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (inputValue != null) {
+      return true;
+    }
+    if (expressionValue != null && expressionValue.refersToInputParameters()) {
+      return true;
+    }
+    return false;
+  }
+
   public OResult serialize() {
     OResultInternal result = new OResultInternal();
     if (inputValue != null) {
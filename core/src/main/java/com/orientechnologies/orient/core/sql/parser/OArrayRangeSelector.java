@@ -215,6 +215,16 @@ public class OArrayRangeSelector extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (fromSelector != null && fromSelector.refersToInputParameters()) {
+      return true;
+    }
+    if (toSelector != null && toSelector.refersToInputParameters()) {
+      return true;
+    }
+    return false;
+  }
+
   /**
    * @param target
    * @param value
@@ -141,6 +141,16 @@ public class OArraySelector extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (inputParam != null) {
+      return true;
+    }
+    if (expression != null && expression.refersToInputParameters()) {
+      return true;
+    }
+    return false;
+  }
+
   public void setValue(OResult currentRecord, Object target, Object value, OCommandContext ctx) {
     Object idx = null;
     if (this.rid != null) {
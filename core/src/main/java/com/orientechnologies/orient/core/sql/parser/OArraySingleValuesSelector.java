@@ -135,6 +135,17 @@ public class OArraySingleValuesSelector extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (items != null) {
+      for (OArraySelector item : items) {
+        if (item.refersToInputParameters()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public void setValue(OResult currentRecord, Object target, Object value, OCommandContext ctx) {
     if (items != null) {
       for (OArraySelector item : items) {
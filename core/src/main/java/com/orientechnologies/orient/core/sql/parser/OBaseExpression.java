@@ -213,6 +213,14 @@ public class OBaseExpression extends OMathExpression {
     return identifier != null && modifier == null && identifier.isBaseIdentifier();
   }
 
+  /**
+   * @return true if the expression is a plain literal or an input parameter, so its value does not depend on the record or on the
+   * time of the execution
+   */
+  public boolean isLiteralOrParameter() {
+    return modifier == null && (number != null || inputParam != null || string != null);
+  }
+
   public boolean isEarlyCalculated() {
     if (number != null || inputParam != null || string != null) {
       return true;
@@ -305,6 +313,20 @@ public class OBaseExpression extends OMathExpression {
     return false;
   }
 
+  @Override
+  public boolean refersToInputParameters() {
+    if (inputParam != null) {
+      return true;
+    }
+    if (identifier != null && identifier.refersToInputParameters()) {
+      return true;
+    }
+    if (modifier != null && modifier.refersToInputParameters()) {
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o)
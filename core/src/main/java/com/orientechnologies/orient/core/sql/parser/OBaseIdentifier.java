@@ -284,6 +284,13 @@ public class OBaseIdentifier extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (levelZero != null && levelZero.refersToInputParameters()) {
+      return true;
+    }
+    return false;
+  }
+
   public OSuffixIdentifier getSuffix() {
     return suffix;
   }
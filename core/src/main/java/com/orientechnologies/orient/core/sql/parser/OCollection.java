@@ -145,6 +145,17 @@ public class OCollection extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (expressions != null) {
+      for (OExpression exp : expressions) {
+        if (exp != null && exp.refersToInputParameters()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public OResult serialize() {
     OResultInternal result = new OResultInternal();
     if (expressions != null) {
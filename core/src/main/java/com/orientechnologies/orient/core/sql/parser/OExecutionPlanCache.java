@@ -0,0 +1,169 @@
+package com.orientechnologies.orient.core.sql.parser;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.OMetadataUpdateListener;
+import com.orientechnologies.orient.core.index.OIndexManager;
+import com.orientechnologies.orient.core.metadata.function.OFunctionLibrary;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.sequence.OSequenceLibraryImpl;
+import com.orientechnologies.orient.core.sql.executor.OInternalExecutionPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * This class is an LRU cache of the execution plans of SQL statements, shared by all the sessions of a database. Plans are kept by
+ * statement text plus the shape of the input parameters (names and types of the values, not the values themselves) and the status
+ * of the transaction. The cache keeps a copy of the plan that is never executed, each execution gets its own copy.
+ * <p>
+ * Only plans made of steps that do not depend on the values of the parameters or on the data are cached (see {@link
+ * OInternalExecutionPlan#canBeCached()}). All the plans are discarded when the schema or the indexes change.
+ */
+public class OExecutionPlanCache implements OMetadataUpdateListener {
+
+  private final ConcurrentLinkedHashMap<String, OInternalExecutionPlan> map;
+  private final int                                                     mapSize;
+
+  /**
+   * incremented on each invalidation, plans calculated before the last invalidation are not cached
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  private final AtomicLong hits         = new AtomicLong();
+  private final AtomicLong misses       = new AtomicLong();
+  private final AtomicLong planningTime = new AtomicLong();
+
+  /**
+   * @param size the size of the cache, 0 to disable it
+   */
+  public OExecutionPlanCache(int size) {
+    this.mapSize = size;
+    map = new ConcurrentLinkedHashMap.Builder<String, OInternalExecutionPlan>().maximumWeightedCapacity(Math.max(size, 1))
+        .build();
+  }
+
+  /**
+   * returns an execution plan for the statement, copying it from the cache if it exists or creating a new one (and caching it if
+   * possible) if it doesn't
+   *
+   * @param statement the text of the SQL statement
+   * @param ctx       the context of the execution, with the input parameters
+   * @param planner   creates a new execution plan for given context
+   *
+   * @return an execution plan, ready to be executed
+   */
+  public OInternalExecutionPlan get(String statement, OCommandContext ctx,
+      Function<OCommandContext, OInternalExecutionPlan> planner) {
+    if (mapSize <= 0) {
+      return planner.apply(ctx);
+    }
+
+    String key = key(statement, ctx);
+    OInternalExecutionPlan cached = map.get(key);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return cached.copy(ctx);
+    }
+    misses.incrementAndGet();
+
+    long currentGeneration = generation.get();
+    long begin = System.nanoTime();
+    OInternalExecutionPlan result = planner.apply(ctx);
+    planningTime.addAndGet(System.nanoTime() - begin);
+
+    if (result.canBeCached() && currentGeneration == generation.get()) {
+      //the cached copy is not bound to the database of current session
+      OInternalExecutionPlan copy = result.copy(new OBasicCommandContext());
+      map.put(key, copy);
+      if (currentGeneration != generation.get()) {
+        //invalidated in the meantime
+        map.remove(key, copy);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * removes all the plans from the cache
+   */
+  public void invalidate() {
+    generation.incrementAndGet();
+    map.clear();
+  }
+
+  /**
+   * @return number of executions that reused a cached plan
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return number of executions that did not find the plan in cache and had to calculate it
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return total time (in nanoseconds) spent in the calculation of the plans that were not found in cache
+   */
+  public long getPlanningTime() {
+    return planningTime.get();
+  }
+
+  /**
+   * @return number of plans currently in cache
+   */
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public void onSchemaUpdate(OSchema schema) {
+    invalidate();
+  }
+
+  @Override
+  public void onIndexManagerUpdate(OIndexManager indexManager) {
+    invalidate();
+  }
+
+  @Override
+  public void onFunctionLibraryUpdate(OFunctionLibrary oFunctionLibrary) {
+    //functions are invoked at execution time
+  }
+
+  @Override
+  public void onSequenceLibraryUpdate(OSequenceLibraryImpl oSequenceLibrary) {
+    //sequences are invoked at execution time
+  }
+
+  private static String key(String statement, OCommandContext ctx) {
+    StringBuilder builder = new StringBuilder(statement.length() + 32);
+    builder.append(statement);
+
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    builder.append(db.getTransaction().isActive() ? "\u0000tx" : "\u0000");
+
+    Map<Object, Object> params = ctx.getInputParameters();
+    if (params != null && !params.isEmpty()) {
+      List<String> shape = new ArrayList<>(params.size());
+      for (Map.Entry<Object, Object> param : params.entrySet()) {
+        Object value = param.getValue();
+        shape.add(param.getKey() + ":" + (value == null ? "null" : value.getClass().getName()));
+      }
+      shape.sort(null);
+      for (String item : shape) {
+        builder.append('\u0000').append(item);
+      }
+    }
+    return builder.toString();
+  }
+}
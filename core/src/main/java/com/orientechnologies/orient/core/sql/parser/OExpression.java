@@ -149,6 +149,16 @@ public class OExpression extends SimpleNode {
     return false;
   }
 
+  /**
+   * @return true if the expression is a plain literal or an input parameter, see {@link OBaseExpression#isLiteralOrParameter()}
+   */
+  public boolean isLiteralOrParameter() {
+    if (booleanValue != null) {
+      return true;
+    }
+    return mathExpression instanceof OBaseExpression && ((OBaseExpression) mathExpression).isLiteralOrParameter();
+  }
+
   public boolean isEarlyCalculated() {
     if (this.mathExpression != null) {
       return this.mathExpression.isEarlyCalculated();
@@ -527,6 +537,26 @@ public class OExpression extends SimpleNode {
     return false;
   }
 
+  /**
+   * @return true if the value of the expression depends on the input parameters (positional or named) of the statement.
+   * Conditions and sub-queries in the expression are always considered dependent
+   */
+  public boolean refersToInputParameters() {
+    if (mathExpression != null && mathExpression.refersToInputParameters()) {
+      return true;
+    }
+    if (arrayConcatExpression != null && arrayConcatExpression.refersToInputParameters()) {
+      return true;
+    }
+    if (json != null && json.refersToInputParameters()) {
+      return true;
+    }
+    if (value instanceof OMathExpression && ((OMathExpression) value).refersToInputParameters()) {
+      return true;
+    }
+    return false;
+  }
+
   public ORid getRid() {
     return rid;
   }
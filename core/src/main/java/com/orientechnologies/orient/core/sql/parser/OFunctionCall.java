@@ -9,11 +9,20 @@ import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.sql.OSQLEngine;
 import com.orientechnologies.orient.core.sql.executor.AggregationContext;
+import com.orientechnologies.orient.core.sql.executor.OAverageAggregationContext;
+import com.orientechnologies.orient.core.sql.executor.OCountAggregationContext;
 import com.orientechnologies.orient.core.sql.executor.OFuncitonAggregationContext;
+import com.orientechnologies.orient.core.sql.executor.OMinMaxAggregationContext;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
+import com.orientechnologies.orient.core.sql.executor.OSumAggregationContext;
 import com.orientechnologies.orient.core.sql.functions.OIndexableSQLFunction;
 import com.orientechnologies.orient.core.sql.functions.OSQLFunction;
+import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionAverage;
+import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionMax;
+import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionMin;
+import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionSum;
+import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionCount;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -339,6 +348,22 @@ public class OFunctionCall extends SimpleNode {
     OSQLFunction function = OSQLEngine.getInstance().getFunction(name.getStringValue());
     function.config(this.params.toArray());
 
+    if (params.size() == 1 && function.aggregateResults()) {
+      //the most common aggregate functions have specialized (and mergeable) implementations
+      Class<?> functionClass = function.getClass();
+      if (functionClass == OSQLFunctionCount.class) {
+        return new OCountAggregationContext(isStar() ? null : params.get(0));
+      } else if (functionClass == OSQLFunctionSum.class) {
+        return new OSumAggregationContext(params.get(0));
+      } else if (functionClass == OSQLFunctionAverage.class) {
+        return new OAverageAggregationContext(params.get(0));
+      } else if (functionClass == OSQLFunctionMin.class) {
+        return new OMinMaxAggregationContext(params.get(0), false);
+      } else if (functionClass == OSQLFunctionMax.class) {
+        return new OMinMaxAggregationContext(params.get(0), true);
+      }
+    }
+
     OFuncitonAggregationContext result = new OFuncitonAggregationContext(function, this.params);
     return result;
   }
@@ -385,6 +410,17 @@ public class OFunctionCall extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (params != null) {
+      for (OExpression param : params) {
+        if (param != null && param.refersToInputParameters()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public OIdentifier getName() {
     return name;
   }
@@ -105,5 +105,8 @@ public class OIsNotNullCondition extends OBooleanExpression {
     return expression.getMatchPatternInvolvedAliases();
   }
 
+  public OExpression getExpression() {
+    return expression;
+  }
 }
 /* JavaCC - OriginalChecksum=a292fa8a629abb7f6fe72a627fc91361 (do not edit this line) */
@@ -176,6 +176,15 @@ public class OJson extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    for (OJsonItem item : items) {
+      if (item.refersToInputParameters()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public OResult serialize() {
     OResultInternal result = new OResultInternal();
     if (items != null) {
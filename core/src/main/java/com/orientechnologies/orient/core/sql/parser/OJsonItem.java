@@ -81,6 +81,10 @@ public class OJsonItem {
     return right != null && right.refersToParent();
   }
 
+  public boolean refersToInputParameters() {
+    return right != null && right.refersToInputParameters();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o)
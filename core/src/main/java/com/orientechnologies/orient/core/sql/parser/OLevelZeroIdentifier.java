@@ -270,6 +270,16 @@ public class OLevelZeroIdentifier extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (functionCall != null && functionCall.refersToInputParameters()) {
+      return true;
+    }
+    if (collection != null && collection.refersToInputParameters()) {
+      return true;
+    }
+    return false;
+  }
+
   public OFunctionCall getFunctionCall() {
     return functionCall;
   }
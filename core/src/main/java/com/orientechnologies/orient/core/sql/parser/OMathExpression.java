@@ -939,6 +939,15 @@ public class OMathExpression extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    for (OMathExpression expr : this.childExpressions) {
+      if (expr.refersToInputParameters()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o)
@@ -219,6 +219,17 @@ public class OMethodCall extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (params != null) {
+      for (OExpression exp : params) {
+        if (exp.refersToInputParameters()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public OResult serialize() {
     OResultInternal result = new OResultInternal();
     if (methodName != null) {
@@ -271,6 +271,25 @@ public class OModifier extends SimpleNode {
     return false;
   }
 
+  public boolean refersToInputParameters() {
+    if (condition != null || rightBinaryCondition != null) {
+      return true;
+    }
+    if (arrayRange != null && arrayRange.refersToInputParameters()) {
+      return true;
+    }
+    if (arraySingleValues != null && arraySingleValues.refersToInputParameters()) {
+      return true;
+    }
+    if (methodCall != null && methodCall.refersToInputParameters()) {
+      return true;
+    }
+    if (next != null && next.refersToInputParameters()) {
+      return true;
+    }
+    return false;
+  }
+
   protected void setValue(OResult currentRecord, Object target, Object value, OCommandContext ctx) {
     if (next == null) {
       doSetValue(currentRecord, target, value, ctx);
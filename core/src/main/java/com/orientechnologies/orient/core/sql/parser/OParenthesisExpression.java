@@ -173,6 +173,14 @@ public class OParenthesisExpression extends OMathExpression {
     return false;
   }
 
+  @Override
+  public boolean refersToInputParameters() {
+    if (statement != null) {
+      return true;
+    }
+    return expression != null && expression.refersToInputParameters();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o)
@@ -9,6 +9,7 @@ package com.orientechnologies.orient.core.sql.parser;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.ODatabase;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.sql.OCommandSQLParsingException;
 import com.orientechnologies.orient.core.sql.executor.*;
 import com.orientechnologies.orient.core.storage.OStorage;
@@ -239,7 +240,7 @@ public class OSelectStatement extends OStatement {
       }
     }
     ctx.setInputParameters(params);
-    OInternalExecutionPlan executionPlan = createExecutionPlan(ctx, false);
+    OInternalExecutionPlan executionPlan = createCachedExecutionPlan(ctx);
 
     OLocalResultSet result = new OLocalResultSet(executionPlan);
     return result;
@@ -253,7 +254,7 @@ public class OSelectStatement extends OStatement {
     }
     ctx.setDatabase(db);
     ctx.setInputParameters(params);
-    OInternalExecutionPlan executionPlan = createExecutionPlan(ctx, false);
+    OInternalExecutionPlan executionPlan = createCachedExecutionPlan(ctx);
 
     OLocalResultSet result = new OLocalResultSet(executionPlan);
     return result;
@@ -264,6 +265,38 @@ public class OSelectStatement extends OStatement {
     return planner.createExecutionPlan(ctx, enableProfiling);
   }
 
+  /**
+   * creates an execution plan with profiling disabled, reusing the plan of previous executions of the same statement from the
+   * {@link OExecutionPlanCache} if possible
+   *
+   * @param ctx the context that will be used to execute the statement
+   *
+   * @return an execution plan
+   */
+  protected OInternalExecutionPlan createCachedExecutionPlan(OCommandContext ctx) {
+    if (originalStatement == null || !(ctx.getDatabase() instanceof ODatabaseDocumentInternal) || dependsOnParameterValues()) {
+      return createExecutionPlan(ctx, false);
+    }
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    OExecutionPlanCache cache = db.getSharedContext() == null ? null : db.getSharedContext().getExecutionPlanCache();
+    if (cache == null || db.isSharded()) {
+      return createExecutionPlan(ctx, false);
+    }
+    return cache.get(originalStatement, ctx, x -> createExecutionPlan(x, false));
+  }
+
+  /**
+   * @return true if the planner uses the values of the input parameters (as target, SKIP or LIMIT), so the plan cannot be reused
+   * with different values
+   */
+  private boolean dependsOnParameterValues() {
+    if ((skip != null && skip.inputParam != null) || (limit != null && limit.inputParam != null)) {
+      return true;
+    }
+    OFromItem item = target == null ? null : target.getItem();
+    return item != null && (item.getInputParam() != null || (item.getInputParams() != null && !item.getInputParams().isEmpty()));
+  }
+
   @Override
   public OSelectStatement copy() {
     OSelectStatement result = null;
@@ -21,6 +21,11 @@ public class OStatement extends SimpleNode {
 
   public static final String CUSTOM_STRICT_SQL = "strictSql";
 
+  /**
+   * the text this statement was parsed from, set only for statements taken from {@link OStatementCache}
+   */
+  protected String originalStatement;
+
   public OStatement(int id) {
     super(id);
   }
@@ -102,6 +107,13 @@ public class OStatement extends SimpleNode {
     throw new UnsupportedOperationException("Implement " + getClass().getSimpleName() + ".refersToParent()");
   }
 
+  /**
+   * @return the text this statement was parsed from, null if the statement was not taken from {@link OStatementCache}
+   */
+  public String getOriginalStatement() {
+    return originalStatement;
+  }
+
   public boolean isIdempotent() {
     return false;
   }
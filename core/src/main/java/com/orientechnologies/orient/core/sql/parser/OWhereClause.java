@@ -10,6 +10,7 @@ import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.index.*;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.metadata.statistics.OClassStatistics;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
 
@@ -66,7 +67,8 @@ public class OWhereClause extends SimpleNode {
    * records are returned
    */
   public long estimate(OClass oClass, long threshold, OCommandContext ctx) {
-    long count = oClass.count();
+    long total = oClass.count();
+    long count = total;
     if (count > 1) {
       count = count / 2;
     }
@@ -74,6 +76,11 @@ public class OWhereClause extends SimpleNode {
       return count;
     }
 
+    long statisticsEstimation = estimateFromStatistics(oClass, total, ctx);
+    if (statisticsEstimation >= 0) {
+      return statisticsEstimation;
+    }
+
     long indexesCount = 0l;
     List<OAndBlock> flattenedConditions = flatten();
     Set<OIndex<?>> indexes = oClass.getIndexes();
@@ -105,6 +112,30 @@ public class OWhereClause extends SimpleNode {
     return Math.min(indexesCount, count);
   }
 
+  /**
+   * @return an estimation based on the statistics of the values of the class, -1 if the class was never analyzed or the
+   * conditions cannot be estimated
+   */
+  private long estimateFromStatistics(OClass oClass, long total, OCommandContext ctx) {
+    if (!(ctx.getDatabase() instanceof ODatabaseDocumentInternal)) {
+      return -1;
+    }
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    if (db.getSharedContext() == null || db.getSharedContext().getStatisticsManager() == null) {
+      return -1;
+    }
+    OClassStatistics statistics = db.getSharedContext().getStatisticsManager().getClassStatistics(db, oClass.getName());
+    if (statistics == null) {
+      return -1;
+    }
+    double selectivity = statistics.selectivity(this, ctx);
+    if (selectivity < 0) {
+      return -1;
+    }
+    //statistics are approximated, zero is reserved to results that are surely empty
+    return Math.max(1, Math.min(total, Math.round(selectivity * total)));
+  }
+
   private long estimateFromIndex(OIndex index, Map<String, Object> conditions, int nMatchingKeys) {
     if (nMatchingKeys < 1) {
       throw new IllegalArgumentException("Cannot estimate from an index with zero keys");
@@ -0,0 +1,220 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.storage.cache.local;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.orient.core.compression.OCompression;
+import com.orientechnologies.orient.core.compression.OCompressionFactory;
+import com.orientechnologies.orient.core.compression.impl.ONothingCompression;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.exception.OStorageException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * Compresses pages of the files of {@link OWOWCache} before they are written to the disk and decompresses them after they are
+ * read, see {@link OGlobalConfiguration#STORAGE_PAGE_COMPRESSION_METHOD}.
+ * <p>
+ * Compressed page is stored at the start of the slot of the page in the file, so pages keep their positions and only the
+ * compressed part of the slot is written and read. Compressed image has following format: magic number {@link
+ * #MAGIC_NUMBER_COMPRESSED}, CRC32 of the compressed data, length of the compressed data, length and name of the compression
+ * method, compressed data. Decompressed page contains its own magic number and checksum which are verified as usual.
+ * <p>
+ * Pages are decompressed by the method stored in the page, so change of configuration does not affect pages which are already
+ * written. Pages which are compressed by less than {@link #MIN_SAVED_PART} of the page are stored as is.
+ */
+final class OPageCompression {
+  /**
+   * Marks pages which are stored compressed.
+   */
+  static final long MAGIC_NUMBER_COMPRESSED = 0x5A3C0DE7L;
+
+  /**
+   * Amount of bytes which is read first if page may be compressed, is enough to read the most of compressed pages at once.
+   */
+  static final int PREFIX_SIZE = 4 * 1024;
+
+  private static final int CRC_OFFSET         = OLongSerializer.LONG_SIZE;
+  private static final int LENGTH_OFFSET      = CRC_OFFSET + OIntegerSerializer.INT_SIZE;
+  private static final int METHOD_NAME_OFFSET = LENGTH_OFFSET + OIntegerSerializer.INT_SIZE;
+
+  /**
+   * Compressed page should be smaller than page at least on this part of the page, otherwise it is stored uncompressed.
+   */
+  private static final int MIN_SAVED_PART = 8;
+
+  private static final ThreadLocal<byte[]> PAGE_CONTENT = new ThreadLocal<byte[]>();
+
+  private static final ConcurrentMap<String, OCompression> METHODS = new ConcurrentHashMap<String, OCompression>();
+
+  private final int          pageSize;
+  private final OCompression compression;
+  private final byte[]       methodName;
+  private final Set<String>  extensions;
+
+  OPageCompression(int pageSize, String method, String files) {
+    this.pageSize = pageSize;
+
+    if (method == null || method.isEmpty() || method.equals(ONothingCompression.NAME)) {
+      this.compression = null;
+      this.methodName = null;
+    } else {
+      this.compression = method(method);
+      this.methodName = method.getBytes(StandardCharsets.UTF_8);
+    }
+
+    final Set<String> extensions = new HashSet<String>();
+    if (files != null) {
+      for (String extension : files.split(",")) {
+        extension = extension.trim().toLowerCase(Locale.ENGLISH);
+        if (!extension.isEmpty())
+          extensions.add(extension.startsWith(".") ? extension : "." + extension);
+      }
+    }
+    this.extensions = Collections.unmodifiableSet(extensions);
+  }
+
+  /**
+   * @return <code>true</code> if pages of the file with given name are compressed when they are written
+   */
+  boolean isCompressedFile(String fileName) {
+    if (compression == null || fileName == null)
+      return false;
+
+    if (extensions.isEmpty())
+      return true;
+
+    final int dot = fileName.lastIndexOf('.');
+    return dot >= 0 && extensions.contains(fileName.substring(dot).toLowerCase(Locale.ENGLISH));
+  }
+
+  /**
+   * Compresses content of the page, magic number and checksum of the page should be already set.
+   *
+   * @return compressed image of the page positioned at 0, or <code>null</code> if page should be stored uncompressed
+   */
+  ByteBuffer compress(ByteBuffer page) {
+    byte[] content = PAGE_CONTENT.get();
+    if (content == null || content.length != pageSize) {
+      content = new byte[pageSize];
+      PAGE_CONTENT.set(content);
+    }
+
+    page.position(0);
+    page.get(content, 0, pageSize);
+
+    final byte[] compressed = compression.compress(content, 0, pageSize);
+    final int headerSize = METHOD_NAME_OFFSET + 1 + methodName.length;
+    final int size = headerSize + compressed.length;
+    if (size > pageSize - pageSize / MIN_SAVED_PART)
+      return null;
+
+    final CRC32 crc32 = new CRC32();
+    crc32.update(compressed, 0, compressed.length);
+
+    final ByteBuffer image = ByteBuffer.allocate(size).order(ByteOrder.nativeOrder());
+    image.putLong(MAGIC_NUMBER_COMPRESSED);
+    image.putInt((int) crc32.getValue());
+    image.putInt(compressed.length);
+    image.put((byte) methodName.length);
+    image.put(methodName);
+    image.put(compressed);
+
+    image.position(0);
+    return image;
+  }
+
+  /**
+   * @return <code>true</code> if page which is read from the disk is stored compressed
+   */
+  static boolean isCompressed(ByteBuffer buffer) {
+    return buffer.getLong(0) == MAGIC_NUMBER_COMPRESSED;
+  }
+
+  /**
+   * @return size of the compressed image of the page, buffer should contain at least header of the image
+   */
+  static int compressedSize(ByteBuffer buffer) {
+    return METHOD_NAME_OFFSET + 1 + (buffer.get(METHOD_NAME_OFFSET) & 0xFF) + buffer.getInt(LENGTH_OFFSET);
+  }
+
+  /**
+   * Replaces compressed image of the page by the page content.
+   *
+   * @return <code>false</code> if compressed data are broken, content of the buffer is not changed in such case
+   */
+  boolean decompress(ByteBuffer buffer) {
+    assert buffer.order() == ByteOrder.nativeOrder();
+
+    final int storedCRC = buffer.getInt(CRC_OFFSET);
+    final int length = buffer.getInt(LENGTH_OFFSET);
+    final int nameLength = buffer.get(METHOD_NAME_OFFSET) & 0xFF;
+    final int dataOffset = METHOD_NAME_OFFSET + 1 + nameLength;
+
+    if (length < 0 || dataOffset + length > pageSize)
+      return false;
+
+    final byte[] name = new byte[nameLength];
+    buffer.position(METHOD_NAME_OFFSET + 1);
+    buffer.get(name);
+
+    final byte[] compressed = new byte[length];
+    buffer.get(compressed);
+
+    final CRC32 crc32 = new CRC32();
+    crc32.update(compressed, 0, compressed.length);
+    if ((int) crc32.getValue() != storedCRC)
+      return false;
+
+    final byte[] content = method(new String(name, StandardCharsets.UTF_8)).uncompress(compressed);
+    if (content.length != pageSize)
+      return false;
+
+    buffer.position(0);
+    buffer.put(content);
+    buffer.position(0);
+    return true;
+  }
+
+  private static OCompression method(String name) {
+    OCompression compression = METHODS.get(name);
+    if (compression == null) {
+      compression = OCompressionFactory.INSTANCE.getCompression(name, null);
+      if (compression == null)
+        throw new OStorageException("Page compression method '" + name + "' is absent");
+
+      final OCompression existing = METHODS.putIfAbsent(name, compression);
+      if (existing != null)
+        compression = existing;
+    }
+
+    return compression;
+  }
+}
@@ -51,6 +51,8 @@ import com.orientechnologies.orient.core.storage.cache.OCachePointer;
 import com.orientechnologies.orient.core.storage.cache.OPageDataVerificationError;
 import com.orientechnologies.orient.core.storage.cache.OWriteCache;
 import com.orientechnologies.orient.core.storage.fs.OFileClassic;
+import com.orientechnologies.orient.core.storage.fs.OFileDirect;
+import com.orientechnologies.orient.core.storage.fs.OFileMMap;
 import com.orientechnologies.orient.core.storage.impl.local.OLowDiskSpaceInformation;
 import com.orientechnologies.orient.core.storage.impl.local.OLowDiskSpaceListener;
 import com.orientechnologies.orient.core.storage.impl.local.OPageIsBrokenListener;
@@ -74,6 +76,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
@@ -189,6 +192,11 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
    */
   private static final long MAGIC_NUMBER_WITHOUT_CHECKSUM = 0xEF30BCAFL;
 
+  /**
+   * Marks pages which are stored compressed, see {@link OPageCompression}.
+   */
+  public static final long MAGIC_NUMBER_COMPRESSED = OPageCompression.MAGIC_NUMBER_COMPRESSED;
+
   private static final int MAGIC_NUMBER_OFFSET = 0;
 
   private static final int CHECKSUM_OFFSET = MAGIC_NUMBER_OFFSET + OLongSerializer.LONG_SIZE;
@@ -376,6 +384,30 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
    */
   private final ScheduledExecutorService commitExecutor;
 
+  /**
+   * Executor which writes chunks of pages selected by the {@link #commitExecutor} thread. It is <code>null</code> if pages are
+   * written directly by the {@link #commitExecutor} thread.
+   */
+  private final ExecutorService flushWorkers;
+
+  /**
+   * Maximum amount of chunks of pages which are submitted to {@link #flushWorkers} but not written yet.
+   */
+  private final int maxPendingChunks;
+
+  /**
+   * Chunks of pages submitted to {@link #flushWorkers}. Field is not thread safe, it is accessed only by {@link #commitExecutor}
+   * thread.
+   */
+  private final ArrayDeque<Future<Void>> pendingChunks = new ArrayDeque<>();
+
+  /**
+   * Pages submitted to {@link #flushWorkers} since all pending chunks were written last time. Those pages may be already removed
+   * from write cache, so they can not be read again till their chunk is written. Field is not thread safe, it is accessed only by
+   * {@link #commitExecutor} thread.
+   */
+  private final HashSet<PageKey> pagesInFlight = new HashSet<>();
+
   /**
    * Executor which is used to call event listeners in  background thread
    */
@@ -433,6 +465,16 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
 
   private volatile OChecksumMode checksumMode;
 
+  /**
+   * Type of files which are used to access data, see {@link OGlobalConfiguration#STORAGE_FILE_ACCESS_MODE}.
+   */
+  private final String fileAccessMode;
+
+  /**
+   * Compresses pages of the files which are opted in, see {@link OGlobalConfiguration#STORAGE_PAGE_COMPRESSION_METHOD}.
+   */
+  private final OPageCompression pageCompression;
+
   /**
    * Current mode of data flush in {@link PeriodicFlushTask}.
    */
@@ -446,16 +488,27 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
   public OWOWCache(int pageSize, OByteBufferPool bufferPool, OWriteAheadLog writeAheadLog, long pageFlushInterval,
       long exclusiveWriteCacheMaxSize, OLocalPaginatedStorage storageLocal, boolean checkMinSize,
       OClosableLinkedContainer<Long, OFileClassic> files, int id, OChecksumMode checksumMode) {
+    this(pageSize, bufferPool, writeAheadLog, pageFlushInterval, exclusiveWriteCacheMaxSize, storageLocal, checkMinSize, files, id,
+        checksumMode, OFileClassic.NAME);
+  }
+
+  public OWOWCache(int pageSize, OByteBufferPool bufferPool, OWriteAheadLog writeAheadLog, long pageFlushInterval,
+      long exclusiveWriteCacheMaxSize, OLocalPaginatedStorage storageLocal, boolean checkMinSize,
+      OClosableLinkedContainer<Long, OFileClassic> files, int id, OChecksumMode checksumMode, String fileAccessMode) {
     filesLock.acquireWriteLock();
     try {
       this.id = id;
       this.files = files;
+      this.fileAccessMode = checkFileAccessMode(fileAccessMode);
 
       this.pageSize = pageSize;
       this.writeAheadLog = writeAheadLog;
       this.bufferPool = bufferPool;
 
       this.checksumMode = checksumMode;
+      this.pageCompression = new OPageCompression(pageSize,
+          OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_METHOD.getValueAsString(),
+          OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_FILES.getValueAsString());
 
       int exclusiveWriteNormalizedSize = normalizeMemory(exclusiveWriteCacheMaxSize, pageSize);
       if (checkMinSize && exclusiveWriteNormalizedSize < MIN_CACHE_SIZE)
@@ -472,6 +525,15 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
       this.stringSerializer = binarySerializerFactory.getObjectSerializer(OType.STRING);
 
       commitExecutor = new OScheduledThreadPoolExecutorWithLogging(1, new FlushThreadFactory(storageLocal.getName()));
+
+      final int flushThreads = OGlobalConfiguration.DISK_CACHE_FLUSH_THREADS.getValueAsInteger();
+      if (flushThreads > 1) {
+        flushWorkers = new OThreadPoolExecutorWithLogging(flushThreads, flushThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new FlushWorkerThreadFactory(storageLocal.getName()));
+      } else {
+        flushWorkers = null;
+      }
+      maxPendingChunks = 4 * flushThreads;
       cacheEventsPublisher = new OThreadPoolExecutorWithLogging(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
           new SynchronousQueue<>(), new CacheEventsPublisherFactory(storageLocal.getName()));
 
@@ -1396,6 +1458,8 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
       }
     }
 
+    shutdownFlushWorkers();
+
     filesLock.acquireWriteLock();
     try {
       final Collection<Integer> fileIds = nameIdMap.values();
@@ -1541,6 +1605,19 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
         fileClassic.read(pos, data, data.length);
 
         long magicNumber = OLongSerializer.INSTANCE.deserializeNative(data, MAGIC_NUMBER_OFFSET);
+        if (magicNumber == OPageCompression.MAGIC_NUMBER_COMPRESSED) {
+          final ByteBuffer page = ByteBuffer.wrap(data).order(ByteOrder.nativeOrder());
+          if (!pageCompression.decompress(page)) {
+            if (commandOutputListener != null)
+              commandOutputListener
+                  .onMessage("Error: Compressed data of page " + (pos / pageSize) + " in file '" + fileName + "' are broken!\n");
+            errors.add(new OPageDataVerificationError(false, true, pos / pageSize, fileName));
+            fileIsCorrect = false;
+            continue;
+          }
+
+          magicNumber = OLongSerializer.INSTANCE.deserializeNative(data, MAGIC_NUMBER_OFFSET);
+        }
 
         if (magicNumber != MAGIC_NUMBER_WITH_CHECKSUM && magicNumber != MAGIC_NUMBER_WITHOUT_CHECKSUM) {
           magicNumberIncorrect = true;
@@ -1633,6 +1710,8 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
       }
     }
 
+    shutdownFlushWorkers();
+
     final long[] fids = new long[result.size()];
     int n = 0;
     for (Long fid : result) {
@@ -1643,6 +1722,21 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
     return fids;
   }
 
+  private void shutdownFlushWorkers() {
+    if (flushWorkers != null && !flushWorkers.isShutdown()) {
+      flushWorkers.shutdown();
+      try {
+        if (!flushWorkers.awaitTermination(5, TimeUnit.MINUTES))
+          throw new OWriteCacheException("Data flush workers cannot be stopped.");
+      } catch (InterruptedException e) {
+        OLogManager.instance().error(this, "Data flush workers were interrupted", e);
+
+        Thread.interrupted();
+        throw OException.wrapException(new OInterruptedException("Data flush workers were interrupted"), e);
+      }
+    }
+  }
+
   @Override
   public String fileNameById(long fileId) {
     final int intId = extractFileId(fileId);
@@ -1764,7 +1858,40 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
 
   private OFileClassic createFileInstance(String fileName, int fileId) {
     final String internalFileName = createInternalFileName(fileName, fileId);
-    return new OFileClassic(storagePath.resolve(internalFileName));
+    return createFileInstance(storagePath.resolve(internalFileName));
+  }
+
+  private OFileClassic createFileInstance(Path path) {
+    switch (fileAccessMode) {
+    case OFileMMap.NAME:
+      return new OFileMMap(path, OGlobalConfiguration.STORAGE_MMAP_SEGMENT_SIZE.getValueAsLong() * 1024 * 1024);
+    case OFileDirect.NAME:
+      return new OFileDirect(path);
+    default:
+      return new OFileClassic(path);
+    }
+  }
+
+  private String checkFileAccessMode(String fileAccessMode) {
+    if (fileAccessMode == null)
+      return OFileClassic.NAME;
+
+    switch (fileAccessMode) {
+    case OFileClassic.NAME:
+    case OFileMMap.NAME:
+      return fileAccessMode;
+    case OFileDirect.NAME:
+      if (OFileDirect.isSupported())
+        return fileAccessMode;
+
+      OLogManager.instance().warn(this, "Direct I/O is not supported by this JVM, '%s' file access mode will be used instead of '%s'",
+          OFileClassic.NAME, OFileDirect.NAME);
+      return OFileClassic.NAME;
+    default:
+      throw new IllegalArgumentException(
+          "Unknown file access mode '" + fileAccessMode + "', supported modes are: " + OFileClassic.NAME + ", " + OFileMMap.NAME
+              + ", " + OFileDirect.NAME);
+    }
   }
 
   private String createInternalFileName(String fileName, int fileId) {
@@ -1842,7 +1969,7 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
           final String path = storageLocal.getVariableParser()
               .resolveVariables(storageLocal.getStoragePath() + File.separator + idFileNameMap.get(nameIdEntry.getValue()));
 
-          final OFileClassic fileClassic = new OFileClassic(Paths.get(path));
+          final OFileClassic fileClassic = createFileInstance(Paths.get(path));
 
           if (fileClassic.exists()) {
             fileClassic.open();
@@ -1914,7 +2041,7 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
         final long externalId = composeFileId(id, nameIdEntry.getValue());
 
         if (files.get(externalId) == null) {
-          final OFileClassic fileClassic = new OFileClassic(storagePath.resolve(nameIdEntry.getKey()));
+          final OFileClassic fileClassic = createFileInstance(storagePath.resolve(nameIdEntry.getKey()));
 
           if (fileClassic.exists()) {
             fileClassic.open();
@@ -2108,7 +2235,12 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
             if (pageCount == 1) {
               final ByteBuffer buffer = bufferPool.acquireDirect(false);
               assert buffer.position() == 0;
-              fileClassic.read(firstPageStartPosition, buffer, false);
+              if (pageCompression.isCompressedFile(idNameMap.get(intId)))
+                readMaybeCompressedPage(fileClassic, firstPageStartPosition, buffer);
+              else
+                fileClassic.read(firstPageStartPosition, buffer, false);
+
+              decompressPage(buffer, fileId, startPageIndex, null);
 
               if (verifyChecksums && (checksumMode == OChecksumMode.StoreAndVerify || checksumMode == OChecksumMode.StoreAndThrow
                   || checksumMode == OChecksumMode.StoreAndSwitchReadOnlyMode))
@@ -2132,6 +2264,9 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
 
             fileClassic.read(firstPageStartPosition, buffers, false);
 
+            for (int i = 0; i < buffers.length; ++i)
+              decompressPage(buffers[i], fileId, startPageIndex + i, buffers);
+
             if (verifyChecksums && (checksumMode == OChecksumMode.StoreAndVerify || checksumMode == OChecksumMode.StoreAndThrow
                 || checksumMode == OChecksumMode.StoreAndSwitchReadOnlyMode))
               for (int i = 0; i < buffers.length; ++i)
@@ -2160,6 +2295,72 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
     }
   }
 
+  /**
+   * Reads header of the page first and the rest of the page only if it is needed. Only compressed part of the slot of compressed
+   * page is read.
+   */
+  private void readMaybeCompressedPage(OFileClassic fileClassic, long position, ByteBuffer buffer) throws IOException {
+    final int prefixSize = Math.min(OPageCompression.PREFIX_SIZE, pageSize);
+
+    buffer.limit(prefixSize);
+    fileClassic.read(position, buffer, false);
+    buffer.limit(pageSize);
+
+    int size = pageSize;
+    if (OPageCompression.isCompressed(buffer))
+      size = Math.min(OPageCompression.compressedSize(buffer), pageSize);
+
+    if (size > prefixSize) {
+      buffer.position(prefixSize);
+      buffer.limit(size);
+
+      final ByteBuffer rest = buffer.slice();
+      buffer.limit(pageSize);
+      fileClassic.read(position + prefixSize, rest, false);
+    }
+
+    buffer.position(0);
+  }
+
+  /**
+   * @return compressed image of the page if page of given file should be stored compressed, or page itself
+   */
+  private ByteBuffer compressPage(int intId, ByteBuffer buffer) {
+    if (!pageCompression.isCompressedFile(idNameMap.get(intId)))
+      return buffer;
+
+    final ByteBuffer compressed = pageCompression.compress(buffer);
+    buffer.position(0);
+
+    return compressed == null ? buffer : compressed;
+  }
+
+  /**
+   * Replaces compressed image of the page by the page content if page is stored compressed. Pages are decompressed regardless of
+   * page compression settings, so files can be read after the settings are changed.
+   */
+  private void decompressPage(ByteBuffer buffer, long fileId, long pageIndex, ByteBuffer[] buffersToRelease) {
+    if (!OPageCompression.isCompressed(buffer))
+      return;
+
+    if (!pageCompression.decompress(buffer)) {
+      final String message = "Decompression of page `" + pageIndex + "` of `" + fileNameById(fileId) + "` failed, compressed data "
+          + "are broken.";
+      OLogManager.instance().error(this, "%s", null, message);
+
+      if (checksumMode == OChecksumMode.StoreAndSwitchReadOnlyMode)
+        callPageIsBrokenListeners(fileNameById(fileId), pageIndex);
+
+      if (buffersToRelease == null)
+        bufferPool.release(buffer);
+      else
+        for (ByteBuffer bufferToRelease : buffersToRelease)
+          bufferPool.release(bufferToRelease);
+
+      throw new OStorageException(message);
+    }
+  }
+
   private void addMagicAndChecksum(final ByteBuffer buffer) {
     assert buffer.order() == ByteOrder.nativeOrder();
 
@@ -2257,7 +2458,7 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
       addMagicAndChecksum(buffer);
 
       buffer.position(0);
-      fileClassic.write(pageIndex * pageSize, buffer);
+      fileClassic.write(pageIndex * pageSize, compressPage(fileId, buffer));
     } finally {
       files.release(entry);
     }
@@ -2575,6 +2776,15 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
   }
 
   private int flushWriteCacheFromMinLSN() throws IOException, InterruptedException {
+    try {
+      return flushWriteCacheFromMinLSNChunks();
+    } finally {
+      waitForPendingChunks();
+      releaseExclusiveLatch();
+    }
+  }
+
+  private int flushWriteCacheFromMinLSNChunks() throws IOException, InterruptedException {
     //first we try to find page which contains the oldest not flushed changes
     //that is needed to allow to compact WAL as earlier as possible
     convertSharedDirtyPagesToLocal();
@@ -2633,6 +2843,14 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
           final Map.Entry<PageKey, OCachePointer> cacheEntry = pageIterator.next();
           final PageKey pageKey = cacheEntry.getKey();
 
+          if (pagesInFlight.contains(pageKey)) {
+            //page was already sent to the flush workers during this flush cycle, its entry may be stale
+            waitForPendingChunks();
+
+            if (writeCachePages.get(pageKey) != cacheEntry.getValue())
+              continue;
+          }
+
           if (firstFileId == -1) {
             firstFileId = pageKey.fileId;
             firstPageIndex = pageKey.pageIndex;
@@ -2712,10 +2930,86 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
     }
   }
 
+  /**
+   * Writes chunk of continuous pages, directly or by submitting it to the {@link #flushWorkers}. In the last case pages are removed
+   * from the write cache only once the chunk is written, all chunks are written before the end of the current flush task (see
+   * {@link #waitForPendingChunks()}).
+   *
+   * @return amount of pages in chunk, chunk is cleared
+   */
   private int flushPagesChunk(ArrayList<OTriple<Long, ByteBuffer, OCachePointer>> chunk) throws IOException, InterruptedException {
     if (chunk.isEmpty())
       return 0;
 
+    final int flushedPages = chunk.size();
+
+    if (flushWorkers == null) {
+      writePagesChunk(chunk);
+    } else {
+      final List<OTriple<Long, ByteBuffer, OCachePointer>> pages = new ArrayList<>(chunk);
+      for (OTriple<Long, ByteBuffer, OCachePointer> triple : pages) {
+        final OCachePointer pointer = triple.getValue().getValue();
+        pagesInFlight.add(new PageKey(internalFileId(pointer.getFileId()), pointer.getPageIndex()));
+      }
+
+      while (pendingChunks.size() >= maxPendingChunks) {
+        waitForChunk(pendingChunks.poll());
+        releaseExclusiveLatch();
+      }
+
+      pendingChunks.add(flushWorkers.submit(new WritePagesChunkTask(pages)));
+    }
+
+    chunk.clear();
+
+    return flushedPages;
+  }
+
+  /**
+   * Waits till all chunks of pages submitted to {@link #flushWorkers} are written. It is called by {@link #commitExecutor} thread
+   * before the end of each flush, so other tasks never see pages which are removed from dirty pages table but not written yet.
+   */
+  private void waitForPendingChunks() throws IOException, InterruptedException {
+    Throwable error = null;
+
+    Future<Void> future;
+    while ((future = pendingChunks.peek()) != null) {
+      try {
+        waitForChunk(future);
+      } catch (IOException | RuntimeException e) {
+        if (error == null)
+          error = e;
+      }
+
+      pendingChunks.poll();
+    }
+
+    pagesInFlight.clear();
+
+    if (error instanceof IOException)
+      throw (IOException) error;
+    if (error != null)
+      throw (RuntimeException) error;
+  }
+
+  private static void waitForChunk(Future<Void> future) throws IOException, InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+
+      if (cause instanceof IOException)
+        throw (IOException) cause;
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+      if (cause instanceof Error)
+        throw (Error) cause;
+
+      throw OException.wrapException(new OWriteCacheException("Error during write of chunk of pages"), cause);
+    }
+  }
+
+  private void writePagesChunk(List<OTriple<Long, ByteBuffer, OCachePointer>> chunk) throws IOException, InterruptedException {
     ByteBuffer[] buffers = new ByteBuffer[chunk.size()];
     for (int i = 0; i < buffers.length; i++) {
       final ByteBuffer buffer = chunk.get(i).getValue().getKey();
@@ -2735,7 +3029,16 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
     OClosableEntry<Long, OFileClassic> fileEntry = files.acquire(firstFileId);
     try {
       OFileClassic file = fileEntry.get();
-      file.write(firstPageIndex * pageSize, buffers);
+
+      final int intId = extractFileId(firstFileId);
+      if (pageCompression.isCompressedFile(idNameMap.get(intId))) {
+        //compressed pages do not fill their slots, so pages are written one by one
+        for (int i = 0; i < buffers.length; i++) {
+          file.write((firstPageIndex + i) * pageSize, compressPage(intId, buffers[i]));
+          buffers[i].position(0);
+        }
+      } else
+        file.write(firstPageIndex * pageSize, buffers);
     } finally {
       files.release(fileEntry);
     }
@@ -2776,14 +3079,18 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
         lock.unlock();
       }
     }
-
-    final int flushedPages = chunk.size();
-    chunk.clear();
-
-    return flushedPages;
   }
 
   private int flushExclusiveWriteCache() throws IOException, InterruptedException {
+    try {
+      return flushExclusiveWriteCacheChunks();
+    } finally {
+      waitForPendingChunks();
+      releaseExclusiveLatch();
+    }
+  }
+
+  private int flushExclusiveWriteCacheChunks() throws IOException, InterruptedException {
     Iterator<PageKey> iterator = exclusiveWritePages.iterator();
 
     int flushedPages = 0;
@@ -2816,6 +3123,11 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
 
         final PageKey pageKey = iterator.next();
 
+        if (pagesInFlight.contains(pageKey)) {
+          //page was already sent to the flush workers during this flush cycle and may be removed from write cache
+          waitForPendingChunks();
+        }
+
         final OCachePointer pointer = writeCachePages.get(pageKey);
         final long version;
 
@@ -2869,6 +3181,20 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
     return flushedPages;
   }
 
+  private final class WritePagesChunkTask implements Callable<Void> {
+    private final List<OTriple<Long, ByteBuffer, OCachePointer>> chunk;
+
+    private WritePagesChunkTask(List<OTriple<Long, ByteBuffer, OCachePointer>> chunk) {
+      this.chunk = chunk;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      writePagesChunk(chunk);
+      return null;
+    }
+  }
+
   private final class FileFlushTask implements Callable<Void> {
     private final int fileId;
 
@@ -2999,6 +3325,25 @@ public class OWOWCache extends OAbstractWriteCache implements OWriteCache, OCach
     }
   }
 
+  private static class FlushWorkerThreadFactory implements ThreadFactory {
+    private final String storageName;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private FlushWorkerThreadFactory(String storageName) {
+      this.storageName = storageName;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(OStorageAbstract.storageThreadGroup, r);
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MAX_PRIORITY);
+      thread.setName("OrientDB Write Cache Flush Worker " + counter.incrementAndGet() + " (" + storageName + ")");
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      return thread;
+    }
+  }
+
   private static class CacheEventsPublisherFactory implements ThreadFactory {
     private final String storageName;
 
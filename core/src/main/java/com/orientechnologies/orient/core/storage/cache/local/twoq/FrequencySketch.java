@@ -0,0 +1,139 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.storage.cache.local.twoq;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch of access frequency of pages, is used by {@link O2QCache} as TinyLFU admission filter which decides whether a
+ * page may replace the victim of the Am queue.
+ * <p>
+ * Every page is mapped to four 4-bit counters, so frequency is capped by 15, frequency of the page is the minimum of its counters.
+ * When amount of recorded accesses reaches ten times of the size of the cache all counters are halved, so frequency of pages which
+ * were hot long time ago decays. Counters are updated by CAS without locks, concurrent reset may lose few increments which is
+ * acceptable for the estimate.
+ */
+final class FrequencySketch {
+  private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private final AtomicLongArray table;
+  private final int             tableMask;
+  private final int             sampleSize;
+
+  private final AtomicInteger size         = new AtomicInteger();
+  private final AtomicBoolean resetRunning = new AtomicBoolean();
+
+  /**
+   * @param maximumSize maximum amount of pages in cache
+   */
+  FrequencySketch(int maximumSize) {
+    final int tableSize = Integer.highestOneBit(Math.max(64, Math.min(maximumSize, 1 << 30) - 1)) << 1;
+
+    table = new AtomicLongArray(tableSize);
+    tableMask = tableSize - 1;
+    sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(maximumSize, 64));
+  }
+
+  /**
+   * @return estimated frequency of access of the page, in range from 0 to 15
+   */
+  int frequency(long fileId, long pageIndex) {
+    final int hash = spread(fileId, pageIndex);
+    final int start = (hash & 3) << 2;
+
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      final int index = indexOf(hash, i);
+      final int count = (int) ((table.get(index) >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+
+    return frequency;
+  }
+
+  /**
+   * Records access of the page, counters which already reached the maximum value are not changed.
+   */
+  void increment(long fileId, long pageIndex) {
+    final int hash = spread(fileId, pageIndex);
+    final int start = (hash & 3) << 2;
+
+    boolean added = false;
+    for (int i = 0; i < 4; i++)
+      added |= incrementAt(indexOf(hash, i), start + i);
+
+    if (added && size.incrementAndGet() >= sampleSize)
+      reset();
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    final int offset = counter << 2;
+    final long mask = 0xfL << offset;
+
+    while (true) {
+      final long value = table.get(index);
+      if ((value & mask) == mask)
+        return false;
+
+      if (table.compareAndSet(index, value, value + (1L << offset)))
+        return true;
+    }
+  }
+
+  /**
+   * Halves all counters, is performed by a single thread.
+   */
+  private void reset() {
+    if (!resetRunning.compareAndSet(false, true))
+      return;
+
+    try {
+      for (int i = 0; i < table.length(); i++) {
+        long value;
+        do {
+          value = table.get(i);
+        } while (!table.compareAndSet(i, value, (value >>> 1) & RESET_MASK));
+      }
+
+      size.set(size.get() / 2);
+    } finally {
+      resetRunning.set(false);
+    }
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  private static int spread(long fileId, long pageIndex) {
+    long h = fileId * 0x9E3779B97F4A7C15L + pageIndex;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+}
@@ -48,6 +48,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author Andrey Lomakin (a.lomakin-at-orientdb.com)
@@ -113,6 +114,20 @@ public class O2QCache implements OReadCache {
 
   private final AtomicBoolean coldPagesRemovalInProgress = new AtomicBoolean();
 
+  /**
+   * Hits of pages in Am queue, they are applied to the queue in batches, see {@link #drainReadBuffers()}. <code>null</code> if
+   * hits are applied to the queue immediately.
+   */
+  private final StripedReadBuffers readBuffers;
+  private final Lock               readBuffersDrainLock = new ReentrantLock();
+
+  /**
+   * Frequency of access of pages, if it is not <code>null</code> page which is moved from A1out queue to the Am queue when Am queue
+   * is full should be accessed more frequently than the page which it replaces, otherwise page is treated as a new one and is put
+   * into A1in queue. So pages which are read by single big scan or by repeated scans do not push hot pages out of the cache.
+   */
+  private final FrequencySketch frequencySketch;
+
   /**
    * @param readCacheMaxMemory   Maximum amount of direct memory which can allocated by disk cache in bytes.
    * @param pageSize             Cache page size in bytes.
@@ -122,11 +137,40 @@ public class O2QCache implements OReadCache {
    * @see #MAX_PERCENT_OF_PINED_PAGES
    */
   public O2QCache(final long readCacheMaxMemory, final int pageSize, final boolean checkMinSize, final int percentOfPinnedPages) {
+    this(readCacheMaxMemory, pageSize, checkMinSize, percentOfPinnedPages, true);
+  }
+
+  /**
+   * @param readCacheMaxMemory   Maximum amount of direct memory which can allocated by disk cache in bytes.
+   * @param pageSize             Cache page size in bytes.
+   * @param checkMinSize         If this flat is set size of cache may be {@link #MIN_CACHE_SIZE} or bigger.
+   * @param percentOfPinnedPages Maximum percent of pinned pages which may be hold by this cache.
+   * @param useReadBuffers       If this flag is set hits of pages are recorded in striped buffers and applied to the LRU queue in
+   *                             batches, otherwise each hit updates the queue immediately.
+   */
+  public O2QCache(final long readCacheMaxMemory, final int pageSize, final boolean checkMinSize, final int percentOfPinnedPages,
+      final boolean useReadBuffers) {
+    this(readCacheMaxMemory, pageSize, checkMinSize, percentOfPinnedPages, useReadBuffers, false);
+  }
+
+  /**
+   * @param readCacheMaxMemory     Maximum amount of direct memory which can allocated by disk cache in bytes.
+   * @param pageSize               Cache page size in bytes.
+   * @param checkMinSize           If this flat is set size of cache may be {@link #MIN_CACHE_SIZE} or bigger.
+   * @param percentOfPinnedPages   Maximum percent of pinned pages which may be hold by this cache.
+   * @param useReadBuffers         If this flag is set hits of pages are recorded in striped buffers and applied to the LRU queue in
+   *                               batches, otherwise each hit updates the queue immediately.
+   * @param useFrequencyAdmission  If this flag is set TinyLFU admission filter decides whether page may be moved to the Am queue,
+   *                               otherwise only recency of access is taken into account.
+   */
+  public O2QCache(final long readCacheMaxMemory, final int pageSize, final boolean checkMinSize, final int percentOfPinnedPages,
+      final boolean useReadBuffers, final boolean useFrequencyAdmission) {
     if (percentOfPinnedPages > MAX_PERCENT_OF_PINED_PAGES)
       throw new IllegalArgumentException(
           "Percent of pinned pages cannot be more than " + percentOfPinnedPages + " but passed value is " + percentOfPinnedPages);
 
     this.percentOfPinnedPages = percentOfPinnedPages;
+    this.readBuffers = useReadBuffers ? new StripedReadBuffers() : null;
 
     cacheLock.acquireWriteLock();
     try {
@@ -142,6 +186,8 @@ public class O2QCache implements OReadCache {
       final MemoryData memoryData = new MemoryData(normalizedSize, 0);
       this.memoryDataContainer.set(memoryData);
 
+      this.frequencySketch = useFrequencyAdmission ? new FrequencySketch(normalizedSize) : null;
+
       am = new ConcurrentLRUList();
       a1out = new ConcurrentLRUList();
       a1in = new ConcurrentLRUList();
@@ -415,6 +461,8 @@ public class O2QCache implements OReadCache {
       try {
         if (cacheResult.removeColdPages)
           removeColdestPagesIfNeeded();
+        else if (readBuffers != null && readBuffers.isDrainRequested())
+          drainReadBuffers();
       } catch (RuntimeException e) {
         assert !cacheResult.cacheEntry.isDirty();
 
@@ -1096,6 +1144,11 @@ public class O2QCache implements OReadCache {
         throw new OStorageException("Page with index " + cacheEntry.getPageIndex() + " for file id " + cacheEntry.getFileId()
             + " is used and cannot be removed");
 
+    //recorded hits refer to removed pages
+    if (readBuffers != null)
+      readBuffers.drainTo(cacheEntry -> {
+      });
+
     a1out.clear();
     am.clear();
     a1in.clear();
@@ -1133,11 +1186,50 @@ public class O2QCache implements OReadCache {
     assert filePages.get(fileId) != null;
     assert filePages.get(fileId).contains(pageIndex);
 
-    am.putToMRU(cacheEntry);
+    if (readBuffers != null)
+      readBuffers.offer(cacheEntry);
+    else
+      am.putToMRU(cacheEntry);
 
     return false;
   }
 
+  /**
+   * Applies hits recorded in read buffers to the Am queue. Only one thread drains the buffers, others do not wait for it. Hits are
+   * applied under the page lock, the same as any other change of the queues, so pages which were evicted or moved out of Am since
+   * the hit was recorded are skipped.
+   */
+  private void drainReadBuffers() {
+    if (readBuffers == null || !readBuffersDrainLock.tryLock())
+      return;
+
+    try {
+      cacheLock.acquireReadLock();
+      try {
+        readBuffers.drainTo(this::applyBufferedHit);
+      } finally {
+        cacheLock.releaseReadLock();
+      }
+    } finally {
+      readBuffersDrainLock.unlock();
+    }
+  }
+
+  private void applyBufferedHit(OCacheEntry cacheEntry) {
+    final Lock fileLock = fileLockManager.acquireSharedLock(cacheEntry.getFileId());
+    try {
+      final Lock pageLock = pageLockManager.acquireExclusiveLock(new PageKey(cacheEntry.getFileId(), cacheEntry.getPageIndex()));
+      try {
+        if (am.get(cacheEntry.getFileId(), cacheEntry.getPageIndex()) == cacheEntry)
+          am.putToMRU(cacheEntry);
+      } finally {
+        pageLock.unlock();
+      }
+    } finally {
+      fileLock.unlock();
+    }
+  }
+
   @SuppressWarnings("SameReturnValue")
   private boolean entryWasInA1OutQueue(final long fileId, final long pageIndex, final OCachePointer dataPointer,
       final OCacheEntry cacheEntry) {
@@ -1150,11 +1242,33 @@ public class O2QCache implements OReadCache {
 
     cacheEntry.setCachePointer(dataPointer);
 
-    am.putToMRU(cacheEntry);
+    if (admitToAm(fileId, pageIndex))
+      am.putToMRU(cacheEntry);
+    else
+      a1in.putToMRU(cacheEntry);
 
     return true;
   }
 
+  /**
+   * TinyLFU admission filter, if Am queue is full page may be moved to it only if it is accessed more frequently than the least
+   * recently used page of Am queue which will be evicted instead of it.
+   */
+  private boolean admitToAm(final long fileId, final long pageIndex) {
+    if (frequencySketch == null)
+      return true;
+
+    final MemoryData memoryData = memoryDataContainer.get();
+    if (am.size() < memoryData.get2QCacheSize() - memoryData.K_IN)
+      return true;
+
+    final OCacheEntry victim = am.getLRU();
+    if (victim == null)
+      return true;
+
+    return frequencySketch.frequency(fileId, pageIndex) > frequencySketch.frequency(victim.getFileId(), victim.getPageIndex());
+  }
+
   @SuppressWarnings("SameReturnValue")
   private boolean entryIsInA1InQueue(final long fileId, final long pageIndex) {
     assert filePages.get(fileId) != null;
@@ -1186,6 +1300,9 @@ public class O2QCache implements OReadCache {
 
     assert pageCount > 0;
 
+    if (frequencySketch != null)
+      frequencySketch.increment(fileId, pageIndex);
+
     OCacheEntry cacheEntry = am.get(fileId, pageIndex);
 
     if (cacheEntry != null) {
@@ -1270,32 +1387,29 @@ public class O2QCache implements OReadCache {
     return removeColdPages;
   }
 
+  /**
+   * Evicts pages under page locks, so readers of other pages are never blocked by eviction. Usually only one thread evicts pages,
+   * but if cache is overflowed by more than {@link #MAX_CACHE_OVERFLOW} pages every thread which adds pages helps to evict them, so
+   * cache size is kept close to the limit without a global lock.
+   */
   private void removeColdestPagesIfNeeded() {
-    if (!coldPagesRemovalInProgress.compareAndSet(false, true))
-      return;
+    drainReadBuffers();
 
     final MemoryData memoryData = this.memoryDataContainer.get();
-    final boolean exclusiveCacheLock = (am.size() + a1in.size() - memoryData.get2QCacheSize()) > MAX_CACHE_OVERFLOW;
+    final int overflow = am.size() + a1in.size() - memoryData.get2QCacheSize();
+    final boolean helpEviction = overflow > MAX_CACHE_OVERFLOW;
 
-    if (exclusiveCacheLock)
-      cacheLock.acquireWriteLock();
-    else
-      cacheLock.acquireReadLock();
+    if (!helpEviction && !coldPagesRemovalInProgress.compareAndSet(false, true))
+      return;
 
+    cacheLock.acquireReadLock();
     try {
-
-      if (exclusiveCacheLock)
-        removeColdPagesWithCacheLock();
-      else
-        removeColdPagesWithoutCacheLock();
-
+      removeColdPagesWithoutCacheLock(Math.max(1000, 2 * overflow));
     } finally {
-      if (exclusiveCacheLock)
-        cacheLock.releaseWriteLock();
-      else
-        cacheLock.releaseReadLock();
+      cacheLock.releaseReadLock();
 
-      coldPagesRemovalInProgress.set(false);
+      if (!helpEviction)
+        coldPagesRemovalInProgress.set(false);
     }
   }
 
@@ -1354,13 +1468,13 @@ public class O2QCache implements OReadCache {
     }
   }
 
-  private void removeColdPagesWithoutCacheLock() {
+  private void removeColdPagesWithoutCacheLock(int maxIterations) {
     Lock fileLock;
     Lock pageLock;
     int iterationsCounter = 0;
 
     final MemoryData memoryData = this.memoryDataContainer.get();
-    while (am.size() + a1in.size() > memoryData.get2QCacheSize() && iterationsCounter < 1000) {
+    while (am.size() + a1in.size() > memoryData.get2QCacheSize() && iterationsCounter < maxIterations) {
       iterationsCounter++;
 
       if (a1in.size() > memoryData.K_IN) {
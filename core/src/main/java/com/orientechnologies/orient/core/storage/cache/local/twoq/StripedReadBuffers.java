@@ -0,0 +1,119 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.storage.cache.local.twoq;
+
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Striped buffers of cache hits. Every thread records hits into the stripe selected by its id, so threads which read pages do not
+ * contend on the LRU list. Recorded hits are applied to the LRU list in batches by a single thread which drains the buffers.
+ * <p>
+ * Buffers are lossy: if a stripe is full or another thread concurrently writes into the same slot the hit is dropped, approximate
+ * LRU order is good enough for the cache but the hot path never blocks.
+ */
+final class StripedReadBuffers {
+  private static final int STRIPE_SIZE     = 32;
+  private static final int STRIPE_MASK     = STRIPE_SIZE - 1;
+  private static final int DRAIN_THRESHOLD = STRIPE_SIZE / 2;
+
+  private final Stripe[] stripes;
+  private final int      stripesMask;
+
+  private volatile boolean drainRequested;
+
+  StripedReadBuffers() {
+    final int stripesCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1;
+    stripes = new Stripe[stripesCount];
+    for (int i = 0; i < stripes.length; i++)
+      stripes[i] = new Stripe();
+
+    stripesMask = stripesCount - 1;
+  }
+
+  /**
+   * Records hit of the cache entry, may drop the hit if the stripe of the current thread is full.
+   */
+  void offer(OCacheEntry cacheEntry) {
+    final long threadId = Thread.currentThread().getId();
+    final Stripe stripe = stripes[(int) ((threadId * 0x9E3779B97F4A7C15L) >>> 32) & stripesMask];
+
+    final long head = stripe.readCounter;
+    final long tail = stripe.writeCounter.get();
+    final long size = tail - head;
+
+    if (size >= STRIPE_SIZE) {
+      drainRequested = true;
+      return;
+    }
+
+    if (stripe.writeCounter.compareAndSet(tail, tail + 1)) {
+      stripe.buffer.lazySet((int) (tail & STRIPE_MASK), cacheEntry);
+
+      if (size + 1 >= DRAIN_THRESHOLD && !drainRequested)
+        drainRequested = true;
+    }
+  }
+
+  /**
+   * @return <code>true</code> if at least one of the stripes is filled enough to be drained
+   */
+  boolean isDrainRequested() {
+    return drainRequested;
+  }
+
+  /**
+   * Passes all recorded hits to the consumer. Only one thread at a time may drain the buffers.
+   */
+  void drainTo(Consumer<OCacheEntry> consumer) {
+    drainRequested = false;
+
+    for (Stripe stripe : stripes) {
+      long head = stripe.readCounter;
+      final long tail = stripe.writeCounter.get();
+
+      while (head < tail) {
+        final int index = (int) (head & STRIPE_MASK);
+        final OCacheEntry cacheEntry = stripe.buffer.get(index);
+
+        //slot is reserved but hit is not written yet, it will be read during next drain
+        if (cacheEntry == null)
+          break;
+
+        stripe.buffer.lazySet(index, null);
+        head++;
+
+        consumer.accept(cacheEntry);
+      }
+
+      stripe.readCounter = head;
+    }
+  }
+
+  private static final class Stripe {
+    private final    AtomicReferenceArray<OCacheEntry> buffer       = new AtomicReferenceArray<>(STRIPE_SIZE);
+    private final    AtomicLong                        writeCounter = new AtomicLong();
+    private volatile long                              readCounter;
+  }
+}
@@ -91,6 +91,7 @@ public class OFileClassic implements OFile, OClosableItem {
       try {
         acquireWriteLock();
         try {
+          onShrink(size);
           channel.truncate(HEADER_SIZE + size);
           this.size = size;
           setSize(this.size);
@@ -147,7 +148,7 @@ public class OFileClassic implements OFile, OClosableItem {
         acquireReadLock();
         try {
           offset = checkRegions(offset, buffer.limit());
-          readByteBuffer(buffer, channel, offset, throwOnEof);
+          readPage(channel, buffer, offset, throwOnEof);
 
           break;
 
@@ -168,16 +169,18 @@ public class OFileClassic implements OFile, OClosableItem {
 
     while (true) {
       try {
-        acquireWriteLock();
+        //positional reads do not change state of the channel, so pages can be read in parallel
+        acquireReadLock();
         try {
-          offset += HEADER_SIZE;
-
-          channel.position(offset);
-          readByteBuffers(buffers, channel, buffers.length * buffers[0].limit(), throwOnEof);
+          long position = offset + HEADER_SIZE;
+          for (ByteBuffer buffer : buffers) {
+            readPage(channel, buffer, position, throwOnEof);
+            position += buffer.limit();
+          }
           break;
 
         } finally {
-          releaseWriteLock();
+          releaseReadLock();
           attempts++;
         }
       } catch (IOException e) {
@@ -193,16 +196,15 @@ public class OFileClassic implements OFile, OClosableItem {
 
     while (true) {
       try {
-        acquireWriteLock();
+        //positional writes do not change state of the channel, so several pages can be written in parallel
+        acquireReadLock();
         try {
-          offset += HEADER_SIZE;
-
-          writeByteBuffer(buffer, channel, offset);
-          setDirty();
+          writeByteBuffer(buffer, channel, offset + HEADER_SIZE);
+          dirty = true;
 
           break;
         } finally {
-          releaseWriteLock();
+          releaseReadLock();
           attempts++;
         }
       } catch (IOException e) {
@@ -218,6 +220,7 @@ public class OFileClassic implements OFile, OClosableItem {
 
     while (true) {
       try {
+        //the gathering write moves the position of the channel, so it is done under the exclusive lock
         acquireWriteLock();
         try {
           offset += HEADER_SIZE;
@@ -634,6 +637,7 @@ public class OFileClassic implements OFile, OClosableItem {
         acquireWriteLock();
         try {
           if (channel != null && channel.isOpen()) {
+            onClose();
             channel.close();
             channel = null;
           }
@@ -710,6 +714,8 @@ public class OFileClassic implements OFile, OClosableItem {
         OIOUtils.writeByteBuffer(buffer, channel, 0);
       }
 
+      onOpen(osFile, channel);
+
     } finally {
       releaseWriteLock();
     }
@@ -827,6 +833,35 @@ public class OFileClassic implements OFile, OClosableItem {
     }
   }
 
+  /**
+   * Reads content of a page into the passed in buffer, is called under the read lock. Subclasses may serve the read from other
+   * sources than the file channel, data are written always through the channel.
+   *
+   * @param position position of the page in the file, including the file header
+   */
+  protected void readPage(FileChannel channel, ByteBuffer buffer, long position, boolean throwOnEof) throws IOException {
+    readByteBuffer(buffer, channel, position, throwOnEof);
+  }
+
+  /**
+   * Called under the write lock when the channel of the file is opened (or reopened after an IO error).
+   */
+  protected void onOpen(Path osFile, FileChannel channel) throws IOException {
+  }
+
+  /**
+   * Called under the write lock before the channel of the file is closed, all resources which depend on the file content should be
+   * released.
+   */
+  protected void onClose() throws IOException {
+  }
+
+  /**
+   * Called under the write lock before the file is truncated to the passed in size (the header is not included).
+   */
+  protected void onShrink(long size) throws IOException {
+  }
+
   private void acquireWriteLock() {
     lock.writeLock().lock();
   }
@@ -874,6 +909,7 @@ public class OFileClassic implements OFile, OClosableItem {
     acquireWriteLock();
     try {
       try {
+        onClose();
         channel.close();
       } catch (IOException ioe) {
         OLogManager.instance()
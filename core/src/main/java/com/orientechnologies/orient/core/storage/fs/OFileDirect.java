@@ -0,0 +1,197 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.storage.fs;
+
+import com.orientechnologies.common.log.OLogManager;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File which reads pages bypassing the OS page cache (O_DIRECT), pages are cached only by the disk cache and are not kept twice in
+ * memory. Direct reads have to be aligned to the block size of the file system, so the block aligned region which contains the
+ * page is read into an aligned thread local buffer and the page is copied from it.
+ * <p>
+ * Writes go through the usual file channel, the OS flushes dirty pages of the region before it is read directly. Direct I/O is
+ * available only on JVMs which provide <code>com.sun.nio.file.ExtendedOpenOption.DIRECT</code> (Java 10+), otherwise this file
+ * behaves as {@link OFileClassic}.
+ */
+public class OFileDirect extends OFileClassic {
+  public final static String NAME = "direct";
+
+  private static final int DEFAULT_BLOCK_SIZE = 4096;
+
+  private static final OpenOption DIRECT_OPTION;
+  private static final Method     ALIGNED_SLICE;
+  private static final Method     GET_BLOCK_SIZE;
+
+  static {
+    OpenOption directOption = null;
+    Method alignedSlice = null;
+    Method getBlockSize = null;
+
+    try {
+      @SuppressWarnings("unchecked")
+      final Class<? extends Enum> optionClass = (Class<? extends Enum>) Class.forName("com.sun.nio.file.ExtendedOpenOption");
+      @SuppressWarnings("unchecked")
+      final OpenOption option = (OpenOption) Enum.valueOf(optionClass, "DIRECT");
+
+      alignedSlice = ByteBuffer.class.getMethod("alignedSlice", int.class);
+      getBlockSize = java.nio.file.FileStore.class.getMethod("getBlockSize");
+      directOption = option;
+    } catch (Exception | LinkageError e) {
+      //direct I/O is not supported by this JVM
+    }
+
+    DIRECT_OPTION = directOption;
+    ALIGNED_SLICE = alignedSlice;
+    GET_BLOCK_SIZE = getBlockSize;
+  }
+
+  /**
+   * Buffers are shared by all files, so their amount is limited by amount of threads which read pages.
+   */
+  private static final ThreadLocal<AlignedBuffer> ALIGNED_BUFFER = new ThreadLocal<>();
+
+  private volatile FileChannel directChannel;
+  private          int         blockSize = DEFAULT_BLOCK_SIZE;
+
+  public OFileDirect(Path osFile) {
+    super(osFile);
+  }
+
+  /**
+   * @return <code>true</code> if current JVM is able to open files for direct I/O
+   */
+  public static boolean isSupported() {
+    return DIRECT_OPTION != null;
+  }
+
+  @Override
+  protected void onOpen(Path osFile, FileChannel channel) throws IOException {
+    if (DIRECT_OPTION == null)
+      return;
+
+    try {
+      blockSize = ((Number) GET_BLOCK_SIZE.invoke(Files.getFileStore(osFile))).intValue();
+      if (blockSize <= 0 || Integer.bitCount(blockSize) != 1)
+        blockSize = DEFAULT_BLOCK_SIZE;
+
+      directChannel = FileChannel.open(osFile, StandardOpenOption.READ, DIRECT_OPTION);
+    } catch (Exception e) {
+      OLogManager.instance()
+          .warn(this, "Direct I/O is not supported for file %s, OS page cache will be used to read it", e, osFile.getFileName());
+      directChannel = null;
+    }
+  }
+
+  @Override
+  protected void onClose() throws IOException {
+    final FileChannel channel = directChannel;
+    directChannel = null;
+
+    if (channel != null)
+      channel.close();
+  }
+
+  @Override
+  protected void readPage(FileChannel channel, ByteBuffer buffer, long position, boolean throwOnEof) throws IOException {
+    final FileChannel direct = directChannel;
+    if (direct == null) {
+      super.readPage(channel, buffer, position, throwOnEof);
+      return;
+    }
+
+    final int length = buffer.limit();
+    final long alignedStart = position & -blockSize;
+    final int skip = (int) (position - alignedStart);
+    final int alignedLength = (skip + length + blockSize - 1) & -blockSize;
+
+    final ByteBuffer aligned = acquireAlignedBuffer(alignedLength);
+
+    int read = 0;
+    while (read < skip + length) {
+      aligned.position(read);
+      final int r = direct.read(aligned, alignedStart + read);
+      if (r < 0)
+        break;
+
+      read += r;
+
+      //short direct read means the end of file, next read would not be aligned anyway
+      if (aligned.hasRemaining())
+        break;
+    }
+
+    if (read < skip + length) {
+      if (throwOnEof)
+        throw new EOFException("End of file is reached");
+
+      //the same as for the channel read, the rest of the page is filled by zeros
+      aligned.position(Math.max(read, skip));
+      aligned.put(new byte[skip + length - Math.max(read, skip)]);
+    }
+
+    aligned.limit(skip + length);
+    aligned.position(skip);
+
+    buffer.position(0);
+    buffer.put(aligned);
+  }
+
+  private ByteBuffer acquireAlignedBuffer(int length) throws IOException {
+    AlignedBuffer holder = ALIGNED_BUFFER.get();
+    if (holder == null || holder.buffer.capacity() < length || holder.alignment % blockSize != 0) {
+      final int alignment = holder == null ? blockSize : Math.max(blockSize, holder.alignment);
+      final int capacity = holder == null ? length : Math.max(length, holder.buffer.capacity());
+
+      try {
+        holder = new AlignedBuffer((ByteBuffer) ALIGNED_SLICE.invoke(ByteBuffer.allocateDirect(capacity + alignment), alignment),
+            alignment);
+      } catch (ReflectiveOperationException e) {
+        throw new IOException("Can not allocate buffer for direct I/O", e);
+      }
+
+      ALIGNED_BUFFER.set(holder);
+    }
+
+    final ByteBuffer buffer = holder.buffer;
+    buffer.clear();
+    buffer.limit(length);
+    return buffer;
+  }
+
+  private static final class AlignedBuffer {
+    private final ByteBuffer buffer;
+    private final int        alignment;
+
+    private AlignedBuffer(ByteBuffer buffer, int alignment) {
+      this.buffer = buffer;
+      this.alignment = alignment;
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.storage.fs;
+
+import com.orientechnologies.common.log.OLogManager;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * File which serves page reads from memory mapped segments of the file, so a read of a page does not need a system call. Only
+ * segments which are completely filled by data are mapped, reads of the tail of the file go through the file channel.
+ * <p>
+ * Writes go through the file channel, as in {@link OFileClassic}. Mapped segments see them because on supported platforms
+ * (Linux, Windows, macOS) memory mappings and file IO share the same OS page cache. Segments are unmapped when the file is closed
+ * or truncated.
+ */
+public class OFileMMap extends OFileClassic {
+  public final static String NAME = "mmap";
+
+  private static final Method UNMAPPER;
+  private static final Object UNMAPPER_TARGET;
+
+  static {
+    Method unmapper = null;
+    Object target = null;
+    try {
+      //Java 9+
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+
+      target = theUnsafe.get(null);
+      unmapper = invokeCleaner;
+    } catch (Exception | LinkageError e) {
+      //Java 8, cleaner of the buffer is called directly
+    }
+
+    UNMAPPER = unmapper;
+    UNMAPPER_TARGET = target;
+  }
+
+  private final long segmentSize;
+
+  private final    Object             mapLock  = new Object();
+  private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+  public OFileMMap(Path osFile, long segmentSize) {
+    super(osFile);
+    this.segmentSize = segmentSize;
+  }
+
+  @Override
+  protected void readPage(FileChannel channel, ByteBuffer buffer, long position, boolean throwOnEof) throws IOException {
+    final long dataPosition = position - HEADER_SIZE;
+    final int length = buffer.limit();
+
+    if (dataPosition < 0 || length == 0) {
+      super.readPage(channel, buffer, position, throwOnEof);
+      return;
+    }
+
+    final long segmentIndex = dataPosition / segmentSize;
+    final int segmentOffset = (int) (dataPosition - segmentIndex * segmentSize);
+
+    if (segmentOffset + length > segmentSize || segmentIndex > Integer.MAX_VALUE) {
+      super.readPage(channel, buffer, position, throwOnEof);
+      return;
+    }
+
+    final MappedByteBuffer segment = getSegment(channel, (int) segmentIndex);
+    if (segment == null) {
+      super.readPage(channel, buffer, position, throwOnEof);
+      return;
+    }
+
+    final ByteBuffer source = segment.duplicate();
+    source.limit(segmentOffset + length);
+    source.position(segmentOffset);
+
+    buffer.position(0);
+    buffer.put(source);
+  }
+
+  /**
+   * @return mapped segment or <code>null</code> if segment is not completely filled by data yet
+   */
+  private MappedByteBuffer getSegment(FileChannel channel, int index) throws IOException {
+    MappedByteBuffer[] current = segments;
+    if (index < current.length && current[index] != null)
+      return current[index];
+
+    if ((index + 1) * segmentSize > getFileSize())
+      return null;
+
+    synchronized (mapLock) {
+      current = segments;
+      if (index < current.length && current[index] != null)
+        return current[index];
+
+      final MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + index * segmentSize, segmentSize);
+
+      final MappedByteBuffer[] newSegments = index < current.length ? current.clone() : Arrays.copyOf(current, index + 1);
+      newSegments[index] = segment;
+      segments = newSegments;
+
+      return segment;
+    }
+  }
+
+  @Override
+  protected void onClose() throws IOException {
+    unmapSegments(0);
+  }
+
+  @Override
+  protected void onShrink(long size) throws IOException {
+    unmapSegments((int) (size / segmentSize));
+  }
+
+  /**
+   * Called under the write lock of the file, so there are no concurrent readers of the segments.
+   */
+  private void unmapSegments(int fromIndex) {
+    synchronized (mapLock) {
+      final MappedByteBuffer[] current = segments;
+      if (fromIndex >= current.length)
+        return;
+
+      for (int i = fromIndex; i < current.length; i++) {
+        if (current[i] != null)
+          unmap(current[i]);
+      }
+
+      segments = Arrays.copyOf(current, fromIndex);
+    }
+  }
+
+  private void unmap(MappedByteBuffer buffer) {
+    try {
+      if (UNMAPPER != null) {
+        UNMAPPER.invoke(UNMAPPER_TARGET, buffer);
+      } else {
+        final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+
+        final Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null)
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+      }
+    } catch (Exception e) {
+      OLogManager.instance().debug(this, "Can not unmap segment of file %s, it will be unmapped by GC", e, getName());
+    }
+  }
+}
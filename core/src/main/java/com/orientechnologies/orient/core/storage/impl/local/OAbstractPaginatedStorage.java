@@ -54,9 +54,13 @@ import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.index.*;
 import com.orientechnologies.orient.core.index.engine.OHashTableIndexEngine;
 import com.orientechnologies.orient.core.index.engine.OSBTreeIndexEngine;
+import com.orientechnologies.orient.core.index.sbtree.local.OSBTreeBulkLoad;
 import com.orientechnologies.orient.core.metadata.OMetadataDefault;
 import com.orientechnologies.orient.core.metadata.schema.OImmutableClass;
 import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.metadata.schema.clusterselection.OBalancedClusterSelectionStrategy;
+import com.orientechnologies.orient.core.metadata.schema.clusterselection.ODefaultClusterSelectionStrategy;
+import com.orientechnologies.orient.core.metadata.schema.clusterselection.ORoundRobinClusterSelectionStrategy;
 import com.orientechnologies.orient.core.metadata.security.OSecurityUser;
 import com.orientechnologies.orient.core.metadata.security.OToken;
 import com.orientechnologies.orient.core.query.OQueryAbstract;
@@ -192,6 +196,11 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
    */
   private final Set<OPair<String, Long>> brokenPages = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
+  /**
+   * Amount of transactions which hold or wait for the lock of the cluster during commit, indexed by cluster id.
+   */
+  private final ConcurrentHashMap<Integer, AtomicInteger> clusterCommitters = new ConcurrentHashMap<>();
+
   protected volatile ScheduledExecutorService fuzzyCheckpointExecutor;
 
   private volatile Throwable dataFlushException = null;
@@ -1634,6 +1643,12 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
               clusterId = class_.getClusterForNewInstance((ODocument) record);
               clusterOverrides.put(txEntry, clusterId);
             }
+          } else if (!allocated) {
+            final int selectedClusterId = selectClusterForNewRecord(txEntry, clusterId, clustersToLock);
+            if (selectedClusterId != clusterId) {
+              clusterId = selectedClusterId;
+              clusterOverrides.put(txEntry, clusterId);
+            }
           }
 
           clustersToLock.put(clusterId, getClusterById(clusterId));
@@ -1641,9 +1656,12 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
       }
 
       final List<ORecordOperation> result = new ArrayList<>();
+      OLogSequenceNumber commitLsn = null;
+
       stateLock.acquireReadLock();
       try {
         try {
+          registerClusterCommitters(clustersToLock);
           try {
 
             checkOpenness();
@@ -1705,6 +1723,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
             commitIndexes(indexesToCommit);
 
             final OLogSequenceNumber lsn = endStorageTx();
+            commitLsn = lsn;
             final DataOutputStream journaledStream = OAbstractPaginatedStorage.journaledStream;
             if (journaledStream != null) { // send event to journaled tx stream if the streaming is on
               final int txId = clientTx.getClientTransactionId();
@@ -1732,10 +1751,13 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
             makeRollback(clientTx, ioe);
           } finally {
             transaction.set(null);
+            unregisterClusterCommitters(clustersToLock);
           }
         } finally {
           databaseRecord.getMetadata().clearThreadLocalSchemaSnapshot();
         }
+
+        syncCommit(commitLsn);
       } finally {
         stateLock.releaseReadLock();
       }
@@ -1811,15 +1833,24 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
               clusterId = class_.getClusterForNewInstance((ODocument) record);
               clusterOverrides.put(recordOperation, clusterId);
             }
+          } else {
+            final int selectedClusterId = selectClusterForNewRecord(recordOperation, clusterId, clustersToLock);
+            if (selectedClusterId != clusterId) {
+              clusterId = selectedClusterId;
+              clusterOverrides.put(recordOperation, clusterId);
+            }
           }
 
           clustersToLock.put(clusterId, getClusterById(clusterId));
         }
       }
 
+      OLogSequenceNumber commitLsn = null;
+
       stateLock.acquireReadLock();
       try {
         try {
+          registerClusterCommitters(clustersToLock);
           try {
 
             checkOpenness();
@@ -1872,7 +1903,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
 
             commitIndexes(indexOperations);
 
-            endStorageTx();
+            commitLsn = endStorageTx();
 
             microTransaction.updateRecordCacheAfterCommit();
 
@@ -1882,10 +1913,13 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
             makeRollback(microTransaction, e);
           } finally {
             transaction.set(null);
+            unregisterClusterCommitters(clustersToLock);
           }
         } finally {
           database.getMetadata().clearThreadLocalSchemaSnapshot();
         }
+
+        syncCommit(commitLsn);
       } finally {
         stateLock.releaseReadLock();
       }
@@ -2561,6 +2595,73 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
+  /**
+   * Creates loader which builds index from sorted keys page by page, see {@link OSBTreeBulkLoad}. Loaded index has to be empty.
+   *
+   * @return loader of index or <code>null</code> if index engine does not support bulk load
+   */
+  public OSBTreeBulkLoad<Object, Object> createIndexBulkLoad(int indexId, OIndexEngine.Validator<Object, OIdentifiable> validator)
+      throws OInvalidIndexEngineIdException {
+    try {
+      checkOpenness();
+
+      stateLock.acquireReadLock();
+      try {
+        checkOpenness();
+        checkIndexId(indexId);
+
+        final OIndexEngine engine = indexEngines.get(indexId);
+        if (engine instanceof OSBTreeIndexEngine)
+          return ((OSBTreeIndexEngine) engine).createBulkLoad(validator);
+
+        return null;
+      } finally {
+        stateLock.releaseReadLock();
+      }
+    } catch (OInvalidIndexEngineIdException ie) {
+      throw logAndPrepareForRethrow(ie);
+    } catch (RuntimeException ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (Error ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
+  }
+
+  /**
+   * Loads entries collected by loader created by {@link #createIndexBulkLoad(int, OIndexEngine.Validator)} into the index.
+   *
+   * @return amount of loaded entries
+   */
+  public long bulkLoadIndex(int indexId, OSBTreeBulkLoad<Object, Object> bulkLoad) throws OInvalidIndexEngineIdException {
+    try {
+      checkOpenness();
+
+      stateLock.acquireReadLock();
+      try {
+        checkOpenness();
+
+        checkLowDiskSpaceRequestsAndBackgroundDataFlushExceptionsAndBrokenPages();
+
+        checkIndexId(indexId);
+        makeStorageDirty();
+
+        return bulkLoad.load();
+      } finally {
+        stateLock.releaseReadLock();
+      }
+    } catch (OInvalidIndexEngineIdException ie) {
+      throw logAndPrepareForRethrow(ie);
+    } catch (RuntimeException ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (Error ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
+  }
+
   public Object getIndexFirstKey(int indexId) throws OInvalidIndexEngineIdException {
     try {
       if (transaction.get() != null)
@@ -3892,6 +3993,20 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
+  /**
+   * If {@link OGlobalConfiguration#WAL_SYNC_ON_COMMIT} is on, waits till the WAL records of the committed transaction are synced to
+   * the disk. Syncs of concurrent commits are grouped by the WAL.
+   *
+   * @param commitLsn LSN of the last record of the transaction, <code>null</code> if nothing was logged
+   */
+  private void syncCommit(OLogSequenceNumber commitLsn) throws IOException {
+    if (commitLsn == null || writeAheadLog == null)
+      return;
+
+    if (getConfiguration().getContextConfiguration().getValueAsBoolean(OGlobalConfiguration.WAL_SYNC_ON_COMMIT))
+      writeAheadLog.flushTill(commitLsn);
+  }
+
   private OLogSequenceNumber endStorageTx() throws IOException {
     final OLogSequenceNumber lsn = atomicOperationsManager.endAtomicOperation(false, null);
     assert atomicOperationsManager.getCurrentOperation() == null;
@@ -5164,6 +5279,71 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
+  /**
+   * Chooses cluster for the record created by the transaction. If the cluster of the record was chosen by its class and other
+   * transactions are committing into this cluster, the record is stored into the least contended cluster of the class, so
+   * transactions which insert records of the same class do not wait for each other.
+   *
+   * @see OGlobalConfiguration#TX_COMMIT_SPREAD_CLUSTERS
+   */
+  private int selectClusterForNewRecord(final ORecordOperation recordOperation, final int clusterId,
+      final TreeMap<Integer, OCluster> clustersToLock) {
+    if (!recordOperation.clusterSelectedByClass || !OGlobalConfiguration.TX_COMMIT_SPREAD_CLUSTERS.getValueAsBoolean())
+      return clusterId;
+
+    final ORecord record = recordOperation.getRecord();
+    // POSITION OF THE RECORD WAS ALREADY ALLOCATED BY ANOTHER NODE
+    if (!(record instanceof ODocument) || record.getIdentity().getClusterPosition() > -1)
+      return clusterId;
+
+    int selectedClusterId = clusterId;
+    int minCommitters = getClusterCommitters(clusterId);
+    if (minCommitters == 0)
+      return clusterId;
+
+    final OImmutableClass class_ = ODocumentInternal.getImmutableSchemaClass(((ODocument) record));
+    if (class_ == null || !class_.hasClusterId(clusterId) || !isSpreadable(class_))
+      return clusterId;
+
+    for (int candidateId : class_.getClusterIds()) {
+      final int committers = getClusterCommitters(candidateId);
+
+      // CLUSTERS ALREADY LOCKED BY THIS TRANSACTION ARE PREFERRED
+      if (committers < minCommitters || (committers == minCommitters && clustersToLock.containsKey(candidateId)
+          && !clustersToLock.containsKey(selectedClusterId))) {
+        selectedClusterId = candidateId;
+        minCommitters = committers;
+      }
+    }
+
+    return selectedClusterId;
+  }
+
+  /**
+   * Records are moved only between the clusters of classes with the built-in strategies, custom strategies can choose the cluster
+   * on the content of the record (eg. by locality).
+   */
+  private static boolean isSpreadable(final OImmutableClass class_) {
+    final String strategy = class_.getClusterSelection().getName();
+    return ORoundRobinClusterSelectionStrategy.NAME.equals(strategy) || ODefaultClusterSelectionStrategy.NAME.equals(strategy)
+        || OBalancedClusterSelectionStrategy.NAME.equals(strategy);
+  }
+
+  private int getClusterCommitters(final int clusterId) {
+    final AtomicInteger committers = clusterCommitters.get(clusterId);
+    return committers == null ? 0 : committers.get();
+  }
+
+  private void registerClusterCommitters(final TreeMap<Integer, OCluster> clusters) {
+    for (Integer clusterId : clusters.keySet())
+      clusterCommitters.computeIfAbsent(clusterId, id -> new AtomicInteger()).incrementAndGet();
+  }
+
+  private void unregisterClusterCommitters(final TreeMap<Integer, OCluster> clusters) {
+    for (Integer clusterId : clusters.keySet())
+      clusterCommitters.get(clusterId).decrementAndGet();
+  }
+
   private void lockClusters(final TreeMap<Integer, OCluster> clustersToLock) {
     for (OCluster cluster : clustersToLock.values())
       cluster.acquireAtomicExclusiveLock();
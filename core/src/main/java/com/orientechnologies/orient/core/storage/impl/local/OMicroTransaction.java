@@ -490,6 +490,7 @@ public final class OMicroTransaction implements OBasicTransaction {
 
       try {
         final ORecordId recordId = (ORecordId) record.getIdentity();
+        final boolean clusterSelectedByClass = recordId.getClusterId() <= ORID.CLUSTER_ID_INVALID && clusterName == null;
 
         if (!recordId.isValid()) {
           ORecordInternal.onBeforeIdentityChanged(record);
@@ -505,6 +506,7 @@ public final class OMicroTransaction implements OBasicTransaction {
         if (recordOperation == null) {
           if (!(recordId.isTemporary() && type != ORecordOperation.CREATED)) {
             recordOperation = new ORecordOperation(record, type);
+            recordOperation.clusterSelectedByClass = type == ORecordOperation.CREATED && clusterSelectedByClass;
             recordOperations.put(recordId.copy(), recordOperation);
           }
         } else {
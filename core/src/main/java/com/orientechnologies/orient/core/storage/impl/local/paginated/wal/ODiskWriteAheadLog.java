@@ -55,7 +55,9 @@ import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 import java.util.zip.CRC32;
 
@@ -108,6 +110,22 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
 
   private volatile long cacheOverflowCount = 0;
 
+  /**
+   * Group commit state, see {@link #flushTill(OLogSequenceNumber)}. Commits which wait for a sync while another one is in progress
+   * are counted in {@link #groupCommitWaiters} and are released together when the sync is completed.
+   */
+  private final    ReentrantLock groupCommitLock          = new ReentrantLock();
+  private final    Condition     groupCommitCompleted     = groupCommitLock.newCondition();
+  private final    Condition     groupCommitJoined        = groupCommitLock.newCondition();
+  private final    long          groupCommitMaxDelay      = TimeUnit.MICROSECONDS
+      .toNanos(OGlobalConfiguration.WAL_GROUP_COMMIT_MAX_DELAY.getValueAsInteger());
+  private          boolean       groupCommitInProgress    = false;
+  private          int           groupCommitWaiters       = 0;
+  private volatile double        groupCommitBatchSize     = 1;
+  private volatile long          groupCommitSyncTime      = 0;
+  private final    LongAdder     groupCommitCount         = new LongAdder();
+  private final    LongAdder     groupCommitSyncedCommits = new LongAdder();
+
   private       boolean   segmentCreationFlag     = false;
   private final Condition segmentCreationComplete = syncObject.newCondition();
 
@@ -325,6 +343,34 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
     return cacheOverflowCount;
   }
 
+  /**
+   * @return amount of syncs performed on behalf of committed transactions, see {@link #flushTill(OLogSequenceNumber)}
+   */
+  public long getGroupCommitCount() {
+    return groupCommitCount.sum();
+  }
+
+  /**
+   * @return amount of commits which were made durable by the group commit syncs
+   */
+  public long getGroupCommitSyncedCommits() {
+    return groupCommitSyncedCommits.sum();
+  }
+
+  /**
+   * @return moving average of the amount of commits synced together by a single group commit
+   */
+  public double getGroupCommitBatchSize() {
+    return groupCommitBatchSize;
+  }
+
+  /**
+   * @return moving average of the time (in nanoseconds) spent by a single group commit sync
+   */
+  public long getGroupCommitSyncTime() {
+    return groupCommitSyncTime;
+  }
+
   private Path calculateWalPath(OLocalPaginatedStorage storage, String walPath) {
     if (walPath == null)
       return storage.getStoragePath();
@@ -460,6 +506,94 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
     last.flush();
   }
 
+  /**
+   * Leader/follower group commit. The first thread which needs the log synced becomes the leader: it may wait a bit for other
+   * concurrent commits (only if commits were grouped recently, at most half of the average sync time and no more than {@link
+   * OGlobalConfiguration#WAL_GROUP_COMMIT_MAX_DELAY}) and then writes and syncs the log on behalf of all of them. Threads which
+   * arrive while a sync is in progress wait for its completion, and, if their records were logged too late to be covered by it,
+   * one of them becomes the leader of the next group.
+   */
+  @Override
+  public void flushTill(OLogSequenceNumber lsn) throws IOException {
+    if (lsn == null)
+      return;
+
+    while (true) {
+      final int batchSize;
+
+      groupCommitLock.lock();
+      try {
+        while (groupCommitInProgress && !isFlushedTill(lsn)) {
+          groupCommitWaiters++;
+          groupCommitJoined.signal();
+          try {
+            groupCommitCompleted.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw OException.wrapException(new OInterruptedException("Wait for WAL group commit was interrupted"), e);
+          } finally {
+            groupCommitWaiters--;
+          }
+        }
+
+        if (isFlushedTill(lsn))
+          return;
+
+        groupCommitInProgress = true;
+        waitForGroupCommitBatch();
+        batchSize = groupCommitWaiters + 1;
+      } finally {
+        groupCommitLock.unlock();
+      }
+
+      final long start = System.nanoTime();
+      try {
+        flush();
+      } finally {
+        final long syncTime = System.nanoTime() - start;
+
+        groupCommitLock.lock();
+        try {
+          groupCommitInProgress = false;
+
+          groupCommitSyncTime = groupCommitCount.sum() == 0 ? syncTime : (long) (groupCommitSyncTime * 0.9 + syncTime * 0.1);
+          groupCommitBatchSize = groupCommitBatchSize * 0.9 + batchSize * 0.1;
+          groupCommitCount.increment();
+          groupCommitSyncedCommits.add(batchSize);
+
+          groupCommitCompleted.signalAll();
+        } finally {
+          groupCommitLock.unlock();
+        }
+      }
+    }
+  }
+
+  private boolean isFlushedTill(OLogSequenceNumber lsn) {
+    final OLogSequenceNumber flushed = flushedLsn;
+    return flushed != null && flushed.compareTo(lsn) >= 0;
+  }
+
+  /**
+   * Called by the group commit leader under {@link #groupCommitLock}, waits till the expected amount of commits joins the group or
+   * the delay is over. Does not wait at all if commits were not grouped recently, so a single committer does not pay any latency.
+   */
+  private void waitForGroupCommitBatch() {
+    final long expectedBatchSize = Math.round(groupCommitBatchSize);
+    if (groupCommitMaxDelay <= 0 || expectedBatchSize <= 1)
+      return;
+
+    long nanos = Math.min(groupCommitMaxDelay, groupCommitSyncTime / 2);
+    while (nanos > 0 && groupCommitWaiters + 1 < expectedBatchSize) {
+      try {
+        nanos = groupCommitJoined.awaitNanos(nanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
   @Override
   public OLogSequenceNumber logAtomicOperationStartRecord(boolean isRollbackSupported, OOperationUnitId unitId) throws IOException {
     final OSessionStoragePerformanceStatistic statistic = performanceStatisticManager.getSessionPerformanceStatistic();
@@ -51,6 +51,14 @@ public interface OWriteAheadLog {
 
   void flush() throws IOException;
 
+  /**
+   * Waits till all records up to the passed in LSN are synced to the disk. Concurrent callers are served by a single sync of the
+   * log (group commit).
+   *
+   * @param lsn LSN of the last record which should be synced
+   */
+  void flushTill(OLogSequenceNumber lsn) throws IOException;
+
   OLogSequenceNumber logAtomicOperationStartRecord(boolean isRollbackSupported, OOperationUnitId unitId) throws IOException;
 
   OLogSequenceNumber logAtomicOperationEndRecord(OOperationUnitId operationUnitId, boolean rollback, OLogSequenceNumber startLsn,
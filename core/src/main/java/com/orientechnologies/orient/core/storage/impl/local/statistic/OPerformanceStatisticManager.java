@@ -186,6 +186,27 @@ public class OPerformanceStatisticManager {
    */
   private long walCacheOverflowCount = -1;
 
+  /**
+   * Amount of WAL syncs performed on behalf of committed transactions (group commits).
+   * Value is updated on demand if monitoring is switched on.
+   * Supported only for disk based storage.
+   */
+  private long walGroupCommitCount = -1;
+
+  /**
+   * Average amount of transactions synced together by a single WAL group commit.
+   * Value is updated on demand if monitoring is switched on.
+   * Supported only for disk based storage.
+   */
+  private double walGroupCommitBatchSize = -1;
+
+  /**
+   * Average time of a single WAL group commit sync in nanoseconds.
+   * Value is updated on demand if monitoring is switched on.
+   * Supported only for disk based storage.
+   */
+  private long walGroupCommitSyncTime = -1;
+
   /**
    * Size of read cache in bytes.
    * Value is updated on demand if monitoring is switched on.
@@ -1062,6 +1083,66 @@ public class OPerformanceStatisticManager {
     }
   }
 
+  /**
+   * @return Amount of WAL syncs performed on behalf of committed transactions or <code>-1</code> if value is undefined
+   */
+  public long getWALGroupCommitCount() {
+    switchLock.acquireReadLock();
+    try {
+      if (enabled) {
+        final ODiskWriteAheadLog wal = getWriteAheadLog();
+        if (wal != null)
+          walGroupCommitCount = wal.getGroupCommitCount();
+
+        return walGroupCommitCount;
+      } else {
+        return walGroupCommitCount;
+      }
+    } finally {
+      switchLock.releaseReadLock();
+    }
+  }
+
+  /**
+   * @return Average amount of transactions synced together by a single WAL group commit or <code>-1</code> if value is undefined
+   */
+  public double getWALGroupCommitBatchSize() {
+    switchLock.acquireReadLock();
+    try {
+      if (enabled) {
+        final ODiskWriteAheadLog wal = getWriteAheadLog();
+        if (wal != null)
+          walGroupCommitBatchSize = wal.getGroupCommitBatchSize();
+
+        return walGroupCommitBatchSize;
+      } else {
+        return walGroupCommitBatchSize;
+      }
+    } finally {
+      switchLock.releaseReadLock();
+    }
+  }
+
+  /**
+   * @return Average time of a single WAL group commit sync in nanoseconds or <code>-1</code> if value is undefined
+   */
+  public long getWALGroupCommitSyncTime() {
+    switchLock.acquireReadLock();
+    try {
+      if (enabled) {
+        final ODiskWriteAheadLog wal = getWriteAheadLog();
+        if (wal != null)
+          walGroupCommitSyncTime = wal.getGroupCommitSyncTime();
+
+        return walGroupCommitSyncTime;
+      } else {
+        return walGroupCommitSyncTime;
+      }
+    } finally {
+      switchLock.releaseReadLock();
+    }
+  }
+
   /**
    * @return time which is spent on logging of single record or <code>-1</code> if value is undefined.
    */
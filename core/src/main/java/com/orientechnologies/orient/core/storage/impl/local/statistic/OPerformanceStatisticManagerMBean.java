@@ -130,6 +130,21 @@ public class OPerformanceStatisticManagerMBean implements DynamicMBean {
    */
   public static final String WAL_CACHE_OVERFLOW_COUNT = "walCacheOverflowCount";
 
+  /**
+   * Name of "walGroupCommitCount" performance attribute
+   */
+  public static final String WAL_GROUP_COMMIT_COUNT = "walGroupCommitCount";
+
+  /**
+   * Name of "walGroupCommitBatchSize" performance attribute
+   */
+  public static final String WAL_GROUP_COMMIT_BATCH_SIZE = "walGroupCommitBatchSize";
+
+  /**
+   * Name of "walGroupCommitSyncTime" performance attribute
+   */
+  public static final String WAL_GROUP_COMMIT_SYNC_TIME = "walGroupCommitSyncTime";
+
   /**
    * Name of "walLogTime" performance attribute
    */
@@ -278,6 +293,21 @@ public class OPerformanceStatisticManagerMBean implements DynamicMBean {
         return manager.getWALCacheOverflowCount();
       else
         throwComponentsAreNotSupported(WAL_CACHE_OVERFLOW_COUNT);
+    } else if (attributeName.equals(WAL_GROUP_COMMIT_COUNT)) {
+      if (componentName == null)
+        return manager.getWALGroupCommitCount();
+      else
+        throwComponentsAreNotSupported(WAL_GROUP_COMMIT_COUNT);
+    } else if (attributeName.equals(WAL_GROUP_COMMIT_BATCH_SIZE)) {
+      if (componentName == null)
+        return manager.getWALGroupCommitBatchSize();
+      else
+        throwComponentsAreNotSupported(WAL_GROUP_COMMIT_BATCH_SIZE);
+    } else if (attributeName.equals(WAL_GROUP_COMMIT_SYNC_TIME)) {
+      if (componentName == null)
+        return manager.getWALGroupCommitSyncTime();
+      else
+        throwComponentsAreNotSupported(WAL_GROUP_COMMIT_SYNC_TIME);
     } else if (attributeName.equals(WAL_LOG_TIME)) {
       if (componentName == null)
         return manager.getWALLogRecordTime();
@@ -417,6 +447,7 @@ public class OPerformanceStatisticManagerMBean implements DynamicMBean {
 
     populateWALSize(performanceAttributes);
     populateWALCacheOverflowCount(performanceAttributes);
+    populateWALGroupCommit(performanceAttributes);
     populateWALLogTime(performanceAttributes);
     populateWALEndAOLogTime(performanceAttributes);
     populateWALStartAOLogTime(performanceAttributes);
@@ -566,6 +597,19 @@ public class OPerformanceStatisticManagerMBean implements DynamicMBean {
     performanceAttributes.add(walCacheOverflowCount);
   }
 
+  private void populateWALGroupCommit(List<MBeanAttributeInfo> performanceAttributes) {
+    final MBeanAttributeInfo walGroupCommitCount = new ModelMBeanAttributeInfo(WAL_GROUP_COMMIT_COUNT, long.class.getName(),
+        "Count of WAL syncs performed on behalf of committed transactions", true, false, false);
+    final MBeanAttributeInfo walGroupCommitBatchSize = new ModelMBeanAttributeInfo(WAL_GROUP_COMMIT_BATCH_SIZE,
+        double.class.getName(), "Average count of transactions synced together by a single WAL group commit", true, false, false);
+    final MBeanAttributeInfo walGroupCommitSyncTime = new ModelMBeanAttributeInfo(WAL_GROUP_COMMIT_SYNC_TIME, long.class.getName(),
+        "Average time of a single WAL group commit sync in nanoseconds", true, false, false);
+
+    performanceAttributes.add(walGroupCommitCount);
+    performanceAttributes.add(walGroupCommitBatchSize);
+    performanceAttributes.add(walGroupCommitSyncTime);
+  }
+
   private void populateWALLogTime(List<MBeanAttributeInfo> performanceAttributes) {
     final MBeanAttributeInfo walLogTime = new ModelMBeanAttributeInfo(WAL_LOG_TIME, long.class.getName(),
         "Time which is spent to log single record in WAL", true, false, false);
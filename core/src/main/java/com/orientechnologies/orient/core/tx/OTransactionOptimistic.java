@@ -423,6 +423,7 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
       }
 
       try {
+        final boolean clusterSelectedByClass = rid.getClusterId() <= ORID.CLUSTER_ID_INVALID && iClusterName == null;
 
         if (!rid.isValid()) {
           ORecordInternal.onBeforeIdentityChanged(iRecord);
@@ -437,6 +438,7 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
           if (!(rid.isTemporary() && iStatus != ORecordOperation.CREATED)) {
             // NEW ENTRY: JUST REGISTER IT
             txEntry = new ORecordOperation(iRecord, iStatus);
+            txEntry.clusterSelectedByClass = iStatus == ORecordOperation.CREATED && clusterSelectedByClass;
             allEntries.put(rid.copy(), txEntry);
           }
         } else {
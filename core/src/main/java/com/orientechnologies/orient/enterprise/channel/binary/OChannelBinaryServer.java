@@ -25,6 +25,8 @@ import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
 
 import com.orientechnologies.orient.core.config.OContextConfiguration;
@@ -32,18 +34,34 @@ import com.orientechnologies.orient.core.config.OContextConfiguration;
 public class OChannelBinaryServer extends OChannelBinary {
 
   public OChannelBinaryServer(final Socket iSocket, final OContextConfiguration iConfig) throws IOException {
+    this(iSocket, iSocket.getInputStream(), iSocket.getOutputStream(), iConfig);
+  }
+
+  /**
+   * Creates channel which reads and writes data using passed in streams instead of the streams of the socket, for example streams
+   * of the socket channel which is switched between blocking and non-blocking modes.
+   */
+  public OChannelBinaryServer(final Socket iSocket, final InputStream iInput, final OutputStream iOutput,
+      final OContextConfiguration iConfig) throws IOException {
     super(iSocket, iConfig);
 
     if (socketBufferSize > 0) {
-      inStream = new BufferedInputStream(socket.getInputStream(), socketBufferSize);
-      outStream = new BufferedOutputStream(socket.getOutputStream(), socketBufferSize);
+      inStream = new BufferedInputStream(iInput, socketBufferSize);
+      outStream = new BufferedOutputStream(iOutput, socketBufferSize);
     } else {
-      inStream = new BufferedInputStream(socket.getInputStream());
-      outStream = new BufferedOutputStream(socket.getOutputStream());
+      inStream = new BufferedInputStream(iInput);
+      outStream = new BufferedOutputStream(iOutput);
     }
 
     out = new DataOutputStream(outStream);
     in = new DataInputStream(inStream);
     connected();
   }
+
+  /**
+   * @return <code>true</code> if data of the next request is already read from the socket and waits in the buffer of the channel
+   */
+  public boolean hasBufferedInput() throws IOException {
+    return inStream.available() > 0;
+  }
 }
@@ -69,6 +69,58 @@ public class OByteBufferPoolTest {
     }
   }
 
+  @Test
+  public void testThreadLocalMagazines() throws Exception {
+    final OByteBufferPool pool = new OByteBufferPool(12);
+    final int magazineSize = pool.getMagazineSize();
+    Assert.assertTrue(magazineSize > 0);
+
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+        for (int i = 0; i < 4 * magazineSize; i++)
+          buffers.add(pool.acquireDirect(false));
+
+        // MAGAZINE KEEPS TWO BATCHES, THE REST IS MOVED TO THE SHARED POOL
+        for (ByteBuffer buffer : buffers)
+          pool.release(buffer);
+      }
+    });
+    thread.start();
+    thread.join();
+
+    Assert.assertEquals(4 * magazineSize, pool.getSize());
+    Assert.assertEquals(2 * magazineSize, pool.getBuffersInMagazines());
+    Assert.assertEquals(2 * magazineSize, pool.getPoolSize());
+    Assert.assertEquals(4 * magazineSize, pool.getMagazineReleaseCount());
+    Assert.assertEquals(2, pool.getDepotReleaseCount());
+
+    final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+    for (int i = 0; i < 2 * magazineSize; i++)
+      buffers.add(pool.acquireDirect(false));
+
+    Assert.assertEquals(2, pool.getDepotAcquireCount());
+    Assert.assertEquals(2 * magazineSize, pool.getMagazineHitCount());
+    Assert.assertEquals(0, pool.getPoolSize());
+
+    // BUFFERS CACHED BY TERMINATED THREAD ARE RETURNED TO THE POOL
+    Assert.assertEquals(2 * magazineSize, pool.returnOrphanedMagazines());
+    Assert.assertEquals(2 * magazineSize, pool.getPoolSize());
+
+    for (int i = 0; i < 2 * magazineSize; i++)
+      buffers.add(pool.acquireDirect(false));
+
+    Assert.assertEquals(2 * magazineSize, pool.getSharedPoolHitCount());
+    Assert.assertEquals(4 * magazineSize, pool.getOverflowBufferCount());
+    Assert.assertEquals(0, pool.getSize());
+
+    for (ByteBuffer buffer : buffers)
+      pool.release(buffer);
+
+    Assert.assertEquals(4 * magazineSize, pool.getSize());
+  }
+
   @Test
   @Ignore
   public void testAcquireReleasePageWithPreallocationInMT() throws Exception {
@@ -162,6 +162,99 @@ public class WOWCacheTestIT {
     }
   }
 
+  @Test
+  public void testLoadStoreParallelFlush() throws Exception {
+    final Object flushThreads = OGlobalConfiguration.DISK_CACHE_FLUSH_THREADS.getValue();
+    OGlobalConfiguration.DISK_CACHE_FLUSH_THREADS.setValue(4);
+    try {
+      closeCacheAndDeleteFile();
+      initBuffer();
+
+      testLoadStore();
+    } finally {
+      OGlobalConfiguration.DISK_CACHE_FLUSH_THREADS.setValue(flushThreads);
+    }
+  }
+
+  @Test
+  public void testCompressedPages() throws Exception {
+    final Object method = OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_METHOD.getValue();
+    final Object compressedFiles = OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_FILES.getValue();
+    OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_METHOD.setValue("gzip");
+    OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_FILES.setValue(".tst");
+    try {
+      closeCacheAndDeleteFile();
+      // PAGE IS BIGGER THAN THE PART WHICH IS READ FIRST
+      pageSize = 3 * 4096;
+      initBuffer();
+
+      long fileId = wowCache.addFile(fileName);
+      final long rawFileId = wowCache.addFile("wowCacheTest.raw");
+      final String nativeFileName = wowCache.nativeFileNameById(fileId);
+      final String rawNativeFileName = wowCache.nativeFileNameById(rawFileId);
+
+      final Random random = new Random();
+      final byte[][] pageData = new byte[10][];
+      for (int i = 0; i < pageData.length; i++) {
+        pageData[i] = new byte[pageSize - systemOffset];
+        // EVEN PAGES ARE COMPRESSIBLE, ODD PAGES ARE STORED AS IS
+        if (i % 2 == 0)
+          Arrays.fill(pageData[i], (byte) i);
+        else
+          random.nextBytes(pageData[i]);
+
+        for (long id : new long[] { fileId, rawFileId }) {
+          final OCachePointer cachePointer = wowCache.load(id, i, 1, true, new OModifiableBoolean(), true)[0];
+          cachePointer.acquireExclusiveLock();
+          final ByteBuffer buffer = cachePointer.getSharedBuffer();
+          buffer.position(systemOffset);
+          buffer.put(pageData[i]);
+          cachePointer.releaseExclusiveLock();
+
+          wowCache.store(id, i, cachePointer);
+          cachePointer.decrementReadersReferrer();
+        }
+      }
+
+      wowCache.flush();
+
+      for (int i = 0; i < pageData.length; i++) {
+        Assert.assertEquals(i % 2 == 0 ? OWOWCache.MAGIC_NUMBER_COMPRESSED : OWOWCache.MAGIC_NUMBER_WITH_CHECKSUM,
+            readMagicNumber(nativeFileName, i));
+        Assert.assertEquals(OWOWCache.MAGIC_NUMBER_WITH_CHECKSUM, readMagicNumber(rawNativeFileName, i));
+      }
+
+      wowCache.close();
+
+      // PAGES ARE DECOMPRESSED EVEN IF COMPRESSION IS SWITCHED OFF
+      OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_METHOD.setValue("nothing");
+      initBuffer();
+      wowCache.setChecksumMode(OChecksumMode.StoreAndThrow);
+      fileId = wowCache.fileIdByName(fileName);
+
+      for (int i = 0; i < pageData.length; i++) {
+        final OCachePointer cachePointer = wowCache.load(fileId, i, 1, false, new OModifiableBoolean(), true)[0];
+        assertPageData(cachePointer, pageData[i]);
+      }
+
+      wowCache.close();
+      OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_METHOD.setValue("gzip");
+      initBuffer();
+      wowCache.setChecksumMode(OChecksumMode.StoreAndThrow);
+      fileId = wowCache.fileIdByName(fileName);
+
+      final OCachePointer[] cachePointers = wowCache.load(fileId, 0, pageData.length, false, new OModifiableBoolean(), true);
+      Assert.assertEquals(pageData.length, cachePointers.length);
+      for (int i = 0; i < pageData.length; i++)
+        assertPageData(cachePointers[i], pageData[i]);
+
+      wowCache.deleteFile(wowCache.fileIdByName("wowCacheTest.raw"));
+    } finally {
+      OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_METHOD.setValue(method);
+      OGlobalConfiguration.STORAGE_PAGE_COMPRESSION_FILES.setValue(compressedFiles);
+    }
+  }
+
   @Test
   public void testDataUpdate() throws Exception {
     final NavigableMap<Long, byte[]> pageIndexDataMap = new TreeMap<>();
@@ -475,6 +568,28 @@ public class WOWCacheTestIT {
     wowCache.load(fileId, 0, 1, true, new OModifiableBoolean(), true)[0].decrementReadersReferrer();
   }
 
+  private void assertPageData(OCachePointer cachePointer, byte[] value) {
+    final byte[] data = new byte[value.length];
+    final ByteBuffer buffer = cachePointer.getSharedBuffer();
+    buffer.position(systemOffset);
+    buffer.get(data);
+    cachePointer.decrementReadersReferrer();
+
+    Assert.assertArrayEquals(value, data);
+  }
+
+  private long readMagicNumber(String fileName, long pageIndex) throws IOException {
+    final OFileClassic fileClassic = new OFileClassic(Paths.get(storageLocal.getConfiguration().getDirectory(), fileName));
+    fileClassic.open();
+    try {
+      final byte[] content = new byte[OLongSerializer.LONG_SIZE];
+      fileClassic.read(pageIndex * pageSize, content, content.length);
+      return OLongSerializer.INSTANCE.deserializeNative(content, 0);
+    } finally {
+      fileClassic.close();
+    }
+  }
+
   private void assertFile(long pageIndex, byte[] value, OLogSequenceNumber lsn, String fileName) throws IOException {
     OFileClassic fileClassic = new OFileClassic(Paths.get(storageLocal.getConfiguration().getDirectory(), fileName));
     fileClassic.open();
@@ -0,0 +1,191 @@
+package com.orientechnologies.orient.core.index.sbtree.local;
+
+import com.orientechnologies.DatabaseAbstractTest;
+import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OStringSerializer;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.OIndexEngine;
+import com.orientechnologies.orient.core.serialization.serializer.binary.impl.OLinkSerializer;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SBTreeBulkLoadTest extends DatabaseAbstractTest {
+  private int runSize;
+  private int fillFactor;
+
+  @Before
+  public void beforeMethod() {
+    runSize = OGlobalConfiguration.SBTREE_BULK_LOAD_RUN_SIZE.getValueAsInteger();
+    fillFactor = OGlobalConfiguration.SBTREE_BULK_LOAD_FILL_FACTOR.getValueAsInteger();
+
+    // SEVERAL SORTED RUNS ARE MERGED
+    OGlobalConfiguration.SBTREE_BULK_LOAD_RUN_SIZE.setValue(10000);
+  }
+
+  @After
+  public void afterMethod() {
+    OGlobalConfiguration.SBTREE_BULK_LOAD_RUN_SIZE.setValue(runSize);
+    OGlobalConfiguration.SBTREE_BULK_LOAD_FILL_FACTOR.setValue(fillFactor);
+  }
+
+  @Test
+  public void testLoadShuffledKeys() {
+    final OSBTree<Integer, OIdentifiable> tree = createTree("bulkLoadShuffledKeys", OIntegerSerializer.INSTANCE);
+
+    final List<Integer> keys = new ArrayList<Integer>();
+    for (int i = 0; i < 100000; i++)
+      keys.add(i);
+    Collections.shuffle(keys, new Random(42));
+
+    try (OSBTreeBulkLoad<Integer, OIdentifiable> bulkLoad = tree.createBulkLoad(null)) {
+      for (int key : keys)
+        bulkLoad.add(key, new ORecordId(1, key));
+
+      Assert.assertEquals(100000, bulkLoad.load());
+    }
+
+    Assert.assertEquals(100000, tree.size());
+    Assert.assertEquals(0, (int) tree.firstKey());
+    Assert.assertEquals(99999, (int) tree.lastKey());
+
+    for (int i = 0; i < 100000; i++)
+      Assert.assertEquals(new ORecordId(1, i), tree.get(i));
+
+    assertOrder(tree.iterateEntriesMajor(0, true, true), 0, 100000, 1);
+    assertOrder(tree.iterateEntriesMinor(99999, true, false), 99999, 100000, -1);
+
+    // TREE BUILT BY BULK LOAD IS CHANGED AS USUAL
+    for (int i = 100000; i < 110000; i++)
+      tree.put(i, new ORecordId(1, i));
+    for (int i = 0; i < 100000; i += 2)
+      tree.remove(i);
+
+    Assert.assertEquals(60000, tree.size());
+    Assert.assertNull(tree.get(50000));
+    Assert.assertEquals(new ORecordId(1, 50001), tree.get(50001));
+    Assert.assertEquals(new ORecordId(1, 105000), tree.get(105000));
+
+    tree.delete();
+  }
+
+  @Test
+  public void testLoadSeveralLevels() {
+    OGlobalConfiguration.SBTREE_BULK_LOAD_FILL_FACTOR.setValue(50);
+
+    final OSBTree<String, OIdentifiable> tree = createTree("bulkLoadSeveralLevels", OStringSerializer.INSTANCE);
+
+    final char[] padding = new char[1000];
+    Arrays.fill(padding, 'x');
+    final String prefix = new String(padding);
+
+    // ABOUT 16 KEYS FIT INTO THE HALF OF THE PAGE, SO TREE CONTAINS THREE LEVELS
+    try (OSBTreeBulkLoad<String, OIdentifiable> bulkLoad = tree.createBulkLoad(null)) {
+      for (int i = 4999; i >= 0; i--)
+        bulkLoad.add(prefix + String.format("%05d", i), new ORecordId(1, i));
+
+      Assert.assertEquals(5000, bulkLoad.load());
+    }
+
+    Assert.assertEquals(5000, tree.size());
+    for (int i = 0; i < 5000; i++)
+      Assert.assertEquals(new ORecordId(1, i), tree.get(prefix + String.format("%05d", i)));
+
+    final OSBTree.OSBTreeCursor<String, OIdentifiable> cursor = tree
+        .iterateEntriesBetween(prefix + "01000", true, prefix + "03999", true, true);
+    int expected = 1000;
+    Map.Entry<String, OIdentifiable> entry;
+    while ((entry = cursor.next(-1)) != null) {
+      Assert.assertEquals(new ORecordId(1, expected), entry.getValue());
+      expected++;
+    }
+    Assert.assertEquals(4000, expected);
+
+    tree.delete();
+  }
+
+  @Test
+  public void testDuplicatedKeys() {
+    final OSBTree<Integer, OIdentifiable> tree = createTree("bulkLoadDuplicatedKeys", OIntegerSerializer.INSTANCE);
+
+    try (OSBTreeBulkLoad<Integer, OIdentifiable> bulkLoad = tree.createBulkLoad(null)) {
+      for (int i = 0; i < 30000; i++)
+        bulkLoad.add(i % 1000, new ORecordId(1, i));
+
+      Assert.assertEquals(1000, bulkLoad.load());
+    }
+
+    // THE LAST VALUE WINS IF VALIDATOR IS NOT PASSED
+    Assert.assertEquals(1000, tree.size());
+    for (int i = 0; i < 1000; i++)
+      Assert.assertEquals(new ORecordId(1, 29000 + i), tree.get(i));
+
+    tree.delete();
+
+    final OSBTree<Integer, OIdentifiable> validatedTree = createTree("bulkLoadValidatedKeys", OIntegerSerializer.INSTANCE);
+    try (OSBTreeBulkLoad<Integer, OIdentifiable> bulkLoad = validatedTree
+        .createBulkLoad(new OIndexEngine.Validator<Integer, OIdentifiable>() {
+          @Override
+          public Object validate(Integer key, OIdentifiable oldValue, OIdentifiable newValue) {
+            return IGNORE;
+          }
+        })) {
+      for (int i = 0; i < 30000; i++)
+        bulkLoad.add(i % 1000, new ORecordId(1, i));
+
+      bulkLoad.load();
+    }
+
+    for (int i = 0; i < 1000; i++)
+      Assert.assertEquals(new ORecordId(1, i), validatedTree.get(i));
+
+    validatedTree.delete();
+  }
+
+  @Test
+  public void testLoadIntoNotEmptyTree() {
+    final OSBTree<Integer, OIdentifiable> tree = createTree("bulkLoadNotEmptyTree", OIntegerSerializer.INSTANCE);
+    tree.put(5, new ORecordId(2, 5));
+
+    try (OSBTreeBulkLoad<Integer, OIdentifiable> bulkLoad = tree.createBulkLoad(null)) {
+      for (int i = 0; i < 10; i++)
+        bulkLoad.add(i, new ORecordId(1, i));
+
+      bulkLoad.load();
+    }
+
+    Assert.assertEquals(10, tree.size());
+    for (int i = 0; i < 10; i++)
+      Assert.assertEquals(new ORecordId(1, i), tree.get(i));
+
+    tree.delete();
+  }
+
+  private <K> OSBTree<K, OIdentifiable> createTree(String name, OBinarySerializer<K> keySerializer) {
+    final OSBTree<K, OIdentifiable> tree = new OSBTree<K, OIdentifiable>(name, ".sbt", false, ".nbt",
+        (OAbstractPaginatedStorage) database.getStorage().getUnderlying());
+    tree.create(keySerializer, OLinkSerializer.INSTANCE, null, 1, false);
+    return tree;
+  }
+
+  private static void assertOrder(OSBTree.OSBTreeCursor<Integer, OIdentifiable> cursor, int first, int count, int step) {
+    int expected = first;
+    int read = 0;
+
+    Map.Entry<Integer, OIdentifiable> entry;
+    while ((entry = cursor.next(-1)) != null) {
+      Assert.assertEquals(expected, (int) entry.getKey());
+      expected += step;
+      read++;
+    }
+
+    Assert.assertEquals(count, read);
+  }
+}
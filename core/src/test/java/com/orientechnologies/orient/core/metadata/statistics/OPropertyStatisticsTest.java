@@ -0,0 +1,53 @@
+package com.orientechnologies.orient.core.metadata.statistics;
+
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OPropertyStatisticsTest {
+
+  @Test
+  public void testSkewedValues() {
+    OPropertyStatistics.Builder builder = new OPropertyStatistics.Builder("status", OType.STRING, 1000);
+    for (int i = 0; i < 1000; i++) {
+      builder.add(i % 10 == 0 ? "v" + (i / 10) : "active", i);
+    }
+    OPropertyStatistics statistics = builder.build();
+
+    Assert.assertEquals(0.9, statistics.equalsSelectivity("active"), 0.001);
+    Assert.assertEquals(0.001, statistics.equalsSelectivity("v5"), 0.0005);
+    Assert.assertEquals(0, statistics.equalsSelectivity("zzz"), 0);
+    Assert.assertEquals(0, statistics.getNullFraction(), 0);
+  }
+
+  @Test
+  public void testRangeOnUniformValues() {
+    OPropertyStatistics.Builder builder = new OPropertyStatistics.Builder("age", OType.INTEGER, 500);
+    for (int i = 0; i < 2000; i++) {
+      //sampling is done by the caller, here the first records are kept and the values are shuffled
+      builder.add(i % 4 == 0 ? null : (i * 7919) % 1000, i < 500 ? i : -1);
+    }
+    OPropertyStatistics statistics = builder.build();
+
+    Assert.assertEquals(0.25, statistics.getNullFraction(), 0.001);
+    Assert.assertEquals(0.075, statistics.rangeSelectivity(100, true, 200, false), 0.015);
+    Assert.assertEquals(0.75, statistics.rangeSelectivity(null, true, null, true), 0.001);
+    Assert.assertEquals(0, statistics.rangeSelectivity(2000, true, null, true), 0);
+    Assert.assertEquals(-1, statistics.rangeSelectivity("not a number", true, null, true), 0);
+  }
+
+  @Test
+  public void testToDocument() {
+    OPropertyStatistics.Builder builder = new OPropertyStatistics.Builder("status", OType.STRING, 100);
+    for (int i = 0; i < 100; i++) {
+      builder.add(i < 50 ? "active" : "v" + i, i);
+    }
+    OPropertyStatistics statistics = builder.build();
+
+    OPropertyStatistics copy = OPropertyStatistics.fromDocument(statistics.toDocument());
+
+    Assert.assertEquals(statistics.getDistinct(), copy.getDistinct());
+    Assert.assertEquals(statistics.equalsSelectivity("active"), copy.equalsSelectivity("active"), 0);
+    Assert.assertEquals(statistics.rangeSelectivity("v60", true, "v80", true), copy.rangeSelectivity("v60", true, "v80", true), 0);
+  }
+}
@@ -0,0 +1,115 @@
+package com.orientechnologies.orient.core.metadata.statistics;
+
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.sql.parser.OSelectStatement;
+import com.orientechnologies.orient.core.sql.parser.OStatementCache;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OStatisticsManagerTest {
+  private ODatabaseDocumentTx db;
+  private OStatisticsManager  manager;
+
+  @Before
+  public void before() {
+    db = new ODatabaseDocumentTx("memory:OStatisticsManagerTest");
+    db.create();
+
+    OClass clazz = db.getMetadata().getSchema().createClass("Account");
+    clazz.createProperty("status", OType.STRING);
+    clazz.createProperty("region", OType.STRING);
+    clazz.createProperty("balance", OType.INTEGER);
+    clazz.createIndex("Account.status", OClass.INDEX_TYPE.NOTUNIQUE, "status");
+    clazz.createIndex("Account.region", OClass.INDEX_TYPE.NOTUNIQUE, "region");
+
+    //99% of the accounts are active, the regions are uniformly distributed
+    for (int i = 0; i < 1000; i++) {
+      ODocument doc = new ODocument("Account");
+      doc.field("status", i % 100 == 0 ? "blocked" : "active");
+      doc.field("region", "region" + (i % 20));
+      doc.field("balance", i);
+      doc.save();
+    }
+
+    manager = ((ODatabaseDocumentInternal) db).getSharedContext().getStatisticsManager();
+  }
+
+  @After
+  public void after() {
+    db.drop();
+  }
+
+  @Test
+  public void testAnalyzeAndReload() {
+    Assert.assertNull(manager.getClassStatistics((ODatabaseDocumentInternal) db, "Account"));
+
+    OClassStatistics statistics = manager.analyze((ODatabaseDocumentInternal) db, "Account");
+    Assert.assertEquals(1000, statistics.getRecordCount());
+
+    manager.clear();
+    statistics = manager.getClassStatistics((ODatabaseDocumentInternal) db, "account");
+    Assert.assertNotNull(statistics);
+    Assert.assertEquals(1000, statistics.getRecordCount());
+    Assert.assertEquals(0.99, statistics.getProperty("status").equalsSelectivity("active"), 0.001);
+    Assert.assertEquals(0.05, statistics.getProperty("region").equalsSelectivity("region3"), 0.001);
+    Assert.assertNotNull(statistics.getIndex("Account.status"));
+  }
+
+  @Test
+  public void testIndexChoice() {
+    manager.analyze((ODatabaseDocumentInternal) db, "Account");
+
+    OResultSet result = db.query("select from Account where status = 'active' and region = 'region3'");
+    Assert.assertTrue(result.getExecutionPlan().get().prettyPrint(0, 2).contains("FETCH FROM INDEX Account.region"));
+    Assert.assertEquals(50, count(result));
+
+    result = db.query("select from Account where status = 'blocked' and region = 'region0'");
+    Assert.assertTrue(result.getExecutionPlan().get().prettyPrint(0, 2).contains("FETCH FROM INDEX Account.status"));
+    Assert.assertEquals(10, count(result));
+  }
+
+  @Test
+  public void testIndexChoiceWithInputParameters() {
+    manager.analyze((ODatabaseDocumentInternal) db, "Account");
+
+    //the plan is cached by the types of the parameters, the choice of the index cannot depend on the value of the first execution
+    OResultSet result = db.query("select from Account where status = ? and region = ?", "blocked", "region0");
+    Assert.assertTrue(result.getExecutionPlan().get().prettyPrint(0, 2).contains("FETCH FROM INDEX Account.region"));
+    Assert.assertEquals(10, count(result));
+
+    result = db.query("select from Account where status = ? and region = ?", "active", "region3");
+    Assert.assertTrue(result.getExecutionPlan().get().prettyPrint(0, 2).contains("FETCH FROM INDEX Account.region"));
+    Assert.assertEquals(50, count(result));
+  }
+
+  @Test
+  public void testWhereEstimate() {
+    manager.analyze((ODatabaseDocumentInternal) db, "Account");
+
+    OBasicCommandContext ctx = new OBasicCommandContext();
+    ctx.setDatabase(db);
+    OClass clazz = db.getMetadata().getSchema().getClass("Account");
+    OSelectStatement statement = (OSelectStatement) OStatementCache
+        .get("select from Account where status = 'blocked' or balance < 100", (ODatabaseDocumentInternal) db);
+
+    Assert.assertEquals(110, statement.getWhereClause().estimate(clazz, 0, ctx), 20);
+  }
+
+  private long count(OResultSet result) {
+    long count = 0;
+    while (result.hasNext()) {
+      result.next();
+      count++;
+    }
+    result.close();
+    return count;
+  }
+}
@@ -0,0 +1,123 @@
+package com.orientechnologies.orient.core.record.impl;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OImmutableClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class OCompactFieldMapTest {
+
+  @Test
+  public void testMapOperations() {
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx("memory:OCompactFieldMapTest_map");
+    db.create();
+    try {
+      OClass clazz = db.getMetadata().getSchema().createClass("Person");
+      clazz.createProperty("name", OType.STRING);
+      clazz.createProperty("age", OType.INTEGER);
+      OImmutableClass immutableClass = (OImmutableClass) db.getMetadata().getImmutableSchemaSnapshot().getClass("Person");
+
+      OCompactFieldMap map = new OCompactFieldMap(immutableClass.getFieldSlots());
+      ODocumentEntry age = new ODocumentEntry();
+      ODocumentEntry extra = new ODocumentEntry();
+      ODocumentEntry name = new ODocumentEntry();
+      map.put("age", age);
+      map.put("extra", extra);
+      map.put("name", name);
+
+      Assert.assertEquals(3, map.size());
+      Assert.assertSame(age, map.get("age"));
+      Assert.assertSame(extra, map.get("extra"));
+      Assert.assertNull(map.get("missing"));
+      Assert.assertFalse(map.containsKey("missing"));
+      //insertion order is kept
+      Assert.assertEquals(Arrays.asList("age", "extra", "name"), new ArrayList<>(map.keySet()));
+
+      Assert.assertSame(extra, map.remove("extra"));
+      Assert.assertFalse(map.containsKey("extra"));
+      map.put("other", extra);
+      Assert.assertEquals(Arrays.asList("age", "name", "other"), new ArrayList<>(map.keySet()));
+
+      Iterator<Map.Entry<String, ODocumentEntry>> iterator = map.entrySet().iterator();
+      while (iterator.hasNext()) {
+        if (iterator.next().getKey().equals("name"))
+          iterator.remove();
+      }
+      Assert.assertEquals(Arrays.asList("age", "other"), new ArrayList<>(map.keySet()));
+
+      Map<String, ODocumentEntry> expected = new HashMap<>();
+      expected.put("age", age);
+      expected.put("other", extra);
+      Assert.assertEquals(expected, map);
+
+      map.clear();
+      Assert.assertTrue(map.isEmpty());
+      Assert.assertNull(map.get("age"));
+    } finally {
+      db.drop();
+    }
+  }
+
+  @Test
+  public void testDocuments() {
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx("memory:OCompactFieldMapTest_documents");
+    db.create();
+    try {
+      db.getConfiguration().setValue(OGlobalConfiguration.DOCUMENT_COMPACT_FIELDS, true);
+      OClass clazz = db.getMetadata().getSchema().createClass("Person");
+      clazz.createProperty("name", OType.STRING);
+      clazz.createProperty("age", OType.INTEGER);
+      clazz.createProperty("tags", OType.EMBEDDEDLIST, OType.STRING);
+
+      ODocument doc = new ODocument("Person");
+      doc.field("name", "foo");
+      doc.field("age", 20);
+      doc.field("nickname", "bar");
+      doc.field("tags", new ArrayList<>(Arrays.asList("a", "b")));
+      Assert.assertTrue(doc._fields instanceof OCompactFieldMap);
+      ORID rid = doc.save().getIdentity();
+
+      db.getLocalCache().clear();
+      ODocument loaded = db.load(rid);
+      Assert.assertEquals("foo", loaded.field("name"));
+      Assert.assertTrue(loaded._fields instanceof OCompactFieldMap);
+      Assert.assertEquals(20, (int) loaded.field("age"));
+      Assert.assertEquals("bar", loaded.field("nickname"));
+      Assert.assertEquals(new HashSet<>(Arrays.asList("name", "age", "nickname", "tags")),
+          new HashSet<>(Arrays.asList(loaded.fieldNames())));
+
+      //change tracking of the fields and of the collections keeps working
+      loaded.field("age", 21);
+      loaded.removeField("nickname");
+      loaded.<List<String>>field("tags").add("c");
+      Assert.assertTrue(loaded.isDirty());
+      Assert.assertEquals(new HashSet<>(Arrays.asList("age", "nickname", "tags")),
+          new HashSet<>(Arrays.asList(loaded.getDirtyFields())));
+      loaded.save();
+
+      db.getLocalCache().clear();
+      loaded = db.load(rid);
+      Assert.assertEquals(21, (int) loaded.field("age"));
+      Assert.assertNull(loaded.field("nickname"));
+      Assert.assertFalse(loaded.containsField("nickname"));
+      Assert.assertEquals(Arrays.asList("a", "b", "c"), loaded.field("tags"));
+
+      ODocument copy = loaded.copy();
+      Assert.assertTrue(copy._fields instanceof OCompactFieldMap);
+      Assert.assertEquals("foo", copy.field("name"));
+
+      //documents without class keep the default map
+      ODocument schemaless = new ODocument();
+      schemaless.field("name", "foo");
+      Assert.assertFalse(schemaless._fields instanceof OCompactFieldMap);
+    } finally {
+      db.drop();
+    }
+  }
+}
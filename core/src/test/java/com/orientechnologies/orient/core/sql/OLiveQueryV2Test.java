@@ -27,6 +27,8 @@ import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.query.live.OLiveQueryHookV2;
+import com.orientechnologies.orient.core.query.live.OLiveQueryQueueThreadV2;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
@@ -123,6 +125,61 @@ public class OLiveQueryV2Test {
     }
   }
 
+  @Test
+  public void testLiveInsertRoutedByEqualityFilter() throws InterruptedException {
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx("memory:OLiveQueryV2RoutingTest");
+    db.activateOnCurrentThread();
+    db.create();
+    try {
+      OClass test = db.getMetadata().getSchema().createClass("test");
+      db.getMetadata().getSchema().createClass("testChild", test);
+      db.getMetadata().getSchema().createClass("test2");
+
+      MyLiveQueryListener fooListener = new MyLiveQueryListener(new CountDownLatch(101));
+      MyLiveQueryListener barListener = new MyLiveQueryListener(new CountDownLatch(1));
+      MyLiveQueryListener allListener = new MyLiveQueryListener(new CountDownLatch(103));
+
+      OLiveQueryMonitor fooMonitor = db.live("select from test where name = 'foo' and n >= 0", fooListener);
+      OLiveQueryMonitor barMonitor = db.live("select from test where name = ?", barListener, "bar");
+      OLiveQueryMonitor allMonitor = db.live("select from test", allListener);
+
+      for (int i = 0; i < 100; i++) {
+        db.command("insert into test set name = 'foo', n = ?", i).close();
+      }
+      db.command("insert into test set name = 'bar', n = 0").close();
+      db.command("insert into test set name = 'baz', n = 0").close();
+      db.command("insert into testChild set name = 'foo', n = 100").close();
+      db.command("insert into test2 set name = 'foo', n = 0").close();
+
+      Assert.assertTrue(fooListener.latch.await(1, TimeUnit.MINUTES));
+      Assert.assertTrue(barListener.latch.await(1, TimeUnit.MINUTES));
+      Assert.assertTrue(allListener.latch.await(1, TimeUnit.MINUTES));
+
+      fooMonitor.unSubscribe();
+      barMonitor.unSubscribe();
+      allMonitor.unSubscribe();
+
+      // CHANGES ARE PASSED TO EVERY SUBSCRIBER IN ORDER
+      Assert.assertEquals(101, fooListener.ops.size());
+      for (int i = 0; i < 101; i++) {
+        Assert.assertEquals("foo", fooListener.ops.get(i).getProperty("name"));
+        Assert.assertEquals(i, (int) fooListener.ops.get(i).getProperty("n"));
+      }
+      Assert.assertEquals("testChild", fooListener.ops.get(100).getProperty("@class"));
+
+      Assert.assertEquals(1, barListener.ops.size());
+      Assert.assertEquals("bar", barListener.ops.get(0).getProperty("name"));
+
+      Assert.assertEquals(103, allListener.ops.size());
+
+      // CHANGES ARE NOT PASSED TO SUBSCRIBERS OF OTHER CLASSES OR VALUES
+      OLiveQueryQueueThreadV2 queueThread = OLiveQueryHookV2.getOpsReference(db).getQueueThread();
+      Assert.assertTrue(queueThread.getSkippedDeliveries() >= 100 + 2 + 3);
+    } finally {
+      db.drop();
+    }
+  }
+
   @Test
   public void testRestrictedLiveInsert() throws ExecutionException, InterruptedException {
     ODatabaseDocumentTx db = new ODatabaseDocumentTx("memory:OLiveQueryTest");
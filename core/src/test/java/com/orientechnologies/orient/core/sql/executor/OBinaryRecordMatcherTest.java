@@ -0,0 +1,153 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.parser.OSelectStatement;
+import com.orientechnologies.orient.core.sql.parser.OStatementCache;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class OBinaryRecordMatcherTest {
+  private ODatabaseDocumentTx db;
+  private ORID                rid;
+
+  @Before
+  public void before() {
+    db = new ODatabaseDocumentTx("memory:OBinaryRecordMatcherTest");
+    db.create();
+
+    OClass clazz = db.getMetadata().getSchema().createClass("Person");
+    clazz.createProperty("name", OType.STRING);
+    clazz.createProperty("age", OType.INTEGER);
+    clazz.createProperty("code", OType.STRING).setCollate("ci");
+
+    ODocument doc = new ODocument("Person");
+    doc.field("name", "foo");
+    doc.field("age", 20);
+    doc.field("code", "ABC");
+    doc.field("height", 1.8d);
+    rid = doc.save().getIdentity();
+
+    for (int i = 0; i < 100; i++) {
+      ODocument other = new ODocument("Person");
+      other.field("name", "name" + i);
+      other.field("age", i);
+      if (i % 2 == 0) {
+        other.field("surname", "surname" + i);
+      }
+      other.save();
+    }
+  }
+
+  @After
+  public void after() {
+    db.drop();
+  }
+
+  @Test
+  public void testComparisons() {
+    Assert.assertEquals(Boolean.TRUE, match("age > 10"));
+    Assert.assertEquals(Boolean.FALSE, match("age < 10"));
+    Assert.assertEquals(Boolean.TRUE, match("age <= 20 and age >= 20.0"));
+    Assert.assertEquals(Boolean.TRUE, match("name = 'foo' and age = 20"));
+    Assert.assertEquals(Boolean.FALSE, match("name = 'bar' or age in [1, 2]"));
+    Assert.assertEquals(Boolean.TRUE, match("age in [1, 20]"));
+    Assert.assertEquals(Boolean.TRUE, match("height > 1"));
+    Assert.assertEquals(Boolean.FALSE, match("not (age >= 20)"));
+  }
+
+  @Test
+  public void testNullChecks() {
+    Assert.assertEquals(Boolean.TRUE, match("name is not null"));
+    Assert.assertEquals(Boolean.FALSE, match("name is null"));
+    //missing fields are evaluated on the deserialized record
+    Assert.assertNull(match("surname is null"));
+    Assert.assertNull(match("surname = 'x'"));
+  }
+
+  @Test
+  public void testNotBinaryComparable() {
+    //properties with a collate are evaluated on the deserialized record
+    Assert.assertNull(match("code = 'abc'"));
+    Assert.assertNull(match("code = 'ABC'"));
+    //string and number are not compared in binary form
+    Assert.assertNull(match("name = 20"));
+    //the other conditions are enough to discard the record
+    Assert.assertNull(match("age = 20 and name like 'f%'"));
+    Assert.assertEquals(Boolean.FALSE, match("age = 21 and name like 'f%'"));
+    Assert.assertNull(match("age = 21 or name like 'f%'"));
+  }
+
+  @Test
+  public void testInputParameters() {
+    Map<Object, Object> params = new HashMap<>();
+    params.put(0, 20);
+    Assert.assertEquals(Boolean.TRUE, match("age = ?", params));
+    params.put(0, 21);
+    Assert.assertEquals(Boolean.FALSE, match("age = ?", params));
+  }
+
+  @Test
+  public void testChangedRecord() {
+    ODocument doc = db.load(rid);
+    doc.field("age", 5);
+    OResultInternal result = new OResultInternal();
+    result.setElement(doc);
+
+    Assert.assertNull(compile("age > 10", null).matches(result));
+  }
+
+  @Test
+  public void testQuery() {
+    OResultSet result = db.query("select from Person where age >= 50 and surname is not null");
+    int count = 0;
+    while (result.hasNext()) {
+      OResult item = result.next();
+      Assert.assertTrue((Integer) item.getProperty("age") >= 50);
+      Assert.assertNotNull(item.getProperty("surname"));
+      count++;
+    }
+    result.close();
+    Assert.assertEquals(25, count);
+
+    //the executor does not apply the collate when it evaluates the deserialized record, 'abc' does not match 'ABC'
+    result = db.query("select from Person where code = 'abc' or name in ['name3', 'name4']");
+    count = 0;
+    while (result.hasNext()) {
+      result.next();
+      count++;
+    }
+    result.close();
+    Assert.assertEquals(2, count);
+  }
+
+  private Boolean match(String condition) {
+    return match(condition, null);
+  }
+
+  private Boolean match(String condition, Map<Object, Object> params) {
+    db.getLocalCache().clear();
+    OResultInternal result = new OResultInternal();
+    result.setElement(db.load(rid));
+    return compile(condition, params).matches(result);
+  }
+
+  private OBinaryRecordMatcher compile(String condition, Map<Object, Object> params) {
+    OBasicCommandContext ctx = new OBasicCommandContext();
+    ctx.setDatabase(db);
+    ctx.setInputParameters(params);
+    OSelectStatement statement = (OSelectStatement) OStatementCache
+        .get("select from Person where " + condition, (ODatabaseDocumentInternal) db);
+    return OBinaryRecordMatcher.compile(statement.getWhereClause(), ctx);
+  }
+}
@@ -1,9 +1,13 @@
 package com.orientechnologies.orient.core.sql.executor;
 
+import com.orientechnologies.orient.core.config.OContextConfiguration;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
@@ -17,6 +21,7 @@ import org.junit.Test;
 
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.function.IntPredicate;
 
 import static com.orientechnologies.orient.core.sql.executor.ExecutionPlanPrintUtils.printExecutionPlan;
 
@@ -311,6 +316,50 @@ public class OSelectStatementExecutionTest {
     result.close();
   }
 
+  @Test
+  public void testSelectOrderBySpilledToDisk() {
+    String className = "testSelectOrderBySpilledToDisk";
+    db.getMetadata().getSchema().createClass(className);
+    for (int i = 0; i < 100; i++) {
+      ODocument doc = db.newInstance(className);
+      doc.setProperty("name", "name" + (i * 37) % 100);
+      doc.setProperty("surname", "surname" + i % 10);
+      doc.save();
+    }
+    OContextConfiguration config = ((ODatabaseDocumentInternal) db).getConfiguration();
+    Object oldValue = config.getValue(OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS);
+    config.setValue(OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS, 7);
+    try {
+      OResultSet result = db.query("select from " + className + " order by name asc");
+      checkSpilledOrderBy(result);
+      result = db.query("select name, surname from " + className + " order by name asc");
+      checkSpilledOrderBy(result);
+    } finally {
+      config.setValue(OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS, oldValue);
+    }
+  }
+
+  private void checkSpilledOrderBy(OResultSet result) {
+    printExecutionPlan(result);
+    String lastName = null;
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(result.hasNext());
+      OResult item = result.next();
+      String name = item.getProperty("name");
+      Assert.assertNotNull(name);
+      Assert.assertNotNull(item.getProperty("surname"));
+      if (i > 0) {
+        Assert.assertTrue(name.compareTo(lastName) > 0);
+      }
+      lastName = name;
+    }
+    Assert.assertFalse(result.hasNext());
+    OrderByStep orderBy = (OrderByStep) result.getExecutionPlan().get().getSteps().stream().filter(x -> x instanceof OrderByStep)
+        .findFirst().get();
+    Assert.assertTrue(orderBy.prettyPrint(0, 2).contains("spilled to disk"));
+    result.close();
+  }
+
   @Test
   public void testSelectOrderWithProjections() {
     String className = "testSelectOrderWithProjections";
@@ -701,6 +750,46 @@ public class OSelectStatementExecutionTest {
     result.close();
   }
 
+  @Test
+  public void testAggregateGroupBySpilledToDisk() {
+    String className = "testAggregateGroupBySpilledToDisk";
+    db.getMetadata().getSchema().createClass(className);
+    for (int i = 0; i < 100; i++) {
+      ODocument doc = db.newInstance(className);
+      doc.setProperty("type", "type" + i % 50);
+      doc.setProperty("val", i);
+      doc.save();
+    }
+    OContextConfiguration config = ((ODatabaseDocumentInternal) db).getConfiguration();
+    Object oldValue = config.getValue(OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS);
+    config.setValue(OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS, 7);
+    try {
+      OResultSet result = db.query(
+          "select type, count(*) as cnt, sum(val) as total, avg(val) as average, min(val) as minVal, max(val) as maxVal from "
+              + className + " group by type");
+      printExecutionPlan(result);
+      Set<String> types = new HashSet<>();
+      while (result.hasNext()) {
+        OResult item = result.next();
+        String type = item.getProperty("type");
+        int n = Integer.parseInt(type.substring("type".length()));
+        Assert.assertTrue(types.add(type));
+        Assert.assertEquals(2L, (long) item.<Long>getProperty("cnt"));
+        Assert.assertEquals(2 * n + 50, (int) item.<Integer>getProperty("total"));
+        Assert.assertEquals(n + 25, (int) item.<Integer>getProperty("average"));
+        Assert.assertEquals(n, (int) item.<Integer>getProperty("minVal"));
+        Assert.assertEquals(n + 50, (int) item.<Integer>getProperty("maxVal"));
+      }
+      Assert.assertEquals(50, types.size());
+      AggregateProjectionCalculationStep step = (AggregateProjectionCalculationStep) result.getExecutionPlan().get().getSteps()
+          .stream().filter(x -> x instanceof AggregateProjectionCalculationStep).findFirst().get();
+      Assert.assertTrue(step.prettyPrint(0, 2).contains("spilled to disk"));
+      result.close();
+    } finally {
+      config.setValue(OGlobalConfiguration.QUERY_MAX_HEAP_RECORDS, oldValue);
+    }
+  }
+
   @Test
   public void testFetchFromClusterNumber() {
     String className = "testFetchFromClusterNumber";
@@ -3249,4 +3338,107 @@ public class OSelectStatementExecutionTest {
     result.close();
   }
 
+
+  @Test
+  public void testIndexIntersection() {
+    String className = "testIndexIntersection";
+    createClassWithThreeIndexes(className);
+
+    OResultSet result = db.query("select from " + className + " where status = 1 and region = 2 and tenant = 0");
+    printExecutionPlan(result);
+    OSelectExecutionPlan plan = (OSelectExecutionPlan) result.getExecutionPlan().get();
+    Assert.assertEquals(FetchFromIndexRidsStep.class, plan.getSteps().get(0).getClass());
+    Assert.assertEquals(2, plan.getSteps().get(0).getSubSteps().size());
+
+    int count = 0;
+    while (result.hasNext()) {
+      OResult next = result.next();
+      Assert.assertEquals(1, (int) next.getProperty("status"));
+      Assert.assertEquals(2, (int) next.getProperty("region"));
+      Assert.assertEquals(0, (int) next.getProperty("tenant"));
+      count++;
+    }
+    Assert.assertEquals(countMatching(i -> i % 10 == 1 && i % 7 == 2 && i % 3 == 0), count);
+    result.close();
+  }
+
+  @Test
+  public void testIndexIntersectionWithInputParameters() {
+    String className = "testIndexIntersectionWithInputParameters";
+    createClassWithThreeIndexes(className);
+
+    //the second execution reuses the cached plan, the values of the parameters must not change the indexes to intersect
+    int[][] values = { { 1, 2, 0 }, { 3, 4, 1 } };
+    for (int[] value : values) {
+      OResultSet result = db
+          .query("select from " + className + " where status = ? and region = ? and tenant = ?", value[0], value[1], value[2]);
+      OSelectExecutionPlan plan = (OSelectExecutionPlan) result.getExecutionPlan().get();
+      Assert.assertEquals(FetchFromIndexRidsStep.class, plan.getSteps().get(0).getClass());
+      Assert.assertEquals(2, plan.getSteps().get(0).getSubSteps().size());
+
+      int count = 0;
+      while (result.hasNext()) {
+        OResult next = result.next();
+        Assert.assertEquals(value[0], (int) next.getProperty("status"));
+        Assert.assertEquals(value[1], (int) next.getProperty("region"));
+        Assert.assertEquals(value[2], (int) next.getProperty("tenant"));
+        count++;
+      }
+      Assert.assertEquals(countMatching(i -> i % 10 == value[0] && i % 7 == value[1] && i % 3 == value[2]), count);
+      result.close();
+    }
+  }
+
+  @Test
+  public void testIndexUnion() {
+    String className = "testIndexUnion";
+    createClassWithThreeIndexes(className);
+
+    OResultSet result = db.query("select from " + className + " where status = 1 or region = 2");
+    printExecutionPlan(result);
+    OSelectExecutionPlan plan = (OSelectExecutionPlan) result.getExecutionPlan().get();
+    Assert.assertEquals(FetchFromIndexRidsStep.class, plan.getSteps().get(0).getClass());
+
+    Set<ORID> rids = new HashSet<>();
+    while (result.hasNext()) {
+      OResult next = result.next();
+      Assert.assertTrue((int) next.getProperty("status") == 1 || (int) next.getProperty("region") == 2);
+      Assert.assertTrue(rids.add(next.getIdentity().get()));
+    }
+    Assert.assertEquals(countMatching(i -> i % 10 == 1 || i % 7 == 2), rids.size());
+    result.close();
+  }
+
+  private OClass createClassWithThreeIndexes(String className) {
+    OClass clazz = db.getMetadata().getSchema().createClass(className);
+    clazz.createProperty("status", OType.INTEGER);
+    clazz.createProperty("region", OType.INTEGER);
+    clazz.createProperty("tenant", OType.INTEGER);
+    clazz.createIndex(className + ".status", OClass.INDEX_TYPE.NOTUNIQUE, "status");
+    clazz.createIndex(className + ".region", OClass.INDEX_TYPE.NOTUNIQUE, "region");
+    clazz.createIndex(className + ".tenant", OClass.INDEX_TYPE.NOTUNIQUE, "tenant");
+
+    for (int i = 0; i < 2000; i++) {
+      ODocument doc = db.newInstance(className);
+      doc.setProperty("status", i % 10);
+      doc.setProperty("region", i % 7);
+      doc.setProperty("tenant", i % 3);
+      doc.save();
+    }
+
+    //index lookups are estimated with the statistics of the values
+    ((ODatabaseDocumentInternal) db).getSharedContext().getStatisticsManager().analyze((ODatabaseDocumentInternal) db, className);
+    return clazz;
+  }
+
+  private int countMatching(IntPredicate predicate) {
+    int count = 0;
+    for (int i = 0; i < 2000; i++) {
+      if (predicate.test(i)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
 }
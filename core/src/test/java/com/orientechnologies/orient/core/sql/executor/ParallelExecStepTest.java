@@ -2,12 +2,19 @@ package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Created by luigidellaquila on 26/07/16.
@@ -34,4 +41,169 @@ public class ParallelExecStepTest {
     plan.getSteps().add(new FetchFromRidsStep(Collections.singleton(new ORecordId(12, 100)), ctx,false));
 
   }
+
+  @Test
+  public void testParallelClusterScan() {
+    ODatabaseDocumentInternal db = new ODatabaseDocumentTx("memory:ParallelExecStepTest_testParallelClusterScan");
+    db.create();
+    try {
+      db.getMetadata().getSchema().createClass("ParallelScan", 8);
+      for (int i = 0; i < 1000; i++) {
+        new ODocument("ParallelScan").field("val", i).save();
+      }
+      db.getConfiguration().setValue(OGlobalConfiguration.QUERY_PARALLEL_EXEC_LEVEL, 4);
+
+      OResultSet result = db.query("select from ParallelScan where val < 500");
+      Assert.assertTrue(result.getExecutionPlan().get().getSteps().get(0) instanceof ParallelExecStep);
+      Set<Integer> values = new HashSet<>();
+      while (result.hasNext()) {
+        Integer val = result.next().getProperty("val");
+        Assert.assertTrue(val < 500);
+        values.add(val);
+      }
+      result.close();
+      Assert.assertEquals(500, values.size());
+
+      result = db.query("select from ParallelScan limit 10");
+      for (int i = 0; i < 10; i++) {
+        Assert.assertTrue(result.hasNext());
+        result.next();
+      }
+      Assert.assertFalse(result.hasNext());
+      result.close();
+
+      db.begin();
+      result = db.query("select from ParallelScan");
+      Assert.assertFalse(result.getExecutionPlan().get().getSteps().get(0) instanceof ParallelExecStep);
+      result.close();
+      db.rollback();
+    } finally {
+      db.drop();
+    }
+  }
+
+  @Test
+  public void testParentContext() {
+    ODatabaseDocumentInternal db = new ODatabaseDocumentTx("memory:ParallelExecStepTest_testParentContext");
+    db.create();
+    try {
+      db.getMetadata().getSchema().createClass("ParallelInner", 8);
+      db.getMetadata().getSchema().createClass("ParallelOuter");
+      for (int i = 0; i < 100; i++) {
+        new ODocument("ParallelInner").field("val", i).save();
+      }
+      for (int i = 0; i < 3; i++) {
+        new ODocument("ParallelOuter").field("val", i * 10).save();
+      }
+      db.getConfiguration().setValue(OGlobalConfiguration.QUERY_PARALLEL_EXEC_LEVEL, 4);
+
+      OResultSet result = db.query(
+          "select val, $inner.size() as cnt from ParallelOuter let $inner = (select from ParallelInner where val = $parent.$current.val)");
+      int found = 0;
+      while (result.hasNext()) {
+        Assert.assertEquals(1, (int) result.next().<Integer>getProperty("cnt"));
+        found++;
+      }
+      result.close();
+      Assert.assertEquals(3, found);
+    } finally {
+      db.drop();
+    }
+  }
+
+  @Test
+  public void testSlowConsumer() throws InterruptedException {
+    ODatabaseDocumentInternal db = new ODatabaseDocumentTx("memory:ParallelExecStepTest_testSlowConsumer");
+    db.create();
+    try {
+      db.getMetadata().getSchema().createClass("ParallelSlow", 8);
+      for (int i = 0; i < 1000; i++) {
+        new ODocument("ParallelSlow").field("val", i).save();
+      }
+      db.getConfiguration().setValue(OGlobalConfiguration.QUERY_PARALLEL_EXEC_LEVEL, 4);
+      db.getConfiguration().setValue(OGlobalConfiguration.QUERY_PARALLEL_RESULT_QUEUE_SIZE, 16);
+
+      OResultSet result = db.query("select from ParallelSlow");
+      Assert.assertTrue(result.hasNext());
+      result.next();
+
+      //the workers wait for the results to be read, however long it takes
+      Thread.sleep(1000);
+      int found = 1;
+      while (result.hasNext()) {
+        result.next();
+        found++;
+      }
+      result.close();
+      Assert.assertEquals(1000, found);
+    } finally {
+      db.drop();
+    }
+  }
+
+  @Test
+  public void testResultSetNotClosed() throws InterruptedException {
+    ODatabaseDocumentInternal db = new ODatabaseDocumentTx("memory:ParallelExecStepTest_testResultSetNotClosed");
+    db.create();
+    db.getMetadata().getSchema().createClass("ParallelNotClosed", 8);
+    for (int i = 0; i < 1000; i++) {
+      new ODocument("ParallelNotClosed").field("val", i).save();
+    }
+    db.getConfiguration().setValue(OGlobalConfiguration.QUERY_PARALLEL_EXEC_LEVEL, 4);
+    db.getConfiguration().setValue(OGlobalConfiguration.QUERY_PARALLEL_RESULT_QUEUE_SIZE, 16);
+
+    OResultSet result = db.query("select from ParallelNotClosed");
+    Assert.assertTrue(result.hasNext());
+
+    //the workers blocked on the full buffers stop when the database closes the pending result set
+    db.close();
+    try {
+      for (int i = 0; i < 50 && ParallelExecStep.getActiveWorkers() > 0; i++) {
+        Thread.sleep(100);
+      }
+      Assert.assertEquals(0, ParallelExecStep.getActiveWorkers());
+    } finally {
+      db.open("admin", "admin");
+      db.drop();
+    }
+  }
+
+  @Test
+  public void testParallelAggregation() {
+    ODatabaseDocumentInternal db = new ODatabaseDocumentTx("memory:ParallelExecStepTest_testParallelAggregation");
+    db.create();
+    try {
+      db.getMetadata().getSchema().createClass("ParallelAggregation", 8);
+      for (int i = 0; i < 1000; i++) {
+        new ODocument("ParallelAggregation").field("val", i).field("type", i % 2 == 0 ? "even" : "odd").save();
+      }
+      db.getConfiguration().setValue(OGlobalConfiguration.QUERY_PARALLEL_EXEC_LEVEL, 4);
+
+      OResultSet result = db.query(
+          "select type, count(*) as cnt, sum(val) as total, avg(val) as average, min(val) as minVal, max(val) as maxVal "
+              + "from ParallelAggregation group by type");
+      Assert.assertTrue(result.getExecutionPlan().get().getSteps().get(0) instanceof ParallelExecStep);
+      Assert.assertTrue(result.getExecutionPlan().get().prettyPrint(0, 2).contains("(PARTIAL)"));
+      int found = 0;
+      while (result.hasNext()) {
+        OResult item = result.next();
+        boolean even = "even".equals(item.getProperty("type"));
+        Assert.assertEquals(500L, (long) item.<Long>getProperty("cnt"));
+        Assert.assertEquals(even ? 249500 : 250000, (int) item.<Integer>getProperty("total"));
+        Assert.assertEquals(even ? 499 : 500, (int) item.<Integer>getProperty("average"));
+        Assert.assertEquals(even ? 0 : 1, (int) item.<Integer>getProperty("minVal"));
+        Assert.assertEquals(even ? 998 : 999, (int) item.<Integer>getProperty("maxVal"));
+        found++;
+      }
+      result.close();
+      Assert.assertEquals(2, found);
+
+      result = db.query("select count(*) as cnt from ParallelAggregation");
+      Assert.assertEquals(1000L, (long) result.next().<Long>getProperty("cnt"));
+      Assert.assertFalse(result.hasNext());
+      result.close();
+    } finally {
+      db.drop();
+    }
+  }
 }
@@ -0,0 +1,131 @@
+package com.orientechnologies.orient.core.sql.parser;
+
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class OExecutionPlanCacheTest {
+  private ODatabaseDocumentTx db;
+  private OExecutionPlanCache cache;
+
+  @Before
+  public void before() {
+    db = new ODatabaseDocumentTx("memory:OExecutionPlanCacheTest");
+    db.create();
+
+    OClass clazz = db.getMetadata().getSchema().createClass("Person");
+    clazz.createProperty("name", OType.STRING);
+    for (int i = 0; i < 10; i++) {
+      ODocument doc = new ODocument("Person");
+      doc.field("name", "name" + i);
+      doc.field("surname", "surname" + (i % 2));
+      doc.save();
+    }
+
+    cache = ((ODatabaseDocumentInternal) db).getSharedContext().getExecutionPlanCache();
+    cache.invalidate();
+  }
+
+  @After
+  public void after() {
+    db.drop();
+  }
+
+  @Test
+  public void testPlanIsReused() {
+    String query = "select from Person where surname = ?";
+    long misses = cache.getMisses();
+    long hits = cache.getHits();
+
+    Assert.assertEquals(5, count(db.query(query, "surname0")));
+    Assert.assertEquals(misses + 1, cache.getMisses());
+    Assert.assertEquals(hits, cache.getHits());
+    Assert.assertEquals(1, cache.size());
+
+    Assert.assertEquals(5, count(db.query(query, "surname1")));
+    Assert.assertEquals(0, count(db.query(query, "surname2")));
+    Assert.assertEquals(misses + 1, cache.getMisses());
+    Assert.assertEquals(hits + 2, cache.getHits());
+    Assert.assertTrue(cache.getPlanningTime() > 0);
+  }
+
+  @Test
+  public void testParameterShape() {
+    String query = "select from Person where surname = :surname";
+    long misses = cache.getMisses();
+
+    Assert.assertEquals(5, count(db.query(query, Collections.singletonMap("surname", "surname0"))));
+    Assert.assertEquals(0, count(db.query(query, Collections.singletonMap("surname", 1))));
+    Assert.assertEquals(misses + 2, cache.getMisses());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testInvalidationOnIndexChange() {
+    String query = "select from Person where name = ?";
+    long hits = cache.getHits();
+
+    OResultSet result = db.query(query, "name3");
+    Assert.assertFalse(result.getExecutionPlan().get().prettyPrint(0, 2).contains("FETCH FROM INDEX"));
+    Assert.assertEquals(1, count(result));
+    Assert.assertEquals(1, cache.size());
+
+    db.command("create index Person.name on Person (name) NOTUNIQUE").close();
+    Assert.assertEquals(0, cache.size());
+
+    result = db.query(query, "name4");
+    Assert.assertTrue(result.getExecutionPlan().get().prettyPrint(0, 2).contains("FETCH FROM INDEX"));
+    Assert.assertEquals(1, count(result));
+
+    result = db.query(query, "name5");
+    Assert.assertTrue(result.getExecutionPlan().get().prettyPrint(0, 2).contains("FETCH FROM INDEX"));
+    Assert.assertEquals(1, count(result));
+    Assert.assertEquals(hits + 1, cache.getHits());
+
+    db.command("drop index Person.name").close();
+    Assert.assertEquals(0, cache.size());
+
+    Assert.assertEquals(1, count(db.query(query, "name6")));
+  }
+
+  @Test
+  public void testInvalidationOnSchemaChange() {
+    String query = "select from Person";
+
+    Assert.assertEquals(10, count(db.query(query)));
+    Assert.assertEquals(1, cache.size());
+
+    db.getMetadata().getSchema().createClass("Employee", db.getMetadata().getSchema().getClass("Person"));
+    Assert.assertEquals(0, cache.size());
+
+    new ODocument("Employee").field("name", "employee").save();
+    Assert.assertEquals(11, count(db.query(query)));
+  }
+
+  @Test
+  public void testParameterAsTargetIsNotCached() {
+    long misses = cache.getMisses();
+    db.query("select from ?", "Person").close();
+    Assert.assertEquals(misses, cache.getMisses());
+    Assert.assertEquals(0, cache.size());
+  }
+
+  private long count(OResultSet result) {
+    long count = 0;
+    while (result.hasNext()) {
+      result.next();
+      count++;
+    }
+    result.close();
+    return count;
+  }
+}
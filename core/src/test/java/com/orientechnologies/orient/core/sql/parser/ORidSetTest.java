@@ -154,4 +154,49 @@ public class ORidSetTest extends OParserTestAbstract {
 
   }
 
+  @Test public void testRetainAll() {
+    ORidSet set = new ORidSet();
+    ORidSet other = new ORidSet();
+    for (int i = 0; i < 1000; i++) {
+      set.add(new ORecordId(i % 3, i));
+      if (i % 2 == 0) {
+        other.add(new ORecordId(i % 3, i));
+      }
+    }
+    other.add(new ORecordId(20, 5));
+
+    Assert.assertTrue(set.retainAll(other));
+    Assert.assertEquals(500, set.size());
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(i % 2 == 0, set.contains(new ORecordId(i % 3, i)));
+    }
+    Assert.assertFalse(set.contains(new ORecordId(20, 5)));
+    Assert.assertFalse(set.retainAll(other));
+  }
+
+  @Test public void testAddAll() {
+    ORidSet set = new ORidSet();
+    ORidSet other = new ORidSet();
+    for (int i = 0; i < 100; i++) {
+      set.add(new ORecordId(1, i));
+      other.add(new ORecordId(1, i + 50));
+    }
+    other.add(new ORecordId(12, 100000));
+
+    Assert.assertTrue(set.addAll(other));
+    Assert.assertEquals(151, set.size());
+    Assert.assertTrue(set.contains(new ORecordId(1, 149)));
+    Assert.assertTrue(set.contains(new ORecordId(12, 100000)));
+
+    int count = 0;
+    for (ORID rid : set) {
+      count++;
+    }
+    Assert.assertEquals(151, count);
+
+    Set<ORID> control = new HashSet<>();
+    control.add(new ORecordId(2, 3));
+    Assert.assertTrue(set.addAll(control));
+    Assert.assertEquals(152, set.size());
+  }
 }
@@ -772,6 +772,18 @@ public class OSelectStatementTest {
     checkRightSyntax("select bar[not IN $a ] from V LET $a = (SELECT FROM V)");
   }
 
+  @Test
+  public void testRefersToInputParameters() {
+    OSelectStatement stm = (OSelectStatement) checkRightSyntax(
+        "select ?, :name, 1, 'a?', foo, [1, ?], foo(:p), bar.size() + ?, baz[?], baz[= 1] from V");
+    boolean[] expected = { true, true, false, false, false, true, true, true, true, true };
+    List<OProjectionItem> items = stm.getProjection().getItems();
+    assertEquals(expected.length, items.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(items.get(i).toString(), expected[i], items.get(i).getExpression().refersToInputParameters());
+    }
+  }
+
   protected OrientSql getParserFor(String string) {
     InputStream is = new ByteArrayInputStream(string.getBytes());
     OrientSql osql = new OrientSql(is);
@@ -0,0 +1,46 @@
+package com.orientechnologies.orient.core.storage.cache.local.twoq;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrequencySketchTest {
+  @Test
+  public void testFrequencyIsCounted() {
+    final FrequencySketch sketch = new FrequencySketch(1024);
+
+    Assert.assertEquals(0, sketch.frequency(1, 1));
+
+    for (int i = 0; i < 5; i++)
+      sketch.increment(1, 1);
+
+    Assert.assertEquals(5, sketch.frequency(1, 1));
+    Assert.assertEquals(0, sketch.frequency(1, 2));
+    Assert.assertEquals(0, sketch.frequency(2, 1));
+  }
+
+  @Test
+  public void testFrequencyIsCapped() {
+    final FrequencySketch sketch = new FrequencySketch(1024);
+
+    for (int i = 0; i < 100; i++)
+      sketch.increment(3, 42);
+
+    Assert.assertEquals(15, sketch.frequency(3, 42));
+  }
+
+  @Test
+  public void testFrequencyDecays() {
+    final FrequencySketch sketch = new FrequencySketch(64);
+
+    for (int i = 0; i < 8; i++)
+      sketch.increment(1, 1);
+
+    Assert.assertEquals(8, sketch.frequency(1, 1));
+
+    // 640 ACCESSES TRIGGER THE RESET OF THE SKETCH WITH SIZE 64
+    for (int i = 0; i < 640; i++)
+      sketch.increment(2, i);
+
+    Assert.assertTrue(sketch.frequency(1, 1) <= 4);
+  }
+}
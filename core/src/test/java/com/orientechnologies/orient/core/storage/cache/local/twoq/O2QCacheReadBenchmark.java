@@ -0,0 +1,147 @@
+package com.orientechnologies.orient.core.storage.cache.local.twoq;
+
+import com.orientechnologies.common.collection.closabledictionary.OClosableLinkedContainer;
+import com.orientechnologies.common.directmemory.OByteBufferPool;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OContextConfiguration;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.storage.OChecksumMode;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.cache.local.OWOWCache;
+import com.orientechnologies.orient.core.storage.fs.OFileClassic;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.OLocalPaginatedStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares throughput of concurrent page reads of {@link O2QCache} when hits are recorded in striped read buffers and when each
+ * hit updates LRU queue directly. Cache which contains the whole working set measures overhead of hits, cache which is smaller
+ * than working set measures eviction under concurrent reads.
+ */
+public class O2QCacheReadBenchmark {
+  private static final int PAGE_SIZE = 4 * 1024;
+  private static final int PAGES     = 16 * 1024;
+  private static final int THREADS   = 8;
+  private static final int SECONDS   = 30;
+
+  private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+  public void benchmark() throws Exception {
+    OGlobalConfiguration.FILE_LOCK.setValue(Boolean.FALSE);
+
+    String buildDirectory = System.getProperty("buildDirectory");
+    if (buildDirectory == null)
+      buildDirectory = ".";
+
+    final OLocalPaginatedStorage storage = (OLocalPaginatedStorage) Orient.instance().getRunningEngine("plocal")
+        .createStorage(buildDirectory + "/O2QCacheReadBenchmark", null);
+    storage.create(new OContextConfiguration());
+    storage.close(true, false);
+
+    final OClosableLinkedContainer<Long, OFileClassic> files = new OClosableLinkedContainer<>(1024);
+    final OWOWCache writeCache = new OWOWCache(PAGE_SIZE, new OByteBufferPool(PAGE_SIZE), null, -1, 2L * PAGES * PAGE_SIZE,
+        storage, false, files, 1, OChecksumMode.Off);
+    writeCache.loadRegisteredFiles();
+
+    try {
+      final long fileId = fillFile(writeCache);
+
+      System.out.println("Working set fits into the cache");
+      runReads(writeCache, fileId, 2L * PAGES * PAGE_SIZE, false);
+      runReads(writeCache, fileId, 2L * PAGES * PAGE_SIZE, true);
+
+      System.out.println("Cache contains quarter of working set");
+      runReads(writeCache, fileId, (long) PAGES / 4 * PAGE_SIZE, false);
+      runReads(writeCache, fileId, (long) PAGES / 4 * PAGE_SIZE, true);
+    } finally {
+      writeCache.delete();
+      storage.delete();
+      executorService.shutdown();
+    }
+  }
+
+  private long fillFile(OWOWCache writeCache) throws Exception {
+    final O2QCache readCache = new O2QCache(2L * PAGES * PAGE_SIZE, PAGE_SIZE, false, 50);
+    final long fileId = readCache.addFile("o2QCacheReadBenchmark.tst", writeCache);
+
+    for (int i = 0; i < PAGES; i++) {
+      final OCacheEntry cacheEntry = readCache.allocateNewPage(fileId, writeCache, false);
+      readCache.releaseFromWrite(cacheEntry, writeCache);
+    }
+
+    writeCache.flush();
+    readCache.clear();
+
+    return fileId;
+  }
+
+  private void runReads(OWOWCache writeCache, long fileId, long cacheSize, boolean useReadBuffers) throws Exception {
+    final O2QCache readCache = new O2QCache(cacheSize, PAGE_SIZE, false, 50, useReadBuffers);
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicLong operations = new AtomicLong();
+    final Stop stop = new Stop();
+
+    final List<Future<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++)
+      futures.add(executorService.submit(new Reader(readCache, writeCache, fileId, latch, stop, operations)));
+
+    latch.countDown();
+    Thread.sleep(SECONDS * 1000);
+    stop.stop = true;
+
+    for (Future<Void> future : futures)
+      future.get();
+
+    System.out.println((useReadBuffers ? "Striped read buffers" : "Direct LRU updates") + " : " + (operations.get() / SECONDS)
+        + " reads/s, am size " + readCache.getAm().size() + ", a1in size " + readCache.getA1in().size());
+
+    readCache.clear();
+  }
+
+  private static final class Stop {
+    private volatile boolean stop;
+  }
+
+  private static final class Reader implements Callable<Void> {
+    private final O2QCache       readCache;
+    private final OWOWCache      writeCache;
+    private final long           fileId;
+    private final CountDownLatch latch;
+    private final Stop           stop;
+    private final AtomicLong     operations;
+
+    private Reader(O2QCache readCache, OWOWCache writeCache, long fileId, CountDownLatch latch, Stop stop,
+        AtomicLong operations) {
+      this.readCache = readCache;
+      this.writeCache = writeCache;
+      this.fileId = fileId;
+      this.latch = latch;
+      this.stop = stop;
+      this.operations = operations;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      latch.await();
+
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      long counter = 0;
+
+      while (!stop.stop) {
+        //skewed access, half of reads hit 1/8 of pages
+        final int pageIndex = random.nextBoolean() ? random.nextInt(PAGES / 8) : random.nextInt(PAGES);
+
+        final OCacheEntry cacheEntry = readCache.loadForRead(fileId, pageIndex, false, writeCache, 1, false);
+        readCache.releaseFromRead(cacheEntry, writeCache);
+
+        counter++;
+      }
+
+      operations.addAndGet(counter);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package com.orientechnologies.orient.core.storage.cache.local.twoq;
+
+import com.orientechnologies.common.collection.closabledictionary.OClosableLinkedContainer;
+import com.orientechnologies.common.directmemory.OByteBufferPool;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OContextConfiguration;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.storage.OChecksumMode;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.cache.local.OWOWCache;
+import com.orientechnologies.orient.core.storage.fs.OFileClassic;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.OLocalPaginatedStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures scan resistance of {@link O2QCache} with and without TinyLFU admission filter. Several threads perform point lookups of
+ * the hot set of pages which fits into the cache, while another thread repeatedly scans the rest of the file which is much bigger
+ * than the cache, like two analytical queries which scan the same cluster. Benchmark prints hit ratio of point lookups and how many
+ * hot pages are kept in the Am queue.
+ */
+public class O2QCacheScanBenchmark {
+  private static final int PAGE_SIZE   = 4 * 1024;
+  private static final int PAGES       = 64 * 1024;
+  private static final int CACHE_PAGES = PAGES / 8;
+  private static final int HOT_PAGES   = CACHE_PAGES / 2;
+  private static final int SCAN_LAG    = CACHE_PAGES / 2;
+  private static final int THREADS     = 4;
+  private static final int SECONDS     = 30;
+
+  private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+  public void benchmark() throws Exception {
+    OGlobalConfiguration.FILE_LOCK.setValue(Boolean.FALSE);
+
+    String buildDirectory = System.getProperty("buildDirectory");
+    if (buildDirectory == null)
+      buildDirectory = ".";
+
+    final OLocalPaginatedStorage storage = (OLocalPaginatedStorage) Orient.instance().getRunningEngine("plocal")
+        .createStorage(buildDirectory + "/O2QCacheScanBenchmark", null);
+    storage.create(new OContextConfiguration());
+    storage.close(true, false);
+
+    final OClosableLinkedContainer<Long, OFileClassic> files = new OClosableLinkedContainer<>(1024);
+    final OWOWCache writeCache = new OWOWCache(PAGE_SIZE, new OByteBufferPool(PAGE_SIZE), null, -1, 2L * PAGES * PAGE_SIZE,
+        storage, false, files, 1, OChecksumMode.Off);
+    writeCache.loadRegisteredFiles();
+
+    try {
+      final long fileId = fillFile(writeCache);
+
+      System.out.println("Point lookups without scans");
+      runLookups(writeCache, fileId, false, false);
+      runLookups(writeCache, fileId, true, false);
+
+      System.out.println("Point lookups mixed with full scans");
+      runLookups(writeCache, fileId, false, true);
+      runLookups(writeCache, fileId, true, true);
+    } finally {
+      writeCache.delete();
+      storage.delete();
+      executorService.shutdown();
+    }
+  }
+
+  private long fillFile(OWOWCache writeCache) throws Exception {
+    final O2QCache readCache = new O2QCache(2L * PAGES * PAGE_SIZE, PAGE_SIZE, false, 50);
+    final long fileId = readCache.addFile("o2QCacheScanBenchmark.tst", writeCache);
+
+    for (int i = 0; i < PAGES; i++) {
+      final OCacheEntry cacheEntry = readCache.allocateNewPage(fileId, writeCache, false);
+      readCache.releaseFromWrite(cacheEntry, writeCache);
+    }
+
+    writeCache.flush();
+    readCache.clear();
+
+    return fileId;
+  }
+
+  private void runLookups(OWOWCache writeCache, long fileId, boolean useFrequencyAdmission, boolean runScans) throws Exception {
+    final O2QCache readCache = new O2QCache((long) CACHE_PAGES * PAGE_SIZE, PAGE_SIZE, false, 50, true, useFrequencyAdmission);
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicLong lookups = new AtomicLong();
+    final AtomicLong hits = new AtomicLong();
+    final AtomicLong scannedPages = new AtomicLong();
+    final Stop stop = new Stop();
+
+    // WARM UP THE HOT SET
+    for (int n = 0; n < 3; n++) {
+      for (int i = 0; i < HOT_PAGES; i++) {
+        final OCacheEntry cacheEntry = readCache.loadForRead(fileId, i, false, writeCache, 1, false);
+        readCache.releaseFromRead(cacheEntry, writeCache);
+      }
+    }
+
+    final List<Future<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++)
+      futures.add(executorService.submit(new Lookup(readCache, writeCache, fileId, latch, stop, lookups, hits)));
+
+    if (runScans)
+      futures.add(executorService.submit(new Scan(readCache, writeCache, fileId, latch, stop, scannedPages)));
+
+    latch.countDown();
+    Thread.sleep(SECONDS * 1000);
+    stop.stop = true;
+
+    for (Future<Void> future : futures)
+      future.get();
+
+    int hotPagesInAm = 0;
+    for (int i = 0; i < HOT_PAGES; i++) {
+      if (readCache.getAm().contains(fileId, i))
+        hotPagesInAm++;
+    }
+
+    System.out.println((useFrequencyAdmission ? "2Q with TinyLFU admission" : "2Q") + " : " + (lookups.get() / SECONDS)
+        + " lookups/s, hit ratio " + (100 * hits.get() / Math.max(1, lookups.get())) + "%, scanned " + (scannedPages.get()
+        / SECONDS) + " pages/s, hot pages in am " + hotPagesInAm + " of " + HOT_PAGES);
+
+    readCache.clear();
+  }
+
+  private static final class Stop {
+    private volatile boolean stop;
+  }
+
+  private static final class Lookup implements Callable<Void> {
+    private final O2QCache       readCache;
+    private final OWOWCache      writeCache;
+    private final long           fileId;
+    private final CountDownLatch latch;
+    private final Stop           stop;
+    private final AtomicLong     lookups;
+    private final AtomicLong     hits;
+
+    private Lookup(O2QCache readCache, OWOWCache writeCache, long fileId, CountDownLatch latch, Stop stop, AtomicLong lookups,
+        AtomicLong hits) {
+      this.readCache = readCache;
+      this.writeCache = writeCache;
+      this.fileId = fileId;
+      this.latch = latch;
+      this.stop = stop;
+      this.lookups = lookups;
+      this.hits = hits;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      latch.await();
+
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      long counter = 0;
+      long hitCounter = 0;
+
+      while (!stop.stop) {
+        final int pageIndex = random.nextInt(HOT_PAGES);
+
+        //approximate, page may be evicted between check and load
+        if (readCache.getAm().contains(fileId, pageIndex) || readCache.getA1in().contains(fileId, pageIndex))
+          hitCounter++;
+
+        final OCacheEntry cacheEntry = readCache.loadForRead(fileId, pageIndex, false, writeCache, 1, false);
+        readCache.releaseFromRead(cacheEntry, writeCache);
+
+        counter++;
+      }
+
+      lookups.addAndGet(counter);
+      hits.addAndGet(hitCounter);
+      return null;
+    }
+  }
+
+  private static final class Scan implements Callable<Void> {
+    private final O2QCache       readCache;
+    private final OWOWCache      writeCache;
+    private final long           fileId;
+    private final CountDownLatch latch;
+    private final Stop           stop;
+    private final AtomicLong     scannedPages;
+
+    private Scan(O2QCache readCache, OWOWCache writeCache, long fileId, CountDownLatch latch, Stop stop, AtomicLong scannedPages) {
+      this.readCache = readCache;
+      this.writeCache = writeCache;
+      this.fileId = fileId;
+      this.latch = latch;
+      this.stop = stop;
+      this.scannedPages = scannedPages;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      latch.await();
+
+      long counter = 0;
+      while (!stop.stop) {
+        //two reports scan the same cluster, the second one lags behind the first one, so the second read of every page hits
+        //a1out queue and plain 2Q promotes the page to am queue
+        for (int pageIndex = HOT_PAGES; pageIndex < PAGES + SCAN_LAG && !stop.stop; pageIndex++) {
+          if (pageIndex < PAGES)
+            read(pageIndex);
+
+          if (pageIndex - SCAN_LAG >= HOT_PAGES)
+            read(pageIndex - SCAN_LAG);
+
+          counter++;
+        }
+      }
+
+      scannedPages.addAndGet(counter);
+      return null;
+    }
+
+    private void read(int pageIndex) throws Exception {
+      final OCacheEntry cacheEntry = readCache.loadForRead(fileId, pageIndex, false, writeCache, 1, false);
+      readCache.releaseFromRead(cacheEntry, writeCache);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.orientechnologies.orient.core.storage.fs;
+
+import org.junit.*;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class OFileMMapTest {
+  private static final int PAGE_SIZE    = 1024;
+  private static final int SEGMENT_SIZE = 4 * PAGE_SIZE;
+
+  private File testDir;
+
+  @Before
+  public void before() {
+    String buildDirectory = System.getProperty("buildDirectory", ".");
+    testDir = new File(buildDirectory, "fileMMapTest");
+    if (!testDir.exists())
+      Assert.assertTrue(testDir.mkdirs());
+  }
+
+  @After
+  public void after() {
+    final File[] files = testDir.listFiles();
+    if (files != null) {
+      for (File file : files)
+        Assert.assertTrue(file.delete());
+    }
+
+    Assert.assertTrue(testDir.delete());
+  }
+
+  @Test
+  public void testMappedReads() throws Exception {
+    assertReadsAndWrites(new OFileMMap(testDir.toPath().resolve("mmap.tst"), SEGMENT_SIZE));
+  }
+
+  @Test
+  public void testDirectReads() throws Exception {
+    Assume.assumeTrue(OFileDirect.isSupported());
+
+    assertReadsAndWrites(new OFileDirect(testDir.toPath().resolve("direct.tst")));
+  }
+
+  private void assertReadsAndWrites(OFileClassic file) throws Exception {
+    final Random random = new Random();
+    final int pages = 3 * SEGMENT_SIZE / PAGE_SIZE + 2;
+
+    file.create();
+    try {
+      file.allocateSpace(pages * PAGE_SIZE);
+
+      final byte[][] content = new byte[pages][];
+      for (int i = 0; i < pages; i++) {
+        content[i] = new byte[PAGE_SIZE];
+        random.nextBytes(content[i]);
+
+        file.write(i * PAGE_SIZE, ByteBuffer.wrap(content[i]));
+      }
+
+      assertPages(file, content, pages);
+
+      //overwrite already read pages, new content has to be visible
+      for (int i = 0; i < pages; i += 2) {
+        random.nextBytes(content[i]);
+        file.write(i * PAGE_SIZE, ByteBuffer.wrap(content[i]));
+      }
+
+      assertPages(file, content, pages);
+
+      final ByteBuffer[] buffers = new ByteBuffer[3];
+      for (int i = 0; i < buffers.length; i++)
+        buffers[i] = ByteBuffer.allocate(PAGE_SIZE);
+
+      file.read(SEGMENT_SIZE - PAGE_SIZE, buffers, true);
+      for (int i = 0; i < buffers.length; i++)
+        Assert.assertArrayEquals(content[SEGMENT_SIZE / PAGE_SIZE - 1 + i], buffers[i].array());
+
+      file.shrink(SEGMENT_SIZE + PAGE_SIZE);
+      assertPages(file, content, SEGMENT_SIZE / PAGE_SIZE + 1);
+
+      final ByteBuffer outOfFile = ByteBuffer.allocate(PAGE_SIZE);
+      file.read(SEGMENT_SIZE + 2 * PAGE_SIZE, new ByteBuffer[] { outOfFile }, false);
+      Assert.assertArrayEquals(new byte[PAGE_SIZE], outOfFile.array());
+
+      file.close();
+      file.open();
+
+      assertPages(file, content, SEGMENT_SIZE / PAGE_SIZE + 1);
+    } finally {
+      file.delete();
+    }
+  }
+
+  private void assertPages(OFileClassic file, byte[][] content, int pages) throws Exception {
+    for (int i = pages - 1; i >= 0; i--) {
+      final ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+      file.read(i * PAGE_SIZE, buffer, true);
+
+      Assert.assertArrayEquals(content[i], buffer.array());
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.orientechnologies.orient.core.storage.impl.local;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures throughput of transactions which insert records of a single class from 1 to N writer threads, when records are stored
+ * into the clusters chosen by the class and when records of concurrent transactions are spread between the clusters of the class
+ * during commit, see {@link OGlobalConfiguration#TX_COMMIT_SPREAD_CLUSTERS}.
+ */
+public class OConcurrentInsertCommitBenchmark {
+  private static final int MAX_THREADS    = 2 * Runtime.getRuntime().availableProcessors();
+  private static final int RECORDS_PER_TX = 10;
+  private static final int SECONDS        = 20;
+
+  private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+  public void benchmark() throws Exception {
+    String buildDirectory = System.getProperty("buildDirectory");
+    if (buildDirectory == null)
+      buildDirectory = ".";
+
+    final boolean spreadClusters = OGlobalConfiguration.TX_COMMIT_SPREAD_CLUSTERS.getValueAsBoolean();
+    try {
+      for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+        OGlobalConfiguration.TX_COMMIT_SPREAD_CLUSTERS.setValue(false);
+        runInserts(buildDirectory, threads);
+
+        OGlobalConfiguration.TX_COMMIT_SPREAD_CLUSTERS.setValue(true);
+        runInserts(buildDirectory, threads);
+      }
+    } finally {
+      OGlobalConfiguration.TX_COMMIT_SPREAD_CLUSTERS.setValue(spreadClusters);
+      executorService.shutdown();
+    }
+  }
+
+  private void runInserts(String buildDirectory, int threads) throws Exception {
+    final String url = "plocal:" + buildDirectory + "/OConcurrentInsertCommitBenchmark";
+
+    final ODatabaseDocumentTx database = new ODatabaseDocumentTx(url);
+    if (database.exists()) {
+      database.open("admin", "admin");
+      database.drop();
+    }
+    database.create();
+
+    try {
+      final OClass itemClass = database.getMetadata().getSchema().createClass("Item");
+      itemClass.createProperty("value", OType.LONG);
+
+      final CountDownLatch latch = new CountDownLatch(1);
+      final AtomicLong transactions = new AtomicLong();
+      final Stop stop = new Stop();
+
+      final List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++)
+        futures.add(executorService.submit(new Writer(url, latch, stop, transactions)));
+
+      latch.countDown();
+      Thread.sleep(SECONDS * 1000);
+      stop.stop = true;
+
+      for (Future<Void> future : futures)
+        future.get();
+
+      System.out.println(
+          (OGlobalConfiguration.TX_COMMIT_SPREAD_CLUSTERS.getValueAsBoolean() ? "Spread clusters" : "Class clusters") + ", "
+              + threads + " writers, " + itemClass.getClusterIds().length + " clusters : " + (transactions.get() / SECONDS)
+              + " tx/s, " + (transactions.get() * RECORDS_PER_TX / SECONDS) + " records/s");
+    } finally {
+      database.activateOnCurrentThread();
+      database.drop();
+    }
+  }
+
+  private static final class Stop {
+    private volatile boolean stop;
+  }
+
+  private static final class Writer implements Callable<Void> {
+    private final String         url;
+    private final CountDownLatch latch;
+    private final Stop           stop;
+    private final AtomicLong     transactions;
+
+    private Writer(String url, CountDownLatch latch, Stop stop, AtomicLong transactions) {
+      this.url = url;
+      this.latch = latch;
+      this.stop = stop;
+      this.transactions = transactions;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      final ODatabaseDocumentTx database = new ODatabaseDocumentTx(url);
+      database.open("admin", "admin");
+      try {
+        latch.await();
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        long counter = 0;
+
+        while (!stop.stop) {
+          database.begin();
+          for (int i = 0; i < RECORDS_PER_TX; i++) {
+            final ODocument document = new ODocument("Item");
+            document.field("value", random.nextLong());
+            document.save();
+          }
+          database.commit();
+
+          counter++;
+        }
+
+        transactions.addAndGet(counter);
+      } finally {
+        database.close();
+      }
+
+      return null;
+    }
+  }
+}
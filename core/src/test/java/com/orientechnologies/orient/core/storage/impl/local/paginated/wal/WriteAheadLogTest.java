@@ -12,6 +12,9 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -2151,6 +2154,42 @@ public class WriteAheadLogTest {
     assertLogContent(writeAheadLog, writtenRecords.subList(0, 3));
   }
 
+  @Test
+  public void testFlushTillConcurrentCommits() throws Exception {
+    final int threads = 8;
+    final int commits = 50;
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          for (int n = 0; n < commits; n++) {
+            final OLogSequenceNumber lsn = writeAheadLog.log(new TestRecord(-1, SEGMENT_SIZE, 30, false, true));
+            writeAheadLog.flushTill(lsn);
+
+            Assert.assertTrue(writeAheadLog.getFlushedLsn().compareTo(lsn) >= 0);
+          }
+          return null;
+        }));
+      }
+
+      for (Future<Void> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    Assert.assertTrue(writeAheadLog.getGroupCommitCount() > 0);
+    Assert.assertTrue(writeAheadLog.getGroupCommitCount() <= threads * commits);
+    Assert.assertTrue(writeAheadLog.getGroupCommitSyncedCommits() >= writeAheadLog.getGroupCommitCount());
+    Assert.assertTrue(writeAheadLog.getGroupCommitBatchSize() >= 1);
+
+    final long groupCommits = writeAheadLog.getGroupCommitCount();
+    writeAheadLog.flushTill(writeAheadLog.end());
+    Assert.assertEquals(groupCommits, writeAheadLog.getGroupCommitCount());
+  }
+
   @Test
   public void testTruncateFirstSegment() throws IOException {
     writeAheadLog.close();
@@ -239,6 +239,9 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
       server.close();
     remoteServers.clear();
 
+    // RELEASE THE DATABASES WHICH ARE STREAMED TO OTHER NODES
+    ODistributedStreamedBackup.abortAll();
+
     if (publishLocalNodeConfigurationTask != null)
       publishLocalNodeConfigurationTask.cancel();
 
@@ -1401,6 +1404,12 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
       final ODistributedDatabaseImpl distrDatabase, final String iNode, final ODistributedDatabaseChunk firstChunk,
       final boolean delta, final File uniqueClustersBackupDirectory, final OModifiableDistributedConfiguration cfg) {
 
+    if (ODistributedStreamedBackup.isStream(firstChunk.filePath)) {
+      installStreamedDatabaseFromNetwork(dbPath, databaseName, distrDatabase, iNode, firstChunk, delta,
+          uniqueClustersBackupDirectory, cfg);
+      return;
+    }
+
     final String fileName = Orient.getTempPath() + "install_" + databaseName + ".zip";
 
     final String localNodeName = nodeName;
@@ -1494,6 +1503,114 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
     final ODatabaseDocumentInternal db = installDatabaseOnLocalNode(databaseName, dbPath, iNode, fileName, delta,
         uniqueClustersBackupDirectory, cfg);
 
+    onDatabaseInstalled(db, databaseName, distrDatabase, iNode, cfg);
+  }
+
+  /**
+   * Installs a database which is streamed by the remote node. Chunks are requested in parallel and the database is restored while
+   * the next chunks are received, nothing is stored in temporary files.
+   */
+  protected void installStreamedDatabaseFromNetwork(final String dbPath, final String databaseName,
+      final ODistributedDatabaseImpl distrDatabase, final String iNode, final ODistributedDatabaseChunk firstChunk,
+      final boolean delta, final File uniqueClustersBackupDirectory, final OModifiableDistributedConfiguration cfg) {
+
+    ODistributedServerLog.info(this, nodeName, iNode, DIRECTION.IN, "Streaming remote database '%s' from: %s", databaseName,
+        firstChunk.filePath);
+
+    final int parallelChunks = Math.max(1, OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_TASK_PARALLEL_CHUNKS.getValueAsInteger());
+    final ODistributedChunkInputStream in = new ODistributedChunkInputStream(parallelChunks);
+
+    final Thread t = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        Thread.currentThread().setName("OrientDB installDatabase node=" + nodeName + " db=" + databaseName);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelChunks);
+        try {
+          final long chunkSize = firstChunk.buffer.length;
+          long fileSize = firstChunk.buffer.length;
+          writeDatabaseChunk(1, firstChunk, null);
+
+          if (in.add(firstChunk.buffer) && !firstChunk.last) {
+            // KEEP THE NEXT CHUNKS IN FLIGHT WHILE THE CURRENT ONE IS WRITTEN TO THE DATABASE
+            final Deque<Future<ODistributedDatabaseChunk>> requests = new ArrayDeque<Future<ODistributedDatabaseChunk>>();
+            int nextChunkNum = 2;
+
+            for (int chunkNum = 2; ; chunkNum++) {
+              while (requests.size() < parallelChunks) {
+                requests.add(executor.submit(
+                    requestStreamedChunk(databaseName, iNode, firstChunk.filePath, nextChunkNum,
+                        firstChunk.offset + (nextChunkNum - 1) * chunkSize)));
+                nextChunkNum++;
+              }
+
+              final ODistributedDatabaseChunk chunk = requests.poll().get();
+              if (chunk.offset != firstChunk.offset + (chunkNum - 1) * chunkSize || (!chunk.last && chunk.buffer.length != chunkSize))
+                throw new ODistributedException(
+                    "Received unexpected chunk #" + chunkNum + " of database '" + databaseName + "': " + chunk);
+
+              fileSize += writeDatabaseChunk(chunkNum, chunk, null);
+              if (!in.add(chunk.buffer) || chunk.last)
+                break;
+            }
+
+            for (Future<ODistributedDatabaseChunk> request : requests)
+              request.cancel(false);
+          }
+
+          in.complete();
+
+          ODistributedServerLog.info(this, nodeName, null, DIRECTION.NONE, "Database streamed correctly, size=%s",
+              OFileUtils.getSizeAsString(fileSize));
+
+        } catch (Throwable e) {
+          ODistributedServerLog
+              .error(this, nodeName, iNode, DIRECTION.IN, "Error on streaming database '%s' from '%s'", e, databaseName,
+                  firstChunk.filePath);
+          in.fail(e);
+        } finally {
+          executor.shutdownNow();
+        }
+      }
+    });
+    t.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+    t.start();
+
+    final ODatabaseDocumentInternal db = installDatabaseOnLocalNode(databaseName, dbPath, iNode, in, delta,
+        uniqueClustersBackupDirectory, cfg);
+
+    onDatabaseInstalled(db, databaseName, distrDatabase, iNode, cfg);
+  }
+
+  private Callable<ODistributedDatabaseChunk> requestStreamedChunk(final String databaseName, final String iNode,
+      final String streamName, final int chunkNum, final long offset) {
+    return new Callable<ODistributedDatabaseChunk>() {
+      @Override
+      public ODistributedDatabaseChunk call() throws Exception {
+        final ODistributedResponse response = sendRequest(databaseName, null, OMultiValue.getSingletonList(iNode),
+            new OCopyDatabaseChunkTask(streamName, chunkNum, offset, false), getNextMessageIdCounter(),
+            ODistributedRequest.EXECUTION_MODE.RESPONSE, null, null, null);
+
+        final Object result = response.getPayload();
+        if (result instanceof ODistributedDatabaseChunk)
+          return (ODistributedDatabaseChunk) result;
+
+        if (result instanceof Throwable)
+          throw OException.wrapException(
+              new ODistributedException("Error on receiving chunk #" + chunkNum + " of database '" + databaseName + "'"),
+              (Throwable) result);
+
+        // STREAMED CHUNKS ARE SENT ONLY ONCE, SO THEY CANNOT BE REQUESTED AGAIN
+        throw new ODistributedException(
+            "Cannot receive chunk #" + chunkNum + " of database '" + databaseName + "', received: " + result);
+      }
+    };
+  }
+
+  private void onDatabaseInstalled(final ODatabaseDocumentInternal db, final String databaseName,
+      final ODistributedDatabaseImpl distrDatabase, final String iNode, final OModifiableDistributedConfiguration cfg) {
+    final String localNodeName = nodeName;
+
     if (db != null) {
       // OVERWRITE THE MOMENTUM FROM THE ORIGINAL SERVER AND ADD LAST LOCAL LSN
       try {
@@ -1814,7 +1931,8 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
     ODistributedServerLog
         .info(this, nodeName, null, DIRECTION.NONE, "- writing chunk #%d offset=%d size=%s", iChunkId, chunk.offset,
             OFileUtils.getSizeAsString(chunk.buffer.length));
-    out.write(chunk.buffer);
+    if (out != null)
+      out.write(chunk.buffer);
 
     return chunk.buffer.length;
   }
@@ -1822,14 +1940,10 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
   protected ODatabaseDocumentInternal installDatabaseOnLocalNode(final String databaseName, final String dbPath, final String iNode,
       final String iDatabaseCompressedFile, final boolean delta, final File uniqueClustersBackupDirectory,
       final OModifiableDistributedConfiguration cfg) {
-    ODistributedServerLog.info(this, nodeName, iNode, DIRECTION.IN, "Installing database '%s' to: %s...", databaseName, dbPath);
-
     try {
       final File f = new File(iDatabaseCompressedFile);
       final File fCompleted = new File(iDatabaseCompressedFile + ".completed");
 
-      new File(dbPath).mkdirs();
-
       // USES A CUSTOM WRAPPER OF IS TO WAIT FOR FILE IS WRITTEN (ASYNCH)
       final FileInputStream in = new FileInputStream(f) {
         @Override
@@ -1884,6 +1998,23 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
         }
       };
 
+      return installDatabaseOnLocalNode(databaseName, dbPath, iNode, in, delta, uniqueClustersBackupDirectory, cfg);
+
+    } catch (IOException e) {
+      ODistributedServerLog
+          .warn(this, nodeName, null, DIRECTION.IN, "Error on copying database '%s' on local server", e, databaseName);
+    }
+    return null;
+  }
+
+  protected ODatabaseDocumentInternal installDatabaseOnLocalNode(final String databaseName, final String dbPath, final String iNode,
+      final InputStream in, final boolean delta, final File uniqueClustersBackupDirectory,
+      final OModifiableDistributedConfiguration cfg) {
+    ODistributedServerLog.info(this, nodeName, iNode, DIRECTION.IN, "Installing database '%s' to: %s...", databaseName, dbPath);
+
+    try {
+      new File(dbPath).mkdirs();
+
       try {
         final ODistributedAbstractPlugin me = this;
         executeInDistributedDatabaseLock(databaseName, 20000, cfg, new OCallable<Void, OModifiableDistributedConfiguration>() {
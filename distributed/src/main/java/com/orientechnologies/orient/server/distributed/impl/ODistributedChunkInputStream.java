@@ -0,0 +1,140 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.server.distributed.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input stream of the database which is received in chunks, is used to restore the database while the next chunks are received
+ * from the network. Chunks are passed by {@link #add(byte[])} in the order of their offsets, at most the given amount of chunks is
+ * kept in memory, {@link #add(byte[])} waits till the database reads the previous chunks.
+ */
+class ODistributedChunkInputStream extends InputStream {
+  private static final byte[] END = new byte[0];
+
+  private final BlockingQueue<byte[]> chunks;
+
+  private volatile boolean   closed;
+  private volatile Throwable error;
+
+  private byte[] current;
+  private int    position;
+
+  ODistributedChunkInputStream(final int maxChunks) {
+    chunks = new ArrayBlockingQueue<byte[]>(Math.max(1, maxChunks) + 1);
+  }
+
+  /**
+   * Adds the next chunk of the database.
+   *
+   * @return <code>false</code> if stream is closed and the rest of the database is not needed anymore
+   */
+  boolean add(final byte[] chunk) throws InterruptedException {
+    if (chunk.length == 0)
+      return !closed;
+
+    return offer(chunk);
+  }
+
+  /**
+   * Signals that all the chunks are added.
+   */
+  void complete() throws InterruptedException {
+    offer(END);
+  }
+
+  /**
+   * Signals that the rest of the database can not be received, the error is thrown on read of the rest of the database.
+   */
+  void fail(final Throwable error) {
+    this.error = error;
+    // THE REST OF THE DATABASE IS USELESS, MAKE ROOM FOR THE END MARKER
+    chunks.clear();
+    chunks.offer(END);
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!nextChunk())
+      return -1;
+
+    return current[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0)
+      return 0;
+
+    if (!nextChunk())
+      return -1;
+
+    final int read = Math.min(len, current.length - position);
+    System.arraycopy(current, position, b, off, read);
+    position += read;
+
+    return read;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return current != null && current != END ? current.length - position : 0;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    chunks.clear();
+  }
+
+  private boolean offer(final byte[] chunk) throws InterruptedException {
+    while (!closed) {
+      if (chunks.offer(chunk, 1, TimeUnit.SECONDS))
+        return true;
+    }
+    return false;
+  }
+
+  private boolean nextChunk() throws IOException {
+    while (current == null || (current != END && position == current.length)) {
+      try {
+        current = chunks.take();
+        position = 0;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Reading of database chunks was interrupted");
+      }
+    }
+
+    if (current == END) {
+      // KEEP THE END MARKER FOR THE NEXT READS
+      if (error != null)
+        throw new IOException("Error on receiving database chunks", error);
+      return false;
+    }
+
+    return true;
+  }
+}
@@ -36,6 +36,15 @@ public class ODistributedDatabaseChunk implements OStreamable {
   public ODistributedDatabaseChunk() {
   }
 
+  public ODistributedDatabaseChunk(final String filePath, final long offset, final byte[] buffer,
+      final ODistributedMomentum momentum, final boolean last) {
+    this.filePath = filePath;
+    this.offset = offset;
+    this.buffer = buffer;
+    this.momentum = momentum;
+    this.last = last;
+  }
+
   public ODistributedDatabaseChunk(final File iFile, final long iOffset, final int iMaxSize, final ODistributedMomentum momentum,
       final boolean gzipCompressed) throws IOException {
     filePath = iFile.getAbsolutePath();
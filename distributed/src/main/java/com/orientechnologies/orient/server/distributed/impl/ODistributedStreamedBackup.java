@@ -0,0 +1,279 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.server.distributed.impl;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.orient.server.distributed.ODistributedException;
+import com.orientechnologies.orient.server.distributed.ODistributedMomentum;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backup of the database which is streamed to the installing node without writing it to a temporary file. Backup is written to
+ * {@link #getOutputStream()} and is cut in chunks of the same size, chunks are kept in memory till they are requested by the
+ * installing node. If the amount of not requested chunks reaches the limit, backup waits till they are requested, so the memory
+ * used by the stream is bounded.
+ * <p>
+ * Stream is identified by the name which is used instead of the path of the backup file in {@link ODistributedDatabaseChunk},
+ * so the installing node requests the chunks of the stream as it requests the chunks of the backup file. Chunks are requested by
+ * their offsets, so several chunks can be requested in parallel.
+ */
+public class ODistributedStreamedBackup {
+  private static final String PREFIX = "stream://";
+
+  private static final ConcurrentMap<String, ODistributedStreamedBackup> STREAMS = new ConcurrentHashMap<String, ODistributedStreamedBackup>();
+
+  private final String name;
+  private final int    chunkSize;
+  private final int    maxPendingChunks;
+  private final long   timeout;
+
+  private final NavigableMap<Long, byte[]> chunks = new TreeMap<Long, byte[]>();
+  private long      writtenSize;
+  private boolean   completed;
+  private Throwable error;
+  private long      finishedAt;
+
+  private final OutputStream outputStream = new ChunkOutputStream();
+
+  private ODistributedStreamedBackup(final String name, final int chunkSize, final int maxPendingChunks, final long timeout) {
+    this.name = name;
+    this.chunkSize = chunkSize;
+    this.maxPendingChunks = Math.max(1, maxPendingChunks);
+    this.timeout = timeout;
+  }
+
+  /**
+   * Creates and registers the stream of the backup of the database.
+   *
+   * @param maxPendingChunks maximum amount of chunks which are kept in memory till they are requested
+   * @param timeout          maximum time (in ms) to wait for the next chunk or for the request of the next chunk
+   */
+  public static ODistributedStreamedBackup create(final String databaseName, final int chunkSize, final int maxPendingChunks,
+      final long timeout) {
+    removeFinished();
+
+    final String name = PREFIX + databaseName + "/" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+    final ODistributedStreamedBackup stream = new ODistributedStreamedBackup(name, chunkSize, maxPendingChunks, timeout);
+    STREAMS.put(name, stream);
+    return stream;
+  }
+
+  /**
+   * Streams which are completely read or aborted are kept for a while to answer the requests of chunks which are sent in parallel
+   * with the request of the last chunk.
+   */
+  private static void removeFinished() {
+    final long now = System.currentTimeMillis();
+    for (Map.Entry<String, ODistributedStreamedBackup> entry : STREAMS.entrySet()) {
+      final ODistributedStreamedBackup stream = entry.getValue();
+      synchronized (stream) {
+        if (stream.finishedAt > 0 && now - stream.finishedAt > stream.timeout)
+          STREAMS.remove(entry.getKey(), stream);
+      }
+    }
+  }
+
+  /**
+   * @return <code>true</code> if path of the chunk is the name of the stream and not the path of the backup file
+   */
+  public static boolean isStream(final String path) {
+    return path != null && path.startsWith(PREFIX);
+  }
+
+  /**
+   * @return registered stream with given name or <code>null</code> if stream was completely read or aborted long time ago
+   */
+  public static ODistributedStreamedBackup get(final String name) {
+    return STREAMS.get(name);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * @return stream where the backup is written to, closing of the stream marks the backup as completed
+   */
+  public OutputStream getOutputStream() {
+    return outputStream;
+  }
+
+  /**
+   * Marks backup as failed, installing node receives the error on request of the next chunk.
+   */
+  public synchronized void abort(final Throwable error) {
+    if (completed)
+      return;
+
+    this.error = error;
+    completed = true;
+    chunks.clear();
+    finishedAt = System.currentTimeMillis();
+
+    notifyAll();
+  }
+
+  /**
+   * Returns the chunk of the backup which starts at given offset, waits till the chunk is written if needed. Returned chunk is
+   * removed from memory.
+   */
+  public synchronized ODistributedDatabaseChunk getChunk(final long offset, final ODistributedMomentum momentum)
+      throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeout;
+
+    byte[] buffer;
+    while ((buffer = chunks.remove(offset)) == null) {
+      if (error != null)
+        throw OException.wrapException(new ODistributedException("Error on streaming backup '" + name + "'"), error);
+
+      if (completed && offset >= writtenSize) {
+        // NOTHING MORE TO READ
+        buffer = new byte[0];
+        break;
+      }
+
+      final long wait = deadline - System.currentTimeMillis();
+      if (wait <= 0)
+        throw new ODistributedException(
+            "Timeout on waiting for chunk of streaming backup '" + name + "' at offset " + offset + " (written=" + writtenSize + ")");
+
+      wait(wait);
+    }
+
+    notifyAll();
+
+    final boolean last = completed && offset + buffer.length >= writtenSize;
+    if (completed && chunks.isEmpty() && finishedAt == 0)
+      finishedAt = System.currentTimeMillis();
+
+    return new ODistributedDatabaseChunk(name, offset, buffer, momentum, last);
+  }
+
+  private synchronized void publish(final byte[] buffer, final boolean last) throws IOException {
+    final long deadline = System.currentTimeMillis() + timeout;
+
+    while (!completed && chunks.size() >= maxPendingChunks) {
+      final long wait = deadline - System.currentTimeMillis();
+      if (wait <= 0) {
+        final IOException exception = new IOException(
+            "Timeout on waiting for request of chunk of streaming backup '" + name + "', installing node does not respond");
+        abort(exception);
+        throw exception;
+      }
+
+      try {
+        wait(wait);
+      } catch (InterruptedException e) {
+        abort(e);
+        throw OException.wrapException(new ODistributedException("Streaming of backup '" + name + "' was interrupted"), e);
+      }
+    }
+
+    if (completed)
+      throw new IOException("Streaming of backup '" + name + "' is aborted", error);
+
+    if (buffer.length > 0)
+      chunks.put(writtenSize, buffer);
+    writtenSize += buffer.length;
+    completed = last;
+    if (completed && chunks.isEmpty())
+      finishedAt = System.currentTimeMillis();
+
+    notifyAll();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  /**
+   * Cuts the backup in chunks of the same size, the last chunk is published on close.
+   */
+  private final class ChunkOutputStream extends OutputStream {
+    private byte[] buffer = new byte[chunkSize];
+    private int    size;
+    private boolean closed;
+
+    @Override
+    public void write(final int b) throws IOException {
+      buffer[size++] = (byte) b;
+      if (size == buffer.length)
+        flushBuffer();
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        final int toCopy = Math.min(len, buffer.length - size);
+        System.arraycopy(b, off, buffer, size, toCopy);
+        size += toCopy;
+        off += toCopy;
+        len -= toCopy;
+
+        if (size == buffer.length)
+          flushBuffer();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed)
+        return;
+      closed = true;
+
+      final byte[] rest = new byte[size];
+      System.arraycopy(buffer, 0, rest, 0, size);
+      buffer = null;
+      size = 0;
+
+      publish(rest, true);
+    }
+
+    private void flushBuffer() throws IOException {
+      final byte[] full = buffer;
+      buffer = new byte[chunkSize];
+      size = 0;
+
+      publish(full, false);
+    }
+  }
+
+  /**
+   * Aborts all the streams, is called on shutdown of the node.
+   */
+  public static void abortAll() {
+    for (ODistributedStreamedBackup stream : STREAMS.values())
+      stream.abort(new ODistributedException("Node is shutting down"));
+    STREAMS.clear();
+  }
+}
@@ -39,7 +39,7 @@ import com.orientechnologies.orient.server.distributed.ODistributedServerLog.DIR
 import com.orientechnologies.orient.server.distributed.task.ODistributedDatabaseDeltaSyncException;
 
 import java.io.DataInputStream;
-import java.io.FileInputStream;
+import java.io.InputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -68,7 +68,7 @@ public class OIncrementalServerSync {
    * <li>Binary presentation of the record, only if record is not deleted - length of content is provided in above entity</li>
    * </ol>
    */
-  public void importDelta(final OServer serverInstance, final String databaseName, final FileInputStream in,
+  public void importDelta(final OServer serverInstance, final String databaseName, final InputStream in,
       final String iNode) throws IOException {
     final String nodeName = serverInstance.getDistributedManager().getLocalNodeName();
 
@@ -33,6 +33,7 @@ import com.orientechnologies.orient.server.distributed.*;
 import com.orientechnologies.orient.server.distributed.ODistributedServerLog.DIRECTION;
 import com.orientechnologies.orient.server.distributed.impl.ODistributedDatabaseChunk;
 import com.orientechnologies.orient.server.distributed.impl.ODistributedStorage;
+import com.orientechnologies.orient.server.distributed.impl.ODistributedStreamedBackup;
 
 import java.io.*;
 import java.util.concurrent.Callable;
@@ -86,7 +87,54 @@ public class OSyncDatabaseTask extends OAbstractSyncDatabaseTask {
 
         File backupFile = ((ODistributedStorage) database.getStorage()).getLastValidBackup();
 
-        if (backupFile == null || !backupFile.exists()) {
+        if ((backupFile == null || !backupFile.exists()) && OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_TASK_STREAMING
+            .getValueAsBoolean()) {
+          // STREAM THE BACKUP TO THE INSTALLING NODE WITHOUT STORING IT ON DISK
+          final ODistributedStreamedBackup stream = ODistributedStreamedBackup
+              .create(databaseName, CHUNK_MAX_SIZE, OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_TASK_PARALLEL_CHUNKS.getValueAsInteger(),
+                  OGlobalConfiguration.DISTRIBUTED_DEPLOYCHUNK_TASK_SYNCH_TIMEOUT.getValueAsLong());
+
+          ODistributedServerLog.info(this, iManager.getLocalNodeName(), getNodeSource(), DIRECTION.OUT,
+              "Streaming backup of database '%s' (compressionRate=%d) as %s...", databaseName,
+              OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_TASK_COMPRESSION.getValueAsInteger(), stream);
+
+          Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+              Thread.currentThread().setName("OrientDB SyncDatabase node=" + iManager.getLocalNodeName() + " db=" + databaseName);
+
+              try {
+                backupDatabase(requestId, iManager, database, dDatabase, momentum, stream.getOutputStream());
+                stream.getOutputStream().close();
+              } catch (Throwable e) {
+                OLogManager.instance().error(this, "Cannot execute backup of database '%s' for deploy database", e, databaseName);
+                stream.abort(e);
+              }
+            }
+          });
+          t.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+          t.start();
+
+          try {
+            waitForMomentum(momentum, databaseName);
+          } catch (ODistributedException e) {
+            stream.abort(e);
+            throw e;
+          }
+
+          final ODistributedDatabaseChunk chunk = stream.getChunk(0, momentum.get());
+
+          ODistributedServerLog.info(this, iManager.getLocalNodeName(), getNodeSource(), ODistributedServerLog.DIRECTION.OUT,
+              "- transferring chunk #%d offset=%d size=%s lsn=%s...", 1, 0, OFileUtils.getSizeAsNumber(chunk.buffer.length),
+              momentum.get());
+
+          if (chunk.last)
+            // NO MORE CHUNKS: SET THE NODE ONLINE (SYNCHRONIZING ENDED)
+            iManager.setDatabaseStatus(iManager.getLocalNodeName(), databaseName, ODistributedServerManager.DB_STATUS.ONLINE);
+
+          return chunk;
+
+        } else if (backupFile == null || !backupFile.exists()) {
           // CREATE A BACKUP OF DATABASE FROM SCRATCH
           backupFile = new File(Orient.getTempPath() + "/backup_" + database.getName() + ".zip");
 
@@ -114,31 +162,7 @@ public class OSyncDatabaseTask extends OAbstractSyncDatabaseTask {
               Thread.currentThread().setName("OrientDB SyncDatabase node=" + iManager.getLocalNodeName() + " db=" + databaseName);
 
               try {
-                database.activateOnCurrentThread();
-
-                ODistributedServerLog.info(this, iManager.getLocalNodeName(), getNodeSource(), DIRECTION.OUT,
-                    "Compressing database '%s' %d clusters %s...", databaseName, database.getClusterNames().size(),
-                    database.getClusterNames());
-
-                database.backup(fileOutputStream, null, new Callable<Object>() {
-                  @Override
-                  public Object call() throws Exception {
-                    momentum.set(dDatabase.getSyncConfiguration().getMomentum().copy());
-                    return null;
-                  }
-                }, ODistributedServerLog.isDebugEnabled() ? new OCommandOutputListener() {
-                  @Override
-                  public void onMessage(String iText) {
-                    if (iText.startsWith("\n"))
-                      iText = iText.substring(1);
-
-                    OLogManager.instance().debug(this, iText);
-                  }
-                } : null, OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_TASK_COMPRESSION.getValueAsInteger(), CHUNK_MAX_SIZE);
-
-                ODistributedServerLog.info(this, iManager.getLocalNodeName(), getNodeSource(), DIRECTION.OUT,
-                    "Backup of database '%s' completed. lastOperationId=%s...", databaseName, requestId);
-
+                backupDatabase(requestId, iManager, database, dDatabase, momentum, fileOutputStream);
               } catch (Throwable e) {
                 OLogManager.instance().error(this, "Cannot execute backup of database '%s' for deploy database", e, databaseName);
               } finally {
@@ -167,8 +191,7 @@ public class OSyncDatabaseTask extends OAbstractSyncDatabaseTask {
               "Reusing last backup of database '%s' in directory: %s...", databaseName, backupFile.getAbsolutePath());
         }
 
-        for (int retry = 0; momentum.get() == null && retry < 10; ++retry)
-          Thread.sleep(300);
+        waitForMomentum(momentum, databaseName);
 
         final ODistributedDatabaseChunk chunk = new ODistributedDatabaseChunk(backupFile, 0, CHUNK_MAX_SIZE, momentum.get(), false);
 
@@ -197,6 +220,48 @@ public class OSyncDatabaseTask extends OAbstractSyncDatabaseTask {
     return Boolean.FALSE;
   }
 
+  /**
+   * Waits for the backup thread to set the LSN of the backup, the installing node needs it to align the database afterwards.
+   */
+  private static void waitForMomentum(final AtomicReference<ODistributedMomentum> momentum, final String databaseName)
+      throws InterruptedException {
+    for (int retry = 0; momentum.get() == null && retry < 10; ++retry)
+      Thread.sleep(300);
+
+    if (momentum.get() == null)
+      throw new ODistributedException(
+          "Cannot deploy database '" + databaseName + "' because the backup has not started in time, the LSN of the backup is unknown");
+  }
+
+  private void backupDatabase(final ODistributedRequestId requestId, final ODistributedServerManager iManager,
+      final ODatabaseDocumentInternal database, final ODistributedDatabase dDatabase,
+      final AtomicReference<ODistributedMomentum> momentum, final OutputStream out) throws IOException {
+    final String databaseName = database.getName();
+    database.activateOnCurrentThread();
+
+    ODistributedServerLog.info(this, iManager.getLocalNodeName(), getNodeSource(), DIRECTION.OUT,
+        "Compressing database '%s' %d clusters %s...", databaseName, database.getClusterNames().size(), database.getClusterNames());
+
+    database.backup(out, null, new Callable<Object>() {
+      @Override
+      public Object call() throws Exception {
+        momentum.set(dDatabase.getSyncConfiguration().getMomentum().copy());
+        return null;
+      }
+    }, ODistributedServerLog.isDebugEnabled() ? new OCommandOutputListener() {
+      @Override
+      public void onMessage(String iText) {
+        if (iText.startsWith("\n"))
+          iText = iText.substring(1);
+
+        OLogManager.instance().debug(this, iText);
+      }
+    } : null, OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_TASK_COMPRESSION.getValueAsInteger(), CHUNK_MAX_SIZE);
+
+    ODistributedServerLog.info(this, iManager.getLocalNodeName(), getNodeSource(), DIRECTION.OUT,
+        "Backup of database '%s' completed. lastOperationId=%s...", databaseName, requestId);
+  }
+
   @Override
   public String getName() {
     return "deploy_db";
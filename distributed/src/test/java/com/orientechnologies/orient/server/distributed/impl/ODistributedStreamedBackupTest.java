@@ -0,0 +1,108 @@
+package com.orientechnologies.orient.server.distributed.impl;
+
+import com.orientechnologies.orient.server.distributed.ODistributedException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ODistributedStreamedBackupTest {
+  private static final int CHUNK_SIZE = 1024;
+
+  @Test
+  public void testChunksAreRequestedInParallel() throws Exception {
+    final byte[] data = new byte[10 * CHUNK_SIZE + 17];
+    new Random(42).nextBytes(data);
+
+    final ODistributedStreamedBackup stream = ODistributedStreamedBackup.create("test", CHUNK_SIZE, 2, 10000);
+    Assert.assertTrue(ODistributedStreamedBackup.isStream(stream.getName()));
+    Assert.assertSame(stream, ODistributedStreamedBackup.get(stream.getName()));
+
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    try {
+      final Future<?> writer = executor.submit(() -> {
+        final OutputStream out = stream.getOutputStream();
+        for (int i = 0; i < data.length; i += 100)
+          out.write(data, i, Math.min(100, data.length - i));
+        out.close();
+        return null;
+      });
+
+      final ODistributedChunkInputStream in = new ODistributedChunkInputStream(2);
+      final List<Future<ODistributedDatabaseChunk>> requests = new ArrayList<Future<ODistributedDatabaseChunk>>();
+      for (int i = 0; i < 12; i++) {
+        final long offset = (long) i * CHUNK_SIZE;
+        requests.add(executor.submit(() -> stream.getChunk(offset, null)));
+      }
+
+      final Future<byte[]> reader = executor.submit(() -> {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[333];
+        int read;
+        while ((read = in.read(buffer)) > -1)
+          out.write(buffer, 0, read);
+        return out.toByteArray();
+      });
+
+      boolean last = false;
+      for (Future<ODistributedDatabaseChunk> request : requests) {
+        final ODistributedDatabaseChunk chunk = request.get();
+        if (last) {
+          // REQUESTED AFTER THE END OF THE STREAM
+          Assert.assertEquals(0, chunk.buffer.length);
+          continue;
+        }
+
+        Assert.assertEquals(stream.getName(), chunk.filePath);
+        in.add(chunk.buffer);
+        last = chunk.last;
+      }
+      in.complete();
+
+      writer.get();
+      Assert.assertTrue(last);
+      Assert.assertArrayEquals(data, reader.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testAbortedStreamFailsReader() throws Exception {
+    final ODistributedStreamedBackup stream = ODistributedStreamedBackup.create("test", CHUNK_SIZE, 1, 10000);
+    stream.getOutputStream().write(new byte[CHUNK_SIZE]);
+    stream.abort(new IOException("backup failed"));
+
+    try {
+      stream.getChunk(0, null);
+      Assert.fail();
+    } catch (ODistributedException e) {
+      // EXPECTED
+    }
+
+    try {
+      stream.getOutputStream().write(new byte[CHUNK_SIZE]);
+      Assert.fail();
+    } catch (IOException e) {
+      // EXPECTED
+    }
+
+    final ODistributedChunkInputStream in = new ODistributedChunkInputStream(1);
+    in.add(new byte[] { 1, 2, 3 });
+    in.fail(new IOException("chunk is lost"));
+    try {
+      in.read(new byte[3]);
+      Assert.fail();
+    } catch (IOException e) {
+      // EXPECTED
+    }
+  }
+}
@@ -26,8 +26,10 @@ import com.orientechnologies.orient.core.db.ODatabasePool;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.etl.context.OETLContextWrapper;
 import com.orientechnologies.orient.etl.loader.OETLLoader;
+import com.orientechnologies.orient.etl.transformer.OETLAbstractLookupTransformer;
 import com.orientechnologies.orient.etl.transformer.OETLTransformer;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 
@@ -82,6 +84,42 @@ public class OETLPipeline {
     return context;
   }
 
+  /**
+   * @return maximum number of extracted records whose lookups are resolved together by {@link #prefetch(List)}, values less than 2
+   * mean no batching
+   */
+  public int getLookupBatchSize() {
+    int batchSize = 0;
+    for (OETLTransformer t : transformers) {
+      if (t instanceof OETLAbstractLookupTransformer)
+        batchSize = Math.max(batchSize, ((OETLAbstractLookupTransformer) t).getLookupBatchSize());
+    }
+    return batchSize;
+  }
+
+  /**
+   * Resolves the lookups of the extracted records together before the records are executed one by one.
+   */
+  protected void prefetch(final List<OETLExtractedItem> items) {
+    final List<Object> payloads = new ArrayList<Object>(items.size());
+    for (OETLExtractedItem item : items)
+      payloads.add(item.payload);
+
+    ODatabaseDocument db = pool.acquire();
+    db.activateOnCurrentThread();
+    try {
+      for (OETLTransformer t : transformers) {
+        if (t instanceof OETLAbstractLookupTransformer)
+          ((OETLAbstractLookupTransformer) t).prefetch(db, payloads);
+      }
+    } catch (Exception e) {
+      // LOOKUPS ARE EXECUTED ONE BY ONE
+      OETLContextWrapper.getInstance().getMessageHandler().warn(this, "Error on resolving batch of lookups: %s", e);
+    } finally {
+      db.close();
+    }
+  }
+
   protected Object execute(final OETLExtractedItem source) {
     int retry = 0;
     do {
@@ -18,6 +18,9 @@
 
 package com.orientechnologies.orient.etl;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 /**
@@ -37,9 +40,42 @@ final class OETLPipelineWorker implements Runnable {
   @Override
   public void run() {
     try {
+      final int batchSize = pipeline.getLookupBatchSize();
+      final List<OETLExtractedItem> batch = new ArrayList<OETLExtractedItem>();
+
       OETLExtractedItem content;
       while (!(content = queue.take()).finished) {
-        pipeline.execute(content);
+        if (batchSize < 2) {
+          pipeline.execute(content);
+          continue;
+        }
+
+        // TAKE THE RECORDS WHICH ARE ALREADY EXTRACTED TO RESOLVE THEIR LOOKUPS TOGETHER
+        batch.clear();
+        batch.add(content);
+        queue.drainTo(batch, batchSize - 1);
+
+        OETLExtractedItem end = null;
+        for (Iterator<OETLExtractedItem> it = batch.iterator(); it.hasNext(); ) {
+          final OETLExtractedItem item = it.next();
+          if (item.finished) {
+            if (end == null)
+              end = item;
+            else
+              // LEAVE OTHER END FLAGS FOR OTHER THREADS
+              queue.put(item);
+            it.remove();
+          }
+        }
+
+        pipeline.prefetch(batch);
+        for (OETLExtractedItem item : batch)
+          pipeline.execute(item);
+
+        if (end != null) {
+          content = end;
+          break;
+        }
       }
       pipeline.end();
       //RE-ADD END FLAG FOR OTHER THREADS
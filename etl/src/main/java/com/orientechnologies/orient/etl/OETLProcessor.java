@@ -301,6 +301,15 @@ public class OETLProcessor {
           OIOUtils.getTimeAsString(now - startTime), stats.warnings.get(), stats.errors.get());
     }
 
+    final long lookups = stats.lookups.get();
+    if (lookups > 0) {
+      final long lookupBatches = stats.lookupBatches.get();
+      OETLContextWrapper.getInstance().getMessageHandler().info(this,
+          "+ lookups %,d (%3.2f%% from cache, %.3f ms/lookup) - batches %,d (%,d values, %.3f ms/batch)", lookups,
+          stats.lookupCacheHits.get() * 100f / lookups, stats.lookupTime.get() / 1000000d / lookups, lookupBatches,
+          stats.lookupBatchKeys.get(), lookupBatches > 0 ? stats.lookupBatchTime.get() / 1000000d / lookupBatches : 0d);
+    }
+
     stats.lastExtractorProgress = extractorProgress;
     stats.lastLoaderProgress = loaderProgress;
     stats.lastLap = now;
@@ -412,8 +421,41 @@ public class OETLProcessor {
       return warnings.incrementAndGet();
     }
 
+    public AtomicLong lookups               = new AtomicLong();
+    public AtomicLong lookupCacheHits       = new AtomicLong();
+    public AtomicLong lookupTime            = new AtomicLong();
+    public AtomicLong lookupBatches         = new AtomicLong();
+    public AtomicLong lookupBatchKeys       = new AtomicLong();
+    public AtomicLong lookupBatchTime       = new AtomicLong();
+
     public long incrementErrors() {
       return errors.incrementAndGet();
     }
+
+    /**
+     * Records a lookup of a transformer.
+     *
+     * @param cacheHit <code>true</code> if the lookup was resolved by the cache
+     * @param nanos    time of the lookup in nanoseconds
+     */
+    public void incrementLookups(final boolean cacheHit, final long nanos) {
+      lookups.incrementAndGet();
+      if (cacheHit)
+        lookupCacheHits.incrementAndGet();
+      lookupTime.addAndGet(nanos);
+    }
+
+    /**
+     * Records a lookup of a batch of join values by a transformer.
+     *
+     * @param keys  number of join values resolved by the batch
+     * @param nanos time of the lookup in nanoseconds
+     */
+    public void incrementLookupBatches(final int keys, final long nanos) {
+      lookupBatches.incrementAndGet();
+      lookupBatchKeys.addAndGet(keys);
+      lookupTime.addAndGet(nanos);
+      lookupBatchTime.addAndGet(nanos);
+    }
   }
 }
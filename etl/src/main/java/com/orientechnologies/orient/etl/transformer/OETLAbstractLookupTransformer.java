@@ -18,11 +18,13 @@
 
 package com.orientechnologies.orient.etl.transformer;
 
+import com.orientechnologies.common.collection.OMultiValue;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexCursor;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLQuery;
@@ -31,19 +33,36 @@ import com.orientechnologies.orient.etl.context.OETLContextWrapper;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
 
 /**
  * Merges two records. Useful when a record needs to be updated rather than created.
+ * <p>
+ * Results of the lookups can be kept in a bounded LRU cache ({@code lookupCacheSize}), which can be filled with the whole index
+ * at the start if it fits ({@code lookupPreload}). With {@code lookupBatchSize} the join values of a window of extracted records
+ * are resolved by a single multi-key index lookup before the records pass the pipeline, see {@link #prefetch(ODatabaseDocument,
+ * List)}.
+ * <p>
+ * Only lookups by a unique index are cached: a unique key is resolved to the same record for the whole run, while the records
+ * matching a non-unique key or a SQL lookup can be created by the run itself. Keys not found are never cached, so the records
+ * created by the run (eg. with {@code unresolvedLinkAction:'CREATE'}) are found by the following lookups.
  */
 public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransformer {
   protected String joinFieldName;
   protected Object joinValue;
   protected String lookup;
   protected ACTION unresolvedLinkAction = ACTION.NOTHING;
-  private OSQLQuery<ODocument> sqlQuery;
-  private OIndex<?>            index;
+  protected int     lookupCacheSize;
+  protected boolean lookupPreload;
+  protected int     lookupBatchSize;
+  private volatile OSQLQuery<ODocument> sqlQuery;
+  private volatile OIndex<?>            index;
+  private OETLLookupCache               cache;
 
   @Override
   public void configure(final ODocument iConfiguration, OCommandContext iContext) {
@@ -59,38 +78,118 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
 
     if (iConfiguration.containsField("unresolvedLinkAction"))
       unresolvedLinkAction = ACTION.valueOf(iConfiguration.field("unresolvedLinkAction").toString().toUpperCase(Locale.ENGLISH));
+
+    if (iConfiguration.containsField("lookupCacheSize"))
+      lookupCacheSize = ((Number) iConfiguration.field("lookupCacheSize")).intValue();
+
+    if (iConfiguration.containsField("lookupPreload"))
+      lookupPreload = Boolean.TRUE.equals(iConfiguration.field("lookupPreload"));
+
+    if (iConfiguration.containsField("lookupBatchSize"))
+      lookupBatchSize = ((Number) iConfiguration.field("lookupBatchSize")).intValue();
+
+    if (lookupCacheSize > 0 || lookupBatchSize > 1)
+      // PREFETCHED RESULTS ARE KEPT IN THE CACHE TILL THEIR RECORDS PASS THE PIPELINE
+      cache = new OETLLookupCache(Math.max(lookupCacheSize, 4 * lookupBatchSize));
+  }
+
+  protected String getLookupConfigurationParameters() {
+    return "{lookupCacheSize:{optional:true,description:'Maximum number of results of lookups by a unique index kept in the cache. Default is 0 (no cache)'}},"
+        + "{lookupPreload:{optional:true,description:'Loads the whole lookup index in the cache at the start if it is unique and fits',default:false}},"
+        + "{lookupBatchSize:{optional:true,description:'Number of extracted records whose join values are resolved by a single index lookup. Default is 0 (no batching)'}}";
+  }
+
+  /**
+   * @return number of extracted records whose join values are resolved together, values less than 2 mean no batching
+   */
+  public int getLookupBatchSize() {
+    return joinFieldName != null ? lookupBatchSize : 0;
+  }
+
+  /**
+   * Resolves the join values of the extracted records by a single multi-key index lookup and keeps found records in the cache,
+   * so the lookups of the records when they pass the pipeline are served by the cache. Join values are read from the field
+   * {@link #joinFieldName} of extracted records, records which do not contain it are resolved one by one as usual.
+   */
+  public void prefetch(final ODatabaseDocument db, final List<Object> extracted) {
+    if (getLookupBatchSize() < 2 || cache == null)
+      return;
+
+    init(db);
+    if (!isCacheable())
+      return;
+
+    final OType idxFieldType = index.getDefinition().getTypes()[0];
+    final Set<Object> keys = new LinkedHashSet<Object>();
+    for (Object o : extracted) {
+      if (!(o instanceof OIdentifiable))
+        continue;
+
+      final Object record = ((OIdentifiable) o).getRecord();
+      if (!(record instanceof ODocument))
+        continue;
+
+      final Object value = ((ODocument) record).field(joinFieldName);
+      if (value == null)
+        continue;
+
+      for (Object v : OMultiValue.isMultiValue(value) ? OMultiValue.getMultiValueIterable(value) : OMultiValue.getSingletonList(value)) {
+        final Object key = v != null ? OType.convert(v, idxFieldType.getDefaultJavaType()) : null;
+        if (key != null && !cache.contains(key))
+          keys.add(key);
+      }
+    }
+
+    if (keys.isEmpty())
+      return;
+
+    final long start = System.nanoTime();
+
+    final OIndexCursor cursor = index.iterateEntries(keys, true);
+    Map.Entry<Object, OIdentifiable> entry;
+    while ((entry = cursor.nextEntry()) != null)
+      cache.put(entry.getKey(), entry.getValue().getIdentity());
+
+    if (processor != null)
+      processor.getStats().incrementLookupBatches(keys.size(), System.nanoTime() - start);
+
+    log(Level.FINE, "prefetched %d join values in %d ms", keys.size(), (System.nanoTime() - start) / 1000000);
   }
 
   protected Object lookup(ODatabaseDocument db, Object joinValue, final boolean iReturnRIDS) {
     Object result = null;
 
     if (joinValue != null) {
-      if (sqlQuery == null && index == null) {
-        // ONLY THE FIRST TIME
-        if (lookup.toUpperCase(Locale.ENGLISH).startsWith("SELECT"))
-          sqlQuery = new OSQLSynchQuery<ODocument>(lookup);
-        else {
-          index = db.getMetadata().getIndexManager().getIndex(lookup);
-          if (index == null) {
-            OETLContextWrapper
-                .getInstance().getMessageHandler().warn(this, "WARNING: index %s not found. Lookups could be really slow", lookup);
-            final String[] parts = lookup.split("\\.");
-            sqlQuery = new OSQLSynchQuery<ODocument>("SELECT FROM " + parts[0] + " WHERE " + parts[1] + " = ?");
-          }
-        }
-      }
+      init(db);
 
+      final long start = System.nanoTime();
       if (index != null) {
         final OType idxFieldType = index.getDefinition().getTypes()[0];
         joinValue = OType.convert(joinValue, idxFieldType.getDefaultJavaType());
-        result = index.get(joinValue);
+      }
+
+      final boolean cacheable = isCacheable();
+      final Object cached = cacheable ? cache.get(joinValue) : null;
+      if (cached != null) {
+        result = cached;
       } else {
-        if (sqlQuery instanceof OSQLSynchQuery)
-          ((OSQLSynchQuery) sqlQuery).resetPagination();
+        if (index != null) {
+          result = index.get(joinValue);
+        } else {
+          if (sqlQuery instanceof OSQLSynchQuery)
+            ((OSQLSynchQuery) sqlQuery).resetPagination();
+
+          result = db.query(sqlQuery, joinValue);
+        }
 
-        result = db.query(sqlQuery, joinValue);
+        if (cacheable && result instanceof OIdentifiable)
+          // CACHE CONTAINS ONLY RIDS
+          cache.put(joinValue, ((OIdentifiable) result).getIdentity());
       }
 
+      if (processor != null)
+        processor.getStats().incrementLookups(cached != null, System.nanoTime() - start);
+
       if (result != null && result instanceof Collection) {
         final Collection coll = (Collection) result;
 
@@ -117,6 +216,67 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
     return result;
   }
 
+  private void init(final ODatabaseDocument db) {
+    if (sqlQuery != null || index != null)
+      return;
+
+    synchronized (this) {
+      // ONLY THE FIRST TIME
+      if (sqlQuery != null || index != null)
+        return;
+
+      if (lookup.toUpperCase(Locale.ENGLISH).startsWith("SELECT"))
+        sqlQuery = new OSQLSynchQuery<ODocument>(lookup);
+      else {
+        final OIndex<?> lookupIndex = db.getMetadata().getIndexManager().getIndex(lookup);
+        if (lookupIndex == null) {
+          OETLContextWrapper
+              .getInstance().getMessageHandler().warn(this, "WARNING: index %s not found. Lookups could be really slow", lookup);
+          final String[] parts = lookup.split("\\.");
+          sqlQuery = new OSQLSynchQuery<ODocument>("SELECT FROM " + parts[0] + " WHERE " + parts[1] + " = ?");
+        } else {
+          if (cache != null && !lookupIndex.isUnique())
+            OETLContextWrapper.getInstance().getMessageHandler()
+                .warn(this, "Lookups are not cached because index %s is not unique", lookup);
+          else if (lookupPreload && cache != null)
+            preload(lookupIndex);
+          index = lookupIndex;
+        }
+      }
+
+      if (sqlQuery != null && cache != null)
+        OETLContextWrapper.getInstance().getMessageHandler()
+            .warn(this, "Lookups are not cached because '%s' is not resolved by a unique index", lookup);
+    }
+  }
+
+  /**
+   * @return true if results of the lookups can be kept in the cache, see the class description
+   */
+  private boolean isCacheable() {
+    return cache != null && index != null && index.isUnique();
+  }
+
+  /**
+   * Loads the whole index in the cache if it fits.
+   */
+  private void preload(final OIndex<?> index) {
+    final long size = index.getSize();
+    if (size > cache.getMaxSize()) {
+      OETLContextWrapper.getInstance().getMessageHandler()
+          .warn(this, "Index %s is not preloaded because it contains %d entries, but lookup cache size is %d", lookup, size,
+              cache.getMaxSize());
+      return;
+    }
+
+    final OIndexCursor cursor = index.cursor();
+    Map.Entry<Object, OIdentifiable> entry;
+    while ((entry = cursor.nextEntry()) != null)
+      cache.put(entry.getKey(), entry.getValue().getIdentity());
+
+    OETLContextWrapper.getInstance().getMessageHandler().info(this, "Preloaded %d entries of index %s", cache.size(), lookup);
+  }
+
   protected enum ACTION {
     NOTHING, WARNING, ERROR, HALT, SKIP, CREATE
   }
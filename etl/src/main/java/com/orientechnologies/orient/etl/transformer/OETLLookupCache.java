@@ -0,0 +1,61 @@
+/*
+ *
+ *  * Copyright 2010-2016 OrientDB LTD (info(-at-)orientdb.com)
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package com.orientechnologies.orient.etl.transformer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of the results of the lookups, keeps RIDs of the found records (single RID or list of RIDs) by join value.
+ * Only found records are cached, because records which are not found yet can be created by the same ETL process.
+ */
+final class OETLLookupCache {
+  private final int                 maxSize;
+  private final Map<Object, Object> entries;
+
+  OETLLookupCache(final int maxSize) {
+    this.maxSize = maxSize;
+    this.entries = new LinkedHashMap<Object, Object>(Math.min(maxSize, 1024), 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest) {
+        return size() > OETLLookupCache.this.maxSize;
+      }
+    };
+  }
+
+  synchronized Object get(final Object key) {
+    return entries.get(key);
+  }
+
+  synchronized void put(final Object key, final Object value) {
+    entries.put(key, value);
+  }
+
+  synchronized boolean contains(final Object key) {
+    return entries.containsKey(key);
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  int getMaxSize() {
+    return maxSize;
+  }
+}
@@ -220,6 +220,35 @@ public class OETLEdgeTransformerTest extends OETLBaseTest {
     assertEquals(1, db.countClass("Friend"));
   }
 
+  @Test
+  public void testNonUniqueLookupWithCache() {
+    configure("{source: { content: { value: 'name,friend\nLuca,Luca\nLuca,Luca' } }, extractor : { csv: {} },"
+        + " transformers: [{vertex: {class:'PersonNU'}}, {edge:{class:'KnowsNU',joinFieldName:'friend',lookup:'PersonNU.name',lookupCacheSize:100}},"
+        + "], loader: { orientdb: { dbURL: 'memory:" + name.getMethodName() + "', dbType:'graph', useLightweightEdges:false } } }");
+
+    OETLLoader loader = proc.getLoader();
+    ODatabasePool pool = loader.getPool();
+    ODatabaseDocument db = pool.acquire();
+    final OClass person = db.createVertexClass("PersonNU");
+    person.createProperty("name", OType.STRING);
+    person.createIndex("PersonNU.name", OClass.INDEX_TYPE.NOTUNIQUE, "name");
+
+    OVertex vertex = db.newVertex(person);
+    vertex.setProperty("name", "Luca");
+    db.save(vertex);
+    db.commit();
+    db.close();
+
+    proc.execute();
+    db = pool.acquire();
+
+    // EVERY LOOKUP FINDS ALSO THE VERTICES CREATED BY THE PREVIOUS RECORDS: 2 EDGES FOR THE FIRST ONE, 3 FOR THE SECOND ONE
+    assertEquals(3, db.countClass("PersonNU"));
+    assertEquals(5, db.countClass("KnowsNU"));
+    assertEquals(0, proc.getStats().lookupCacheHits.get());
+    db.close();
+  }
+
   @Test
   public void testVertexAndEdgesOnSeparatedFiles() {
     // IMPORT PERSON (VERTICES)
@@ -0,0 +1,100 @@
+/*
+ *
+ *  * Copyright 2010-2016 OrientDB LTD (info(-at-)orientdb.com)
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package com.orientechnologies.orient.etl.transformer;
+
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.record.OVertex;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.etl.OETLBaseTest;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests ETL Link Transformer.
+ */
+public class OETLLinkTransformerTest extends OETLBaseTest {
+
+  @Test
+  public void shouldLinkWithCachedLookups() throws Exception {
+    configure("{source: { content: { value: 'name,country\nLuca,Italy\nLuigi,Italy\nEnrico,Italy' } }, extractor : { csv: {} },"
+        + " transformers: [{link: { joinFieldName:'country', lookup:'Country.name', linkFieldName:'country', linkFieldType:'LINK', lookupCacheSize: 100}},"
+        + " {vertex: {class:'Person'}}], loader: { orientdb: { dbURL: 'memory:" + name.getMethodName() + "', dbType:'graph'} } }");
+
+    ODatabasePool pool = proc.getLoader().getPool();
+    ODatabaseDocument db = pool.acquire();
+
+    OClass countryClass = db.createClass("Country");
+    countryClass.createProperty("name", OType.STRING);
+    countryClass.createIndex("Country.name", OClass.INDEX_TYPE.UNIQUE, "name");
+
+    OElement country = db.newElement("Country");
+    country.setProperty("name", "Italy");
+    country.save();
+    final ORID countryRid = country.getIdentity();
+    db.close();
+
+    proc.execute();
+
+    db = pool.acquire();
+    OResultSet resultSet = db.query("SELECT from Person where country = ?", countryRid);
+    assertThat(resultSet.stream().count()).isEqualTo(3);
+    db.close();
+
+    // A UNIQUE KEY IS RESOLVED BY THE INDEX ONLY THE FIRST TIME
+    assertThat(proc.getStats().lookups.get()).isEqualTo(3);
+    assertThat(proc.getStats().lookupCacheHits.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldLinkRecordsCreatedByTheRunWithNonUniqueLookups() throws Exception {
+    configure("{source: { content: { value: 'name,friend\nLuca,Luca\nLuca,Luca' } }, extractor : { csv: {} },"
+        + " transformers: [{link: { joinFieldName:'friend', lookup:'Person.name', linkFieldName:'friends', linkFieldType:'LINKSET', lookupCacheSize: 100, lookupBatchSize: 10}},"
+        + " {vertex: {class:'Person'}}], loader: { orientdb: { dbURL: 'memory:" + name.getMethodName() + "', dbType:'graph'} } }");
+
+    ODatabasePool pool = proc.getLoader().getPool();
+    ODatabaseDocument db = pool.acquire();
+
+    OClass personClass = db.createVertexClass("Person");
+    personClass.createProperty("name", OType.STRING);
+    personClass.createIndex("Person.name", OClass.INDEX_TYPE.NOTUNIQUE, "name");
+
+    OVertex person = db.newVertex("Person");
+    person.setProperty("name", "Luca");
+    person.save();
+    db.close();
+
+    proc.execute();
+
+    db = pool.acquire();
+    assertThat(db.countClass("Person")).isEqualTo(3);
+
+    // THE SECOND RECORD IS LINKED ALSO TO THE PERSON CREATED BY THE FIRST ONE
+    OResultSet resultSet = db.query("SELECT from Person where friends.size() = 2");
+    assertThat(resultSet.stream().count()).isEqualTo(1);
+    db.close();
+
+    assertThat(proc.getStats().lookupCacheHits.get()).isEqualTo(0);
+  }
+}
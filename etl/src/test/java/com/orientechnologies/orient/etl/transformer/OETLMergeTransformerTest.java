@@ -132,4 +132,45 @@ public class OETLMergeTransformerTest extends OETLBaseTest {
     assertThat(resultSet.hasNext()).isFalse();
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldMergeWithCachedAndBatchedLookups() throws Exception {
+    configure(
+        "{source: { content: { value: 'num,name\n10000,FirstNameUpdated\n10001,SecondNameUpdated\n10000,FirstNameUpdatedAgain' } }, extractor : { csv: {} },"
+            + " transformers: [{merge: { joinFieldName:'num', lookup:'Person.num', lookupCacheSize: 100, lookupBatchSize: 10}}, {vertex: {class:'Person', skipDuplicates: true}}],"
+            + " " + "loader: { orientdb: { dbURL: 'memory:" + name.getMethodName() + "', dbType:'graph', tx: true} } }");
+
+    ODatabasePool pool = proc.getLoader().getPool();
+    ODatabaseDocument db = pool.acquire();
+
+    OClass personClass = db.createVertexClass("Person");
+    personClass.createProperty("num", OType.INTEGER);
+    personClass.createIndex("Person.num", OClass.INDEX_TYPE.UNIQUE, "num");
+    db.commit();
+
+    for (int i = 0; i < 2; i++) {
+      OVertex person = db.newVertex("Person");
+      person.setProperty("num", 10000 + i);
+      person.setProperty("name", "Name" + i);
+      person.save();
+    }
+    db.commit();
+    db.close();
+
+    proc.execute();
+
+    db = pool.acquire();
+    assertThat(db.countClass("Person")).isEqualTo(2);
+
+    OResultSet resultSet = db.query("SELECT from Person where num = 10000");
+    assertThat(resultSet.next().<String>getProperty("name")).isEqualTo("FirstNameUpdatedAgain");
+    assertThat(resultSet.hasNext()).isFalse();
+
+    resultSet = db.query("SELECT from Person where num = 10001");
+    assertThat(resultSet.next().<String>getProperty("name")).isEqualTo("SecondNameUpdated");
+    db.close();
+
+    // THE LAST LOOKUP IS RESOLVED BY THE CACHE AT LEAST
+    assertThat(proc.getStats().lookups.get()).isEqualTo(3);
+    assertThat(proc.getStats().lookupCacheHits.get()).isGreaterThanOrEqualTo(1);
+  }
+}
@@ -0,0 +1,399 @@
+package com.orientechnologies.orient.graph.batch;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.io.OIOException;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Buffer of the adjacency lists of the vertices which are imported by {@link OGraphBatchInsert}. Entries are pairs of primitive
+ * <code>long</code> values, vertex id and id of the connected vertex or encoded RID of the edge, so the buffer needs 16 bytes per
+ * entry instead of several objects.
+ * <p>
+ * Entries are appended to arrays till they reach the memory budget, then they are sorted by vertex id and spilled to a temporary
+ * file. When the buffer is sealed, runs are merged in a single sorted file which is memory mapped, so the adjacency list of a vertex
+ * is found by binary search both if the buffer is kept in memory and if it is spilled to the disk. Order of entries of the same
+ * vertex is preserved.
+ * <p>
+ * Entries can be added only before the buffer is sealed, sealed buffer can be read concurrently.
+ */
+final class OGraphBatchEdgeBuffer implements Closeable {
+  /**
+   * Value which marks the vertex as existing without adding any edge to it.
+   */
+  static final long NO_EDGE = Long.MIN_VALUE;
+
+  /**
+   * Size of the entry in memory including the space needed to sort it.
+   */
+  private static final int ENTRY_MEMORY_SIZE = 4 * OLongSerializer.LONG_SIZE;
+  private static final int ENTRY_SIZE        = 2 * OLongSerializer.LONG_SIZE;
+
+  private static final int SEGMENT_SHIFT = 26;
+  private static final int SEGMENT_MASK  = (1 << SEGMENT_SHIFT) - 1;
+
+  private final String name;
+  private final File   directory;
+  private final int    maxEntries;
+
+  private long[] keys;
+  private long[] values;
+  private int    size;
+
+  private final List<File> runs = new ArrayList<File>();
+
+  private volatile boolean   sealed;
+  private long               entries;
+  private File               sortedFile;
+  private MappedByteBuffer[] segments;
+
+  /**
+   * @param name        name of the buffer which is used as prefix of temporary files
+   * @param directory   directory of temporary files
+   * @param maxMemory   maximum amount of memory (in bytes) used by the buffer before it is spilled to the disk
+   * @param initialSize expected amount of entries, or a non positive value if it is unknown
+   */
+  OGraphBatchEdgeBuffer(String name, File directory, long maxMemory, int initialSize) {
+    this.name = name;
+    this.directory = directory;
+    this.maxEntries = (int) Math.max(16, Math.min(Integer.MAX_VALUE - 8, maxMemory / ENTRY_MEMORY_SIZE));
+
+    final int capacity = Math.min(maxEntries, initialSize > 0 ? initialSize : 1024);
+    keys = new long[capacity];
+    values = new long[capacity];
+  }
+
+  void add(long key, long value) {
+    if (sealed)
+      throw new IllegalStateException("Edges cannot be added after creation of vertices is started");
+
+    if (size == keys.length) {
+      if (keys.length < maxEntries) {
+        final int capacity = (int) Math.min(maxEntries, 2L * keys.length);
+        keys = grow(keys, capacity);
+        values = grow(values, capacity);
+      } else
+        spill();
+    }
+
+    keys[size] = key;
+    values[size] = value;
+    size++;
+  }
+
+  /**
+   * Encodes RID of the edge document in the value which can not be confused with vertex id.
+   */
+  static long encodeRid(int clusterId, long clusterPosition) {
+    return ~(((long) clusterId << 48) | clusterPosition);
+  }
+
+  static boolean isRid(long value) {
+    return value < 0 && value != NO_EDGE;
+  }
+
+  static int ridClusterId(long value) {
+    return (int) (~value >>> 48);
+  }
+
+  static long ridClusterPosition(long value) {
+    return ~value & 0xFFFFFFFFFFFFL;
+  }
+
+  /**
+   * Stops addition of entries and prepares buffer for reading, is called automatically on the first read.
+   */
+  synchronized void seal() {
+    if (sealed)
+      return;
+
+    try {
+      sortRun();
+
+      if (runs.isEmpty())
+        entries = size;
+      else {
+        if (size > 0)
+          spill();
+        mergeRuns();
+      }
+
+      sealed = true;
+    } catch (IOException e) {
+      throw OException.wrapException(new OIOException("Error on sorting of edges of batch import"), e);
+    }
+  }
+
+  /**
+   * @return total amount of entries in the sealed buffer
+   */
+  long size() {
+    checkSealed();
+    return entries;
+  }
+
+  /**
+   * @return index of the first entry of the vertex or <code>-1</code> if there are no entries for given vertex
+   */
+  long first(long key) {
+    checkSealed();
+
+    long low = 0;
+    long high = entries - 1;
+    long found = -1;
+    while (low <= high) {
+      final long mid = (low + high) >>> 1;
+      final long midKey = key(mid);
+      if (midKey < key)
+        low = mid + 1;
+      else {
+        if (midKey == key)
+          found = mid;
+        high = mid - 1;
+      }
+    }
+
+    return found;
+  }
+
+  long key(long index) {
+    if (segments == null)
+      return keys[(int) index];
+
+    return segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & SEGMENT_MASK) * ENTRY_SIZE);
+  }
+
+  long value(long index) {
+    if (segments == null)
+      return values[(int) index];
+
+    return segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & SEGMENT_MASK) * ENTRY_SIZE + OLongSerializer.LONG_SIZE);
+  }
+
+  /**
+   * @return <code>true</code> if buffer was spilled to the disk
+   */
+  boolean isSpilled() {
+    checkSealed();
+    return segments != null;
+  }
+
+  @Override
+  public synchronized void close() {
+    keys = null;
+    values = null;
+    segments = null;
+
+    for (File run : runs)
+      deleteFile(run);
+    runs.clear();
+
+    if (sortedFile != null) {
+      deleteFile(sortedFile);
+      sortedFile = null;
+    }
+  }
+
+  private void checkSealed() {
+    if (!sealed)
+      seal();
+  }
+
+  private void spill() {
+    sortRun();
+
+    try {
+      final File run = File.createTempFile(name + "-run", ".tmp", directory);
+      runs.add(run);
+
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), 1 << 16));
+      try {
+        for (int i = 0; i < size; i++) {
+          out.writeLong(keys[i]);
+          out.writeLong(values[i]);
+        }
+      } finally {
+        out.close();
+      }
+    } catch (IOException e) {
+      throw OException.wrapException(new OIOException("Error on spilling edges of batch import to the disk"), e);
+    }
+
+    size = 0;
+  }
+
+  /**
+   * Stable bottom-up merge sort of the entries by vertex id, entries which are already sorted are not copied.
+   */
+  private void sortRun() {
+    if (size < 2)
+      return;
+
+    boolean sorted = true;
+    for (int i = 1; i < size && sorted; i++)
+      sorted = keys[i - 1] <= keys[i];
+    if (sorted)
+      return;
+
+    long[] srcKeys = keys;
+    long[] srcValues = values;
+    long[] dstKeys = new long[keys.length];
+    long[] dstValues = new long[keys.length];
+
+    for (int width = 1; width < size; width <<= 1) {
+      for (int low = 0; low < size; low += width << 1) {
+        final int mid = Math.min(low + width, size);
+        final int high = Math.min(low + (width << 1), size);
+
+        int i = low;
+        int j = mid;
+        int k = low;
+        while (i < mid && j < high) {
+          if (srcKeys[j] < srcKeys[i]) {
+            dstKeys[k] = srcKeys[j];
+            dstValues[k++] = srcValues[j++];
+          } else {
+            dstKeys[k] = srcKeys[i];
+            dstValues[k++] = srcValues[i++];
+          }
+        }
+
+        System.arraycopy(srcKeys, i, dstKeys, k, mid - i);
+        System.arraycopy(srcValues, i, dstValues, k, mid - i);
+        k += mid - i;
+        System.arraycopy(srcKeys, j, dstKeys, k, high - j);
+        System.arraycopy(srcValues, j, dstValues, k, high - j);
+      }
+
+      final long[] tmpKeys = srcKeys;
+      final long[] tmpValues = srcValues;
+      srcKeys = dstKeys;
+      srcValues = dstValues;
+      dstKeys = tmpKeys;
+      dstValues = tmpValues;
+    }
+
+    keys = srcKeys;
+    values = srcValues;
+  }
+
+  private void mergeRuns() throws IOException {
+    keys = null;
+    values = null;
+
+    sortedFile = File.createTempFile(name, ".tmp", directory);
+
+    final List<RunReader> readers = new ArrayList<RunReader>(runs.size());
+    try {
+      final PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>(runs.size());
+      for (int i = 0; i < runs.size(); i++) {
+        final RunReader reader = new RunReader(runs.get(i), i);
+        readers.add(reader);
+        if (reader.next())
+          queue.add(reader);
+      }
+
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(sortedFile), 1 << 16));
+      try {
+        RunReader reader;
+        while ((reader = queue.poll()) != null) {
+          out.writeLong(reader.key);
+          out.writeLong(reader.value);
+          entries++;
+
+          if (reader.next())
+            queue.add(reader);
+        }
+      } finally {
+        out.close();
+      }
+    } finally {
+      for (RunReader reader : readers)
+        reader.close();
+    }
+
+    for (File run : runs)
+      deleteFile(run);
+    runs.clear();
+
+    final RandomAccessFile file = new RandomAccessFile(sortedFile, "r");
+    try {
+      final FileChannel channel = file.getChannel();
+      final long segmentSize = (long) ENTRY_SIZE << SEGMENT_SHIFT;
+      final int segmentsCount = (int) ((entries + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+
+      segments = new MappedByteBuffer[Math.max(1, segmentsCount)];
+      for (int i = 0; i < segments.length; i++) {
+        final long position = i * segmentSize;
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, channel.size() - position));
+      }
+    } finally {
+      file.close();
+    }
+  }
+
+  private static long[] grow(long[] array, int capacity) {
+    final long[] result = new long[capacity];
+    System.arraycopy(array, 0, result, 0, array.length);
+    return result;
+  }
+
+  private static void deleteFile(File file) {
+    if (!file.delete())
+      file.deleteOnExit();
+  }
+
+  /**
+   * Reads sorted run from the disk, runs are compared by their order on equal keys to keep order of entries of the vertex.
+   */
+  private static final class RunReader implements Comparable<RunReader> {
+    private final DataInputStream in;
+    private final int             order;
+
+    private long key;
+    private long value;
+
+    private RunReader(File file, int order) throws IOException {
+      this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+      this.order = order;
+    }
+
+    private boolean next() throws IOException {
+      try {
+        key = in.readLong();
+      } catch (EOFException e) {
+        return false;
+      }
+
+      value = in.readLong();
+      return true;
+    }
+
+    private void close() throws IOException {
+      in.close();
+    }
+
+    @Override
+    public int compareTo(RunReader other) {
+      if (key != other.key)
+        return key < other.key ? -1 : 1;
+      return order < other.order ? -1 : (order == other.order ? 0 : 1);
+    }
+  }
+}
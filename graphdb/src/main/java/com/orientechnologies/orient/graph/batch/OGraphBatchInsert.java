@@ -1,5 +1,6 @@
 package com.orientechnologies.orient.graph.batch;
 
+import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.config.OStorageEntryConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
@@ -15,8 +16,7 @@ import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.tinkerpop.blueprints.impls.orient.OrientEdgeType;
 import com.tinkerpop.blueprints.impls.orient.OrientVertexType;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -83,8 +83,8 @@ public class OGraphBatchInsert {
   private final String        userName;
   private final String        dbUrl;
   private final String        password;
-  Map<Long, List<Object>>     out                      = new HashMap<Long, List<Object>>();
-  Map<Long, List<Object>>     in                       = new HashMap<Long, List<Object>>();
+  OGraphBatchEdgeBuffer       out;
+  OGraphBatchEdgeBuffer       in;
   private String              idPropertyName           = "uid";
   private String              edgeClass                = OrientEdgeType.CLASS_NAME;
   private String              vertexClass              = OrientVertexType.CLASS_NAME;
@@ -93,6 +93,7 @@ public class OGraphBatchInsert {
   private int                 averageEdgeNumberPerNode = -1;
   private int                 estimatedEntries         = -1;
   private int                 bonsaiThreshold          = 1000;
+  private long                maxEdgeBufferMemory      = Runtime.getRuntime().maxMemory() / 4;
   private int[]               clusterIds;
   private long[]              lastClusterPositions;
   private long[]              nextVerticesToCreate;                                        // absolute value
@@ -161,39 +162,18 @@ public class OGraphBatchInsert {
 
     private void createVertex(ODatabaseDocument db, long i, String inField, String outField, String clusterName,
         Map<String, Object> properties) {
-      final List<Object> outIds = out.get(i);
-      final List<Object> inIds = in.get(i);
+      final long firstOut = out.first(i);
+      final long firstIn = in.first(i);
       final ODocument doc = new ODocument(vClass);
-      if (outIds == null && inIds == null) {
+      if (firstOut < 0 && firstIn < 0) {
         db.save(doc, clusterName).delete();
       } else {
         doc.field(idPropertyName, i);
-        if (outIds != null) {
-          final ORidBag outBag = new ORidBag();
-          for (Object l : outIds) {
-
-            ORecordId rid;
-            if (l instanceof ORecordId) {
-              rid = (ORecordId) l;
-            } else {
-              rid = new ORecordId(getClusterId((Long) l), getClusterPosition((Long) l));
-            }
-            outBag.add(rid);
-          }
-          doc.field(outField, outBag);
+        if (firstOut >= 0) {
+          doc.field(outField, createRidBag(out, firstOut, i));
         }
-        if (inIds != null) {
-          final ORidBag inBag = new ORidBag();
-          for (Object l : inIds) {
-            ORecordId rid;
-            if (l instanceof ORecordId) {
-              rid = (ORecordId) l;
-            } else {
-              rid = new ORecordId(getClusterId((Long) l), getClusterPosition((Long) l));
-            }
-            inBag.add(rid);
-          }
-          doc.field(inField, inBag);
+        if (firstIn >= 0) {
+          doc.field(inField, createRidBag(in, firstIn, i));
         }
 
         doc.fromMap(properties);
@@ -201,6 +181,24 @@ public class OGraphBatchInsert {
       }
       nextVerticesToCreate[mod] += parallel;
     }
+
+    private ORidBag createRidBag(OGraphBatchEdgeBuffer edges, long first, long vertex) {
+      final ORidBag bag = new ORidBag();
+      final long size = edges.size();
+      for (long e = first; e < size && edges.key(e) == vertex; e++) {
+        final long value = edges.value(e);
+        if (value == OGraphBatchEdgeBuffer.NO_EDGE) {
+          continue;
+        }
+
+        if (OGraphBatchEdgeBuffer.isRid(value)) {
+          bag.add(new ORecordId(OGraphBatchEdgeBuffer.ridClusterId(value), OGraphBatchEdgeBuffer.ridClusterPosition(value)));
+        } else {
+          bag.add(new ORecordId(getClusterId(value), getClusterPosition(value)));
+        }
+      }
+      return bag;
+    }
   }
 
   /**
@@ -266,8 +264,10 @@ public class OGraphBatchInsert {
     }
     createBaseSchema();
 
-    out = estimatedEntries > 0 ? new HashMap<Long, List<Object>>(estimatedEntries) : new HashMap<Long, List<Object>>();
-    in = estimatedEntries > 0 ? new HashMap<Long, List<Object>>(estimatedEntries) : new HashMap<Long, List<Object>>();
+    final File tempDirectory = new File(Orient.getTempPath());
+    tempDirectory.mkdirs();
+    out = new OGraphBatchEdgeBuffer("batch-out", tempDirectory, maxEdgeBufferMemory / 2, estimatedEntries);
+    in = new OGraphBatchEdgeBuffer("batch-in", tempDirectory, maxEdgeBufferMemory / 2, estimatedEntries);
 
     OClass vClass = db.getMetadata().getSchema().getClass(this.vertexClass);
     int[] existingClusters = vClass.getClusterIds();
@@ -318,6 +318,9 @@ public class OGraphBatchInsert {
       }
 
     } finally {
+      out.close();
+      in.close();
+
       db.activateOnCurrentThread();
       db.declareIntent(null);
       db.close();
@@ -338,10 +341,7 @@ public class OGraphBatchInsert {
     }
 
     last = last < v ? v : last;
-    final List<Object> outList = out.get(v);
-    if (outList == null) {
-      out.put(v, new ArrayList<Object>(averageEdgeNumberPerNode <= 0 ? 4 : averageEdgeNumberPerNode));
-    }
+    out.add(v, OGraphBatchEdgeBuffer.NO_EDGE);
   }
 
   /**
@@ -365,8 +365,8 @@ public class OGraphBatchInsert {
     if (useLightWeigthEdges && (properties == null || properties.size() == 0)) {
       last = last < from ? from : last;
       last = last < to ? to : last;
-      putInList(from, out, to);
-      putInList(to, in, from);
+      out.add(from, to);
+      in.add(to, from);
     } else {
       ODocument edgeDoc = new ODocument(edgeClass);
 
@@ -375,8 +375,9 @@ public class OGraphBatchInsert {
       edgeDoc.field("in", new ORecordId(getClusterId(to), getClusterPosition(to)));
       db.save(edgeDoc);
       ORecordId rid = (ORecordId) edgeDoc.getIdentity();
-      putInList(from, out, rid);
-      putInList(to, in, rid);
+      final long edge = OGraphBatchEdgeBuffer.encodeRid(rid.getClusterId(), rid.getClusterPosition());
+      out.add(from, edge);
+      in.add(to, edge);
     }
   }
 
@@ -504,6 +505,25 @@ public class OGraphBatchInsert {
     this.estimatedEntries = estimatedEntries;
   }
 
+  /**
+   * @return maximum amount of memory (in bytes) used to buffer edges before they are spilled to temporary files
+   */
+  public long getMaxEdgeBufferMemory() {
+    return maxEdgeBufferMemory;
+  }
+
+  /**
+   * Sets the maximum amount of memory (in bytes) used to buffer edges until vertices are created, 1/4 of the heap by default. Edges
+   * take 16 bytes for each direction plus the same amount while they are sorted, edges which do not fit are spilled to temporary
+   * files. Use it before calling begin()
+   *
+   * @param maxEdgeBufferMemory
+   *          amount of memory in bytes
+   */
+  public void setMaxEdgeBufferMemory(final long maxEdgeBufferMemory) {
+    this.maxEdgeBufferMemory = maxEdgeBufferMemory;
+  }
+
   /**
    *
    * @return number of parallel threads used for batch import
@@ -522,15 +542,6 @@ public class OGraphBatchInsert {
     this.parallel = parallel;
   }
 
-  private void putInList(final Long key, final Map<Long, List<Object>> out, final Object value) {
-    List<Object> list = out.get(key);
-    if (list == null) {
-      list = new ArrayList<Object>(averageEdgeNumberPerNode <= 0 ? 4 : averageEdgeNumberPerNode);
-      out.put(key, list);
-    }
-    list.add(value);
-  }
-
   private void createBaseSchema() {
     final OSchema schema = db.getMetadata().getSchema();
     OClass v;
@@ -8,6 +8,7 @@ import com.tinkerpop.blueprints.impls.orient.OrientGraph;
 import junit.framework.TestCase;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -230,4 +231,55 @@ public class OGraphBatchInsertTest extends TestCase {
     g.shutdown();
   }
 
+
+  @Test
+  public void testSpilledEdges() {
+    String dbUrl = "memory:batchinsert_testSpilledEdges";
+    OGraphBatchInsert batch = new OGraphBatchInsert(dbUrl, "admin", "admin");
+    batch.setMaxEdgeBufferMemory(1024);
+    batch.begin();
+
+    // EDGES ARE CREATED IN REVERSE ORDER SO EVERY RUN SPILLED TO THE DISK HAS TO BE SORTED
+    for (long i = 99; i >= 0; i--) {
+      batch.createEdge(i, (i + 1) % 100, null);
+      batch.createEdge(i, (i + 7) % 100, null);
+    }
+    Map<String, Object> edgeProps = new HashMap<String, Object>();
+    edgeProps.put("foo", "bar");
+    batch.createEdge(0L, 50L, edgeProps);
+    batch.createVertex(100L);
+
+    assertTrue(batch.out.isSpilled());
+    assertTrue(batch.in.isSpilled());
+
+    batch.end();
+
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx(dbUrl);
+    db.open("admin", "admin");
+    List<ODocument> result = db.query(new OSQLSynchQuery<ODocument>("select uid, out().uid as outs, in().uid as ins from V"));
+    assertEquals(101, result.size());
+    for (ODocument doc : result) {
+      long uid = doc.<Long>field("uid");
+      List<Long> out = doc.field("outs");
+      List<Long> in = doc.field("ins");
+      if (uid == 100) {
+        assertTrue(out == null || out.isEmpty());
+        assertTrue(in == null || in.isEmpty());
+      } else if (uid == 0) {
+        assertEquals(3, out.size());
+        assertTrue(out.containsAll(Arrays.asList(1L, 7L, 50L)));
+        assertEquals(2, in.size());
+      } else if (uid == 50) {
+        assertEquals(2, out.size());
+        assertEquals(3, in.size());
+        assertTrue(in.containsAll(Arrays.asList(0L, 49L, 43L)));
+      } else {
+        assertEquals(2, out.size());
+        assertTrue(out.containsAll(Arrays.asList((uid + 1) % 100, (uid + 7) % 100)));
+        assertEquals(2, in.size());
+        assertTrue(in.containsAll(Arrays.asList((uid + 99) % 100, (uid + 93) % 100)));
+      }
+    }
+    db.close();
+  }
 }
@@ -23,6 +23,7 @@ import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
 import com.orientechnologies.lucene.analyzer.OLuceneAnalyzerFactory;
 import com.orientechnologies.lucene.builder.OLuceneIndexType;
+import com.orientechnologies.lucene.builder.OLuceneQueryBuilder;
 import com.orientechnologies.lucene.exception.OLuceneIndexException;
 import com.orientechnologies.lucene.query.OLuceneQueryContext;
 import com.orientechnologies.lucene.tx.OLuceneTxChanges;
@@ -95,6 +96,17 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
   private          long          flushIndexInterval;
   private          long          closeAfterInterval;
   private          long          firstFlushAfter;
+  private          long          refreshInterval;
+  private          long          flushAfterWrites;
+
+  /**
+   * Amount of write operations, is used to refresh searchers and to commit the index only when it is changed, and to commit it
+   * earlier when it is changed fast.
+   */
+  private final AtomicLong writes = new AtomicLong();
+  private volatile long refreshedWrites;
+  private volatile long flushedWrites;
+  private volatile long lastFlush;
 
   private Lock openCloseLock;
 
@@ -121,6 +133,7 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
     try {
 
       reopenToken = indexWriter.addDocument(doc);
+      writes.incrementAndGet();
     } catch (IOException e) {
       OLogManager.instance().error(this, "Error on adding new document '%s' to Lucene index", e, doc);
     }
@@ -147,6 +160,12 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
 
     firstFlushAfter = Optional.ofNullable(metadata.<Integer>getProperty("firstFlushAfter"))
         .orElse(10000).longValue();
+
+    refreshInterval = Optional.ofNullable(metadata.<Integer>getProperty("refreshInterval"))
+        .orElse(1000).longValue();
+
+    flushAfterWrites = Optional.ofNullable(metadata.<Integer>getProperty("flushAfterWrites"))
+        .orElse(10000).longValue();
   }
 
   private void scheduleCommitTask() {
@@ -177,14 +196,50 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
 
         }
         if (!closed.get()) {
+          refreshIfChanged();
 
-          OLogManager.instance().info(this, " Flushing index:: " + indexName());
-          flush();
+          if (shouldFlush()) {
+            OLogManager.instance().debug(this, " Flushing index:: " + indexName());
+            flush();
+          }
         }
       }
     };
 
-    Orient.instance().scheduleTask(commitTask, firstFlushAfter, flushIndexInterval);
+    // FIRST TIME-DRIVEN FLUSH HAPPENS AFTER firstFlushAfter
+    lastFlush = System.currentTimeMillis() - flushIndexInterval + firstFlushAfter;
+
+    final long period = Math.max(1, Math.min(refreshInterval, flushIndexInterval));
+    Orient.instance().scheduleTask(commitTask, Math.min(firstFlushAfter, period), period);
+  }
+
+  /**
+   * Refreshes the searcher in background if the index was changed since the last refresh, so queries do not wait for the refresh
+   * and for the warm up of the new searcher.
+   */
+  private void refreshIfChanged() {
+    final long currentWrites = writes.get();
+    if (currentWrites == refreshedWrites)
+      return;
+
+    try {
+      if (searcherManager.maybeRefresh())
+        refreshedWrites = currentWrites;
+    } catch (Throwable e) {
+      OLogManager.instance().debug(this, "Error on refreshing searcher of Lucene index '%s'", e, indexName());
+    }
+  }
+
+  /**
+   * Index is committed when the given amount of write operations is reached, or when the index was changed and the flush interval
+   * is passed, so the unchanged index is not committed at all.
+   */
+  private boolean shouldFlush() {
+    final long pending = writes.get() - flushedWrites;
+    if (pending <= 0)
+      return false;
+
+    return pending >= flushAfterWrites || System.currentTimeMillis() - lastFlush >= flushIndexInterval;
   }
 
   private boolean shouldClose() {
@@ -234,7 +289,7 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
       directory = directoryFactory.createDirectory(getDatabase(), name, metadata);
 
       indexWriter = createIndexWriter(directory);
-      searcherManager = new SearcherManager(indexWriter, true, true, null);
+      searcherManager = new SearcherManager(indexWriter, true, true, createSearcherFactory());
 
       reopenToken = 0;
 
@@ -254,6 +309,21 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
 
   }
 
+  private OLuceneSearcherFactory createSearcherFactory() {
+    final List<Query> warmUpQueries = new ArrayList<Query>();
+
+    final OLuceneQueryBuilder queryBuilder = new OLuceneQueryBuilder(metadata);
+    for (String query : OLuceneSearcherFactory.getWarmUpQueries(metadata)) {
+      try {
+        warmUpQueries.add(queryBuilder.query(indexDefinition, query, OLuceneQueryBuilder.EMPTY_METADATA, queryAnalyzer));
+      } catch (Exception e) {
+        OLogManager.instance().warn(this, "Invalid warm up query '%s' of Lucene index '%s'", e, query, indexName());
+      }
+    }
+
+    return OLuceneSearcherFactory.create(indexName(), metadata, warmUpQueries);
+  }
+
   private void addMetadataDocumentIfNotPresent() {
 
     final IndexSearcher searcher = searcher();
@@ -326,8 +396,12 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
   public void flush() {
 
     try {
-      if (!closed.get() && indexWriter != null && indexWriter.isOpen())
+      if (!closed.get() && indexWriter != null && indexWriter.isOpen()) {
+        final long currentWrites = writes.get();
         indexWriter.commit();
+        flushedWrites = currentWrites;
+        lastFlush = System.currentTimeMillis();
+      }
     } catch (Throwable e) {
       OLogManager.instance().error(this, "Error on flushing Lucene index", e);
     }
@@ -405,6 +479,7 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
     try {
 
       reopenToken = indexWriter.deleteDocuments(query);
+      writes.incrementAndGet();
       if (!indexWriter.hasDeletions()) {
         OLogManager.instance()
             .error(this, "Error on deleting document by query '%s' to Lucene index", new OIndexException("Error deleting document"),
@@ -519,6 +594,7 @@ public abstract class OLuceneIndexEngineAbstract<V> extends OSharedResourceAdapt
     openIfClosed();
     try {
       reopenToken = indexWriter.deleteAll();
+      writes.incrementAndGet();
     } catch (IOException e) {
       OLogManager.instance().error(this, "Error on clearing Lucene index", e);
     }
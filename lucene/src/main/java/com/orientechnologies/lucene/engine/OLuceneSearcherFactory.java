@@ -0,0 +1,147 @@
+/*
+ * Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.orientechnologies.lucene.engine;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates searchers of the Lucene index after each refresh of the near real time reader.
+ * <p>
+ * If {@link OGlobalConfiguration#LUCENE_SEARCH_THREADS} is greater than 0, searchers use the executor which is shared by all the
+ * indexes to search segments of the index in parallel, it can be disabled for the index by the <code>parallelSearch</code>
+ * metadata property. New searchers are warmed up by the queries listed in the <code>warmUpQueries</code> metadata property before
+ * they are published, so the first queries after the refresh do not pay for loading of the new segments.
+ */
+public class OLuceneSearcherFactory extends SearcherFactory {
+
+  public static final String PARALLEL_SEARCH  = "parallelSearch";
+  public static final String WARM_UP_QUERIES  = "warmUpQueries";
+  public static final String WARM_UP_TOP_DOCS = "warmUpTopDocs";
+
+  private static volatile ExecutorService searchExecutor;
+
+  private final String          indexName;
+  private final ExecutorService executor;
+  private final List<Query>     warmUpQueries;
+  private final int             warmUpTopDocs;
+
+  public OLuceneSearcherFactory(String indexName, ExecutorService executor, List<Query> warmUpQueries, int warmUpTopDocs) {
+    this.indexName = indexName;
+    this.executor = executor;
+    this.warmUpQueries = warmUpQueries;
+    this.warmUpTopDocs = warmUpTopDocs;
+  }
+
+  /**
+   * @param warmUpQueries already parsed queries listed in the <code>warmUpQueries</code> metadata property
+   */
+  public static OLuceneSearcherFactory create(String indexName, ODocument metadata, List<Query> warmUpQueries) {
+    final boolean parallel = Optional.ofNullable(metadata.<Boolean>getProperty(PARALLEL_SEARCH)).orElse(true);
+
+    final int warmUpTopDocs = Optional.ofNullable(metadata.<Integer>getProperty(WARM_UP_TOP_DOCS)).orElse(10);
+
+    return new OLuceneSearcherFactory(indexName, parallel ? getSearchExecutor() : null, warmUpQueries, warmUpTopDocs);
+  }
+
+  /**
+   * @return queries which are listed in the <code>warmUpQueries</code> metadata property, as strings
+   */
+  public static List<String> getWarmUpQueries(ODocument metadata) {
+    final Object queries = metadata.getProperty(WARM_UP_QUERIES);
+    if (queries == null)
+      return Collections.emptyList();
+
+    final List<String> result = new ArrayList<String>();
+    if (queries instanceof Iterable) {
+      for (Object query : (Iterable<?>) queries)
+        result.add(query.toString());
+    } else
+      result.add(queries.toString());
+
+    return result;
+  }
+
+  /**
+   * @return executor which is shared by the searchers of all Lucene indexes or <code>null</code> if segments are searched by the
+   * thread which executes the query
+   */
+  public static ExecutorService getSearchExecutor() {
+    if (searchExecutor == null) {
+      synchronized (OLuceneSearcherFactory.class) {
+        if (searchExecutor == null) {
+          final int threads = OGlobalConfiguration.LUCENE_SEARCH_THREADS.getValueAsInteger();
+          if (threads <= 0)
+            return null;
+
+          final AtomicInteger counter = new AtomicInteger();
+          final ThreadPoolExecutor executor = new OThreadPoolExecutorWithLogging(threads, threads, 60, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(threads * 64), r -> {
+            final Thread thread = new Thread(r, "OrientDB Lucene Search " + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }, new ThreadPoolExecutor.CallerRunsPolicy());
+          executor.allowCoreThreadTimeOut(true);
+
+          searchExecutor = executor;
+        }
+      }
+    }
+
+    return searchExecutor;
+  }
+
+  public boolean isParallel() {
+    return executor != null;
+  }
+
+  @Override
+  public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+    final IndexSearcher searcher = executor != null ? new IndexSearcher(reader, executor) : new IndexSearcher(reader);
+
+    warmUp(searcher);
+
+    return searcher;
+  }
+
+  private void warmUp(IndexSearcher searcher) {
+    for (Query query : warmUpQueries) {
+      try {
+        searcher.search(query, warmUpTopDocs);
+      } catch (Exception e) {
+        OLogManager.instance().warn(this, "Error on warming up searcher of Lucene index '%s' by query '%s'", e, indexName, query);
+      }
+    }
+  }
+}
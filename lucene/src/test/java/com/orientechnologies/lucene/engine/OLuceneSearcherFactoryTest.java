@@ -0,0 +1,82 @@
+package com.orientechnologies.lucene.engine;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OLuceneSearcherFactoryTest {
+
+  @Test
+  public void shouldSearchSegmentsInParallel() throws Exception {
+    final RAMDirectory directory = new RAMDirectory();
+    final IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+
+    for (int segment = 0; segment < 4; segment++) {
+      for (int i = 0; i < 10; i++) {
+        final Document doc = new Document();
+        doc.add(new StringField("name", "name" + i, Field.Store.YES));
+        writer.addDocument(doc);
+      }
+      // EVERY COMMIT CREATES A NEW SEGMENT
+      writer.commit();
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    final DirectoryReader reader = DirectoryReader.open(writer);
+    try {
+      assertThat(reader.leaves().size()).isGreaterThan(1);
+
+      final List<Query> warmUpQueries = Collections.<Query>singletonList(new TermQuery(new Term("name", "name1")));
+      final OLuceneSearcherFactory parallel = new OLuceneSearcherFactory("test", executor, warmUpQueries, 10);
+      final OLuceneSearcherFactory sequential = new OLuceneSearcherFactory("test", null, Collections.<Query>emptyList(), 10);
+
+      assertThat(parallel.isParallel()).isTrue();
+      assertThat(sequential.isParallel()).isFalse();
+
+      final IndexSearcher parallelSearcher = parallel.newSearcher(reader, null);
+      final IndexSearcher sequentialSearcher = sequential.newSearcher(reader, null);
+
+      for (Query query : Arrays.asList(new MatchAllDocsQuery(), new TermQuery(new Term("name", "name3")))) {
+        assertThat(parallelSearcher.search(query, 100).totalHits).isEqualTo(sequentialSearcher.search(query, 100).totalHits);
+      }
+      assertThat(parallelSearcher.search(new MatchAllDocsQuery(), 100).totalHits).isEqualTo(40);
+      assertThat(parallelSearcher.search(new TermQuery(new Term("name", "name3")), 100).totalHits).isEqualTo(4);
+    } finally {
+      reader.close();
+      writer.close();
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldReadWarmUpQueriesFromMetadata() {
+    final ODocument metadata = new ODocument();
+    assertThat(OLuceneSearcherFactory.getWarmUpQueries(metadata)).isEmpty();
+
+    metadata.field(OLuceneSearcherFactory.WARM_UP_QUERIES, Arrays.asList("name:foo", "bar"));
+    assertThat(OLuceneSearcherFactory.getWarmUpQueries(metadata)).containsExactly("name:foo", "bar");
+
+    metadata.field(OLuceneSearcherFactory.WARM_UP_QUERIES, "baz");
+    assertThat(OLuceneSearcherFactory.getWarmUpQueries(metadata)).containsExactly("baz");
+  }
+}
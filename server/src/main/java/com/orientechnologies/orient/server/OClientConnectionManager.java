@@ -464,7 +464,7 @@ public class OClientConnectionManager {
                 .debug(this, "Error on closing connection of %s client during shutdown", e, entry.getValue().getRemoteAddress());
           }
         }
-        if (protocol.isAlive()) {
+        if (protocol.isServing()) {
           if (protocol instanceof ONetworkProtocolBinary && ((ONetworkProtocolBinary) protocol).getRequestType() == -1) {
             try {
               OLogManager.instance().debug(this, "Closing socket of thread %s", protocol);
@@ -482,7 +482,7 @@ public class OClientConnectionManager {
 
     for (ONetworkProtocol protocol : toWait) {
       try {
-        protocol.join();
+        protocol.waitForTermination();
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
       }
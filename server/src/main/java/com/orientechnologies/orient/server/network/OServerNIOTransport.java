@@ -0,0 +1,364 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.server.network;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.config.OContextConfiguration;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryServer;
+import com.orientechnologies.orient.server.network.protocol.binary.ONetworkProtocolBinary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serves binary connections without a thread per connection. Sockets of idle connections are registered in selectors of a few
+ * selector threads. Once data of a request arrives, the connection is removed from the selector and passed to the bounded pool of
+ * worker threads, which executes requests of the connection by the usual {@link ONetworkProtocolBinary} code, so requests are
+ * dispatched by the same executors and push messages work the same way as for a thread per connection. When there is no more
+ * buffered data of the connection, its socket is registered in the selector again.
+ * <p>
+ * Binary requests do not contain their length and are decoded by the requests themselves, so requests are read by worker threads
+ * in blocking mode. Each read waits for data at most {@link OGlobalConfiguration#NETWORK_SOCKET_TIMEOUT}, so a client which stops in
+ * the middle of a request has its connection closed instead of holding a worker. Only one worker at a time serves a connection,
+ * so the queue of the pool is bounded by the amount of connections.
+ */
+public class OServerNIOTransport {
+  /**
+   * Interval of waiting for the socket of a connection in non-blocking mode to be ready for an operation.
+   */
+  private static final long WAIT_INTERVAL = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final SelectorThread[]   selectorThreads;
+  private final ThreadPoolExecutor workers;
+  private final AtomicInteger      nextSelector = new AtomicInteger();
+  /**
+   * Connections which are served or waiting to be served by worker threads, they are not registered in any selector.
+   */
+  private final Set<Connection>    served       = Collections.newSetFromMap(new ConcurrentHashMap<Connection, Boolean>());
+
+  private volatile boolean active = true;
+
+  public OServerNIOTransport(final ThreadGroup threadGroup, final String name, int selectors, int workers) throws IOException {
+    final int cores = Runtime.getRuntime().availableProcessors();
+    if (selectors <= 0)
+      selectors = Math.max(1, cores / 2);
+    if (workers <= 0)
+      workers = 8 * cores;
+
+    this.workers = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+        new WorkerThreadFactory(threadGroup, name));
+    this.workers.allowCoreThreadTimeOut(true);
+
+    selectorThreads = new SelectorThread[selectors];
+    for (int i = 0; i < selectors; i++) {
+      selectorThreads[i] = new SelectorThread(threadGroup, name + " selector " + i);
+      selectorThreads[i].start();
+    }
+  }
+
+  /**
+   * @return <code>true</code> if socket can be served by this transport, it has to be accepted by a server socket channel
+   */
+  public static boolean isSupported(final Socket socket) {
+    return socket.getChannel() != null;
+  }
+
+  /**
+   * Creates binary channel which reads and writes data through the socket channel, streams of the socket do not work if the
+   * channel is in non-blocking mode.
+   */
+  public OChannelBinaryServer createChannel(final Socket socket, final OContextConfiguration configuration) throws IOException {
+    socket.setSoTimeout(configuration.getValueAsInteger(OGlobalConfiguration.NETWORK_SOCKET_TIMEOUT));
+
+    final SocketChannel channel = socket.getChannel();
+    return new OChannelBinaryServer(socket, new ChannelInputStream(socket), new ChannelOutputStream(channel), configuration);
+  }
+
+  /**
+   * Starts to serve requests of the connection. Channel of the protocol has to be created by
+   * {@link #createChannel(Socket, OContextConfiguration)}.
+   */
+  public void register(final ONetworkProtocolBinary protocol) throws IOException {
+    final SelectorThread selectorThread = selectorThreads[(nextSelector.getAndIncrement() & Integer.MAX_VALUE)
+        % selectorThreads.length];
+    final Connection connection = new Connection(protocol, protocol.getChannel().socket.getChannel(), selectorThread);
+
+    connection.channel.configureBlocking(false);
+    selectorThread.register(connection);
+  }
+
+  public void shutdown() {
+    active = false;
+
+    for (SelectorThread selectorThread : selectorThreads)
+      selectorThread.selector.wakeup();
+
+    workers.shutdown();
+  }
+
+  private void execute(final Connection connection) {
+    served.add(connection);
+    try {
+      workers.execute(connection);
+    } catch (RejectedExecutionException e) {
+      served.remove(connection);
+      connection.close();
+    }
+  }
+
+  private final class Connection implements Runnable {
+    private final ONetworkProtocolBinary protocol;
+    private final SocketChannel          channel;
+    private final SelectorThread         selectorThread;
+
+    private Connection(ONetworkProtocolBinary protocol, SocketChannel channel, SelectorThread selectorThread) {
+      this.protocol = protocol;
+      this.channel = channel;
+      this.selectorThread = selectorThread;
+    }
+
+    @Override
+    public void run() {
+      try {
+        channel.configureBlocking(true);
+
+        final OChannelBinaryServer binaryChannel = (OChannelBinaryServer) protocol.getChannel();
+        do {
+          if (!protocol.executeRequest()) {
+            close();
+            return;
+          }
+          // REQUESTS WHICH ARE ALREADY READ INTO THE BUFFER ARE NOT SIGNALED BY THE SELECTOR
+        } while (binaryChannel.hasBufferedInput());
+
+        channel.configureBlocking(false);
+        selectorThread.register(this);
+      } catch (Exception e) {
+        OLogManager.instance().debug(this, "Error on serving of binary connection %s", e, protocol.getName());
+        close();
+      } finally {
+        served.remove(this);
+        // DATABASE OF THE CONNECTION SHOULD NOT BE VISIBLE TO REQUESTS OF OTHER CONNECTIONS
+        ODatabaseRecordThreadLocal.INSTANCE.remove();
+      }
+    }
+
+    private void close() {
+      try {
+        protocol.shutdown();
+      } catch (Exception e) {
+        OLogManager.instance().debug(this, "Error on closing of binary connection %s", e, protocol.getName());
+      }
+    }
+  }
+
+  private final class SelectorThread extends Thread {
+    private final Selector          selector;
+    private final Queue<Connection> registrations = new ConcurrentLinkedQueue<Connection>();
+
+    private SelectorThread(ThreadGroup threadGroup, String name) throws IOException {
+      super(threadGroup, name);
+      setDaemon(true);
+
+      selector = Selector.open();
+    }
+
+    private void register(Connection connection) {
+      registrations.add(connection);
+      selector.wakeup();
+
+      // THE SELECTOR THREAD MAY HAVE ALREADY CLOSED ITS CONNECTIONS
+      if (!active)
+        closeRegistrations();
+    }
+
+    @Override
+    public void run() {
+      final List<Connection> ready = new ArrayList<Connection>();
+
+      while (active) {
+        try {
+          selector.select();
+
+          Connection connection;
+          while ((connection = registrations.poll()) != null) {
+            try {
+              connection.channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (Exception e) {
+              connection.close();
+            }
+          }
+
+          final Set<SelectionKey> selectedKeys = selector.selectedKeys();
+          if (selectedKeys.isEmpty())
+            continue;
+
+          for (SelectionKey key : selectedKeys) {
+            key.cancel();
+            ready.add((Connection) key.attachment());
+          }
+          selectedKeys.clear();
+
+          // CANCELLED KEYS ARE REMOVED ONLY BY THE NEXT SELECTION, CHANNEL CAN NOT BE SWITCHED TO BLOCKING MODE WHILE IT IS REGISTERED
+          selector.selectNow();
+          selector.selectedKeys().clear();
+
+          for (Connection readyConnection : ready)
+            execute(readyConnection);
+          ready.clear();
+        } catch (ClosedSelectorException e) {
+          break;
+        } catch (Exception e) {
+          if (active)
+            OLogManager.instance().error(this, "Error on waiting for requests of binary connections", e);
+        }
+      }
+
+      closeConnections();
+    }
+
+    private void closeConnections() {
+      try {
+        for (SelectionKey key : selector.keys())
+          ((Connection) key.attachment()).close();
+
+        closeRegistrations();
+
+        // CONNECTIONS OF THIS SELECTOR WHICH ARE SERVED BY WORKERS: THEIR REQUESTS ARE INTERRUPTED
+        for (Connection connection : served) {
+          if (connection.selectorThread == this)
+            connection.close();
+        }
+
+        selector.close();
+      } catch (Exception e) {
+        OLogManager.instance().debug(this, "Error on closing of selector", e);
+      }
+    }
+
+    private void closeRegistrations() {
+      Connection connection;
+      while ((connection = registrations.poll()) != null)
+        connection.close();
+    }
+  }
+
+  private static final class WorkerThreadFactory implements ThreadFactory {
+    private final ThreadGroup   threadGroup;
+    private final String        name;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private WorkerThreadFactory(ThreadGroup threadGroup, String name) {
+      this.threadGroup = threadGroup;
+      this.name = name;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      final Thread thread = new Thread(threadGroup, r, name + " worker " + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  /**
+   * Requests are read only by worker threads when the channel is in blocking mode. Reads of the channel itself ignore the timeout of
+   * the socket, so data is read by the input stream of the socket, which waits for it in blocking mode at most the timeout of the
+   * socket and throws {@link java.net.SocketTimeoutException} after that.
+   */
+  private static final class ChannelInputStream extends InputStream {
+    private final SocketChannel channel;
+    private final InputStream   input;
+
+    private ChannelInputStream(Socket socket) throws IOException {
+      this.channel = socket.getChannel();
+      this.input = socket.getInputStream();
+    }
+
+    @Override
+    public int read() throws IOException {
+      final byte[] data = new byte[1];
+      final int read = read(data, 0, 1);
+      return read < 0 ? -1 : data[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0)
+        return 0;
+
+      return input.read(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * Responses are written by worker threads when the channel is in blocking mode, but push messages may be written by other threads
+   * while the connection is idle and its channel is in non-blocking mode. Push messages are small and usually fit into the socket
+   * buffer, so if the buffer is full writer just waits for it to be drained.
+   */
+  private static final class ChannelOutputStream extends OutputStream {
+    private final SocketChannel channel;
+
+    private ChannelOutputStream(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+      while (buffer.hasRemaining()) {
+        if (channel.write(buffer) == 0)
+          LockSupport.parkNanos(WAIT_INTERVAL);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
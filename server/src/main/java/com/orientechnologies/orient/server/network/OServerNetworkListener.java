@@ -32,11 +32,13 @@ import com.orientechnologies.orient.server.config.OServerCommandConfiguration;
 import com.orientechnologies.orient.server.config.OServerParameterConfiguration;
 import com.orientechnologies.orient.server.network.protocol.OBeforeDatabaseOpenNetworkEventListener;
 import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
+import com.orientechnologies.orient.server.network.protocol.binary.ONetworkProtocolBinary;
 import com.orientechnologies.orient.server.network.protocol.http.command.OServerCommand;
 
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.net.*;
+import java.nio.channels.ServerSocketChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -53,6 +55,7 @@ public class OServerNetworkListener extends Thread {
   private OServer                                       server;
   private int                                           protocolVersion = -1;
   private List<OBeforeDatabaseOpenNetworkEventListener> beforeDatabaseOpenNetworkEventListener = new ArrayList<OBeforeDatabaseOpenNetworkEventListener>();
+  private OServerNIOTransport                           nioTransport;
 
   public OServerNetworkListener(final OServer iServer, final OServerSocketFactory iSocketFactory, final String iHostName,
       final String iHostPortRange, final String iProtocolName, final Class<? extends ONetworkProtocol> iProtocol,
@@ -73,10 +76,21 @@ public class OServerNetworkListener extends Thread {
       throw OException.wrapException(new ONetworkProtocolException(message), e);
     }
 
+    readParameters(iServer.getContextConfiguration(), iParameters);
+
     listen(iHostName, iHostPortRange, iProtocolName, iProtocol);
     protocolType = iProtocol;
 
-    readParameters(iServer.getContextConfiguration(), iParameters);
+    if (serverSocket.getChannel() != null) {
+      try {
+        nioTransport = new OServerNIOTransport(iServer.getThreadGroup(), getName(),
+            configuration.getValueAsInteger(OGlobalConfiguration.NETWORK_BINARY_NIO_SELECTORS),
+            configuration.getValueAsInteger(OGlobalConfiguration.NETWORK_BINARY_NIO_WORKERS));
+      } catch (IOException e) {
+        shutdown();
+        throw OException.wrapException(new ONetworkProtocolException("Error on creation of selectors for " + iProtocol), e);
+      }
+    }
 
     if (iCommands != null) {
       for (int i = 0; i < iCommands.length; ++i) {
@@ -167,6 +181,9 @@ public class OServerNetworkListener extends Thread {
   public void shutdown() {
     this.active = false;
 
+    if (nioTransport != null)
+      nioTransport.shutdown();
+
     if (serverSocket != null)
       try {
         serverSocket.close();
@@ -246,6 +263,14 @@ public class OServerNetworkListener extends Thread {
     return protocolType;
   }
 
+  /**
+   * @return transport which serves connections by selector threads or <code>null</code> if every connection is served by its own
+   * thread
+   */
+  public OServerNIOTransport getNIOTransport() {
+    return nioTransport;
+  }
+
   public InetSocketAddress getInboundAddr() {
     return inboundAddr;
   }
@@ -329,15 +354,23 @@ public class OServerNetworkListener extends Thread {
   private void listen(final String iHostName, final String iHostPortRange, final String iProtocolName,
       Class<? extends ONetworkProtocol> protocolClass) {
 
+    // SELECTORS CAN SERVE ONLY PLAIN SOCKETS ACCEPTED BY A SERVER SOCKET CHANNEL
+    final boolean nonBlocking = configuration.getValueAsBoolean(OGlobalConfiguration.NETWORK_BINARY_NIO)
+        && ONetworkProtocolBinary.class.isAssignableFrom(protocolClass) && socketFactory instanceof ODefaultServerSocketFactory;
+
     for (int port : getPorts(iHostPortRange)) {
       inboundAddr = new InetSocketAddress(iHostName, port);
       try {
-        serverSocket = socketFactory.createServerSocket(port, 0, InetAddress.getByName(iHostName));
+        if (nonBlocking)
+          serverSocket = createServerSocketChannel(port, InetAddress.getByName(iHostName));
+        else
+          serverSocket = socketFactory.createServerSocket(port, 0, InetAddress.getByName(iHostName));
 
         if (serverSocket.isBound()) {
           OLogManager.instance().info(this,
               "Listening $ANSI{green " + iProtocolName + "} connections on $ANSI{green " + inboundAddr.getAddress().getHostAddress()
-                  + ":" + inboundAddr.getPort() + "} (protocol v." + protocolVersion + ", socket=" + socketFactory.getName() + ")");
+                  + ":" + inboundAddr.getPort() + "} (protocol v." + protocolVersion + ", socket=" + socketFactory.getName() + (
+                  nonBlocking ? ", selectors" : "") + ")");
 
           return;
         }
@@ -359,6 +392,18 @@ public class OServerNetworkListener extends Thread {
     throw new OSystemException("Unable to listen for connections using the configured ports '%s' on host '%s'");
   }
 
+  private static ServerSocket createServerSocketChannel(final int port, final InetAddress address) throws IOException {
+    final ServerSocketChannel channel = ServerSocketChannel.open();
+    try {
+      channel.socket().bind(new InetSocketAddress(address, port), 0);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+
+    return channel.socket();
+  }
+
   /**
    * Initializes connection parameters by the reading XML configuration. If not specified, get the parameters defined as global
    * configuration.
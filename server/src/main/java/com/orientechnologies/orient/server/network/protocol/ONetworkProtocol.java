@@ -59,4 +59,18 @@ public abstract class ONetworkProtocol extends OSoftThread {
   }
 
   public abstract OBinaryRequestExecutor executor(OClientConnection connection);
+
+  /**
+   * @return <code>true</code> if the connection is being served, by default if the thread of the protocol is alive
+   */
+  public boolean isServing() {
+    return isAlive();
+  }
+
+  /**
+   * Waits until the connection is not served anymore, by default until the thread of the protocol dies.
+   */
+  public void waitForTermination() throws InterruptedException {
+    join();
+  }
 }
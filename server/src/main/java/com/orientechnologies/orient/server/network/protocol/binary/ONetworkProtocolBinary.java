@@ -59,6 +59,7 @@ import com.orientechnologies.orient.server.OClientConnection;
 import com.orientechnologies.orient.server.OConnectionBinaryExecutor;
 import com.orientechnologies.orient.server.OServer;
 import com.orientechnologies.orient.server.distributed.*;
+import com.orientechnologies.orient.server.network.OServerNIOTransport;
 import com.orientechnologies.orient.server.network.OServerNetworkListener;
 import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
 import com.orientechnologies.orient.server.plugin.OServerPluginHelper;
@@ -92,6 +93,14 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
 
   private Function<Integer, OBinaryRequest<? extends OBinaryResponse>> factory = ONetworkBinaryProtocolFactory.defaultProtocol();
 
+  /**
+   * <code>true</code> if the connection is served by {@link OServerNIOTransport}, the thread of the protocol is not started then
+   * and requests are executed by {@link #executeRequest()} in the threads of the transport.
+   */
+  private volatile boolean nonBlocking;
+  private final    Object  requestLock = new Object();
+  private          Thread  requestThread;
+
   public ONetworkProtocolBinary(OServer server) {
     this(server, "OrientDB <- BinaryClient/?");
   }
@@ -116,15 +125,116 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
   public void config(final OServerNetworkListener iListener, final OServer iServer, final Socket iSocket,
       final OContextConfiguration iConfig) throws IOException {
 
-    OChannelBinaryServer channel = new OChannelBinaryServer(iSocket, iConfig);
+    final OServerNIOTransport nioTransport = iListener != null ? iListener.getNIOTransport() : null;
+    final boolean nonBlocking = nioTransport != null && OServerNIOTransport.isSupported(iSocket);
+
+    OChannelBinaryServer channel =
+        nonBlocking ? nioTransport.createChannel(iSocket, iConfig) : new OChannelBinaryServer(iSocket, iConfig);
     initVariables(iServer, channel);
 
     // SEND PROTOCOL VERSION
     channel.writeShort((short) getVersion());
 
     channel.flush();
-    start();
-    setName("OrientDB (" + iSocket.getLocalSocketAddress() + ") <- BinaryClient (" + iSocket.getRemoteSocketAddress() + ")");
+    if (nonBlocking) {
+      setName("OrientDB (" + iSocket.getLocalSocketAddress() + ") <- BinaryClient (" + iSocket.getRemoteSocketAddress() + ")");
+      this.nonBlocking = true;
+      nioTransport.register(this);
+    } else {
+      start();
+      setName("OrientDB (" + iSocket.getLocalSocketAddress() + ") <- BinaryClient (" + iSocket.getRemoteSocketAddress() + ")");
+    }
+  }
+
+  /**
+   * Executes the next request of the connection in the current thread instead of the thread of the protocol, used if connection is
+   * served by {@link OServerNIOTransport}.
+   *
+   * @return <code>false</code> if connection is shut down and should be closed
+   */
+  public boolean executeRequest() {
+    if (isShutdownFlag())
+      return false;
+
+    synchronized (requestLock) {
+      requestThread = Thread.currentThread();
+    }
+    try {
+      beforeExecution();
+      execute();
+      afterExecution();
+    } catch (Throwable t) {
+      // THE REQUEST MAY BE READ ONLY IN PART, SO THE NEXT ONE CAN NOT BE DECODED: CLOSE THE CONNECTION
+      if (t instanceof IOException)
+        OLogManager.instance().debug(this, "I/O error on serving of binary connection %s", t, getName());
+      else
+        OLogManager.instance().error(this, "Error on serving of binary connection %s", t, getName());
+      sendShutdown();
+    } finally {
+      synchronized (requestLock) {
+        requestThread = null;
+        // THE INTERRUPTION OF THE REQUEST MUST NOT AFFECT THE REQUESTS OF OTHER CONNECTIONS SERVED BY THE SAME THREAD
+        Thread.interrupted();
+        requestLock.notifyAll();
+      }
+    }
+
+    return !isShutdownFlag();
+  }
+
+  /**
+   * If the connection is served by {@link OServerNIOTransport} interrupts the thread which executes its current request, if any.
+   */
+  @Override
+  public void interrupt() {
+    if (!nonBlocking) {
+      super.interrupt();
+      return;
+    }
+
+    synchronized (requestLock) {
+      if (requestThread != null && requestThread != Thread.currentThread())
+        requestThread.interrupt();
+    }
+  }
+
+  /**
+   * If the connection is served by {@link OServerNIOTransport} and is idle its channel is closed too, because it is not read by any
+   * thread which could notice the shutdown. Otherwise the connection is closed when its current request completes.
+   */
+  @Override
+  public void sendShutdown() {
+    super.sendShutdown();
+
+    if (nonBlocking) {
+      synchronized (requestLock) {
+        if (requestThread == null && channel != null)
+          channel.close();
+      }
+    }
+  }
+
+  @Override
+  public boolean isServing() {
+    if (!nonBlocking)
+      return super.isServing();
+
+    synchronized (requestLock) {
+      return requestThread != null;
+    }
+  }
+
+  @Override
+  public void waitForTermination() throws InterruptedException {
+    if (!nonBlocking) {
+      super.waitForTermination();
+      return;
+    }
+
+    synchronized (requestLock) {
+      while (requestThread != null)
+        requestLock.wait();
+    }
   }
 
   @Override
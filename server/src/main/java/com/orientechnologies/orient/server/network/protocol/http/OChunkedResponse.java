@@ -20,44 +20,99 @@
 package com.orientechnologies.orient.server.network.protocol.http;
 
 import java.io.IOException;
- import java.io.OutputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Writes the content of HTTP response by chunks of limited size, so the whole content is never kept in memory. If response is
+ * compressed, content is compressed on the fly before it is split in chunks.
+ */
 public class OChunkedResponse extends OutputStream {
 
-   private OHttpResponse response;
-   private byte[]        buffer     = new byte[8192];
-   private int           bufferSize = 0;
-
-   public OChunkedResponse(final OHttpResponse iHttpResponse) {
-     response = iHttpResponse;
-   }
-
-   @Override
-   public void write(int b) throws IOException {
-     buffer[bufferSize++] = (byte) b;
-     if (bufferSize >= buffer.length)
-       writeContent();
-   }
-
-   @Override
-   public void flush() throws IOException {
-     writeContent();
-     response.flush();
-   }
-
-   @Override
-   public void close() throws IOException {
-     writeContent();
-     response.writeLine("0");
-     response.writeLine(null);
-   }
-
-   protected void writeContent() throws IOException {
-     if (bufferSize > 0) {
-       response.writeLine(Integer.toHexString(bufferSize));
-       response.getOutputStream().write(buffer, 0, bufferSize);
-       response.writeLine(null);
-       bufferSize = 0;
-     }
-   }
- }
+  private OHttpResponse    response;
+  private byte[]           buffer     = new byte[8192];
+  private int              bufferSize = 0;
+  private GZIPOutputStream gzip;
+
+  public OChunkedResponse(final OHttpResponse iHttpResponse) {
+    response = iHttpResponse;
+  }
+
+  public OChunkedResponse(final OHttpResponse iHttpResponse, final boolean iCompress) throws IOException {
+    response = iHttpResponse;
+    if (iCompress) {
+      gzip = new GZIPOutputStream(new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+          writeChunked(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+          writeChunked(b, off, len);
+        }
+      }, buffer.length, true);
+    }
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (gzip != null)
+      gzip.write(b);
+    else
+      writeChunked(b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (gzip != null)
+      gzip.write(b, off, len);
+    else
+      writeChunked(b, off, len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (gzip != null)
+      gzip.flush();
+    writeContent();
+    response.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (gzip != null)
+      gzip.finish();
+    writeContent();
+    response.writeLine("0");
+    response.writeLine(null);
+  }
+
+  private void writeChunked(int b) throws IOException {
+    buffer[bufferSize++] = (byte) b;
+    if (bufferSize >= buffer.length)
+      writeContent();
+  }
+
+  private void writeChunked(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      final int size = Math.min(len, buffer.length - bufferSize);
+      System.arraycopy(b, off, buffer, bufferSize, size);
+      bufferSize += size;
+      off += size;
+      len -= size;
+
+      if (bufferSize >= buffer.length)
+        writeContent();
+    }
+  }
+
+  protected void writeContent() throws IOException {
+    if (bufferSize > 0) {
+      response.writeLine(Integer.toHexString(bufferSize));
+      response.getOutputStream().write(buffer, 0, bufferSize);
+      response.writeLine(null);
+      bufferSize = 0;
+    }
+  }
+}
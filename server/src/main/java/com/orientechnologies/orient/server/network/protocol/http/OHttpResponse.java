@@ -20,6 +20,8 @@
 package com.orientechnologies.orient.server.network.protocol.http;
 
 import com.orientechnologies.common.collection.OMultiValue;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.io.OIOException;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.util.OCallable;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
@@ -259,7 +261,6 @@ public class OHttpResponse {
       send(OHttpUtils.STATUS_OK_NOCONTENT_CODE, "", OHttpUtils.CONTENT_TEXT_PLAIN, null, null);
       return;
     }
-    final int size = OMultiValue.getSize(iRecords);
     final Iterator<Object> it = OMultiValue.getMultiValueIterator(iRecords);
 
     if (accept != null && accept.contains("text/csv")) {
@@ -337,16 +338,24 @@ public class OHttpResponse {
 
       final String sendFormat = iFormat;
       if (streaming) {
-        sendStream(OHttpUtils.STATUS_OK_CODE, OHttpUtils.STATUS_OK_DESCRIPTION, OHttpUtils.CONTENT_JSON, null,
-            new OCallable<Void, OChunkedResponse>() {
+        // RECORDS ARE WRITTEN TO THE SOCKET ONE BY ONE, SO MEMORY DOES NOT DEPEND ON THE AMOUNT OF RECORDS
+        sendStream(OHttpUtils.STATUS_OK_CODE, OHttpUtils.STATUS_OK_DESCRIPTION,
+            callbackFunction != null ? "text/javascript" : OHttpUtils.CONTENT_JSON, null, new OCallable<Void, OChunkedResponse>() {
               @Override
               public Void call(OChunkedResponse iArgument) {
                 try {
-                  OutputStreamWriter writer = new OutputStreamWriter(iArgument);
+                  final Writer writer = new OutputStreamWriter(iArgument, utf8);
+                  if (callbackFunction != null) {
+                    writer.write(callbackFunction);
+                    writer.write('(');
+                  }
                   writeRecordsOnStream(iFetchPlan, sendFormat, iAdditionalProperties, it, writer);
+                  if (callbackFunction != null) {
+                    writer.write(')');
+                  }
                   writer.flush();
                 } catch (IOException e) {
-                  e.printStackTrace();
+                  throw OException.wrapException(new OIOException("Error on streaming of records in HTTP response"), e);
                 }
                 return null;
               }
@@ -514,8 +523,10 @@ public class OHttpResponse {
 
   public void sendStream(final int iCode, final String iReason, final String iContentType, final String iFileName,
       final OCallable<Void, OChunkedResponse> iWriter) throws IOException {
+    sendStarted = true;
+
     writeStatus(iCode, iReason);
-    writeHeaders(iContentType);
+    writeHeaders(iContentType, keepAlive);
     writeLine("Content-Transfer-Encoding: binary");
     writeLine("Transfer-Encoding: chunked");
 
@@ -523,15 +534,30 @@ public class OHttpResponse {
       writeLine("Content-Disposition: attachment; filename=\"" + iFileName + "\"");
     }
 
+    if (sessionId != null)
+      writeLine("Set-Cookie: " + OHttpUtils.OSESSIONID + "=" + sessionId + "; Path=/; HttpOnly");
+
     writeLine(null);
 
-    final OChunkedResponse chunkedOutput = new OChunkedResponse(this);
-    iWriter.call(chunkedOutput);
+    final OChunkedResponse chunkedOutput = new OChunkedResponse(this,
+        contentEncoding != null && contentEncoding.equals(OHttpUtils.CONTENT_ACCEPT_GZIP_ENCODED));
+    try {
+      iWriter.call(chunkedOutput);
+    } catch (RuntimeException e) {
+      // STATUS IS ALREADY SENT: CLOSE THE CONNECTION WITHOUT THE LAST CHUNK, SO CLIENT KNOWS THE RESPONSE IS NOT COMPLETE
+      keepAlive = false;
+      out.close();
+      throw e;
+    }
     chunkedOutput.close();
 
     flush();
   }
 
+  public boolean isStreaming() {
+    return streaming;
+  }
+
   // Compress content string
   public byte[] compress(String jsonStr) {
     if (jsonStr == null || jsonStr.length() == 0) {
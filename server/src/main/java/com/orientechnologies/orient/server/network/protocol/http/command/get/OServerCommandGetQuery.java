@@ -61,29 +61,38 @@ public class OServerCommandGetQuery extends OServerCommandAuthenticatedDbAbstrac
       if (localFetchPlan != null) {
         fetchPlan = localFetchPlan;
       }
-      int i = 0;
-      List response = new ArrayList();
-      while (result.hasNext()) {
-        if (limit >= 0 && i >= limit) {
-          break;
+      if (iRequest.getHeader("TE") != null)
+        iResponse.setStreaming(true);
+
+      if (iResponse.isStreaming()) {
+        try {
+          Map<String, Object> additionalContent = new HashMap<>();
+          result.getExecutionPlan().ifPresent(x -> additionalContent.put("executionPlan", x.toResult().toElement()));
+
+          iResponse.writeRecords(OServerCommandPostCommand.limitResults(result, limit), fetchPlan, null, accept, additionalContent);
+        } finally {
+          result.close();
+        }
+      } else {
+        int i = 0;
+        List response = new ArrayList();
+        while (result.hasNext()) {
+          if (limit >= 0 && i >= limit) {
+            break;
+          }
+          response.add(result.next());
+          i++;
         }
-        response.add(result.next());
-        i++;
-      }
 
-      Map<String, Object> additionalContent = new HashMap<>();
+        Map<String, Object> additionalContent = new HashMap<>();
 
-      result.getExecutionPlan().ifPresent(x -> additionalContent.put("executionPlan", x.toResult().toElement()));
+        result.getExecutionPlan().ifPresent(x -> additionalContent.put("executionPlan", x.toResult().toElement()));
 
-      result.close();
+        result.close();
 
-      String format = null;
-      if (fetchPlan != null) {
-        format = "fetchPlan:" + fetchPlan;
+        iResponse.writeRecords(response, fetchPlan, null, accept, additionalContent);
       }
 
-      iResponse.writeRecords(response, fetchPlan, null, accept, additionalContent);
-
     } finally {
       if (db != null)
         db.close();
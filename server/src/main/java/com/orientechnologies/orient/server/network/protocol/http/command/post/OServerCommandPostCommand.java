@@ -24,6 +24,7 @@ import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.OSQLEngine;
+import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.core.sql.parser.*;
 import com.orientechnologies.orient.server.network.protocol.http.OHttpRequest;
@@ -87,22 +88,6 @@ public class OServerCommandPostCommand extends OServerCommandAuthenticatedDbAbst
       if (localFetchPlan != null) {
         fetchPlan = localFetchPlan;
       }
-      int i = 0;
-      List response = new ArrayList();
-      while (result.hasNext()) {
-        if (limit >= 0 && i >= limit) {
-          break;
-        }
-        response.add(result.next());
-        i++;
-      }
-
-      Map<String, Object> additionalContent = new HashMap<>();
-
-      result.getExecutionPlan().ifPresent(x -> additionalContent.put("executionPlan", x.toResult().toElement()));
-
-      result.close();
-
       String format = null;
       if (fetchPlan != null) {
         format = "fetchPlan:" + fetchPlan;
@@ -111,7 +96,34 @@ public class OServerCommandPostCommand extends OServerCommandAuthenticatedDbAbst
       if (iRequest.getHeader("TE") != null)
         iResponse.setStreaming(true);
 
-      iResponse.writeResult(response, format, accept, additionalContent, mode);
+      if (iResponse.isStreaming()) {
+        try {
+          Map<String, Object> additionalContent = new HashMap<>();
+          result.getExecutionPlan().ifPresent(x -> additionalContent.put("executionPlan", x.toResult().toElement()));
+
+          iResponse.writeRecords(limitResults(result, limit), null, format, accept, additionalContent, mode);
+        } finally {
+          result.close();
+        }
+      } else {
+        int i = 0;
+        List response = new ArrayList();
+        while (result.hasNext()) {
+          if (limit >= 0 && i >= limit) {
+            break;
+          }
+          response.add(result.next());
+          i++;
+        }
+
+        Map<String, Object> additionalContent = new HashMap<>();
+
+        result.getExecutionPlan().ifPresent(x -> additionalContent.put("executionPlan", x.toResult().toElement()));
+
+        result.close();
+
+        iResponse.writeResult(response, format, accept, additionalContent, mode);
+      }
 
     } finally {
       if (db != null) {
@@ -123,6 +135,29 @@ public class OServerCommandPostCommand extends OServerCommandAuthenticatedDbAbst
     return false;
   }
 
+  /**
+   * Returns the first <code>limit</code> results of the result set, results are fetched while they are written in the response.
+   */
+  public static Iterator<OResult> limitResults(final OResultSet result, final int limit) {
+    return new Iterator<OResult>() {
+      private int fetched = 0;
+
+      @Override
+      public boolean hasNext() {
+        return (limit < 0 || fetched < limit) && result.hasNext();
+      }
+
+      @Override
+      public OResult next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        fetched++;
+        return result.next();
+      }
+    };
+  }
+
   public static String getFetchPlanFromStatement(OStatement statement) {
     if (statement instanceof OSelectStatement) {
       OFetchPlan fp = ((OSelectStatement) statement).getFetchPlan();
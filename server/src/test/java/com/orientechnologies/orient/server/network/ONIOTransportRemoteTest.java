@@ -0,0 +1,219 @@
+package com.orientechnologies.orient.server.network;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.*;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
+import com.orientechnologies.orient.server.OClientConnection;
+import com.orientechnologies.orient.server.OServer;
+import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
+import com.orientechnologies.orient.server.network.protocol.binary.ONetworkProtocolBinary;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+public class ONIOTransportRemoteTest {
+  private static final String SERVER_DIRECTORY = "./target/nioTransport";
+  private static final int    CLIENTS          = 16;
+
+  private OServer  server;
+  private OrientDB orientDB;
+
+  @Before
+  public void before() throws Exception {
+    OGlobalConfiguration.NETWORK_BINARY_NIO.setValue(true);
+    OGlobalConfiguration.NETWORK_BINARY_NIO_SELECTORS.setValue(2);
+    OGlobalConfiguration.NETWORK_BINARY_NIO_WORKERS.setValue(4);
+
+    server = new OServer();
+    server.setServerRootDirectory(SERVER_DIRECTORY);
+    server.startup(
+        getClass().getClassLoader().getResourceAsStream("com/orientechnologies/orient/server/network/orientdb-server-config.xml"));
+    server.activate();
+
+    orientDB = new OrientDB("remote:localhost", "root", "root", OrientDBConfig.defaultConfig());
+    orientDB.create(ONIOTransportRemoteTest.class.getSimpleName(), ODatabaseType.MEMORY);
+  }
+
+  @After
+  public void after() {
+    orientDB.close();
+    server.shutdown();
+
+    OGlobalConfiguration.NETWORK_BINARY_NIO.setValue(false);
+    OGlobalConfiguration.NETWORK_BINARY_NIO_SELECTORS.setValue(0);
+    OGlobalConfiguration.NETWORK_BINARY_NIO_WORKERS.setValue(0);
+    Orient.instance().startup();
+  }
+
+  @Test
+  public void testListenerUsesSelectors() {
+    Assert.assertNotNull(server.getListenerByProtocol(ONetworkProtocolBinary.class).getNIOTransport());
+  }
+
+  @Test
+  public void testMoreClientsThanWorkers() throws Exception {
+    try (ODatabaseDocument database = open()) {
+      database.getMetadata().getSchema().createClass("Item");
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+    try {
+      final List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < CLIENTS; i++) {
+        final int client = i;
+        futures.add(executor.submit(() -> {
+          try (ODatabaseDocument database = open()) {
+            for (int n = 0; n < 50; n++)
+              database.command("insert into Item set client = ?, n = ?", client, n).close();
+
+            try (OResultSet result = database.query("select count(*) as count from Item where client = ?", client)) {
+              Assert.assertEquals(50L, (long) result.next().getProperty("count"));
+            }
+          }
+          return null;
+        }));
+      }
+
+      for (Future<Void> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    try (ODatabaseDocument database = open(); OResultSet result = database.query("select count(*) as count from Item")) {
+      Assert.assertEquals(CLIENTS * 50L, (long) result.next().getProperty("count"));
+    }
+  }
+
+  @Test
+  public void testLiveQueryPush() throws Exception {
+    try (ODatabaseDocument database = open()) {
+      database.getMetadata().getSchema().createClass("Event");
+
+      final CountDownLatch created = new CountDownLatch(3);
+      final CountDownLatch ended = new CountDownLatch(1);
+
+      final OLiveQueryMonitor monitor = database.live("select from Event", new OLiveQueryResultListener() {
+        @Override
+        public void onCreate(ODatabaseDocument database, OResult data) {
+          created.countDown();
+        }
+
+        @Override
+        public void onUpdate(ODatabaseDocument database, OResult before, OResult after) {
+        }
+
+        @Override
+        public void onDelete(ODatabaseDocument database, OResult data) {
+        }
+
+        @Override
+        public void onError(ODatabaseDocument database, OException exception) {
+        }
+
+        @Override
+        public void onEnd(ODatabaseDocument database) {
+          ended.countDown();
+        }
+      });
+
+      // PUSHES ARE SENT TO THE CONNECTION WHILE IT IS IDLE IN THE SELECTOR
+      try (ODatabaseDocument other = open()) {
+        for (int i = 0; i < 3; i++)
+          other.command("insert into Event set n = ?", i).close();
+      }
+
+      Assert.assertTrue(created.await(1, TimeUnit.MINUTES));
+
+      monitor.unSubscribe();
+      Assert.assertTrue(ended.await(1, TimeUnit.MINUTES));
+    }
+  }
+
+  @Test
+  public void testPartialRequestIsClosed() throws Exception {
+    final Object socketTimeout = OGlobalConfiguration.NETWORK_SOCKET_TIMEOUT.getValue();
+    OGlobalConfiguration.NETWORK_SOCKET_TIMEOUT.setValue(1000);
+
+    final List<Socket> sockets = new ArrayList<>();
+    try {
+      final int port = server.getListenerByProtocol(ONetworkProtocolBinary.class).getInboundAddr().getPort();
+
+      // MORE STALLED CLIENTS THAN WORKERS
+      for (int i = 0; i < 8; i++) {
+        final Socket socket = new Socket("localhost", port);
+        socket.setSoTimeout(60000);
+        sockets.add(socket);
+
+        // PROTOCOL VERSION
+        new DataInputStream(socket.getInputStream()).readShort();
+
+        // TYPE OF THE REQUEST AND HALF OF THE SESSION ID
+        final OutputStream out = socket.getOutputStream();
+        out.write(new byte[] { OChannelBinaryProtocol.REQUEST_CONNECT, 0, 0 });
+        out.flush();
+      }
+
+      for (Socket socket : sockets)
+        Assert.assertEquals(-1, socket.getInputStream().read());
+    } finally {
+      for (Socket socket : sockets)
+        socket.close();
+      OGlobalConfiguration.NETWORK_SOCKET_TIMEOUT.setValue(socketTimeout);
+    }
+
+    // THE WORKERS ARE RELEASED
+    try (ODatabaseDocument database = open(); OResultSet result = database.query("select 1 as one")) {
+      Assert.assertEquals(1, (int) result.next().getProperty("one"));
+    }
+  }
+
+  @Test
+  public void testKillIdleConnection() {
+    final Set<ONetworkProtocol> existing = new HashSet<>();
+    for (OClientConnection connection : server.getClientConnectionManager().getConnections())
+      existing.add(connection.getProtocol());
+
+    final OrientDB other = new OrientDB("remote:localhost", "root", "root", OrientDBConfig.defaultConfig());
+    try {
+      final ODatabaseDocument database = other.open(ONIOTransportRemoteTest.class.getSimpleName(), "admin", "admin");
+      database.query("select 1 as one").close();
+
+      final List<ONetworkProtocol> killed = new ArrayList<>();
+      for (OClientConnection connection : server.getClientConnectionManager().getConnections()) {
+        if (!existing.contains(connection.getProtocol())) {
+          killed.add(connection.getProtocol());
+          server.getClientConnectionManager().kill(connection);
+        }
+      }
+      Assert.assertFalse(killed.isEmpty());
+
+      // THE CONNECTIONS WAIT IN THE SELECTOR, NO THREAD WOULD NOTICE THE SHUTDOWN SO THEIR CHANNELS ARE CLOSED BY THE KILL
+      for (ONetworkProtocol protocol : killed) {
+        Assert.assertFalse(protocol.isServing());
+        Assert.assertNull(protocol.getChannel().socket);
+      }
+    } finally {
+      other.close();
+    }
+  }
+
+  private ODatabaseDocument open() {
+    return orientDB.open(ONIOTransportRemoteTest.class.getSimpleName(), "admin", "admin");
+  }
+}
@@ -0,0 +1,141 @@
+package com.orientechnologies.orient.server.network;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.orient.client.remote.OEngineRemote;
+import com.orientechnologies.orient.client.remote.ORemoteConnectionManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.server.OServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ORemotePipeliningTest {
+  private static final String SERVER_DIRECTORY = "./target/remotePipelining";
+  private static final int    CLIENTS          = 16;
+
+  private OServer  server;
+  private OrientDB orientDB;
+
+  @Before
+  public void before() throws Exception {
+    OGlobalConfiguration.CLIENT_CHANNEL_PIPELINING.setValue(true);
+    OGlobalConfiguration.CLIENT_CHANNEL_MAX_IN_FLIGHT.setValue(4);
+
+    server = new OServer();
+    server.setServerRootDirectory(SERVER_DIRECTORY);
+    server.startup(
+        getClass().getClassLoader().getResourceAsStream("com/orientechnologies/orient/server/network/orientdb-server-config.xml"));
+    server.activate();
+
+    orientDB = new OrientDB("remote:localhost", "root", "root", OrientDBConfig.defaultConfig());
+    orientDB.create(ORemotePipeliningTest.class.getSimpleName(), ODatabaseType.MEMORY);
+  }
+
+  @After
+  public void after() {
+    orientDB.close();
+    server.shutdown();
+
+    OGlobalConfiguration.CLIENT_CHANNEL_PIPELINING.setValue(false);
+    OGlobalConfiguration.CLIENT_CHANNEL_MAX_IN_FLIGHT.setValue(8);
+    Orient.instance().startup();
+  }
+
+  @Test
+  public void testConcurrentRequests() throws Exception {
+    try (ODatabaseDocument database = open()) {
+      database.getMetadata().getSchema().createClass("Item");
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+    try {
+      final List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < CLIENTS; i++) {
+        final int client = i;
+        futures.add(executor.submit(() -> {
+          try (ODatabaseDocument database = open()) {
+            for (int n = 0; n < 50; n++) {
+              database.command("insert into Item set client = ?, n = ?", client, n).close();
+
+              try (OResultSet result = database.query("select count(*) as count from Item where client = ?", client)) {
+                Assert.assertEquals(n + 1L, (long) result.next().getProperty("count"));
+              }
+            }
+          }
+          return null;
+        }));
+      }
+
+      for (Future<Void> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    try (ODatabaseDocument database = open(); OResultSet result = database.query("select count(*) as count from Item")) {
+      Assert.assertEquals(CLIENTS * 50L, (long) result.next().getProperty("count"));
+    }
+
+    final ORemoteConnectionManager connectionManager = ((OEngineRemote) Orient.instance().getRunningEngine("remote"))
+        .getConnectionManager();
+    for (String url : connectionManager.getURLs())
+      Assert.assertEquals(0, connectionManager.getPipelinedInFlightRequests(url));
+  }
+
+  @Test
+  public void testErrorResponseDoesNotBreakOtherRequests() throws Exception {
+    try (ODatabaseDocument database = open()) {
+      database.getMetadata().getSchema().createClass("Item");
+      database.command("insert into Item set n = 1").close();
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+    try {
+      final List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < CLIENTS; i++) {
+        final boolean failing = i % 2 == 0;
+        futures.add(executor.submit(() -> {
+          try (ODatabaseDocument database = open()) {
+            for (int n = 0; n < 50; n++) {
+              if (failing) {
+                try {
+                  database.query("select from NotExistingClass").close();
+                  Assert.fail();
+                } catch (OException e) {
+                  // EXPECTED
+                }
+              } else {
+                try (OResultSet result = database.query("select count(*) as count from Item")) {
+                  Assert.assertEquals(1L, (long) result.next().getProperty("count"));
+                }
+              }
+            }
+          }
+          return null;
+        }));
+      }
+
+      for (Future<Void> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private ODatabaseDocument open() {
+    return orientDB.open(ORemotePipeliningTest.class.getSimpleName(), "admin", "admin");
+  }
+}
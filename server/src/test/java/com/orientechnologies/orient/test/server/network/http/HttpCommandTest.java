@@ -1,11 +1,15 @@
 package com.orientechnologies.orient.test.server.network.http;
 
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLEncoder;
+import java.util.List;
 
 /**
  * Test HTTP "command" command.
@@ -59,6 +63,33 @@ public class HttpCommandTest extends BaseHttpDatabaseTest {
     Assert.assertEquals(doc.field("name"), "admin");
   }
 
+  @Test
+  public void commandStreamingWithGzip() throws IOException {
+    post("command/" + getDatabaseName() + "/sql/").payload("create class StreamingItem", CONTENT.TEXT).getResponse();
+
+    final StringBuilder insert = new StringBuilder("insert into StreamingItem (n) values ");
+    for (int i = 0; i < 1000; i++) {
+      if (i > 0)
+        insert.append(',');
+      insert.append('(').append(i).append(')');
+    }
+    Assert.assertEquals(post("command/" + getDatabaseName() + "/sql/").payload(insert.toString(), CONTENT.TEXT).getResponse()
+        .getStatusLine().getStatusCode(), 200);
+
+    // RESULT IS SENT BY CHUNKS AND COMPRESSED ON THE FLY
+    get("query/" + getDatabaseName() + "/sql/" + URLEncoder.encode("select from StreamingItem order by n", "UTF8") + "/-1",
+        new Header[] { new BasicHeader("TE", "trailers"), new BasicHeader("Accept-Encoding", "gzip") });
+    Assert.assertEquals(getResponse().getStatusLine().getStatusCode(), 200);
+    Assert.assertEquals(getResponse().getFirstHeader("Transfer-Encoding").getValue(), "chunked");
+
+    final ODocument result = new ODocument().fromJSON(getResponse().getEntity().getContent());
+    final List<ODocument> res = result.field("result");
+
+    Assert.assertEquals(res.size(), 1000);
+    for (int i = 0; i < 1000; i++)
+      Assert.assertEquals((int) res.get(i).<Integer>field("n"), i);
+  }
+
   @Override
   public String getDatabaseName() {
     return "httpcommand";